@@ -391,15 +391,16 @@ project(":here-naksha-lib-view") {
     setOverallCoverage(0.0) // only increasing allowed!
 }
 
-/*
 project(":here-naksha-lib-extension") {
     description = "Naksha Extension Library"
     dependencies {
         api(project(":here-naksha-lib-core"))
+        implementation(google_flatbuffers)
+        implementation(jts_core)
+        testImplementation(mockito)
     }
     setOverallCoverage(0.4) // only increasing allowed!
 }
-*/
 
 project(":here-naksha-handler-activitylog") {
     description = "Naksha Activity Log Handler"
@@ -529,6 +530,7 @@ project(":here-naksha-app-service") {
         testImplementation(test_containers)
         testImplementation(testFixtures(project(":here-naksha-lib-core")))
         testImplementation(wiremock)
+        testImplementation(mockito)
     }
     setOverallCoverage(0.25) // only increasing allowed!
 }
@@ -23,6 +23,7 @@ import static com.here.naksha.lib.hub.util.ConfigUtil.readAuthKeyFile;
 import static java.lang.System.err;
 
 import com.here.naksha.app.service.http.NakshaHttpVerticle;
+import com.here.naksha.app.service.http.auth.JwtCache;
 import com.here.naksha.app.service.http.auth.NakshaAuthProvider;
 import com.here.naksha.app.service.metrics.OTelMetrics;
 import com.here.naksha.app.service.util.UrlUtil;
@@ -43,6 +44,7 @@ import io.vertx.ext.web.client.WebClientOptions;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -234,13 +236,17 @@ public final class NakshaApp extends Thread {
         .setJWTOptions(new JWTOptions().setAlgorithm("RS256"))
         .addPubSecKey(new PubSecKeyOptions().setAlgorithm("RS256").setBuffer(jwtKey))
         .addPubSecKey(new PubSecKeyOptions().setAlgorithm("RS256").setBuffer(jwtPub));
-    this.authProvider = new NakshaAuthProvider(this.vertx, this.authOptions);
+    this.authProvider = new NakshaAuthProvider(
+        this.vertx,
+        this.authOptions,
+        new JwtCache(config.jwtCacheSize, TimeUnit.SECONDS.toMillis(config.jwtCacheTtlInSecs)));
 
     final WebClientOptions webClientOptions = new WebClientOptions();
     webClientOptions.setUserAgent(config.userAgent);
     webClientOptions.setTcpKeepAlive(true).setTcpQuickAck(true).setTcpFastOpen(true);
     webClientOptions.setIdleTimeoutUnit(TimeUnit.MINUTES).setIdleTimeout(2);
     this.webClient = WebClient.create(this.vertx, webClientOptions);
+    this.asyncStreamPermits = new Semaphore(config.maxAsyncStreams);
     this.shutdownThread = new Thread(this::shutdownHook);
   }
 
@@ -311,6 +317,11 @@ public final class NakshaApp extends Thread {
    */
   public final @NotNull NakshaAuthProvider authProvider;
 
+  /**
+   * The permits for asynchronous streams, shared by all verticles, see {@link NakshaHubConfig#maxAsyncStreams}.
+   */
+  public final @NotNull Semaphore asyncStreamPermits;
+
   /**
    * Start the server.
    *
@@ -359,6 +370,7 @@ public final class NakshaApp extends Thread {
 
     // initialize OTel metrics collector
     OTelMetrics.init();
+    OTelMetrics.initJwtCache(authProvider.cache());
 
     // Add verticles
     final int processors = Runtime.getRuntime().availableProcessors();
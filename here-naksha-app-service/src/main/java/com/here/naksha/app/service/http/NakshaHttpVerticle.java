@@ -696,6 +696,23 @@ public final class NakshaHttpVerticle extends AbstractNakshaHubVerticle {
     log.info("Returned Http status {}", status.code());
   }
 
+  /**
+   * Tries to acquire a permit for an asynchronous stream, see {@link NakshaHubConfig#maxAsyncStreams}. Every acquired permit must be
+   * released via {@link #releaseAsyncStream()}, when the stream is finished.
+   *
+   * @return {@code true} if a permit was acquired; {@code false} if the maximal amount of asynchronous streams is open.
+   */
+  public boolean tryAcquireAsyncStream() {
+    return app().asyncStreamPermits.tryAcquire();
+  }
+
+  /**
+   * Releases a permit acquired via {@link #tryAcquireAsyncStream()}.
+   */
+  public void releaseAsyncStream() {
+    app().asyncStreamPermits.release();
+  }
+
   public @NotNull NakshaContext createNakshaContext(final @NotNull RoutingContext routingContext) {
     final NakshaContext ctx = new NakshaContext(AccessLogUtil.getStreamId(routingContext));
     // add streamInfo object to NakshaContext, which will be populated later during pipeline execution
@@ -48,6 +48,8 @@ public class ReadFeatureApi extends Api {
     rb.operation("iterateFeatures").handler(this::iterateFeatures);
     rb.operation("getFeaturesBySpatial").handler(this::getFeaturesBySpatial);
     rb.operation("getFeaturesBySpatialPost").handler(this::getFeaturesBySpatialPost);
+    rb.operation("getStatistics").handler(this::getStatistics);
+    rb.operation("exportFeatures").handler(this::exportFeatures);
   }
 
   @Override
@@ -85,6 +87,14 @@ public class ReadFeatureApi extends Api {
     startReadFeatureApiTask(GET_BY_RADIUS_POST, routingContext);
   }
 
+  private void getStatistics(final @NotNull RoutingContext routingContext) {
+    startReadFeatureApiTask(GET_STATISTICS, routingContext);
+  }
+
+  private void exportFeatures(final @NotNull RoutingContext routingContext) {
+    startReadFeatureApiTask(EXPORT, routingContext);
+  }
+
   private void startReadFeatureApiTask(ReadFeatureApiReqType reqType, RoutingContext routingContext) {
     new ReadFeatureApiTask<>(
             reqType, verticle, naksha(), routingContext, verticle.createNakshaContext(routingContext))
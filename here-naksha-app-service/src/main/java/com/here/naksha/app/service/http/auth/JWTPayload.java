@@ -23,6 +23,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.here.naksha.lib.core.models.auth.ActionMatrix;
+import com.here.naksha.lib.core.models.auth.CompiledActionMatrix;
 import com.here.naksha.lib.core.models.auth.ServiceMatrix;
 import io.vertx.core.json.jackson.DatabindCodec;
 import org.jetbrains.annotations.Nullable;
@@ -67,6 +68,16 @@ public class JWTPayload {
     return __nakshaMatrix = DatabindCodec.mapper().convertValue(hereActionMatrix, XyzHubActionMatrix.class);
   }
 
+  /**
+   * Returns the compiled Naksha access rights matrix, if there is any for this JWT token. The matrix is compiled only once per token.
+   *
+   * @return the compiled Naksha action matrix or null.
+   */
+  @JsonIgnore
+  public @Nullable CompiledActionMatrix getCompiledNakshaMatrix() {
+    return urm != null ? urm.compiled(URMServiceId.NAKSHA) : null;
+  }
+
   /**
    * Constants for all services that may be part of the JWT token.
    */
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.service.http.auth;
+
+import com.here.naksha.lib.hub.NakshaHubConfig;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A bounded cache of the users of verified JSON Web Tokens, so that the signature of a token is only verified once. The tokens are keyed
+ * by their SHA-256 hash, so the cache does not hold the tokens themselves. Each entry expires after the configured time-to-live, but latest
+ * when the token itself expires.
+ */
+public final class JwtCache {
+
+  /**
+   * Creates a cache with the default size and time-to-live of the {@link NakshaHubConfig}.
+   */
+  public JwtCache() {
+    this(
+        NakshaHubConfig.defaultJwtCacheSize(),
+        TimeUnit.SECONDS.toMillis(NakshaHubConfig.defaultJwtCacheTtlInSecs()));
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param maxSize   The maximal amount of tokens to cache.
+   * @param ttlMillis The maximal time in milliseconds to cache a token.
+   */
+  public JwtCache(int maxSize, long ttlMillis) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("The maxSize must be greater than zero");
+    }
+    if (ttlMillis <= 0) {
+      throw new IllegalArgumentException("The ttlMillis must be greater than zero");
+    }
+    this.maxSize = maxSize;
+    this.ttlMillis = ttlMillis;
+  }
+
+  private static final class Entry {
+
+    Entry(@NotNull User user, long expiresAt) {
+      this.user = user;
+      this.expiresAt = expiresAt;
+    }
+
+    final @NotNull User user;
+    final long expiresAt;
+  }
+
+  private static @NotNull MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new Error(e);
+    }
+  }
+
+  private static final ThreadLocal<MessageDigest> sha256ThreadLocal = ThreadLocal.withInitial(JwtCache::newSha256);
+
+  /**
+   * Returns the key of the given token.
+   *
+   * @param jwt The token.
+   * @return The key of the token.
+   */
+  public static @NotNull String keyOf(@NotNull String jwt) {
+    final MessageDigest sha256 = sha256ThreadLocal.get();
+    sha256.reset();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256.digest(jwt.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private final @NotNull ConcurrentHashMap<@NotNull String, @NotNull Entry> entries = new ConcurrentHashMap<>();
+  private final int maxSize;
+  private final long ttlMillis;
+  private final @NotNull LongAdder hits = new LongAdder();
+  private final @NotNull LongAdder misses = new LongAdder();
+  private final @NotNull LongAdder verifications = new LongAdder();
+  private final @NotNull LongAdder verifyNanos = new LongAdder();
+
+  /**
+   * Returns the user of the token with the given key, if the token is cached and not expired.
+   *
+   * @param key The key of the token.
+   * @param now The current epoch milliseconds.
+   * @return the user of the token; {@code null} if the token is not cached.
+   */
+  public @Nullable User get(@NotNull String key, long now) {
+    final Entry entry = entries.get(key);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    if (entry.expiresAt <= now) {
+      entries.remove(key, entry);
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.user;
+  }
+
+  /**
+   * Caches the user of a verified token.
+   *
+   * @param key  The key of the token.
+   * @param user The user of the token.
+   * @param now  The current epoch milliseconds.
+   */
+  public void put(@NotNull String key, @NotNull User user, long now) {
+    final long expiresAt = expiresAt(user, now);
+    if (expiresAt <= now) {
+      return;
+    }
+    if (entries.size() >= maxSize) {
+      evict(now);
+    }
+    entries.put(key, new Entry(user, expiresAt));
+  }
+
+  /**
+   * Returns the epoch milliseconds when the cached user expires, being the configured time-to-live, but latest when the token expires.
+   *
+   * @param user The user of the token.
+   * @param now  The current epoch milliseconds.
+   * @return the epoch milliseconds when the cached user expires.
+   */
+  long expiresAt(@NotNull User user, long now) {
+    final long expiresAt = now + ttlMillis;
+    final JsonObject principal = user.principal();
+    final Object exp = principal != null ? principal.getValue("exp") : null;
+    if (exp instanceof Number n) {
+      return Math.min(expiresAt, TimeUnit.SECONDS.toMillis(n.longValue()));
+    }
+    return expiresAt;
+  }
+
+  /**
+   * Removes the expired entries. If all entries are still valid, a quarter of the entries is dropped arbitrarily, so that a churn of
+   * tokens does not cause a sweep for every token added.
+   *
+   * @param now The current epoch milliseconds.
+   */
+  private synchronized void evict(long now) {
+    if (entries.size() < maxSize) {
+      return;
+    }
+    entries.values().removeIf(entry -> entry.expiresAt <= now);
+    final int target = maxSize - maxSize / 4;
+    final Iterator<Entry> it = entries.values().iterator();
+    while (entries.size() > target && it.hasNext()) {
+      it.next();
+      it.remove();
+    }
+  }
+
+  /**
+   * Records the verification of a token, that was not cached.
+   *
+   * @param nanos The time the verification took in nanoseconds.
+   */
+  public void verified(long nanos) {
+    verifications.increment();
+    verifyNanos.add(nanos);
+  }
+
+  /**
+   * Returns the amount of cached tokens.
+   *
+   * @return the amount of cached tokens.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the amount of tokens found in the cache.
+   *
+   * @return the amount of tokens found in the cache.
+   */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the amount of tokens not found in the cache.
+   *
+   * @return the amount of tokens not found in the cache.
+   */
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the amount of token signatures verified.
+   *
+   * @return the amount of token signatures verified.
+   */
+  public long verifications() {
+    return verifications.sum();
+  }
+
+  /**
+   * Returns the total time spent verifying token signatures in nanoseconds.
+   *
+   * @return the total time spent verifying token signatures in nanoseconds.
+   */
+  public long verifyNanos() {
+    return verifyNanos.sum();
+  }
+
+  @Override
+  public @NotNull String toString() {
+    return "JwtCache{size=" + size() + ", hits=" + hits() + ", misses=" + misses() + ", verifications="
+        + verifications() + ", verifyNanos=" + verifyNanos() + "}";
+  }
+}
@@ -18,8 +18,7 @@
  */
 package com.here.naksha.app.service.http.auth;
 
-import com.here.naksha.lib.core.util.fib.FibMapEntry;
-import com.here.naksha.lib.core.util.fib.FibSet;
+import com.here.naksha.app.service.http.auth.actions.JwtUtil;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -34,10 +33,24 @@ import org.jetbrains.annotations.NotNull;
 public final class NakshaAuthProvider extends JWTAuthProviderImpl {
 
   public NakshaAuthProvider(@NotNull Vertx vertx, JWTAuthOptions config) {
+    this(vertx, config, new JwtCache());
+  }
+
+  public NakshaAuthProvider(@NotNull Vertx vertx, JWTAuthOptions config, @NotNull JwtCache cache) {
     super(vertx, config);
+    this.cache = cache;
   }
 
-  private static final FibSet<String, FibMapEntry<String, User>> userCache = new FibSet<>(FibMapEntry::new);
+  private final @NotNull JwtCache cache;
+
+  /**
+   * Returns the cache of verified tokens.
+   *
+   * @return the cache of verified tokens.
+   */
+  public @NotNull JwtCache cache() {
+    return cache;
+  }
 
   @Override
   public void authenticate(
@@ -45,13 +58,16 @@ public final class NakshaAuthProvider extends JWTAuthProviderImpl {
     TokenCredentials authInfo = (TokenCredentials) credentials;
     final String jwt = authInfo.getToken();
 
-    final FibMapEntry<String, User> entry = userCache.put(jwt, FibSet.WEAK);
-    if (entry.getValue() != null) {
-      resultHandler.handle(Future.succeededFuture(entry.getValue()));
+    final String key = JwtCache.keyOf(jwt);
+    final User cachedUser = cache.get(key, System.currentTimeMillis());
+    if (cachedUser != null) {
+      resultHandler.handle(Future.succeededFuture(cachedUser));
       return;
     }
 
+    final long start = System.nanoTime();
     super.authenticate(authInfo, (authResult) -> {
+      cache.verified(System.nanoTime() - start);
       if (authResult.failed()) {
         resultHandler.handle(Future.failedFuture(authResult.cause()));
         return;
@@ -59,7 +75,14 @@ public final class NakshaAuthProvider extends JWTAuthProviderImpl {
 
       final User user = authResult.result();
       assert user != null;
-      entry.setValue(user);
+      // Parse the payload once per token, the URM in it caches its compiled access matrices
+      try {
+        JwtUtil.attachJwtPayload(user);
+      } catch (IllegalArgumentException e) {
+        resultHandler.handle(Future.failedFuture(e));
+        return;
+      }
+      cache.put(key, user, System.currentTimeMillis());
       resultHandler.handle(Future.succeededFuture(user));
     });
   }
@@ -20,6 +20,7 @@ package com.here.naksha.app.service.http.auth.actions;
 
 import com.here.naksha.app.service.http.auth.JWTPayload;
 import io.vertx.core.json.jackson.DatabindCodec;
+import io.vertx.ext.auth.User;
 import io.vertx.ext.web.RoutingContext;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -28,12 +29,33 @@ public class JwtUtil {
 
   private static final String JWT = "jwt";
 
+  /**
+   * The attribute of the user, that holds the parsed payload. As the user is cached per token, the payload, including the compiled access
+   * matrices of its URM, is created only once per token.
+   */
+  private static final String JWT_PAYLOAD_ATTRIBUTE = "nakshaJwtPayload";
+
   public static @Nullable JWTPayload extractJwtPayloadFromContext(final @NotNull RoutingContext context) {
     JWTPayload payload = context.get(JWT);
     if (payload == null && context.user() != null) {
-      payload = DatabindCodec.mapper().convertValue(context.user().principal(), JWTPayload.class);
+      final Object attached = context.user().attributes().getMap().get(JWT_PAYLOAD_ATTRIBUTE);
+      payload = attached instanceof JWTPayload jwtPayload ? jwtPayload : parseJwtPayload(context.user());
       context.put(JWT, payload);
     }
     return payload;
   }
+
+  /**
+   * Parses the payload of the given user and attaches it to the user. Must be invoked before the user is shared between requests, because
+   * the attributes of a user are not thread safe.
+   *
+   * @param user the authenticated user.
+   */
+  public static void attachJwtPayload(final @NotNull User user) {
+    user.attributes().getMap().put(JWT_PAYLOAD_ATTRIBUTE, parseJwtPayload(user));
+  }
+
+  private static @NotNull JWTPayload parseJwtPayload(final @NotNull User user) {
+    return DatabindCodec.mapper().convertValue(user.principal(), JWTPayload.class);
+  }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.service.http.ops;
+
+import static com.here.naksha.common.http.apis.ApiParamsConst.CLUSTERING;
+import static com.here.naksha.common.http.apis.ApiParamsConst.CLUSTERING_ABSOLUTE_RESOLUTION;
+import static com.here.naksha.common.http.apis.ApiParamsConst.CLUSTERING_HEXBIN;
+import static com.here.naksha.common.http.apis.ApiParamsConst.CLUSTERING_NO_BUFFER;
+import static com.here.naksha.common.http.apis.ApiParamsConst.CLUSTERING_POINT_MODE;
+import static com.here.naksha.common.http.apis.ApiParamsConst.CLUSTERING_PROPERTY;
+import static com.here.naksha.common.http.apis.ApiParamsConst.CLUSTERING_QUADBIN;
+import static com.here.naksha.common.http.apis.ApiParamsConst.CLUSTERING_RELATIVE_RESOLUTION;
+import static com.here.naksha.common.http.apis.ApiParamsConst.CLUSTERING_SINGLE_COORD;
+
+import com.here.naksha.app.service.http.apis.ApiParams;
+import com.here.naksha.lib.core.exceptions.ParameterError;
+import com.here.naksha.lib.core.exceptions.XyzErrorException;
+import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.payload.events.QueryParameterList;
+import com.here.naksha.lib.core.models.payload.events.clustering.Clustering;
+import com.here.naksha.lib.core.models.payload.events.clustering.ClusteringHexBin;
+import com.here.naksha.lib.core.models.payload.events.clustering.ClusteringQuadBin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class ClusteringUtil {
+
+  private ClusteringUtil() {}
+
+  /**
+   * Function builds the clustering to apply, based on the API query parameters, for example:
+   *
+   * <pre>
+   * "clustering=hexbin&amp;clustering.relativeResolution=1&amp;clustering.property=height"
+   * "clustering=quadbin&amp;clustering.absoluteResolution=12&amp;clustering.noBuffer=true"
+   * </pre>
+   *
+   * @param queryParams API query parameters
+   * @return the clustering, {@code null} if no clustering is requested
+   */
+  public static @Nullable Clustering buildClusteringFromQueryParams(final @Nullable QueryParameterList queryParams) {
+    final String type = ApiParams.extractParamAsString(queryParams, CLUSTERING);
+    if (type == null) {
+      return null;
+    }
+    try {
+      if (CLUSTERING_HEXBIN.equalsIgnoreCase(type)) {
+        final ClusteringHexBin hexBin = new ClusteringHexBin();
+        hexBin.setAbsoluteResolution(extractInteger(queryParams, CLUSTERING_ABSOLUTE_RESOLUTION));
+        hexBin.setRelativeResolution(extractInteger(queryParams, CLUSTERING_RELATIVE_RESOLUTION));
+        hexBin.property = ApiParams.extractParamAsString(queryParams, CLUSTERING_PROPERTY);
+        hexBin.pointMode = ApiParams.extractQueryParamAsBoolean(queryParams, CLUSTERING_POINT_MODE, false);
+        hexBin.singleCoord = ApiParams.extractQueryParamAsBoolean(queryParams, CLUSTERING_SINGLE_COORD, false);
+        return hexBin;
+      }
+      if (CLUSTERING_QUADBIN.equalsIgnoreCase(type)) {
+        final ClusteringQuadBin quadBin = new ClusteringQuadBin();
+        quadBin.setAbsoluteResolution(extractInteger(queryParams, CLUSTERING_ABSOLUTE_RESOLUTION));
+        quadBin.setRelativeResolution(extractInteger(queryParams, CLUSTERING_RELATIVE_RESOLUTION));
+        quadBin.noBuffer = ApiParams.extractQueryParamAsBoolean(queryParams, CLUSTERING_NO_BUFFER, false);
+        return quadBin;
+      }
+    } catch (ParameterError e) {
+      throw new XyzErrorException(XyzError.ILLEGAL_ARGUMENT, e.getMessage());
+    }
+    throw new XyzErrorException(
+        XyzError.ILLEGAL_ARGUMENT, "Invalid value " + type + " for parameter " + CLUSTERING);
+  }
+
+  private static @Nullable Integer extractInteger(
+      final @Nullable QueryParameterList queryParams, final @NotNull String key) {
+    if (ApiParams.extractQueryParamForKey(queryParams, key, false) == null) {
+      return null;
+    }
+    final long value = ApiParams.extractQueryParamAsLong(queryParams, key, false);
+    ApiParams.validateParamRange(key, value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    return (int) value;
+  }
+}
@@ -63,6 +63,7 @@ public class PropertySearchUtil {
    * Multiple parameter values concatenated with "," (COMMA) delimiter, will result into OR list.
    * <br>
    * So, "p.prop_1=value_1,value_11" will form OR condition as (p.prop_1=value_1 OR p.prop_1=value_11).
+   * When all values are strings or all values are integers, the OR condition is expressed as a single IN operation.
    * </p>
    *
    * @param queryParams API query parameter from where property search params need to be extracted
@@ -149,13 +150,47 @@ public class PropertySearchUtil {
       gOpList.add(crtOp);
     }
 
-    // return single operation or OR list (in case of multiple operations)
+    // return single operation, IN operation or OR list (in case of multiple operations)
     if (gOpList.size() > 1) {
+      final POp inOp = toInOperation(operation, propPath, propValues);
+      if (inOp != null) {
+        return inOp;
+      }
       return POp.or(gOpList.toArray(POp[]::new));
     }
     return gOpList.get(0);
   }
 
+  /**
+   * Returns a single IN operation for multiple equality values, when all values are strings or all values are integers, bound as one array
+   * parameter by the storage.
+   *
+   * @return the IN operation or {@code null}, if the values need an OR list.
+   */
+  private static @Nullable POp toInOperation(
+      final @NotNull QueryOperation operation, final @NotNull String[] propPath, final @NotNull ValueList values) {
+    if (operation != EQUALS) return null;
+    final String[] strings = new String[values.size()];
+    final long[] longs = new long[values.size()];
+    boolean allStrings = true;
+    boolean allLongs = true;
+    for (int i = 0; i < values.size(); i++) {
+      final Object value = values.get(i);
+      if (value instanceof String str && !NULL_PROP_VALUE.equals(str)) {
+        strings[i] = str;
+        allLongs = false;
+      } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+        longs[i] = ((Number) value).longValue();
+        allStrings = false;
+      } else {
+        return null;
+      }
+    }
+    if (allStrings) return POp.in(pRefFromPropPath(propPath), strings);
+    if (allLongs) return POp.in(pRefFromPropPath(propPath), longs);
+    return null;
+  }
+
   private static @NotNull POp mapAPIOperationToPropertyOperation(
       final @NotNull QueryOperation operation, final @NotNull String[] propPath, final @NotNull String value) {
     if (operation == EQUALS) {
@@ -60,7 +60,7 @@ public class TagsUtil {
    *   Then, we generate
    * OR operation between:
    *   - one
-   *   - (two OR three)
+   *   - (two OR three), as IN operation
    *   - (four AND five)
    *   - (six OR seven)
    *   - (eight AND nine)
@@ -199,15 +199,19 @@ public class TagsUtil {
       gList.add(POp.exists(PRef.tag(XyzNamespace.normalizeTag(tags[0]))));
       return;
     }
-    // We have multiple tags, so use OR / AND operation
+    // We have multiple tags, OR is done by a single IN operation, which is bound as one array
+    if (crtOp == OR) {
+      final String[] normalizedTags = new String[tags.length];
+      for (int i = 0; i < tags.length; i++) {
+        normalizedTags[i] = XyzNamespace.normalizeTag(tags[i]);
+      }
+      gList.add(POp.in(PRef.tags(), normalizedTags));
+      return;
+    }
     final POp[] tagOpArr = new POp[tags.length];
     for (int i = 0; i < tags.length; i++) {
       tagOpArr[i] = POp.exists(PRef.tag(XyzNamespace.normalizeTag(tags[i])));
     }
-    if (crtOp == OR) {
-      gList.add(POp.or(tagOpArr));
-    } else {
-      gList.add(POp.and(tagOpArr));
-    }
+    gList.add(POp.and(tagOpArr));
   }
 }
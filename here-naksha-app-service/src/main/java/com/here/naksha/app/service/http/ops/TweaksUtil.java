@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.service.http.ops;
+
+import static com.here.naksha.common.http.apis.ApiParamsConst.TWEAKS;
+import static com.here.naksha.common.http.apis.ApiParamsConst.TWEAKS_ALGORITHM;
+import static com.here.naksha.common.http.apis.ApiParamsConst.TWEAKS_SAMPLING;
+import static com.here.naksha.common.http.apis.ApiParamsConst.TWEAKS_SIMPLIFICATION;
+import static com.here.naksha.common.http.apis.ApiParamsConst.TWEAKS_STRENGTH;
+
+import com.here.naksha.app.service.http.apis.ApiParams;
+import com.here.naksha.lib.core.exceptions.XyzErrorException;
+import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.payload.events.QueryParameterList;
+import com.here.naksha.lib.core.models.payload.events.Sampling;
+import com.here.naksha.lib.core.models.payload.events.tweaks.Tweaks;
+import com.here.naksha.lib.core.models.payload.events.tweaks.TweaksSampling;
+import com.here.naksha.lib.core.models.payload.events.tweaks.TweaksSimplification;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class TweaksUtil {
+
+  private TweaksUtil() {}
+
+  /**
+   * Function builds the tweaks to apply, based on the API query parameters, for example:
+   *
+   * <pre>
+   * "tweaks=sampling&amp;tweaks.strength=med&amp;tweaks.algorithm=distribution"
+   * "tweaks=simplification&amp;tweaks.strength=20&amp;tweaks.algorithm=grid"
+   * </pre>
+   *
+   * <p>The strength is either one of the named samplings ("low", "lowmed", "med", "medhigh" and "high") or a number between 1 and 100.
+   *
+   * @param queryParams API query parameters
+   * @return the tweaks, {@code null} if no tweaks are requested
+   */
+  public static @Nullable Tweaks buildTweaksFromQueryParams(final @Nullable QueryParameterList queryParams) {
+    final String type = ApiParams.extractParamAsString(queryParams, TWEAKS);
+    if (type == null) {
+      return null;
+    }
+    final String algorithm = ApiParams.extractParamAsString(queryParams, TWEAKS_ALGORITHM);
+    final Tweaks tweaks;
+    if (TWEAKS_SAMPLING.equalsIgnoreCase(type)) {
+      final TweaksSampling sampling = new TweaksSampling();
+      if (algorithm != null) {
+        sampling.algorithm = TweaksSampling.Algorithm.forText(algorithm);
+        if (sampling.algorithm == null) {
+          throw invalidValue(TWEAKS_ALGORITHM, algorithm);
+        }
+      }
+      tweaks = sampling;
+    } else if (TWEAKS_SIMPLIFICATION.equalsIgnoreCase(type)) {
+      final TweaksSimplification simplification = new TweaksSimplification();
+      if (algorithm != null) {
+        final TweaksSimplification.Algorithm value = TweaksSimplification.Algorithm.forText(algorithm);
+        if (value == null) {
+          throw invalidValue(TWEAKS_ALGORITHM, algorithm);
+        }
+        simplification.algorithm = value;
+      }
+      tweaks = simplification;
+    } else {
+      throw invalidValue(TWEAKS, type);
+    }
+    tweaks.sampling = sampling(ApiParams.extractParamAsString(queryParams, TWEAKS_STRENGTH), tweaks);
+    return tweaks;
+  }
+
+  private static @NotNull Sampling sampling(final @Nullable String strength, final @NotNull Tweaks tweaks) {
+    if (strength == null) {
+      // Sampling without strength would return all features, so sample with medium strength.
+      return tweaks instanceof TweaksSampling ? Sampling.MEDIUM : Sampling.OFF;
+    }
+    final Sampling named = Sampling.forText(strength, Sampling.OFF);
+    if (named != Sampling.OFF || "off".equalsIgnoreCase(strength)) {
+      return named;
+    }
+    final int value;
+    try {
+      value = Integer.parseInt(strength);
+    } catch (NumberFormatException e) {
+      throw invalidValue(TWEAKS_STRENGTH, strength);
+    }
+    ApiParams.validateParamRange(TWEAKS_STRENGTH, value, 1, 100);
+    return new Sampling(1, 1, value, Sampling.OFF.threshold);
+  }
+
+  private static @NotNull XyzErrorException invalidValue(final @NotNull String key, final @NotNull String value) {
+    return new XyzErrorException(XyzError.ILLEGAL_ARGUMENT, "Invalid value " + value + " for parameter " + key);
+  }
+}
@@ -18,37 +18,53 @@
  */
 package com.here.naksha.app.service.http.tasks;
 
+import static com.here.naksha.app.service.http.NakshaHttpHeaders.STREAM_ID;
 import static com.here.naksha.app.service.http.tasks.NoElementsStrategy.FAIL_ON_NO_ELEMENTS;
 import static com.here.naksha.app.service.http.tasks.NoElementsStrategy.NOT_FOUND_ON_NO_ELEMENTS;
 import static com.here.naksha.common.http.apis.ApiParamsConst.DEF_ADMIN_FEATURE_LIMIT;
+import static com.here.naksha.lib.core.util.storage.ResultHelper.bboxOf;
 import static com.here.naksha.lib.core.util.storage.ResultHelper.readFeatureFromResult;
 import static com.here.naksha.lib.core.util.storage.ResultHelper.readFeaturesFromResult;
 import static com.here.naksha.lib.core.util.storage.ResultHelper.readFeaturesGroupedByOp;
+import static com.here.naksha.lib.core.util.storage.ResultHelper.writeFeaturesFromResult;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static io.vertx.core.http.HttpHeaders.CONTENT_TYPE;
 import static java.util.Collections.emptyList;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.naksha.app.service.http.HttpResponseType;
 import com.here.naksha.app.service.http.NakshaHttpVerticle;
 import com.here.naksha.app.service.models.IterateHandle;
+import com.here.naksha.app.service.util.logging.AccessLogUtil;
 import com.here.naksha.lib.core.AbstractTask;
 import com.here.naksha.lib.core.INaksha;
 import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.exceptions.NoCursor;
+import com.here.naksha.lib.core.exceptions.XyzErrorException;
 import com.here.naksha.lib.core.lambdas.F1;
 import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.coordinates.WkbGeoJsonWriter;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeatureCollection;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzGeometry;
 import com.here.naksha.lib.core.models.payload.XyzResponse;
+import com.here.naksha.lib.core.models.payload.responses.BinaryResponse;
+import com.here.naksha.lib.core.models.payload.responses.SuccessResponse;
 import com.here.naksha.lib.core.models.storage.*;
 import com.here.naksha.lib.core.storage.IReadSession;
 import com.here.naksha.lib.core.storage.IWriteSession;
+import com.here.naksha.lib.core.util.MIMEType;
 import com.here.naksha.lib.core.util.PropertyPathUtil;
 import com.here.naksha.lib.core.util.json.Json;
 import com.here.naksha.lib.core.util.json.JsonSerializable;
 import com.here.naksha.lib.core.view.ViewDeserialize;
+import io.vertx.core.Context;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.RoutingContext;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.locationtech.jts.geom.Geometry;
@@ -63,9 +79,26 @@ public abstract class AbstractApiTask<T extends XyzResponse>
     extends AbstractTask<XyzResponse, AbstractApiTask<XyzResponse>> {
 
   private static final Logger logger = LoggerFactory.getLogger(AbstractApiTask.class);
+
+  /**
+   * The amount of characters of features to collect, before writing them to a streamed response.
+   */
+  private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+
+  /**
+   * The maximal time to wait for a client to consume a chunk of a streamed response, before aborting it. While waiting, the stream holds
+   * a permit and a storage connection, but no thread.
+   */
+  private static final long STREAM_DRAIN_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
   protected final @NotNull RoutingContext routingContext;
   protected final @NotNull NakshaHttpVerticle verticle;
 
+  /**
+   * The Vert.x context of the request, in which event loop asynchronous responses are written.
+   */
+  protected final @NotNull Context vertxContext;
+
   /**
    * Creates a new task.
    *
@@ -80,6 +113,8 @@ public abstract class AbstractApiTask<T extends XyzResponse>
     super(nakshaHub, nakshaContext);
     this.verticle = verticle;
     this.routingContext = routingContext;
+    // Tasks are created in the event loop, which handles the request.
+    this.vertxContext = routingContext.vertx().getOrCreateContext();
   }
 
   protected @NotNull XyzResponse errorResponse(@NotNull Throwable throwable) {
@@ -188,6 +223,18 @@ public abstract class AbstractApiTask<T extends XyzResponse>
       return validatedErrorResponse;
     } else {
       try {
+        if (preResponseProcessing == null && type == XyzFeature.class) {
+          // Plain features without any change, write the raw JSON with the geometry taken directly from WKB
+          final StringBuilder sb = new StringBuilder();
+          final double[] bbox = WkbGeoJsonWriter.newBBox();
+          final long count = writeFeaturesFromResult(rdResult, offset, maxLimit, sb, bbox);
+          final String handleStr = getIterateHandleAsString(count, offset, maxLimit, handle);
+          final XyzFeatureCollection collection = new XyzFeatureCollection()
+              .withBbox(WkbGeoJsonWriter.toBBox(bbox))
+              .withNextPageToken(handleStr);
+          collection.setLazyParsableFeatureList(sb.toString());
+          return verticle.sendXyzResponse(routingContext, HttpResponseType.FEATURE_COLLECTION, collection);
+        }
         final List<R> features = readFeaturesFromResult(rdResult, type, offset, maxLimit);
         List<R> processedFeatures = features;
         if (preResponseProcessing != null) {
@@ -206,6 +253,7 @@ public abstract class AbstractApiTask<T extends XyzResponse>
             HttpResponseType.FEATURE_COLLECTION,
             new XyzFeatureCollection()
                 .withFeatures(processedFeatures)
+                .withBbox(bboxOf(processedFeatures))
                 .withNextPageToken(handleStr));
       } catch (NoCursor | NoSuchElementException emptyException) {
         logger.info("No data found in ResultCursor, returning empty collection");
@@ -215,6 +263,177 @@ public abstract class AbstractApiTask<T extends XyzResponse>
     }
   }
 
+  /**
+   * Sends the Mapbox Vector Tile rendered by the storage back to the client.
+   *
+   * @param rdResult The result of a {@link ReadFeatures} request with an MVT tile.
+   * @return the response sent.
+   */
+  protected @NotNull XyzResponse transformReadResultToMvtResponse(final @Nullable Result rdResult) {
+    final XyzResponse validatedErrorResponse = validateErrorResult(rdResult);
+    if (validatedErrorResponse != null) {
+      return validatedErrorResponse;
+    }
+    if (rdResult instanceof BinaryResult br) {
+      return verticle.sendXyzResponse(
+          routingContext,
+          HttpResponseType.MVT,
+          new BinaryResponse(br.bytes, MIMEType.APPLICATION_VND_MAPBOX_VECTOR_TILE));
+    }
+    return verticle.sendErrorResponse(
+        routingContext, XyzError.NOT_IMPLEMENTED, "The storage does not support vector tiles");
+  }
+
+  /**
+   * Sends the statistics returned by the storage back to the client.
+   *
+   * @param rdResult The result of a {@link ReadStatistics} request.
+   * @return the response sent.
+   */
+  protected @NotNull XyzResponse transformReadResultToStatisticsResponse(final @Nullable Result rdResult) {
+    final XyzResponse validatedErrorResponse = validateErrorResult(rdResult);
+    if (validatedErrorResponse != null) {
+      return validatedErrorResponse;
+    }
+    if (rdResult instanceof StatisticsResult sr) {
+      return verticle.sendXyzResponse(routingContext, HttpResponseType.STATISTICS_RESPONSE, sr.statistics);
+    }
+    return verticle.sendErrorResponse(
+        routingContext, XyzError.NOT_IMPLEMENTED, "The storage does not support statistics");
+  }
+
+  /**
+   * Streams the features read by the given request to the client as newline-delimited GeoJSON, using a chunked response. The request is
+   * executed in the task thread, then the features are written by a {@link FeatureLineStream} in chunks of {@link #STREAM_CHUNK_SIZE}
+   * characters from the event loop, pausing whenever the client does not consume them fast enough. So no thread is blocked while the
+   * client consumes the features, but the task keeps its slot until the stream is finished, see {@link #deferEnd(CompletionStage)}. The
+   * open stream holds a permit (see {@link NakshaHttpVerticle#tryAcquireAsyncStream()}) and the storage session until it is finished, the
+   * request is rejected, when no permit is available. The compression is done by the HTTP server, if the client accepts it.
+   *
+   * @param readRequest           The {@link ReadFeatures} request to execute.
+   * @param geoJsonSeq            {@code true} to send a GeoJSON text sequence (RFC 8142); {@code false} to send NDJSON.
+   * @param preResponseProcessing The optional processing to apply to each feature.
+   * @return the response sent, or being sent.
+   */
+  protected @NotNull XyzResponse streamReadRequestAsFeatureLines(
+      final @NotNull ReadRequest<?> readRequest,
+      final boolean geoJsonSeq,
+      final @Nullable F1<XyzFeature, XyzFeature> preResponseProcessing) {
+    if (!verticle.tryAcquireAsyncStream()) {
+      return sendTooManyAsyncStreams();
+    }
+    IReadSession reader = null;
+    Result rdResult = null;
+    boolean streaming = false;
+    try {
+      // The session must stay open while streaming, because the cursor fetches the features from the storage on demand
+      reader = naksha().getSpaceStorage().newReadSession(context(), false);
+      // Decode large results in parallel only when every feature is processed, otherwise the raw JSON is written
+      reader.setParallelDecode(preResponseProcessing != null);
+      rdResult = reader.execute(readRequest);
+      final XyzResponse validatedErrorResponse = validateErrorResult(rdResult);
+      if (validatedErrorResponse != null) {
+        return validatedErrorResponse;
+      }
+      final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor;
+      try {
+        cursor = rdResult.getXyzFeatureCursor();
+      } catch (NoCursor e) {
+        logger.info("No cursor in the result, returning empty stream");
+        startFeatureLinesResponse(geoJsonSeq).end();
+        return new SuccessResponse();
+      }
+      final IReadSession session = reader;
+      final Result result = rdResult;
+      final FeatureLineStream stream = new FeatureLineStream(
+          vertxContext,
+          startFeatureLinesResponse(geoJsonSeq),
+          cursor,
+          preResponseProcessing,
+          geoJsonSeq,
+          STREAM_CHUNK_SIZE,
+          STREAM_DRAIN_TIMEOUT_MILLIS,
+          () -> closeStream(session, result));
+      final CompletableFuture<Long> done = new CompletableFuture<>();
+      deferEnd(done);
+      vertxContext.runOnContext(v -> stream.start().whenComplete((count, t) -> done.complete(count)));
+      streaming = true;
+      return new SuccessResponse();
+    } finally {
+      if (!streaming) {
+        closeStream(reader, rdResult);
+      }
+    }
+  }
+
+  /**
+   * Closes the resources of a stream and releases its permit.
+   */
+  private void closeStream(final @Nullable IReadSession reader, final @Nullable Result rdResult) {
+    try {
+      if (rdResult != null) {
+        rdResult.close();
+      }
+      if (reader != null) {
+        reader.close();
+      }
+    } catch (Exception e) {
+      logger.warn("Failed to close the read session", e);
+    } finally {
+      verticle.releaseAsyncStream();
+    }
+  }
+
+  /**
+   * Executes the given read request and sends the response created by the given transformation of the result. The result is closed
+   * afterwards.
+   *
+   * @param readRequest    The read request to execute.
+   * @param transformation The transformation of the result, which sends the response.
+   * @return the response sent.
+   */
+  protected @NotNull XyzResponse executeReadRequestAndRespond(
+      final @NotNull ReadRequest<?> readRequest,
+      final @NotNull F1<@NotNull XyzResponse, @Nullable Result> transformation) {
+    return executeReadRequestAndRespond(readRequest, false, transformation);
+  }
+
+  /**
+   * Executes the given read request and sends the response created by the given transformation of the result. The result is closed
+   * afterwards.
+   *
+   * @param readRequest    The read request to execute.
+   * @param parallelDecode {@code true} if the transformation decodes all features, so that large results are decoded in parallel, see
+   *                       {@link IReadSession#setParallelDecode(boolean)}.
+   * @param transformation The transformation of the result, which sends the response.
+   * @return the response sent.
+   */
+  protected @NotNull XyzResponse executeReadRequestAndRespond(
+      final @NotNull ReadRequest<?> readRequest,
+      final boolean parallelDecode,
+      final @NotNull F1<@NotNull XyzResponse, @Nullable Result> transformation) {
+    try (final Result result = executeReadRequestFromSpaceStorage(readRequest, parallelDecode)) {
+      return transformation.call(result);
+    }
+  }
+
+  private @NotNull XyzResponse sendTooManyAsyncStreams() {
+    logger.warn("Maximum number of asynchronous streams reached, rejecting the request");
+    return verticle.sendErrorResponse(
+        routingContext, XyzError.TOO_MANY_REQUESTS, "Maximum number of concurrent streams reached");
+  }
+
+  private @NotNull HttpServerResponse startFeatureLinesResponse(final boolean geoJsonSeq) {
+    return routingContext
+        .response()
+        .setChunked(true)
+        .setStatusCode(OK.code())
+        .setStatusMessage(OK.reasonPhrase())
+        .putHeader(STREAM_ID, AccessLogUtil.getStreamId(routingContext))
+        .putHeader(CONTENT_TYPE, geoJsonSeq ? MIMEType.APPLICATION_GEO_JSON_SEQ : MIMEType.APPLICATION_X_NDJSON)
+        .putHeader("X-Content-Type-Options", "nosniff");
+  }
+
   private static String getIterateHandleAsString(
       long featuresFound, long crtOffset, long maxLimit, final @Nullable IterateHandle handle) {
     // nothing to populate if handle is not provided OR if we don't have more features to iterate
@@ -260,8 +479,13 @@ public abstract class AbstractApiTask<T extends XyzResponse>
     }
   }
 
-  protected Result executeReadRequestFromSpaceStorage(ReadFeatures readRequest) {
+  protected Result executeReadRequestFromSpaceStorage(ReadRequest<?> readRequest) {
+    return executeReadRequestFromSpaceStorage(readRequest, false);
+  }
+
+  protected Result executeReadRequestFromSpaceStorage(ReadRequest<?> readRequest, boolean parallelDecode) {
     try (final IReadSession reader = naksha().getSpaceStorage().newReadSession(context(), false)) {
+      reader.setParallelDecode(parallelDecode);
       return reader.execute(readRequest);
     }
   }
@@ -317,7 +541,8 @@ public abstract class AbstractApiTask<T extends XyzResponse>
       F newF = f;
       // Apply prop selection if enabled
       if (propPaths != null) newF = applyPropertySelection(newF, propPaths);
-      // Apply geometry clipping if enabled
+      // Apply geometry clipping if enabled, the PostgresQL storage already clipped the geometry, which makes this cheap,
+      // but other storages may not support clipping
       if (clip) applyGeometryClipping(newF, clipGeo);
       return newF;
     };
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.service.http.tasks;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import io.netty.buffer.ByteBufInputStream;
+import io.vertx.core.buffer.Buffer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reads the features of a feature collection from a request body in batches. The body is parsed with the streaming parser of Jackson
+ * directly from the bytes of the buffer, so neither a string of the body is created, nor all features are decoded at once; only the
+ * features of the current batch are held in memory. All members of the feature collection, except for the features, are ignored.
+ */
+final class FeatureBatchReader implements AutoCloseable {
+
+  private static final String FEATURES = "features";
+  private static final String TYPE = "type";
+  private static final String FEATURE_TYPE = "Feature";
+
+  private final @NotNull ObjectReader reader;
+  private final @NotNull JsonParser parser;
+  private final int batchSize;
+  private boolean started;
+  private boolean inFeatures;
+
+  /**
+   * @param reader    the reader to decode the features with.
+   * @param body      the request body.
+   * @param batchSize the maximal amount of features to return per batch.
+   * @throws IOException if the parser could not be created.
+   */
+  FeatureBatchReader(final @NotNull ObjectReader reader, final @NotNull Buffer body, final int batchSize)
+      throws IOException {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("The batch size must be positive: " + batchSize);
+    }
+    this.reader = reader.forType(XyzFeature.class);
+    this.parser = reader.createParser(new ByteBufInputStream(body.getByteBuf()));
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Reads the next batch of features.
+   *
+   * @return the next features, an empty list, if all features have been read.
+   * @throws IOException if the body is no valid feature collection.
+   */
+  @NotNull
+  List<@NotNull XyzFeature> next() throws IOException {
+    if (!started) {
+      started = true;
+      inFeatures = seekFeatures();
+    }
+    final List<XyzFeature> features = new ArrayList<>(inFeatures ? batchSize : 0);
+    while (inFeatures && features.size() < batchSize) {
+      final JsonToken token = parser.nextToken();
+      if (token == JsonToken.END_ARRAY) {
+        inFeatures = false;
+      } else if (token == JsonToken.START_OBJECT) {
+        final JsonNode node = reader.readTree(parser);
+        // necessary to allow Feature objects which has no type attribute (for backward compatibility)
+        if (node instanceof ObjectNode object && object.get(TYPE) == null) {
+          object.put(TYPE, FEATURE_TYPE);
+        }
+        features.add(reader.readValue(node));
+      } else {
+        throw new JsonParseException(parser, "Expected a feature, but found: " + token);
+      }
+    }
+    return features;
+  }
+
+  /**
+   * Moves the parser to the start of the features array.
+   *
+   * @return {@code true} if the parser is at the start of the features array; {@code false} if the collection has no features.
+   */
+  private boolean seekFeatures() throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException(parser, "Expected a feature collection");
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      final JsonToken value = parser.nextToken();
+      if (FEATURES.equals(name) && value == JsonToken.START_ARRAY) {
+        return true;
+      }
+      parser.skipChildren();
+    }
+    return false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    parser.close();
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.service.http.tasks;
+
+import static com.here.naksha.lib.core.util.storage.ResultHelper.writeFeatureLinesFromCursor;
+
+import com.here.naksha.lib.core.lambdas.F1;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import io.vertx.core.Context;
+import io.vertx.core.http.HttpServerResponse;
+import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams the features of a cursor as lines into a chunked response, without blocking a thread while the client consumes them. Each chunk
+ * is read from the cursor in a worker thread, because the cursor may fetch the features from the storage, and then written in the event
+ * loop. The next chunk is only read, when the write queue of the response accepts more data, so neither the cursor, nor the response,
+ * buffer more than a chunk. All methods, except the reading, are invoked in the event loop of the given context.
+ */
+final class FeatureLineStream {
+
+  private static final Logger logger = LoggerFactory.getLogger(FeatureLineStream.class);
+
+  private final @NotNull Context context;
+  private final @NotNull HttpServerResponse response;
+  private final @NotNull ForwardCursor<XyzFeature, XyzFeatureCodec> cursor;
+  private final @Nullable F1<XyzFeature, XyzFeature> processing;
+  private final boolean recordSeparator;
+  private final int chunkSize;
+  private final long drainTimeoutMillis;
+  private final @NotNull AutoCloseable resources;
+  private final @NotNull CompletableFuture<@NotNull Long> done = new CompletableFuture<>();
+  private long count;
+  private long drainTimer = -1;
+  private boolean reading;
+  private boolean finished;
+
+  /**
+   * @param context            the context of the request, in which event loop to write the response.
+   * @param response           the response, with the status and headers already set.
+   * @param cursor             the cursor to read the features from.
+   * @param processing         the optional function to apply to each feature, returning {@code null} skips the feature.
+   * @param recordSeparator    {@code true} to send a GeoJSON text sequence (RFC 8142); {@code false} to send NDJSON.
+   * @param chunkSize          the amount of characters to read from the cursor, before writing them.
+   * @param drainTimeoutMillis the maximal time to wait for the client to consume a chunk, before aborting the response.
+   * @param resources          the resources to close after the cursor, when the stream is finished.
+   */
+  FeatureLineStream(
+      final @NotNull Context context,
+      final @NotNull HttpServerResponse response,
+      final @NotNull ForwardCursor<XyzFeature, XyzFeatureCodec> cursor,
+      final @Nullable F1<XyzFeature, XyzFeature> processing,
+      final boolean recordSeparator,
+      final int chunkSize,
+      final long drainTimeoutMillis,
+      final @NotNull AutoCloseable resources) {
+    this.context = context;
+    this.response = response;
+    this.cursor = cursor;
+    this.processing = processing;
+    this.recordSeparator = recordSeparator;
+    this.chunkSize = chunkSize;
+    this.drainTimeoutMillis = drainTimeoutMillis;
+    this.resources = resources;
+  }
+
+  /**
+   * Starts the streaming.
+   *
+   * @return the future that is completed with the number of features read, when the stream is finished or aborted.
+   */
+  @NotNull
+  CompletableFuture<@NotNull Long> start() {
+    response.closeHandler(v -> finish());
+    readNext();
+    return done;
+  }
+
+  private void readNext() {
+    final StringBuilder sb = new StringBuilder(chunkSize + 4096);
+    reading = true;
+    context.executeBlocking(
+            () -> writeFeatureLinesFromCursor(cursor, processing, recordSeparator, chunkSize, sb), false)
+        .onComplete(ar -> {
+          reading = false;
+          if (finished) {
+            close();
+          } else if (ar.failed()) {
+            fail(ar.cause());
+          } else {
+            write(ar.result(), sb);
+          }
+        });
+  }
+
+  private void write(final int read, final @NotNull StringBuilder sb) {
+    if (response.closed()) {
+      logger.info("Client closed the connection after {} exported features", count);
+      finish();
+      return;
+    }
+    if (read == 0) {
+      response.end();
+      logger.info("Streamed {} features", count);
+      finish();
+      return;
+    }
+    count += read;
+    if (sb.length() > 0) {
+      response.write(sb.toString());
+    }
+    if (!response.writeQueueFull()) {
+      readNext();
+      return;
+    }
+    drainTimer = context.owner().setTimer(drainTimeoutMillis, id -> {
+      drainTimer = -1;
+      logger.info("Client did not consume the streamed features in time, aborting the response");
+      response.reset();
+      finish();
+    });
+    response.drainHandler(v -> {
+      response.drainHandler(null);
+      cancelDrainTimer();
+      if (!finished) {
+        readNext();
+      }
+    });
+  }
+
+  private void fail(final @NotNull Throwable t) {
+    // The status is already sent, therefore only aborting the response tells the client that the stream is incomplete.
+    logger.atWarn()
+        .setMessage("Failed to stream features after {} features, aborting the response")
+        .addArgument(count)
+        .setCause(t)
+        .log();
+    response.reset();
+    finish();
+  }
+
+  private void finish() {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    cancelDrainTimer();
+    // A chunk being read still uses the cursor, it is closed when the reading is done.
+    if (!reading) {
+      close();
+    }
+  }
+
+  private void cancelDrainTimer() {
+    if (drainTimer >= 0) {
+      context.owner().cancelTimer(drainTimer);
+      drainTimer = -1;
+    }
+  }
+
+  private void close() {
+    // Closing the cursor may block, for example while the storage connection is released.
+    context.executeBlocking(
+            () -> {
+              try (resources) {
+                cursor.close();
+              }
+              return null;
+            },
+            false)
+        .onComplete(ar -> {
+          if (ar.failed()) {
+            logger.atWarn()
+                .setMessage("Failed to close the streamed cursor")
+                .setCause(ar.cause())
+                .log();
+          }
+          done.complete(count);
+        });
+  }
+}
@@ -42,36 +42,44 @@ import static com.here.naksha.common.http.apis.ApiParamsConst.SPACE_ID;
 import static com.here.naksha.common.http.apis.ApiParamsConst.TILE_ID;
 import static com.here.naksha.common.http.apis.ApiParamsConst.TILE_TYPE;
 import static com.here.naksha.common.http.apis.ApiParamsConst.WEST;
-import static com.here.naksha.lib.core.models.storage.transformation.BufferTransformation.bufferInMeters;
 
 import com.here.naksha.app.service.http.NakshaHttpVerticle;
 import com.here.naksha.app.service.http.apis.ApiParams;
+import com.here.naksha.app.service.http.ops.ClusteringUtil;
 import com.here.naksha.app.service.http.ops.PropertySearchUtil;
 import com.here.naksha.app.service.http.ops.PropertySelectionUtil;
 import com.here.naksha.app.service.http.ops.SpatialUtil;
 import com.here.naksha.app.service.http.ops.TagsUtil;
+import com.here.naksha.app.service.http.ops.TweaksUtil;
 import com.here.naksha.app.service.models.IterateHandle;
 import com.here.naksha.lib.core.INaksha;
 import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.exceptions.XyzErrorException;
 import com.here.naksha.lib.core.lambdas.F1;
 import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
+import com.here.naksha.lib.core.models.geojson.coordinates.BBox;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzGeometry;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzPoint;
 import com.here.naksha.lib.core.models.payload.XyzResponse;
 import com.here.naksha.lib.core.models.payload.events.QueryParameterList;
+import com.here.naksha.lib.core.models.payload.events.clustering.Clustering;
+import com.here.naksha.lib.core.models.payload.events.tweaks.Tweaks;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
 import com.here.naksha.lib.core.models.storage.OpType;
 import com.here.naksha.lib.core.models.storage.POp;
 import com.here.naksha.lib.core.models.storage.ReadFeatures;
 import com.here.naksha.lib.core.models.storage.ReadFeaturesProxyWrapper;
+import com.here.naksha.lib.core.models.storage.ReadStatistics;
 import com.here.naksha.lib.core.models.storage.ReadFeaturesProxyWrapper.ReadRequestType;
 import com.here.naksha.lib.core.models.storage.Result;
 import com.here.naksha.lib.core.models.storage.SOp;
 import com.here.naksha.lib.core.models.storage.SuccessResult;
+import com.here.naksha.lib.core.util.MIMEType;
 import com.here.naksha.lib.core.util.storage.RequestHelper;
 import com.here.naksha.lib.core.util.storage.ResultHelper;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.ext.web.RoutingContext;
 import java.util.HashMap;
 import java.util.List;
@@ -86,6 +94,12 @@ import org.slf4j.LoggerFactory;
 public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<XyzResponse> {
 
   private static final Logger logger = LoggerFactory.getLogger(ReadFeatureApiTask.class);
+
+  /**
+   * The suffix of a tile identifier to request the tile as Mapbox Vector Tile.
+   */
+  private static final String MVT_SUFFIX = ".mvt";
+
   private final @NotNull ReadFeatureApiReqType reqType;
 
   public enum ReadFeatureApiReqType {
@@ -96,7 +110,9 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
     SEARCH,
     ITERATE,
     GET_BY_RADIUS,
-    GET_BY_RADIUS_POST
+    GET_BY_RADIUS_POST,
+    GET_STATISTICS,
+    EXPORT
   }
 
   public ReadFeatureApiTask(
@@ -132,6 +148,8 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
         case ITERATE -> executeIterate();
         case GET_BY_RADIUS -> executeFeaturesByRadius();
         case GET_BY_RADIUS_POST -> executeFeaturesByRadiusPost();
+        case GET_STATISTICS -> executeStatistics();
+        case EXPORT -> executeExport();
         default -> executeUnsupported();
       };
     } catch (Exception ex) {
@@ -162,12 +180,12 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
         .withQueryParameters(Map.of(FEATURE_IDS, featureIds));
 
     // Forward request to NH Space Storage reader instance
-    try (Result result = executeReadRequestFromSpaceStorage(rdRequest)) {
-      final F1<XyzFeature, XyzFeature> preResponseProcessing =
-          standardReadFeaturesPreResponseProcessing(propPaths, false, null);
-      // transform Result to Http FeatureCollection response
-      return transformReadResultToXyzCollectionResponse(result, XyzFeature.class, preResponseProcessing);
-    }
+    final F1<XyzFeature, XyzFeature> preResponseProcessing =
+        standardReadFeaturesPreResponseProcessing(propPaths, false, null);
+    // transform Result to Http FeatureCollection response
+    return executeReadRequestAndRespond(
+        rdRequest,
+        result -> transformReadResultToXyzCollectionResponse(result, XyzFeature.class, preResponseProcessing));
   }
 
   private @NotNull XyzResponse executeFeatureById() {
@@ -182,12 +200,21 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
         .withQueryParameters(Map.of(FEATURE_ID, featureId));
 
     // Forward request to NH Space Storage reader instance
-    try (Result result = executeReadRequestFromSpaceStorage(rdRequest)) {
-      final F1<XyzFeature, XyzFeature> preResponseProcessing =
-          standardReadFeaturesPreResponseProcessing(propPaths, false, null);
-      // transform Result to Http XyzFeature response
-      return transformReadResultToXyzFeatureResponse(result, XyzFeature.class, preResponseProcessing);
-    }
+    final F1<XyzFeature, XyzFeature> preResponseProcessing =
+        standardReadFeaturesPreResponseProcessing(propPaths, false, null);
+    // transform Result to Http XyzFeature response
+    return executeReadRequestAndRespond(
+        rdRequest,
+        result -> transformReadResultToXyzFeatureResponse(result, XyzFeature.class, preResponseProcessing));
+  }
+
+  private @NotNull XyzResponse executeStatistics() {
+    // Parse and validate Path parameters
+    final String spaceId = ApiParams.extractMandatoryPathParam(routingContext, SPACE_ID);
+
+    // The storage estimates the statistics from its own statistics, so no feature is read
+    final ReadStatistics rdRequest = new ReadStatistics(spaceId);
+    return executeReadRequestAndRespond(rdRequest, this::transformReadResultToStatisticsResponse);
   }
 
   private @NotNull XyzResponse executeFeaturesByBBox() {
@@ -218,6 +245,8 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
     final Geometry bbox = RequestHelper.createBBoxEnvelope(west, south, east, north);
     final POp tagsOp = TagsUtil.buildOperationForTagsQueryParam(queryParams);
     final POp propSearchOp = PropertySearchUtil.buildOperationForPropertySearchParams(queryParams);
+    final Clustering clustering = ClusteringUtil.buildClusteringFromQueryParams(queryParams);
+    final Tweaks tweaks = TweaksUtil.buildTweaksFromQueryParams(queryParams);
 
     final Map<String, Object> queryParamsMap = new HashMap<>();
     queryParamsMap.put(WEST, west);
@@ -234,25 +263,39 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
         .withQueryParameters(queryParamsMap)
         .withLimit(limit)
         .addCollection(spaceId)
-        .withSpatialOp(SOp.intersects(bbox));
+        .withSpatialOp(SOp.intersects(bbox))
+        .withClipGeometry(clip ? bbox : null);
     RequestHelper.combineOperationsForRequestAs(rdRequest, OpType.AND, tagsOp, propSearchOp);
 
+    final int level = WebMercatorTile.getZoomFromBBOX(new BBox(west, south, east, north));
+    if (clustering != null) {
+      rdRequest.withClipGeometry(null).withClustering(clustering, level);
+      return executeClusteredRead(rdRequest, limit);
+    }
+    rdRequest.withTweaks(tweaks, level);
+
     // Forward request to NH Space Storage reader instance
-    final Result result = executeReadRequestFromSpaceStorage(rdRequest);
     // transform Result to Http FeatureCollection response, restricted by given feature limit
     // we will also apply response preprocessing (like property selection and geometry clipping)
     // if any of the options is enabled
     final F1<XyzFeature, XyzFeature> preResponseProcessing =
         standardReadFeaturesPreResponseProcessing(propPaths, clip, bbox);
-    return transformReadResultToXyzCollectionResponse(
-        result, XyzFeature.class, 0, limit, null, preResponseProcessing);
+    final long maxLimit = limit;
+    return executeReadRequestAndRespond(
+        rdRequest,
+        result -> transformReadResultToXyzCollectionResponse(
+            result, XyzFeature.class, 0, maxLimit, null, preResponseProcessing));
   }
 
   private @NotNull XyzResponse executeFeaturesByTile() {
     // Parse and validate Path parameters
     final String spaceId = ApiParams.extractMandatoryPathParam(routingContext, SPACE_ID);
     final String tileType = ApiParams.extractMandatoryPathParam(routingContext, TILE_TYPE);
-    final String tileId = ApiParams.extractMandatoryPathParam(routingContext, TILE_ID);
+    String tileId = ApiParams.extractMandatoryPathParam(routingContext, TILE_ID);
+    final boolean mvt = tileId.endsWith(MVT_SUFFIX) || acceptsMvt();
+    if (tileId.endsWith(MVT_SUFFIX)) {
+      tileId = tileId.substring(0, tileId.length() - MVT_SUFFIX.length());
+    }
 
     // Parse and validate Query parameters
     final QueryParameterList queryParams = queryParamsFromRequest(routingContext);
@@ -269,6 +312,12 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
     final Geometry geo = SpatialUtil.buildGeometryForTile(tileType, tileId, (int) margin);
     final POp tagsOp = TagsUtil.buildOperationForTagsQueryParam(queryParams);
     final POp propSearchOp = PropertySearchUtil.buildOperationForPropertySearchParams(queryParams);
+    final Clustering clustering = ClusteringUtil.buildClusteringFromQueryParams(queryParams);
+    final Tweaks tweaks = TweaksUtil.buildTweaksFromQueryParams(queryParams);
+    if (mvt && clustering != null) {
+      return verticle.sendErrorResponse(
+          routingContext, XyzError.ILLEGAL_ARGUMENT, "Clustering is not supported for vector tiles");
+    }
 
     final Map<String, Object> queryParamsMap = new HashMap<>();
     queryParamsMap.put(MARGIN, margin);
@@ -284,18 +333,60 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
         .withQueryParameters(queryParamsMap)
         .withLimit(limit)
         .addCollection(spaceId)
-        .withSpatialOp(SOp.intersects(geo));
+        .withSpatialOp(SOp.intersects(geo))
+        .withClipGeometry(clip && !mvt ? geo : null);
     RequestHelper.combineOperationsForRequestAs(rdRequest, OpType.AND, tagsOp, propSearchOp);
 
+    final int level = WebMercatorTile.forQuadkey(tileId).level;
+    if (clustering != null) {
+      rdRequest.withClipGeometry(null).withClustering(clustering, level);
+      return executeClusteredRead(rdRequest, limit);
+    }
+    rdRequest.withTweaks(tweaks, level);
+    if (mvt) {
+      // The storage renders the tile, including the property selection, so the features are never materialized
+      rdRequest.withMvt(WebMercatorTile.forQuadkey(tileId), propPaths);
+      return executeReadRequestAndRespond(rdRequest, this::transformReadResultToMvtResponse);
+    }
+
     // Forward request to NH Space Storage reader instance
-    final Result result = executeReadRequestFromSpaceStorage(rdRequest);
     // transform Result to Http FeatureCollection response, restricted by given feature limit
     // we will also apply response preprocessing (like property selection and geometry clipping)
     // if any of the options is enabled
     final F1<XyzFeature, XyzFeature> preResponseProcessing =
         standardReadFeaturesPreResponseProcessing(propPaths, clip, geo);
-    return transformReadResultToXyzCollectionResponse(
-        result, XyzFeature.class, 0, limit, null, preResponseProcessing);
+    final long maxLimit = limit;
+    return executeReadRequestAndRespond(
+        rdRequest,
+        result -> transformReadResultToXyzCollectionResponse(
+            result, XyzFeature.class, 0, maxLimit, null, preResponseProcessing));
+  }
+
+  /**
+   * Executes a read request with clustering, the storage aggregates the features and returns one feature per cluster, so neither
+   * property selection nor clipping apply.
+   */
+  private @NotNull XyzResponse executeClusteredRead(final @NotNull ReadFeatures rdRequest, final long limit) {
+    return executeReadRequestAndRespond(
+        rdRequest, result -> transformReadResultToXyzCollectionResponse(result, XyzFeature.class, 0, limit, null, null));
+  }
+
+  /**
+   * Returns true, if the client accepts Mapbox Vector Tiles, but not GeoJSON.
+   */
+  private boolean acceptsMvt() {
+    final String accept = routingContext.request().getHeader(HttpHeaders.ACCEPT);
+    return accept != null
+        && accept.contains(MIMEType.APPLICATION_VND_MAPBOX_VECTOR_TILE)
+        && !accept.contains(MIMEType.APPLICATION_GEO_JSON);
+  }
+
+  /**
+   * Returns true, if the client accepts a GeoJSON text sequence.
+   */
+  private boolean acceptsGeoJsonSeq() {
+    final String accept = routingContext.request().getHeader(HttpHeaders.ACCEPT);
+    return accept != null && accept.contains(MIMEType.APPLICATION_GEO_JSON_SEQ);
   }
 
   private @NotNull XyzResponse executeSearch() {
@@ -324,12 +415,14 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
     RequestHelper.combineOperationsForRequestAs(rdRequest, OpType.AND, tagsOp, propSearchOp);
 
     // Forward request to NH Space Storage reader instance
-    final Result result = executeReadRequestFromSpaceStorage(rdRequest);
     final F1<XyzFeature, XyzFeature> preResponseProcessing =
         standardReadFeaturesPreResponseProcessing(propPaths, false, null);
     // transform Result to Http FeatureCollection response, restricted by given feature limit
-    return transformReadResultToXyzCollectionResponse(
-        result, XyzFeature.class, 0, limit, null, preResponseProcessing);
+    final long maxLimit = limit;
+    return executeReadRequestAndRespond(
+        rdRequest,
+        result -> transformReadResultToXyzCollectionResponse(
+            result, XyzFeature.class, 0, maxLimit, null, preResponseProcessing));
   }
 
   private @NotNull XyzResponse executeIterate() {
@@ -366,13 +459,40 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
         .addCollection(spaceId);
 
     // Forward request to NH Space Storage reader instance
-    final Result result = executeReadRequestFromSpaceStorage(rdRequest);
     final F1<XyzFeature, XyzFeature> preResponseProcessing =
         standardReadFeaturesPreResponseProcessing(propPaths, false, null);
     // transform Result to Http FeatureCollection response,
     // restricted by given feature limit and by adding "handle" attribute to support subsequent iteration
-    return transformReadResultToXyzCollectionResponse(
-        result, XyzFeature.class, offset, clientLimit, handle, preResponseProcessing);
+    final long iterateOffset = offset;
+    final long iterateLimit = clientLimit;
+    final IterateHandle iterateHandle = handle;
+    // Decode large results in parallel only when every feature is processed, otherwise the raw JSON is written
+    return executeReadRequestAndRespond(
+        rdRequest,
+        preResponseProcessing != null,
+        result -> transformReadResultToXyzCollectionResponse(
+            result, XyzFeature.class, iterateOffset, iterateLimit, iterateHandle, preResponseProcessing));
+  }
+
+  private @NotNull XyzResponse executeExport() {
+    // Parse and validate Path parameters
+    final String spaceId = ApiParams.extractMandatoryPathParam(routingContext, SPACE_ID);
+
+    // Parse and validate Query parameters
+    final QueryParameterList queryParams = queryParamsFromRequest(routingContext);
+    final Set<String> propPaths = PropertySelectionUtil.buildPropPathSetFromQueryParams(queryParams);
+
+    // Prepare an unlimited read request, optionally filtered by tags and properties
+    final ReadFeatures rdRequest = new ReadFeatures().addCollection(spaceId).withLimit(null);
+    RequestHelper.combineOperationsForRequestAs(
+        rdRequest,
+        OpType.AND,
+        TagsUtil.buildOperationForTagsQueryParam(queryParams),
+        PropertySearchUtil.buildOperationForPropertySearchParams(queryParams));
+
+    final F1<XyzFeature, XyzFeature> preResponseProcessing =
+        standardReadFeaturesPreResponseProcessing(propPaths, false, null);
+    return streamReadRequestAsFeatureLines(rdRequest, acceptsGeoJsonSeq(), preResponseProcessing);
   }
 
   private @NotNull XyzResponse executeFeaturesByRadius() {
@@ -402,21 +522,22 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
     final XyzGeometry refGeometry = obtainReferenceGeometry(lat, lon, refSpaceId, refFeatureId);
 
     // Prepare read request based on parameters supplied
-    final SOp radiusOp =
-        (radius > 0) ? SOp.intersects(refGeometry, bufferInMeters(radius)) : SOp.intersects(refGeometry);
+    final SOp radiusOp = (radius > 0) ? SOp.dwithin(refGeometry, radius) : SOp.intersects(refGeometry);
     final POp tagsOp = TagsUtil.buildOperationForTagsQueryParam(queryParams);
     final POp propSearchOp = PropertySearchUtil.buildOperationForPropertySearchParams(queryParams);
     final ReadFeatures rdRequest = new ReadFeatures().addCollection(spaceId).withSpatialOp(radiusOp);
     RequestHelper.combineOperationsForRequestAs(rdRequest, OpType.AND, tagsOp, propSearchOp);
 
     // Forward request to NH Space Storage reader instance
-    final Result result = executeReadRequestFromSpaceStorage(rdRequest);
     // TODO pass the correct transformed geometry into this method call, also use the boolean clip
     final F1<XyzFeature, XyzFeature> preResponseProcessing =
         standardReadFeaturesPreResponseProcessing(propPaths, false, radiusOp.getGeometry());
     // transform Result to Http FeatureCollection response, restricted by given feature limit
-    return transformReadResultToXyzCollectionResponse(
-        result, XyzFeature.class, 0, limit, null, preResponseProcessing);
+    final long maxLimit = limit;
+    return executeReadRequestAndRespond(
+        rdRequest,
+        result -> transformReadResultToXyzCollectionResponse(
+            result, XyzFeature.class, 0, maxLimit, null, preResponseProcessing));
   }
 
   private @NotNull XyzGeometry obtainReferenceGeometry(
@@ -481,20 +602,21 @@ public class ReadFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<X
     final XyzGeometry refGeometry = parseRequestBodyAs(XyzGeometry.class);
 
     // Prepare read request based on parameters supplied
-    final SOp radiusOp =
-        (radius > 0) ? SOp.intersects(refGeometry, bufferInMeters(radius)) : SOp.intersects(refGeometry);
+    final SOp radiusOp = (radius > 0) ? SOp.dwithin(refGeometry, radius) : SOp.intersects(refGeometry);
     final POp tagsOp = TagsUtil.buildOperationForTagsQueryParam(queryParams);
     final POp propSearchOp = PropertySearchUtil.buildOperationForPropertySearchParams(queryParams);
     final ReadFeatures rdRequest = new ReadFeatures().addCollection(spaceId).withSpatialOp(radiusOp);
     RequestHelper.combineOperationsForRequestAs(rdRequest, OpType.AND, tagsOp, propSearchOp);
 
     // Forward request to NH Space Storage reader instance
-    final Result result = executeReadRequestFromSpaceStorage(rdRequest);
     // TODO pass the correct transformed geometry into this method call, also use the boolean clip
     final F1<XyzFeature, XyzFeature> preResponseProcessing =
         standardReadFeaturesPreResponseProcessing(propPaths, false, radiusOp.getGeometry());
     // transform Result to Http FeatureCollection response, restricted by given feature limit
-    return transformReadResultToXyzCollectionResponse(
-        result, XyzFeature.class, 0, limit, null, preResponseProcessing);
+    final long maxLimit = limit;
+    return executeReadRequestAndRespond(
+        rdRequest,
+        result -> transformReadResultToXyzCollectionResponse(
+            result, XyzFeature.class, 0, maxLimit, null, preResponseProcessing));
   }
 }
@@ -22,8 +22,10 @@ import static com.here.naksha.app.service.http.apis.ApiParams.*;
 import static com.here.naksha.common.http.apis.ApiParamsConst.*;
 import static com.here.naksha.lib.core.util.diff.PatcherUtils.removeAllRemoveOp;
 import static com.here.naksha.lib.core.util.storage.ResultHelper.readFeaturesFromResult;
+import static com.here.naksha.lib.core.util.storage.ResultHelper.readIdsGroupedByOp;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.here.naksha.app.service.http.HttpResponseType;
 import com.here.naksha.app.service.http.NakshaHttpVerticle;
 import com.here.naksha.app.service.http.apis.ApiParams;
@@ -34,13 +36,16 @@ import com.here.naksha.lib.core.exceptions.NoCursor;
 import com.here.naksha.lib.core.exceptions.XyzErrorException;
 import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeatureCollection;
 import com.here.naksha.lib.core.models.payload.XyzResponse;
 import com.here.naksha.lib.core.models.payload.events.QueryParameterList;
 import com.here.naksha.lib.core.models.storage.*;
 import com.here.naksha.lib.core.storage.IWriteSession;
 import com.here.naksha.lib.core.util.diff.Difference;
 import com.here.naksha.lib.core.util.diff.Patcher;
+import com.here.naksha.lib.core.util.json.Json;
 import com.here.naksha.lib.core.util.storage.RequestHelper;
+import com.here.naksha.lib.core.view.ViewDeserialize;
 import io.vertx.ext.web.RoutingContext;
 import java.util.*;
 import org.jetbrains.annotations.NotNull;
@@ -127,6 +132,13 @@ public class WriteFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<
   }
 
   private @NotNull XyzResponse executeUpsertFeatures() throws Exception {
+    // batched, non-atomic upserts are only done, when requested explicitly
+    final QueryParameterList batchParams = queryParamsFromRequest(routingContext);
+    if (batchParams != null && batchParams.contains(BATCH_SIZE)) {
+      final long batchSize = extractQueryParamAsLong(batchParams, BATCH_SIZE, true);
+      validateParamRange(BATCH_SIZE, batchSize, 1, MAX_WRITE_BATCH_SIZE);
+      return executeUpsertFeaturesInBatches((int) batchSize);
+    }
     // Deserialize input request
     final FeatureCollectionRequest collectionRequest = parseRequestBodyAs(FeatureCollectionRequest.class);
     final List<XyzFeature> features = (List<XyzFeature>) collectionRequest.getFeatures();
@@ -154,6 +166,133 @@ public class WriteFeatureApiTask<T extends XyzResponse> extends AbstractApiTask<
     }
   }
 
+  /**
+   * Upserts the features of the request body in batches, when the client opted in with the {@code batchSize} parameter. While parsing the
+   * body, only the features of one batch are decoded at a time; the body itself is still buffered completely. The response only holds the
+   * IDs of the inserted and updated features, not the features themselves. Each batch is written in an own transaction, so the upsert is
+   * not atomic: when a batch fails after others were committed, the committed IDs are returned in a partial feature collection, together
+   * with the features of the failed batch as failed. The features after the failed batch are not written.
+   */
+  private @NotNull XyzResponse executeUpsertFeaturesInBatches(final int batchSize) throws Exception {
+    // Parse API parameters
+    final String spaceId = ApiParams.extractMandatoryPathParam(routingContext, SPACE_ID);
+    final QueryParameterList queryParams = queryParamsFromRequest(routingContext);
+    final List<String> addTags = extractParamAsStringList(queryParams, ADD_TAGS);
+    final List<String> removeTags = extractParamAsStringList(queryParams, REMOVE_TAGS);
+
+    final ObjectReader reader;
+    try (final Json json = Json.get()) {
+      reader = json.reader(ViewDeserialize.User.class);
+    }
+    final Map<EExecutedOp, List<String>> ids =
+        Map.of(EExecutedOp.CREATED, new ArrayList<>(), EExecutedOp.UPDATED, new ArrayList<>());
+    final List<XyzFeature> violations = new ArrayList<>();
+    // the position of the first feature of the current batch in the request body
+    long position = 0;
+    try (final FeatureBatchReader batches =
+        new FeatureBatchReader(reader, routingContext.body().buffer(), batchSize)) {
+      List<XyzFeature> features = batches.next();
+      if (features.isEmpty()) {
+        return verticle.sendErrorResponse(routingContext, XyzError.ILLEGAL_ARGUMENT, "Can't update empty features");
+      }
+      do {
+        try {
+          upsertBatch(spaceId, features, addTags, removeTags, ids, violations);
+        } catch (Exception e) {
+          if (position == 0) {
+            throw e;
+          }
+          logger.warn("Failed to write the batch at position {}, the features before are committed", position, e);
+          return sendUpsertIdsResponse(ids, violations, failuresOf(features, position, e.getMessage()));
+        }
+        position += features.size();
+        try {
+          features = batches.next();
+        } catch (Exception e) {
+          logger.warn("Failed to parse the batch at position {}, the features before are committed", position, e);
+          return sendUpsertIdsResponse(
+              ids,
+              violations,
+              List.of(new XyzFeatureCollection.ModificationFailure()
+                  .withPosition(position)
+                  .withMessage(e.getMessage())));
+        }
+      } while (!features.isEmpty());
+    }
+    return sendUpsertIdsResponse(ids, violations, null);
+  }
+
+  /**
+   * Writes one batch of features in an own transaction and collects the IDs of the written features.
+   *
+   * @throws XyzErrorException if the storage returned an error or an empty result.
+   */
+  private void upsertBatch(
+      final @NotNull String spaceId,
+      final @NotNull List<@NotNull XyzFeature> features,
+      final @Nullable List<String> addTags,
+      final @Nullable List<String> removeTags,
+      final @NotNull Map<EExecutedOp, List<String>> ids,
+      final @NotNull List<@NotNull XyzFeature> violations)
+      throws XyzErrorException {
+    // as applicable, modify features based on parameters supplied
+    for (final XyzFeature feature : features) {
+      addTagsToFeature(feature, addTags);
+      removeTagsFromFeature(feature, removeTags);
+    }
+    final WriteXyzFeatures wrRequest = RequestHelper.upsertFeaturesRequest(spaceId, features);
+
+    // Forward request to NH Space Storage writer instance
+    try (Result wrResult = executeWriteRequestFromSpaceStorage(wrRequest)) {
+      if (wrResult == null) {
+        throw new XyzErrorException(XyzError.EXCEPTION, "Unexpected null result!");
+      }
+      if (wrResult instanceof ErrorResult er) {
+        logger.error("Received error result {}", er);
+        throw new XyzErrorException(er.reason, er.message);
+      }
+      if (readIdsGroupedByOp(wrResult, ids) == 0) {
+        throw new XyzErrorException(XyzError.EXCEPTION, "Unexpected empty result from ResultCursor");
+      }
+      if (wrResult instanceof ContextXyzFeatureResult cr && cr.getViolations() != null) {
+        violations.addAll(cr.getViolations());
+      }
+    } catch (NoCursor e) {
+      throw new XyzErrorException(XyzError.EXCEPTION, "Unexpected empty result from ResultCursor");
+    }
+  }
+
+  private static @NotNull List<XyzFeatureCollection.ModificationFailure> failuresOf(
+      final @NotNull List<@NotNull XyzFeature> features, final long position, final @Nullable String message) {
+    final List<XyzFeatureCollection.ModificationFailure> failed = new ArrayList<>(features.size());
+    for (int i = 0; i < features.size(); i++) {
+      failed.add(new XyzFeatureCollection.ModificationFailure()
+          .withId(features.get(i).getId())
+          .withPosition(position + i)
+          .withMessage(message));
+    }
+    return failed;
+  }
+
+  /**
+   * Sends the IDs of the features written in batches, without the features.
+   *
+   * @param failed the failures of the batch, that aborted the request, {@code null} if all batches were written.
+   */
+  private @NotNull XyzResponse sendUpsertIdsResponse(
+      final @NotNull Map<EExecutedOp, List<String>> ids,
+      final @NotNull List<@NotNull XyzFeature> violations,
+      final @Nullable List<XyzFeatureCollection.ModificationFailure> failed) {
+    final XyzFeatureCollection response = new XyzFeatureCollection()
+        .withInserted(ids.get(EExecutedOp.CREATED))
+        .withUpdated(ids.get(EExecutedOp.UPDATED))
+        .withViolations(violations.isEmpty() ? null : violations);
+    if (failed != null) {
+      response.withFailed(failed).withPartial(true);
+    }
+    return verticle.sendXyzResponse(routingContext, HttpResponseType.FEATURE_COLLECTION, response);
+  }
+
   private @NotNull XyzResponse executeUpdateFeature() throws Exception {
     // Deserialize input request
     final XyzFeature feature = parseRequestBodyAs(XyzFeature.class);
@@ -18,10 +18,13 @@
  */
 package com.here.naksha.app.service.metrics;
 
+import com.here.naksha.app.service.http.auth.JwtCache;
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.metrics.Meter;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,4 +51,29 @@ public class OTelMetrics {
           r.record(bd.doubleValue());
         });
   }
+
+  /**
+   * Collects the metrics of the given JWT cache in background.
+   *
+   * @param cache the cache of verified JWTs.
+   */
+  public static void initJwtCache(final @NotNull JwtCache cache) {
+    meter.gaugeBuilder("jwt_cache_size")
+        .setDescription("Amount of verified JWTs cached")
+        .ofLongs()
+        .buildWithCallback((r) -> r.record(cache.size()));
+    meter.counterBuilder("jwt_cache_hits")
+        .setDescription("Amount of JWTs found in the cache")
+        .buildWithCallback((r) -> r.record(cache.hits()));
+    meter.counterBuilder("jwt_cache_misses")
+        .setDescription("Amount of JWTs not found in the cache")
+        .buildWithCallback((r) -> r.record(cache.misses()));
+    meter.counterBuilder("jwt_verifications")
+        .setDescription("Amount of JWT signatures verified")
+        .buildWithCallback((r) -> r.record(cache.verifications()));
+    meter.counterBuilder("jwt_verify_time")
+        .setDescription("Total time spent verifying JWT signatures")
+        .setUnit("us")
+        .buildWithCallback((r) -> r.record(TimeUnit.NANOSECONDS.toMicros(cache.verifyNanos())));
+  }
 }
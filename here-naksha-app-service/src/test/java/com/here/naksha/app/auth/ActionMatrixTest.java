@@ -105,6 +105,51 @@ class ActionMatrixTest {
                             }
                         """,
                         false
+                ),
+                testSpec(
+                        "URM Wildcard and Multiple Attributes - Positive",
+                        """
+                            {
+                              "readUser": [
+                                {"id": "admin_*"},
+                                {"id": "user_*", "communityIds": "here"}
+                              ]
+                            }
+                        """,
+                        """
+                            {
+                              "readUser": [
+                                {"id": "admin_bar"},
+                                {
+                                  "id": "user_foo",
+                                  "communityIds": [ "here", "bmw" ]
+                                }
+                              ]
+                            }
+                        """,
+                        true
+                ),
+                testSpec(
+                        "URM Wildcard and Multiple Attributes - Negative",
+                        """
+                            {
+                              "readUser": [
+                                {"id": "admin_*"},
+                                {"id": "user_*", "communityIds": "here"}
+                              ]
+                            }
+                        """,
+                        """
+                            {
+                              "readUser": [
+                                {
+                                  "id": "user_foo",
+                                  "communityIds": [ "bmw" ]
+                                }
+                              ]
+                            }
+                        """,
+                        false
                 )
 
         );
@@ -129,6 +174,8 @@ class ActionMatrixTest {
         assertNotNull(armMatrix);
         boolean actualAuthResult = urmMatrix.matches(armMatrix);
         assertEquals(expectedAuthResult, actualAuthResult, "Auth matrix comparison result mismatch");
+        boolean compiledAuthResult = urmMatrix.compile().matches(armMatrix);
+        assertEquals(expectedAuthResult, compiledAuthResult, "Compiled auth matrix comparison result mismatch");
     }
 
 }
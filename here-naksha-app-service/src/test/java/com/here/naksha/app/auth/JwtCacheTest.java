@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.app.service.http.auth.JwtCache;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import org.junit.jupiter.api.Test;
+
+class JwtCacheTest {
+
+  private static final long NOW = 1_700_000_000_000L;
+
+  private static User user(Long exp) {
+    final JsonObject principal = new JsonObject().put("sub", "test");
+    if (exp != null) {
+      principal.put("exp", exp);
+    }
+    return User.create(principal);
+  }
+
+  @Test
+  void testKey() {
+    assertEquals(JwtCache.keyOf("a.b.c"), JwtCache.keyOf("a.b.c"));
+    assertNotEquals(JwtCache.keyOf("a.b.c"), JwtCache.keyOf("a.b.d"));
+  }
+
+  @Test
+  void testHitAndTtl() {
+    final JwtCache cache = new JwtCache(10, 1000);
+    final User user = user(null);
+    assertNull(cache.get("k", NOW));
+    cache.put("k", user, NOW);
+    assertSame(user, cache.get("k", NOW + 999));
+    assertNull(cache.get("k", NOW + 1000));
+    assertEquals(0, cache.size());
+    assertEquals(1, cache.hits());
+    assertEquals(2, cache.misses());
+  }
+
+  @Test
+  void testExpiresWithToken() {
+    final JwtCache cache = new JwtCache(10, 60_000);
+    // The token expires in 10 seconds, so it must not be cached for the whole minute
+    cache.put("k", user(NOW / 1000 + 10), NOW);
+    assertEquals(1, cache.size());
+    assertNull(cache.get("k", NOW + 10_000));
+    // Expired tokens are not cached at all
+    cache.put("expired", user(NOW / 1000 - 1), NOW);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testBounded() {
+    final JwtCache cache = new JwtCache(100, 60_000);
+    for (int i = 0; i < 1000; i++) {
+      cache.put("k" + i, user(null), NOW);
+      assertTrue(cache.size() <= 100);
+    }
+  }
+}
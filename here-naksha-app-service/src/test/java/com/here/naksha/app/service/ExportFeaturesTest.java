@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.service;
+
+import static com.here.naksha.app.common.CommonApiTestSetup.setupSpaceAndRelatedResources;
+import static com.here.naksha.app.common.TestUtil.loadFileOrFail;
+import static com.here.naksha.app.common.TestUtil.parseJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.here.naksha.app.common.ApiTest;
+import com.here.naksha.app.common.NakshaTestWebClient;
+import com.here.naksha.app.common.assertions.ResponseAssertions;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ExportFeaturesTest extends ApiTest {
+
+  private static final NakshaTestWebClient nakshaClient = new NakshaTestWebClient();
+
+  private static final String SPACE_ID = "export_features_test_space";
+
+  @BeforeAll
+  static void setup() throws URISyntaxException, IOException, InterruptedException {
+    setupSpaceAndRelatedResources(nakshaClient, "ReadFeatures/Export/setup");
+    String initialFeaturesJson = loadFileOrFail("ReadFeatures/Export/setup/create_features.json");
+    nakshaClient.post("hub/spaces/" + SPACE_ID + "/features", initialFeaturesJson, UUID.randomUUID().toString());
+  }
+
+  private static List<String> exportedIds(final String body) {
+    return Arrays.stream(body.split("\n"))
+        .map(line -> parseJson(line, XyzFeature.class).getId())
+        .sorted()
+        .toList();
+  }
+
+  @Test
+  void tc1200_testExportAll() throws URISyntaxException, InterruptedException, IOException {
+    // Test API : GET /hub/spaces/{spaceId}/export
+    // Validate all features getting returned as newline-delimited GeoJSON
+    final String streamId = UUID.randomUUID().toString();
+
+    // When: Export Features request is submitted to NakshaHub
+    final HttpResponse<String> response = nakshaClient.get("hub/spaces/" + SPACE_ID + "/export", streamId);
+
+    // Then: Perform assertions
+    ResponseAssertions.assertThat(response)
+        .hasStatus(200)
+        .hasStreamIdHeader(streamId)
+        .hasHeader("content-type", "application/x-ndjson");
+    assertEquals(List.of("feature_1", "feature_2", "feature_3", "feature_4"), exportedIds(response.body()));
+  }
+
+  @Test
+  void tc1201_testExportByTags() throws URISyntaxException, InterruptedException, IOException {
+    // Test API : GET /hub/spaces/{spaceId}/export
+    // Validate only the features having the requested tag getting returned
+    final String streamId = UUID.randomUUID().toString();
+
+    // When: Export Features request is submitted to NakshaHub
+    final HttpResponse<String> response =
+        nakshaClient.get("hub/spaces/" + SPACE_ID + "/export?tags=three", streamId);
+
+    // Then: Perform assertions
+    ResponseAssertions.assertThat(response).hasStatus(200).hasStreamIdHeader(streamId);
+    assertEquals(List.of("feature_3", "feature_4"), exportedIds(response.body()));
+  }
+}
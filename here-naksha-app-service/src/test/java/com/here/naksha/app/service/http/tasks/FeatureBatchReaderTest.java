@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.service.http.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.view.ViewDeserialize;
+import io.vertx.core.buffer.Buffer;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FeatureBatchReaderTest {
+
+  private static ObjectReader reader() {
+    try (final Json json = Json.get()) {
+      return json.reader(ViewDeserialize.User.class);
+    }
+  }
+
+  private static FeatureBatchReader batches(String body, int batchSize) throws IOException {
+    return new FeatureBatchReader(reader(), Buffer.buffer(body), batchSize);
+  }
+
+  @Test
+  void testBatches() throws IOException {
+    final String body = "{\"type\":\"FeatureCollection\",\"bbox\":[0,0,1,1],\"features\":["
+        + "{\"type\":\"Feature\",\"id\":\"a\"},"
+        + "{\"id\":\"b\",\"properties\":{\"features\":[]}},"
+        + "{\"type\":\"Feature\",\"id\":\"c\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[1,2]}}]}";
+    try (final FeatureBatchReader batches = batches(body, 2)) {
+      final List<XyzFeature> first = batches.next();
+      assertEquals(2, first.size());
+      assertEquals("a", first.get(0).getId());
+      assertEquals("b", first.get(1).getId());
+      final List<XyzFeature> second = batches.next();
+      assertEquals(1, second.size());
+      assertEquals("c", second.get(0).getId());
+      assertTrue(batches.next().isEmpty());
+      assertTrue(batches.next().isEmpty());
+    }
+  }
+
+  @Test
+  void testNoFeatures() throws IOException {
+    try (final FeatureBatchReader batches = batches("{\"type\":\"FeatureCollection\"}", 10)) {
+      assertTrue(batches.next().isEmpty());
+    }
+    try (final FeatureBatchReader batches = batches("{\"type\":\"FeatureCollection\",\"features\":[]}", 10)) {
+      assertTrue(batches.next().isEmpty());
+    }
+  }
+
+  @Test
+  void testInvalid() throws IOException {
+    try (final FeatureBatchReader batches = batches("[]", 10)) {
+      assertThrows(IOException.class, batches::next);
+    }
+    try (final FeatureBatchReader batches = batches("{\"features\":[1]}", 10)) {
+      assertThrows(IOException.class, batches::next);
+    }
+    assertThrows(IllegalArgumentException.class, () -> batches("{}", 0));
+  }
+}
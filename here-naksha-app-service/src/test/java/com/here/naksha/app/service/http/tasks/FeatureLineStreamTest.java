@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.service.http.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.EExecutedOp;
+import com.here.naksha.lib.core.models.storage.ListBasedForwardCursor;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FeatureLineStreamTest {
+
+  private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+  /**
+   * A cursor over generated features, that fails when reading the feature at the given index.
+   */
+  private static final class TestCursor extends ListBasedForwardCursor<XyzFeature, XyzFeatureCodec> {
+
+    private TestCursor(int size, int failAt) {
+      super(XyzFeatureCodecFactory.get(), codecs(size));
+      this.failAt = failAt;
+    }
+
+    private final int failAt;
+    private int loaded;
+    private volatile boolean closed;
+
+    private static @NotNull List<XyzFeatureCodec> codecs(int size) {
+      final List<XyzFeatureCodec> codecs = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        codecs.add(XyzFeatureCodecFactory.get()
+            .newInstance()
+            .withOp(EExecutedOp.READ)
+            .withFeature(new XyzFeature("feature_" + i)));
+      }
+      return codecs;
+    }
+
+    @Override
+    protected boolean loadNextRow(@NotNull Row row) {
+      if (loaded++ == failAt) {
+        throw new IllegalStateException("Lost connection to the storage");
+      }
+      return super.loadNextRow(row);
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+      super.close();
+    }
+  }
+
+  private Vertx vertx;
+  private Context context;
+  private HttpServerResponse response;
+  private final AtomicBoolean writeQueueFull = new AtomicBoolean();
+  private final AtomicBoolean responseClosed = new AtomicBoolean();
+  private final AtomicInteger resourcesClosed = new AtomicInteger();
+  private final List<String> chunks = Collections.synchronizedList(new ArrayList<>());
+  private volatile Handler<Void> drainHandler;
+  private volatile Handler<Void> closeHandler;
+
+  @BeforeEach
+  void setUp() {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+    response = mock(HttpServerResponse.class);
+    when(response.writeQueueFull()).thenAnswer(i -> writeQueueFull.get());
+    when(response.closed()).thenAnswer(i -> responseClosed.get());
+    when(response.write(anyString())).thenAnswer(i -> {
+      chunks.add(i.getArgument(0));
+      return Future.succeededFuture();
+    });
+    when(response.drainHandler(any())).thenAnswer(i -> {
+      drainHandler = i.getArgument(0);
+      return response;
+    });
+    when(response.closeHandler(any())).thenAnswer(i -> {
+      closeHandler = i.getArgument(0);
+      return response;
+    });
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Creates a stream, that reads one feature per chunk.
+   */
+  private @NotNull FeatureLineStream stream(@NotNull TestCursor cursor, long drainTimeoutMillis) {
+    return new FeatureLineStream(
+        context, response, cursor, null, false, 1, drainTimeoutMillis, resourcesClosed::incrementAndGet);
+  }
+
+  private @NotNull CompletableFuture<@NotNull Long> start(@NotNull FeatureLineStream stream) throws Exception {
+    final CompletableFuture<CompletableFuture<Long>> started = new CompletableFuture<>();
+    context.runOnContext(v -> started.complete(stream.start()));
+    return started.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  private @NotNull Handler<Void> awaitDrainHandler() throws InterruptedException {
+    final long end = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (drainHandler == null && System.currentTimeMillis() < end) {
+      Thread.sleep(10);
+    }
+    assertNotNull(drainHandler, "The stream did not wait for the response to drain");
+    return drainHandler;
+  }
+
+  @Test
+  void testBackPressure() throws Exception {
+    final TestCursor cursor = new TestCursor(3, -1);
+    writeQueueFull.set(true);
+    final CompletableFuture<Long> done = start(stream(cursor, TIMEOUT_MILLIS));
+
+    // The write queue is full after the first chunk, no more features must be read until it is drained.
+    final Handler<Void> drained = awaitDrainHandler();
+    Thread.sleep(100);
+    assertEquals(1, chunks.size());
+    assertTrue(chunks.get(0).contains("feature_0"));
+
+    writeQueueFull.set(false);
+    context.runOnContext(v -> drained.handle(null));
+    assertEquals(3L, done.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+    assertEquals(3, chunks.size());
+    assertTrue(chunks.get(2).contains("feature_2"));
+    verify(response).end();
+    verify(response, never()).reset();
+    assertTrue(cursor.closed);
+    assertEquals(1, resourcesClosed.get());
+  }
+
+  @Test
+  void testDrainTimeout() throws Exception {
+    final TestCursor cursor = new TestCursor(3, -1);
+    writeQueueFull.set(true);
+    final CompletableFuture<Long> done = start(stream(cursor, 50));
+
+    // The client never consumes the first chunk, so the response is aborted.
+    assertEquals(1L, done.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+    assertEquals(1, chunks.size());
+    verify(response).reset();
+    verify(response, never()).end();
+    assertTrue(cursor.closed);
+    assertEquals(1, resourcesClosed.get());
+  }
+
+  @Test
+  void testClientClose() throws Exception {
+    final TestCursor cursor = new TestCursor(3, -1);
+    writeQueueFull.set(true);
+    final CompletableFuture<Long> done = start(stream(cursor, TIMEOUT_MILLIS));
+    awaitDrainHandler();
+
+    responseClosed.set(true);
+    final Handler<Void> closed = closeHandler;
+    assertNotNull(closed);
+    context.runOnContext(v -> closed.handle(null));
+    assertEquals(1L, done.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+    assertEquals(1, chunks.size());
+    verify(response, never()).end();
+    verify(response, never()).reset();
+    assertTrue(cursor.closed);
+    assertEquals(1, resourcesClosed.get());
+  }
+
+  @Test
+  void testCursorFailure() throws Exception {
+    final TestCursor cursor = new TestCursor(5, 2);
+    final CompletableFuture<Long> done = start(stream(cursor, TIMEOUT_MILLIS));
+
+    // The status is already sent, the response must be aborted, so that the client notices the incomplete stream.
+    done.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    assertTrue(chunks.size() < 5);
+    verify(response).reset();
+    verify(response, never()).end();
+    assertTrue(cursor.closed);
+    assertEquals(1, resourcesClosed.get());
+  }
+}
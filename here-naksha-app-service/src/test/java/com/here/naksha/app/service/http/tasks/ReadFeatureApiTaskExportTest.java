@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.service.http.tasks;
+
+import static com.here.naksha.app.service.http.NakshaHttpHeaders.STREAM_ID;
+import static com.here.naksha.app.service.http.tasks.ReadFeatureApiTask.ReadFeatureApiReqType.EXPORT;
+import static com.here.naksha.common.http.apis.ApiParamsConst.SPACE_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.here.naksha.app.service.http.NakshaHttpVerticle;
+import com.here.naksha.lib.core.INaksha;
+import com.here.naksha.lib.core.NakshaContext;
+import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.payload.XyzResponse;
+import com.here.naksha.lib.core.models.storage.ContextXyzFeatureResult;
+import com.here.naksha.lib.core.models.storage.EExecutedOp;
+import com.here.naksha.lib.core.models.storage.ListBasedForwardCursor;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.core.storage.IReadSession;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReadFeatureApiTaskExportTest {
+
+  private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+  private Vertx vertx;
+  private NakshaHttpVerticle verticle;
+  private INaksha naksha;
+  private IReadSession reader;
+  private RoutingContext routingContext;
+  private HttpServerResponse response;
+  private final AtomicBoolean writeQueueFull = new AtomicBoolean();
+  private final List<String> chunks = Collections.synchronizedList(new ArrayList<>());
+  private volatile Handler<Void> drainHandler;
+
+  @BeforeEach
+  void setUp() {
+    vertx = Vertx.vertx();
+    verticle = mock(NakshaHttpVerticle.class);
+    reader = mock(IReadSession.class);
+    when(reader.execute(any())).thenReturn(features(3));
+    naksha = mock(INaksha.class, RETURNS_DEEP_STUBS);
+    when(naksha.getSpaceStorage().newReadSession(any(), anyBoolean())).thenReturn(reader);
+
+    response = mock(HttpServerResponse.class, RETURNS_SELF);
+    when(response.writeQueueFull()).thenAnswer(i -> writeQueueFull.get());
+    when(response.write(anyString())).thenAnswer(i -> {
+      chunks.add(i.getArgument(0));
+      return io.vertx.core.Future.succeededFuture();
+    });
+    when(response.drainHandler(any())).thenAnswer(i -> {
+      drainHandler = i.getArgument(0);
+      return response;
+    });
+    routingContext = mock(RoutingContext.class, RETURNS_DEEP_STUBS);
+    when(routingContext.vertx()).thenReturn(vertx);
+    when(routingContext.response()).thenReturn(response);
+    when(routingContext.pathParam(SPACE_ID)).thenReturn("test_space");
+    when(routingContext.request().query()).thenReturn(null);
+    when(routingContext.get(STREAM_ID)).thenReturn("test_stream");
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  private static @NotNull ContextXyzFeatureResult features(int size) {
+    final List<XyzFeatureCodec> codecs = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      codecs.add(XyzFeatureCodecFactory.get()
+          .newInstance()
+          .withOp(EExecutedOp.READ)
+          .withFeature(new XyzFeature("feature_" + i)));
+    }
+    return new ContextXyzFeatureResult(new ListBasedForwardCursor<>(XyzFeatureCodecFactory.get(), codecs));
+  }
+
+  private @NotNull Future<XyzResponse> export() {
+    return new ReadFeatureApiTask<>(EXPORT, verticle, naksha, routingContext, new NakshaContext()).start();
+  }
+
+  @Test
+  void testTaskEndsWithStream() throws Exception {
+    when(verticle.tryAcquireAsyncStream()).thenReturn(true);
+    writeQueueFull.set(true);
+    final Future<XyzResponse> task = export();
+
+    // The client did not yet consume the first chunk, the task must still be running and hold its stream.
+    final long end = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (drainHandler == null && System.currentTimeMillis() < end) {
+      Thread.sleep(10);
+    }
+    final Handler<Void> drained = drainHandler;
+    assertNotNull(drained, "The stream did not wait for the response to drain");
+    assertFalse(task.isDone());
+    verify(verticle, never()).releaseAsyncStream();
+    verify(reader, never()).close();
+
+    writeQueueFull.set(false);
+    vertx.getOrCreateContext().runOnContext(v -> drained.handle(null));
+    task.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    assertTrue(String.join("", chunks).contains("feature_2"));
+    // Without property selection the raw JSON is written, decoding the features in parallel would be wasted.
+    verify(reader).setParallelDecode(false);
+    verify(response).end();
+    verify(reader).close();
+    verify(verticle, times(1)).releaseAsyncStream();
+  }
+
+  @Test
+  void testTooManyStreams() throws Exception {
+    when(verticle.tryAcquireAsyncStream()).thenReturn(false);
+    export().get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+    verify(verticle).sendErrorResponse(any(), eq(XyzError.TOO_MANY_REQUESTS), anyString());
+    verify(naksha.getSpaceStorage(), never()).newReadSession(any(), anyBoolean());
+    verify(verticle, never()).releaseAsyncStream();
+    assertEquals(0, chunks.size());
+  }
+}
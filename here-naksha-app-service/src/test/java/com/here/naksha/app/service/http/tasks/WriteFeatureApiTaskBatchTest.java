@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.app.service.http.tasks;
+
+import static com.here.naksha.app.service.http.tasks.WriteFeatureApiTask.WriteFeatureApiReqType.UPSERT_FEATURES;
+import static com.here.naksha.common.http.apis.ApiParamsConst.BATCH_SIZE;
+import static com.here.naksha.common.http.apis.ApiParamsConst.SPACE_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.here.naksha.app.service.http.HttpResponseType;
+import com.here.naksha.app.service.http.NakshaHttpVerticle;
+import com.here.naksha.lib.core.INaksha;
+import com.here.naksha.lib.core.NakshaContext;
+import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeatureCollection;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeatureCollection.ModificationFailure;
+import com.here.naksha.lib.core.models.payload.XyzResponse;
+import com.here.naksha.lib.core.models.storage.ContextXyzFeatureResult;
+import com.here.naksha.lib.core.models.storage.EExecutedOp;
+import com.here.naksha.lib.core.models.storage.ErrorResult;
+import com.here.naksha.lib.core.models.storage.ListBasedForwardCursor;
+import com.here.naksha.lib.core.models.storage.Result;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.core.storage.IWriteSession;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.RoutingContext;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class WriteFeatureApiTaskBatchTest {
+
+  private static final String SIZE = "2";
+
+  private NakshaHttpVerticle verticle;
+  private INaksha naksha;
+  private IWriteSession writer;
+  private final LinkedList<Result> results = new LinkedList<>();
+
+  @BeforeEach
+  void setUp() {
+    verticle = mock(NakshaHttpVerticle.class);
+    writer = mock(IWriteSession.class);
+    when(writer.execute(any())).thenAnswer(i -> results.removeFirst());
+    naksha = mock(INaksha.class, RETURNS_DEEP_STUBS);
+    when(naksha.getSpaceStorage().newWriteSession(any(), eq(true))).thenReturn(writer);
+  }
+
+  private static @NotNull String body(int size) {
+    final StringBuilder sb = new StringBuilder("{\"type\":\"FeatureCollection\",\"features\":[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"type\":\"Feature\",\"id\":\"feature_").append(i).append("\"}");
+    }
+    return sb.append("]}").toString();
+  }
+
+  /**
+   * Returns the result of a written batch, that created or updated the features with the given identifiers.
+   */
+  private static @NotNull Result written(@NotNull EExecutedOp op, @NotNull String... ids) {
+    final List<XyzFeatureCodec> codecs = new ArrayList<>();
+    for (final String id : ids) {
+      codecs.add(XyzFeatureCodecFactory.get()
+          .newInstance()
+          .withOp(op)
+          .withFeature(new XyzFeature(id))
+          .withId(id));
+    }
+    return new ContextXyzFeatureResult(new ListBasedForwardCursor<>(XyzFeatureCodecFactory.get(), codecs));
+  }
+
+  private void upsert(@NotNull String body) {
+    upsert(body, SIZE);
+  }
+
+  private void upsert(@NotNull String body, @Nullable String batchSize) {
+    final RoutingContext routingContext = mock(RoutingContext.class, RETURNS_DEEP_STUBS);
+    when(routingContext.pathParam(SPACE_ID)).thenReturn("test_space");
+    when(routingContext.request().query()).thenReturn(batchSize == null ? null : BATCH_SIZE + "=" + batchSize);
+    when(routingContext.body().buffer()).thenReturn(Buffer.buffer(body));
+    new WriteFeatureApiTask<>(UPSERT_FEATURES, verticle, naksha, routingContext, new NakshaContext()).execute();
+  }
+
+  private @NotNull XyzFeatureCollection sentCollection() {
+    final ArgumentCaptor<XyzResponse> response = ArgumentCaptor.forClass(XyzResponse.class);
+    verify(verticle).sendXyzResponse(any(), eq(HttpResponseType.FEATURE_COLLECTION), response.capture());
+    verify(verticle, never()).sendErrorResponse(any(), any(XyzError.class), anyString());
+    return assertInstanceOf(XyzFeatureCollection.class, response.getValue());
+  }
+
+  @Test
+  void testWithoutBatchSizeWritesAtomically() {
+    results.add(written(EExecutedOp.CREATED, "feature_0", "feature_1", "feature_2"));
+    upsert(body(3), null);
+
+    // Without opting in, all features are written in one request and returned.
+    verify(writer, times(1)).execute(any());
+    final XyzFeatureCollection collection = sentCollection();
+    assertEquals(3, collection.getFeatures().size());
+    assertNull(collection.isPartial());
+  }
+
+  @Test
+  void testInvalidBatchSize() {
+    upsert(body(3), "0");
+    upsert(body(3), "10001");
+
+    verify(writer, never()).execute(any());
+    verify(verticle, times(2)).sendErrorResponse(any(), eq(XyzError.ILLEGAL_ARGUMENT), anyString());
+  }
+
+  @Test
+  void testBatchesReturnIds() {
+    results.add(written(EExecutedOp.CREATED, "feature_0", "feature_1"));
+    results.add(written(EExecutedOp.UPDATED, "feature_2", "feature_3"));
+    results.add(written(EExecutedOp.CREATED, "feature_4"));
+    upsert(body(5));
+
+    verify(writer, times(3)).execute(any());
+    final XyzFeatureCollection collection = sentCollection();
+    assertEquals(List.of("feature_0", "feature_1", "feature_4"), collection.getInserted());
+    assertEquals(List.of("feature_2", "feature_3"), collection.getUpdated());
+    // Only the IDs are returned, the features are not collected.
+    assertTrue(collection.getFeatures().isEmpty());
+    assertNull(collection.isPartial());
+    assertNull(collection.getFailed());
+  }
+
+  @Test
+  void testFailedBatchReturnsPartialResult() {
+    results.add(written(EExecutedOp.CREATED, "feature_0", "feature_1"));
+    results.add(new ErrorResult(XyzError.CONFLICT, "Conflict on feature_3"));
+    upsert(body(5));
+
+    // The batches after the failed one are not written.
+    verify(writer, times(2)).execute(any());
+    final XyzFeatureCollection collection = sentCollection();
+    assertEquals(Boolean.TRUE, collection.isPartial());
+    assertEquals(List.of("feature_0", "feature_1"), collection.getInserted());
+    assertTrue(collection.getUpdated().isEmpty());
+    final List<ModificationFailure> failed = collection.getFailed();
+    assertEquals(2, failed.size());
+    assertEquals("feature_2", failed.get(0).getId());
+    assertEquals(2L, failed.get(0).getPosition());
+    assertEquals("feature_3", failed.get(1).getId());
+    assertEquals(3L, failed.get(1).getPosition());
+    assertEquals("Conflict on feature_3", failed.get(1).getMessage());
+  }
+
+  @Test
+  void testInvalidBatchReturnsPartialResult() {
+    results.add(written(EExecutedOp.CREATED, "feature_0", "feature_1"));
+    upsert("{\"features\":[{\"id\":\"feature_0\"},{\"id\":\"feature_1\"},1]}");
+
+    verify(writer, times(1)).execute(any());
+    final XyzFeatureCollection collection = sentCollection();
+    assertEquals(Boolean.TRUE, collection.isPartial());
+    assertEquals(List.of("feature_0", "feature_1"), collection.getInserted());
+    final List<ModificationFailure> failed = collection.getFailed();
+    assertEquals(1, failed.size());
+    assertNull(failed.get(0).getId());
+    assertEquals(2L, failed.get(0).getPosition());
+  }
+
+  @Test
+  void testFailedFirstBatchReturnsError() {
+    results.add(new ErrorResult(XyzError.CONFLICT, "Conflict on feature_0"));
+    upsert(body(5));
+
+    verify(writer, times(1)).execute(any());
+    verify(verticle).sendErrorResponse(any(), eq(XyzError.CONFLICT), eq("Conflict on feature_0"));
+    verify(verticle, never()).sendXyzResponse(any(), any(), any());
+  }
+}
@@ -63,11 +63,9 @@ public class PropertySearchUtilTest {
         int innerOpsInd = 0;
         // validate operation 1
         assertThatOperation(opList.get(innerOpsInd++))
-                .hasType(POpType.OR)
-                .hasChildrenThat(
-                        first -> first.hasType(EQ).hasPRefWithPath(ID_PROP_PATH).hasValue("@value:1"),
-                        second -> second.hasType(EQ).hasPRefWithPath(ID_PROP_PATH).hasValue("12345")
-                )
+                .hasType(IN)
+                .hasPRefWithPath(ID_PROP_PATH)
+                .hasValues("@value:1", "12345")
         ;
         // validate operation 2
         assertThatOperation(opList.get(innerOpsInd++))
@@ -195,6 +193,21 @@ public class PropertySearchUtilTest {
         ;
     }
 
+    @Test
+    void testEqualityWithMultipleValuesUsesIn() {
+        final POp longs = PropertySearchUtil.buildOperationForPropertySearchParams(
+                new QueryParameterList("p.prop_1=1,22,333"));
+        assertThatOperation(longs)
+                .hasType(IN)
+                .hasNonIndexedPRefWithPath(new String[]{"properties","prop_1"})
+                .hasValues(1L, 22L, 333L);
+
+        // mixed types are still combined using OR
+        final POp mixed = PropertySearchUtil.buildOperationForPropertySearchParams(
+                new QueryParameterList("p.prop_1=1,value_1"));
+        assertThatOperation(mixed).hasType(OR);
+    }
+
     private static Arguments propQuerySpec(String query, String assertionDesc) {
         return arguments(query, named(assertionDesc, XyzErrorException.class));
     }
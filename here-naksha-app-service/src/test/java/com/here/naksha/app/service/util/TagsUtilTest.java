@@ -63,21 +63,16 @@ class TagsUtilTest {
     // validate 1st operation uses EXISTS
     assertThatOperation(orList.get(innerOpsInd++)).hasType(POpType.EXISTS).hasTagName("one");
 
-    // validate 2nd operation uses OR
-    assertThatOperation(orList.get(innerOpsInd++))
-        .hasType(POpType.OR)
-        .hasChildrenThat(second -> second.existsWithTagName("two"), third -> third.existsWithTagName("three"));
+    // validate 2nd operation uses IN
+    assertThatOperation(orList.get(innerOpsInd++)).inTags("two", "three");
 
     // validate 3rd operation uses AND
     assertThatOperation(orList.get(innerOpsInd++))
         .hasType(OpType.AND)
         .hasChildrenThat(fourth -> fourth.existsWithTagName("four"), fifth -> fifth.existsWithTagName("five"));
 
-    // validate 4th operation uses OR
-    assertThatOperation(orList.get(innerOpsInd++))
-        .hasType(OpType.OR)
-        .hasChildrenThat(
-            sixth -> sixth.existsWithTagName("six"), seventh -> seventh.existsWithTagName("seven"));
+    // validate 4th operation uses IN
+    assertThatOperation(orList.get(innerOpsInd++)).inTags("six", "seven");
 
     // validate 5th operation uses AND
     assertThatOperation(orList.get(innerOpsInd++))
@@ -90,12 +85,8 @@ class TagsUtilTest {
         .hasChildrenThat(
             tenth -> tenth.existsWithTagName("ten"), eleventh -> eleventh.existsWithTagName("eleven"));
 
-    // validate 7th operation uses OR
-    assertThatOperation(orList.get(innerOpsInd++))
-        .hasType(OpType.OR)
-        .hasChildrenThat(
-            twelfth -> twelfth.existsWithTagName("twelve"),
-            thirteenth -> thirteenth.existsWithTagName("thirteen"));
+    // validate 7th operation uses IN
+    assertThatOperation(orList.get(innerOpsInd++)).inTags("twelve", "thirteen");
 
     // validate 8th operation uses EXISTS
     assertThatOperation(orList.get(innerOpsInd)).existsWithTagName("fourteen");
@@ -124,10 +115,7 @@ class TagsUtilTest {
         tagQuerySpec("tags=x", op -> op.existsWithTagName("x"), "only 'x'"),
         tagQuerySpec(
             "tags=this,that",
-            op -> op.hasType(OpType.OR)
-                .hasChildrenThat(
-                    child -> child.existsWithTagName("this"),
-                    child -> child.existsWithTagName("that")),
+            op -> op.inTags("this", "that"),
             "'this' or 'that'"),
         tagQuerySpec(
             "tags=foo+bar",
@@ -146,10 +134,7 @@ class TagsUtilTest {
                 "delimiter followed by 'foo' and 'bar'"),
         tagQuerySpec(
                 "tags=,foo,bar",
-                op -> op.hasType(OpType.OR)
-                        .hasChildrenThat(
-                                child -> child.existsWithTagName("foo"),
-                                child -> child.existsWithTagName("bar")),
+                op -> op.inTags("foo", "bar"),
                 "delimiter followed by 'foo' or 'bar'")
     );
   }
@@ -36,6 +36,7 @@ public class ApiParamsConst {
   public static final String TILE_TYPE = "type";
   public static final String TILE_ID = "tileId";
   public static final String HANDLE = "handle";
+  public static final String BATCH_SIZE = "batchSize";
   public static final String MARGIN = "margin";
   public static final String LAT = "lat";
   public static final String LON = "lon";
@@ -45,8 +46,23 @@ public class ApiParamsConst {
   public static final String PROP_SELECTION = "selection";
   public static final String CLIP_GEO = "clip";
   public static final String PROPERTY_SEARCH_OP = "propertySearchOp";
+  public static final String CLUSTERING = "clustering";
+  public static final String CLUSTERING_ABSOLUTE_RESOLUTION = "clustering.absoluteResolution";
+  public static final String CLUSTERING_RELATIVE_RESOLUTION = "clustering.relativeResolution";
+  public static final String CLUSTERING_PROPERTY = "clustering.property";
+  public static final String CLUSTERING_POINT_MODE = "clustering.pointmode";
+  public static final String CLUSTERING_SINGLE_COORD = "clustering.singlecoord";
+  public static final String CLUSTERING_NO_BUFFER = "clustering.noBuffer";
+  public static final String CLUSTERING_HEXBIN = "hexbin";
+  public static final String CLUSTERING_QUADBIN = "quadbin";
+  public static final String TWEAKS = "tweaks";
+  public static final String TWEAKS_STRENGTH = "tweaks.strength";
+  public static final String TWEAKS_ALGORITHM = "tweaks.algorithm";
+  public static final String TWEAKS_SAMPLING = "sampling";
+  public static final String TWEAKS_SIMPLIFICATION = "simplification";
   public static final long DEF_FEATURE_LIMIT = 30_000;
   public static final long DEF_ADMIN_FEATURE_LIMIT = 1_000;
+  public static final long MAX_WRITE_BATCH_SIZE = 10_000;
   // Note - using specific NULL value is not ideal, but practically it makes code less messy at few places
   // and use of it doesn't cause any side effect
   public static final double NULL_COORDINATE = 9999;
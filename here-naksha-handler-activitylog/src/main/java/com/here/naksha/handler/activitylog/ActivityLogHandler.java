@@ -31,28 +31,31 @@ import com.here.naksha.lib.core.INaksha;
 import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.exceptions.NoCursor;
 import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.implementation.EXyzAction;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.models.geojson.implementation.namespaces.XyzNamespace;
 import com.here.naksha.lib.core.models.naksha.EventHandler;
 import com.here.naksha.lib.core.models.naksha.EventTarget;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
 import com.here.naksha.lib.core.models.storage.POp;
 import com.here.naksha.lib.core.models.storage.PRef;
 import com.here.naksha.lib.core.models.storage.ReadFeatures;
 import com.here.naksha.lib.core.models.storage.Request;
 import com.here.naksha.lib.core.models.storage.Result;
 import com.here.naksha.lib.core.models.storage.WriteCollections;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
 import com.here.naksha.lib.core.storage.IReadSession;
 import com.here.naksha.lib.core.util.json.JsonSerializable;
 import com.here.naksha.lib.handlers.AbstractEventHandler;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.stream.Stream;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -138,33 +141,35 @@ public class ActivityLogHandler extends AbstractEventHandler {
 
   private List<FeatureWithPredecessor> featuresWithPredecessors(
       List<XyzFeature> historyFeatures, NakshaContext context) {
-    List<XyzFeature> allNecessaryFeatures = collectAllNecessaryFeatures(historyFeatures, context);
-    Map<String, XyzFeature> allFeaturesByUuid = featuresByUuid(allNecessaryFeatures);
+    Map<String, XyzFeature> historyFeaturesByUuid = featuresByUuid(historyFeatures);
+    Map<String, XyzFeature> missingPredecessors =
+        fetchMissingPredecessors(missingPuuids(historyFeatures), context);
     return historyFeatures.stream()
-        .map(feature -> new FeatureWithPredecessor(feature, allFeaturesByUuid.get(puuid(feature))))
+        .map(feature -> new FeatureWithPredecessor(
+            feature, predecessor(puuid(feature), historyFeaturesByUuid, missingPredecessors)))
         .toList();
   }
 
-  private List<XyzFeature> collectAllNecessaryFeatures(List<XyzFeature> historyFeatures, NakshaContext context) {
-    List<XyzFeature> missingPredecessors = fetchMissingPredecessors(missingPuuids(historyFeatures), context);
-    return combine(historyFeatures, missingPredecessors);
-  }
-
-  private List<XyzFeature> combine(List<XyzFeature> historyFeatures, List<XyzFeature> missingPredecessors) {
-    if (missingPredecessors.isEmpty()) {
-      return historyFeatures;
+  private static @Nullable XyzFeature predecessor(
+      @Nullable String puuid, Map<String, XyzFeature> historyFeatures, Map<String, XyzFeature> missingPredecessors) {
+    if (puuid == null) {
+      return null;
     }
-    return Stream.concat(historyFeatures.stream(), missingPredecessors.stream())
-        .toList();
+    XyzFeature predecessor = historyFeatures.get(puuid);
+    return predecessor != null ? predecessor : missingPredecessors.get(puuid);
   }
 
-  private Set<String> missingPuuids(List<XyzFeature> historyFeatures) {
+  /**
+   * Returns the UUIDs of the predecessors that are needed to calculate the diff, which is only done for updates, and that are not part of
+   * the fetched history.
+   */
+  private static Set<String> missingPuuids(List<XyzFeature> historyFeatures) {
     Set<String> requiredPredecessorsUuids = new HashSet<>();
     Set<String> fetchedUuids = new HashSet<>();
     historyFeatures.forEach(historyFeature -> {
       fetchedUuids.add(uuid(historyFeature));
       String puuid = puuid(historyFeature);
-      if (puuid != null) {
+      if (puuid != null && EXyzAction.UPDATE.equals(xyzNamespace(historyFeature).getAction())) {
         requiredPredecessorsUuids.add(puuid);
       }
     });
@@ -172,11 +177,25 @@ public class ActivityLogHandler extends AbstractEventHandler {
     return requiredPredecessorsUuids;
   }
 
-  private List<XyzFeature> fetchMissingPredecessors(Set<String> missingUuids, NakshaContext context) {
+  /**
+   * Fetches the missing predecessors, keyed by their UUID.
+   */
+  private Map<String, XyzFeature> fetchMissingPredecessors(Set<String> missingUuids, NakshaContext context) {
     if (missingUuids.isEmpty()) {
-      return Collections.emptyList();
+      return Collections.emptyMap();
+    }
+    Map<String, XyzFeature> predecessors = new HashMap<>();
+    try (IReadSession readSession = nakshaHub().getSpaceStorage().newReadSession(context, true);
+        Result result = readSession.execute(missingPredecessorsRequest(missingUuids));
+        ForwardCursor<XyzFeature, XyzFeatureCodec> cursor = result.getXyzFeatureCursor()) {
+      while (cursor.hasNext() && cursor.next()) {
+        XyzFeature predecessor = cursor.getFeature();
+        predecessors.put(uuid(predecessor), predecessor);
+      }
+    } catch (NoCursor | NoSuchElementException e) {
+      return Collections.emptyMap();
     }
-    return fetchHistoryFeatures(missingPredecessorsRequest(missingUuids), context);
+    return predecessors;
   }
 
   private ReadFeatures missingPredecessorsRequest(Set<String> missingUuids) {
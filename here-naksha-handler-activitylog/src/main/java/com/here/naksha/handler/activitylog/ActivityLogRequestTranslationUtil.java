@@ -41,7 +41,7 @@ class ActivityLogRequestTranslationUtil {
   private ActivityLogRequestTranslationUtil() {}
 
   /**
-   * Mutates given ReadFeatures request by translating equality Property Operations for specific property refs.
+   * Mutates given ReadFeatures request by translating equality and IN Property Operations for specific property refs.
    * Translation is about moving source equality Property Operation to target one.
    * After translation is applied the target PRef exists with source POp value and the source POp is removed.
    * <br>
@@ -67,7 +67,11 @@ class ActivityLogRequestTranslationUtil {
   }
 
   private static Optional<POp> translateIfApplicable(POp pOp) {
-    if (isSingleIdEqualityQuery(pOp)) {
+    if (isIdInQuery(pOp)) {
+      return Optional.of(POp.in(PRef.uuid(), (String[]) pOp.getValue()));
+    } else if (isActivityLogIdInQuery(pOp)) {
+      return Optional.of(POp.in(PRef.id(), (String[]) pOp.getValue()));
+    } else if (isSingleIdEqualityQuery(pOp)) {
       String featureUuid = (String) pOp.getValue();
       return Optional.of(uuidMustMatch(featureUuid));
     } else if (isSingleActivityLogIdEqualityQuery(pOp)) {
@@ -90,6 +94,16 @@ class ActivityLogRequestTranslationUtil {
     return pOp.op().equals(POpType.EQ) && sameRefs(PREF_ACTIVITY_LOG_ID, pOp.getPropertyRef());
   }
 
+  private static boolean isIdInQuery(@NotNull POp pOp) {
+    return pOp.op().equals(POpType.IN) && pOp.getValue() instanceof String[] && sameRefs(PRef.id(), pOp.getPropertyRef());
+  }
+
+  private static boolean isActivityLogIdInQuery(@NotNull POp pOp) {
+    return pOp.op().equals(POpType.IN)
+        && pOp.getValue() instanceof String[]
+        && sameRefs(PREF_ACTIVITY_LOG_ID, pOp.getPropertyRef());
+  }
+
   private static boolean sameRefs(@NotNull PRef expected, @Nullable PRef actual) {
     return actual != null && expected.getPath().equals(actual.getPath());
   }
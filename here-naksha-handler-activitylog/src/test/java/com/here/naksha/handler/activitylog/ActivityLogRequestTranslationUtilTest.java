@@ -58,6 +58,22 @@ class ActivityLogRequestTranslationUtilTest {
         );
   }
 
+  @Test
+  void shouldTranslateIdsInToUuidsIn() {
+    // Given:
+    POp idsQuery = POp.in(id(), "id_1", "id_2");
+    ReadFeatures readFeatures = new ReadFeatures().withPropertyOp(idsQuery);
+
+    // When:
+    ActivityLogRequestTranslationUtil.translatePropertyOperation(readFeatures);
+
+    // Then:
+    POpAssertion.assertThatOperation(readFeatures.getPropertyOp())
+        .hasType(POpType.IN)
+        .hasPRef(uuid())
+        .hasValues("id_1", "id_2");
+  }
+
   @Test
   void shouldTranslateActivityLogIdToId() {
     // Given:
@@ -22,6 +22,8 @@ import com.here.naksha.lib.core.exceptions.TooManyTasks;
 import com.here.naksha.lib.core.util.NanoTime;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -388,7 +390,7 @@ public abstract class AbstractTask<RESULT, SELF extends AbstractTask<RESULT, SEL
    * Creates a new thread, attach this task to the new thread, then call {@link #init()} followed by an invocation of {@link #execute()} to
    * generate the response.
    *
-   * @return The future to the result.
+   * @return The future to the result, completed when the task is done, see {@link #deferEnd(CompletionStage)}.
    * @throws IllegalStateException If the {@link #state()} is not {@link State#NEW}.
    * @throws TooManyTasks          If too many tasks are executing already; not thrown for internal tasks.
    * @throws RuntimeException      If adding the task to the thread pool failed for an unknown error.
@@ -403,7 +405,8 @@ public abstract class AbstractTask<RESULT, SELF extends AbstractTask<RESULT, SEL
       incInstanceLevelUsage(this.actor, LIMIT);
       try {
         state.set(State.START);
-        final Future<RESULT> future = threadPool.submit(this::init_and_execute);
+        final CompletableFuture<RESULT> future = new CompletableFuture<>();
+        threadPool.execute(() -> init_and_execute(future));
         return future;
       } catch (RejectedExecutionException e) {
         String errorMessage = "Maximum number of concurrent tasks (" + LIMIT + ") reached";
@@ -426,39 +429,79 @@ public abstract class AbstractTask<RESULT, SELF extends AbstractTask<RESULT, SEL
 
   private static final AtomicLong threadCount = new AtomicLong();
 
-  private @NotNull RESULT init_and_execute() {
-    @NotNull RESULT RESULT;
+  private void init_and_execute(final @NotNull CompletableFuture<RESULT> future) {
+    RESULT RESULT;
+    boolean failed = false;
     try {
       state.set(State.EXECUTE);
       attachToCurrentThread();
       init();
       RESULT = execute();
-
-      state.set(State.CALLING_LISTENER);
-      for (final @NotNull Consumer<@NotNull RESULT> listener : listeners) {
-        try {
-          listener.accept(RESULT);
-        } catch (Throwable t) {
-          log.atError()
-              .setMessage("Uncaught exception in response listener")
-              .setCause(t)
-              .log();
-        }
-      }
     } catch (Throwable t) {
+      failed = true;
+      deferredEnd = null;
       RESULT = errorResponse(t);
     } finally {
       try {
-        state.set(State.DONE);
-        final long newValue = decInstanceLevelUsage();
-        decActorLevelUsage(this.actor);
-        assert newValue >= 0L;
         detachFromCurrentThread();
       } catch (Throwable t) {
-        RESULT = errorResponse(t);
+        log.atError()
+            .setMessage("Failed to detach the task from the thread")
+            .setCause(t)
+            .log();
       }
     }
-    return RESULT;
+    final CompletionStage<?> end = deferredEnd;
+    if (end == null) {
+      finish(RESULT, failed, future);
+    } else {
+      final RESULT result = RESULT;
+      end.whenComplete((ignore, t) -> finish(result, false, future));
+    }
+  }
+
+  /**
+   * Calls the listeners, releases the slot of this task and completes the future of {@link #start()}.
+   */
+  private void finish(
+      final @NotNull RESULT RESULT, final boolean failed, final @NotNull CompletableFuture<RESULT> future) {
+    try {
+      if (!failed) {
+        state.set(State.CALLING_LISTENER);
+        for (final @NotNull Consumer<@NotNull RESULT> listener : listeners) {
+          try {
+            listener.accept(RESULT);
+          } catch (Throwable t) {
+            log.atError()
+                .setMessage("Uncaught exception in response listener")
+                .setCause(t)
+                .log();
+          }
+        }
+      }
+    } finally {
+      state.set(State.DONE);
+      final long newValue = decInstanceLevelUsage();
+      decActorLevelUsage(this.actor);
+      assert newValue >= 0L;
+      future.complete(RESULT);
+    }
+  }
+
+  /**
+   * The stage until which the end of this task is deferred, see {@link #deferEnd(CompletionStage)}.
+   */
+  private volatile @Nullable CompletionStage<?> deferredEnd;
+
+  /**
+   * Defers the end of this task until the given stage is completed. Tasks that continue to send their response after {@link #execute()}
+   * returned, call this method from {@link #execute()}, so that they keep their slot in the request limits and the listeners are called
+   * when the response is done. If {@link #execute()} fails, the end is not deferred.
+   *
+   * @param end The stage that is completed, when the task is done.
+   */
+  protected final void deferEnd(@NotNull CompletionStage<?> end) {
+    this.deferredEnd = end;
   }
 
   /**
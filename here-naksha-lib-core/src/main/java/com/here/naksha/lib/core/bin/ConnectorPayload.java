@@ -104,6 +104,50 @@ public final class ConnectorPayload extends Table {
     return __vector_in_bytebuffer(_bb, 8, 1);
   }
 
+  public long requestId() {
+    int o = __offset(10);
+    return o != 0 ? bb.getLong(o + bb_pos) : 0L;
+  }
+
+  public FeaturePayload features(int j) {
+    return features(new FeaturePayload(), j);
+  }
+
+  public FeaturePayload features(FeaturePayload obj, int j) {
+    int o = __offset(12);
+    return o != 0 ? obj.__assign(__indirect(__vector(o) + j * 4), bb) : null;
+  }
+
+  public int featuresLength() {
+    int o = __offset(12);
+    return o != 0 ? __vector_len(o) : 0;
+  }
+
+  public FeaturePayload.Vector featuresVector() {
+    return featuresVector(new FeaturePayload.Vector());
+  }
+
+  public FeaturePayload.Vector featuresVector(FeaturePayload.Vector obj) {
+    int o = __offset(12);
+    return o != 0 ? obj.__assign(__vector(o), 4, bb) : null;
+  }
+
+  public static int createConnectorPayload(
+      FlatBufferBuilder builder,
+      int mime_typeOffset,
+      int etagOffset,
+      int bytesOffset,
+      long request_id,
+      int featuresOffset) {
+    builder.startTable(5);
+    ConnectorPayload.addRequestId(builder, request_id);
+    ConnectorPayload.addFeatures(builder, featuresOffset);
+    ConnectorPayload.addBytes(builder, bytesOffset);
+    ConnectorPayload.addEtag(builder, etagOffset);
+    ConnectorPayload.addMimeType(builder, mime_typeOffset);
+    return ConnectorPayload.endConnectorPayload(builder);
+  }
+
   public static int createConnectorPayload(
       FlatBufferBuilder builder, int mime_typeOffset, int etagOffset, int bytesOffset) {
     builder.startTable(3);
@@ -114,7 +158,7 @@ public final class ConnectorPayload extends Table {
   }
 
   public static void startConnectorPayload(FlatBufferBuilder builder) {
-    builder.startTable(3);
+    builder.startTable(5);
   }
 
   public static void addMimeType(FlatBufferBuilder builder, int mimeTypeOffset) {
@@ -129,6 +173,24 @@ public final class ConnectorPayload extends Table {
     builder.addOffset(2, bytesOffset, 0);
   }
 
+  public static void addRequestId(FlatBufferBuilder builder, long requestId) {
+    builder.addLong(3, requestId, 0L);
+  }
+
+  public static void addFeatures(FlatBufferBuilder builder, int featuresOffset) {
+    builder.addOffset(4, featuresOffset, 0);
+  }
+
+  public static int createFeaturesVector(FlatBufferBuilder builder, int[] data) {
+    builder.startVector(4, data.length, 4);
+    for (int i = data.length - 1; i >= 0; i--) builder.addOffset(data[i]);
+    return builder.endVector();
+  }
+
+  public static void startFeaturesVector(FlatBufferBuilder builder, int numElems) {
+    builder.startVector(4, numElems, 4);
+  }
+
   public static int createBytesVector(FlatBufferBuilder builder, byte[] data) {
     return builder.createByteVector(data);
   }
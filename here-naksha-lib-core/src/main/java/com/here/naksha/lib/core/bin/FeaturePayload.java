@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.bin;
+
+import com.google.flatbuffers.BaseVector;
+import com.google.flatbuffers.ByteVector;
+import com.google.flatbuffers.Constants;
+import com.google.flatbuffers.FlatBufferBuilder;
+import com.google.flatbuffers.Table;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+@SuppressWarnings("unused")
+public final class FeaturePayload extends Table {
+  public static void ValidateVersion() {
+    Constants.FLATBUFFERS_24_3_25();
+  }
+
+  public static FeaturePayload getRootAsFeaturePayload(ByteBuffer _bb) {
+    return getRootAsFeaturePayload(_bb, new FeaturePayload());
+  }
+
+  public static FeaturePayload getRootAsFeaturePayload(ByteBuffer _bb, FeaturePayload obj) {
+    _bb.order(ByteOrder.LITTLE_ENDIAN);
+    return (obj.__assign(_bb.getInt(_bb.position()) + _bb.position(), _bb));
+  }
+
+  public void __init(int _i, ByteBuffer _bb) {
+    __reset(_i, _bb);
+  }
+
+  public FeaturePayload __assign(int _i, ByteBuffer _bb) {
+    __init(_i, _bb);
+    return this;
+  }
+
+  public int list() {
+    int o = __offset(4);
+    return o != 0 ? bb.get(o + bb_pos) & 0xFF : 0;
+  }
+
+  public int json(int j) {
+    int o = __offset(6);
+    return o != 0 ? bb.get(__vector(o) + j * 1) & 0xFF : 0;
+  }
+
+  public int jsonLength() {
+    int o = __offset(6);
+    return o != 0 ? __vector_len(o) : 0;
+  }
+
+  public ByteVector jsonVector() {
+    return jsonVector(new ByteVector());
+  }
+
+  public ByteVector jsonVector(ByteVector obj) {
+    int o = __offset(6);
+    return o != 0 ? obj.__assign(__vector(o), bb) : null;
+  }
+
+  public ByteBuffer jsonAsByteBuffer() {
+    return __vector_as_bytebuffer(6, 1);
+  }
+
+  public ByteBuffer jsonInByteBuffer(ByteBuffer _bb) {
+    return __vector_in_bytebuffer(_bb, 6, 1);
+  }
+
+  public int wkb(int j) {
+    int o = __offset(8);
+    return o != 0 ? bb.get(__vector(o) + j * 1) & 0xFF : 0;
+  }
+
+  public int wkbLength() {
+    int o = __offset(8);
+    return o != 0 ? __vector_len(o) : 0;
+  }
+
+  public ByteVector wkbVector() {
+    return wkbVector(new ByteVector());
+  }
+
+  public ByteVector wkbVector(ByteVector obj) {
+    int o = __offset(8);
+    return o != 0 ? obj.__assign(__vector(o), bb) : null;
+  }
+
+  public ByteBuffer wkbAsByteBuffer() {
+    return __vector_as_bytebuffer(8, 1);
+  }
+
+  public ByteBuffer wkbInByteBuffer(ByteBuffer _bb) {
+    return __vector_in_bytebuffer(_bb, 8, 1);
+  }
+
+  public static int createFeaturePayload(FlatBufferBuilder builder, int list, int jsonOffset, int wkbOffset) {
+    builder.startTable(3);
+    FeaturePayload.addWkb(builder, wkbOffset);
+    FeaturePayload.addJson(builder, jsonOffset);
+    FeaturePayload.addList(builder, list);
+    return FeaturePayload.endFeaturePayload(builder);
+  }
+
+  public static void startFeaturePayload(FlatBufferBuilder builder) {
+    builder.startTable(3);
+  }
+
+  public static void addList(FlatBufferBuilder builder, int list) {
+    builder.addByte(0, (byte) list, (byte) 0);
+  }
+
+  public static void addJson(FlatBufferBuilder builder, int jsonOffset) {
+    builder.addOffset(1, jsonOffset, 0);
+  }
+
+  public static int createJsonVector(FlatBufferBuilder builder, byte[] data) {
+    return builder.createByteVector(data);
+  }
+
+  public static int createJsonVector(FlatBufferBuilder builder, ByteBuffer data) {
+    return builder.createByteVector(data);
+  }
+
+  public static void startJsonVector(FlatBufferBuilder builder, int numElems) {
+    builder.startVector(1, numElems, 1);
+  }
+
+  public static void addWkb(FlatBufferBuilder builder, int wkbOffset) {
+    builder.addOffset(2, wkbOffset, 0);
+  }
+
+  public static int createWkbVector(FlatBufferBuilder builder, byte[] data) {
+    return builder.createByteVector(data);
+  }
+
+  public static int createWkbVector(FlatBufferBuilder builder, ByteBuffer data) {
+    return builder.createByteVector(data);
+  }
+
+  public static void startWkbVector(FlatBufferBuilder builder, int numElems) {
+    builder.startVector(1, numElems, 1);
+  }
+
+  public static int endFeaturePayload(FlatBufferBuilder builder) {
+    int o = builder.endTable();
+    return o;
+  }
+
+  public static final class Vector extends BaseVector {
+    public Vector __assign(int _vector, int _element_size, ByteBuffer _bb) {
+      __reset(_vector, _element_size, _bb);
+      return this;
+    }
+
+    public FeaturePayload get(int j) {
+      return get(new FeaturePayload(), j);
+    }
+
+    public FeaturePayload get(FeaturePayload obj, int j) {
+      return obj.__assign(__indirect(__element(j), bb), bb);
+    }
+  }
+}
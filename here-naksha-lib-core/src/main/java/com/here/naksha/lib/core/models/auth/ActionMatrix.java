@@ -18,6 +18,7 @@
  */
 package com.here.naksha.lib.core.models.auth;
 
+import com.here.naksha.lib.core.NakshaVersion;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -25,6 +26,8 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map.Entry;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
 
 /**
  * A matrix that describes the relationship between actions and attribute maps. This can either be used as access rights matrix or as
@@ -183,4 +186,16 @@ public class ActionMatrix extends LinkedHashMap<String, List<AttributeMap>> {
     }
     return true;
   }
+
+  /**
+   * Assumes that this action matrix is used as access rights matrix and compiles it into an indexed structure, that tests request
+   * matrices and single resources much faster than {@link #matches(ActionMatrix)}. Modifications done to this matrix after compilation are
+   * not reflected by the compiled matrix.
+   *
+   * @return the compiled access rights matrix.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull CompiledActionMatrix compile() {
+    return new CompiledActionMatrix(this);
+  }
 }
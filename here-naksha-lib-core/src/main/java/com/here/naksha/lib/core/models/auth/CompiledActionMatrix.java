@@ -0,0 +1,353 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.auth;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An access rights {@link ActionMatrix} compiled into an indexed structure, that answers the same questions as
+ * {@link ActionMatrix#matches(ActionMatrix)}, but without comparing every access attribute map with every resource. The compiled matrix
+ * is immutable and thread safe, it should be created once per token (see {@link ServiceMatrix#compiled(String)}) and then used for all
+ * checks, for example for every feature of a write request.
+ * <p>
+ * Per action, access attribute maps that restrict only a single attribute to a single value, which is by far the most common case, are
+ * indexed by attribute: exact values in a hash set and wildcard values ({@code "prefix*"}) in a prefix trie. All other access attribute
+ * maps are pre-processed, so that evaluating them only compares values.
+ */
+@AvailableSince(NakshaVersion.v2_1_0)
+public final class CompiledActionMatrix {
+
+  /**
+   * Compiles the given access rights matrix.
+   *
+   * @param accessMatrix the access rights matrix.
+   */
+  public CompiledActionMatrix(@NotNull ActionMatrix accessMatrix) {
+    this.actionCount = accessMatrix.size();
+    this.actions = new HashMap<>();
+    for (final Entry<String, List<AttributeMap>> entry : accessMatrix.entrySet()) {
+      final List<AttributeMap> accessMaps = entry.getValue();
+      if (entry.getKey() == null || accessMaps == null || accessMaps.isEmpty()) {
+        continue;
+      }
+      actions.put(entry.getKey(), new CompiledAction(accessMaps));
+    }
+  }
+
+  /**
+   * The amount of actions in the original matrix, including those without access attribute maps.
+   */
+  private final int actionCount;
+
+  /**
+   * The compiled actions.
+   */
+  private final @NotNull HashMap<@NotNull String, @NotNull CompiledAction> actions;
+
+  /**
+   * Tests this access matrix against the given request matrix, exactly like {@link ActionMatrix#matches(ActionMatrix)}.
+   *
+   * @param requestMatrix the request matrix.
+   * @return true if this access matrix grants access to the request; false otherwise.
+   */
+  public boolean matches(@NotNull ActionMatrix requestMatrix) {
+    if (actionCount == 0) {
+      return requestMatrix.size() == 0;
+    }
+    if (actionCount < requestMatrix.size()) {
+      return false;
+    }
+    for (final Entry<String, List<AttributeMap>> entry : requestMatrix.entrySet()) {
+      final String requestAction = entry.getKey();
+      if (requestAction == null) {
+        return false;
+      }
+      final List<AttributeMap> requestResourceList = entry.getValue();
+      if (requestResourceList == null || requestResourceList.isEmpty()) {
+        continue;
+      }
+      final CompiledAction action = actions.get(requestAction);
+      if (action == null) {
+        return false;
+      }
+      for (final AttributeMap resource : requestResourceList) {
+        if (resource != null && !action.matches(resource)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Tests if this access matrix grants the given action on a single resource, for example on a feature.
+   *
+   * @param action   the action.
+   * @param resource the attributes of the resource.
+   * @return true if this access matrix grants the action on the resource; false otherwise.
+   */
+  public boolean matches(@NotNull String action, @NotNull Map<String, Object> resource) {
+    final CompiledAction compiledAction = actions.get(action);
+    return compiledAction != null && compiledAction.matches(resource);
+  }
+
+  /**
+   * The compiled access attribute maps of one action, they are OR combined.
+   */
+  private static final class CompiledAction {
+
+    CompiledAction(@NotNull List<AttributeMap> accessMaps) {
+      boolean grantsAll = false;
+      final HashMap<String, KeyIndex> index = new HashMap<>();
+      final List<CompiledAttributeMap> others = new ArrayList<>();
+      for (final AttributeMap accessMap : accessMaps) {
+        if (accessMap == null) {
+          continue;
+        }
+        if (accessMap.isEmpty()) {
+          grantsAll = true;
+          break;
+        }
+        if (accessMap.size() == 1) {
+          final Entry<String, Object> single = accessMap.entrySet().iterator().next();
+          if (!(single.getValue() instanceof List)) {
+            index.computeIfAbsent(single.getKey(), k -> new KeyIndex()).add(single.getValue());
+            continue;
+          }
+        }
+        others.add(new CompiledAttributeMap(accessMap));
+      }
+      this.grantsAll = grantsAll;
+      this.index = index;
+      this.others = others.toArray(new CompiledAttributeMap[0]);
+    }
+
+    /**
+     * If an empty access attribute map exists, which grants access to all resources.
+     */
+    private final boolean grantsAll;
+
+    /**
+     * The single attribute, single value access attribute maps by attribute.
+     */
+    private final @NotNull HashMap<@NotNull String, @NotNull KeyIndex> index;
+
+    /**
+     * All other access attribute maps.
+     */
+    private final @NotNull CompiledAttributeMap @NotNull [] others;
+
+    boolean matches(@NotNull Map<String, Object> resource) {
+      if (grantsAll) {
+        return true;
+      }
+      for (final Entry<String, KeyIndex> entry : index.entrySet()) {
+        if (entry.getValue().matches(resource.get(entry.getKey()))) {
+          return true;
+        }
+      }
+      for (final CompiledAttributeMap accessMap : others) {
+        if (accessMap.matches(resource)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * All values granted for one attribute by single attribute, single value access attribute maps.
+   */
+  private static final class KeyIndex {
+
+    private final @NotNull HashSet<Object> exact = new HashSet<>();
+    private final @NotNull PrefixTrie prefixes = new PrefixTrie();
+
+    void add(@Nullable Object accessValue) {
+      exact.add(accessValue);
+      final String prefix = prefixOf(accessValue);
+      if (prefix != null) {
+        prefixes.add(prefix);
+      }
+    }
+
+    /**
+     * Tests if any of the given resource values is granted.
+     *
+     * @param resourceValue the resource value, either a scalar or a list of scalars.
+     * @return true if any value is granted.
+     */
+    boolean matches(@Nullable Object resourceValue) {
+      if (resourceValue instanceof List) {
+        for (final Object value : (List<?>) resourceValue) {
+          if (matchesScalar(value)) {
+            return true;
+          }
+        }
+        return false;
+      }
+      return matchesScalar(resourceValue);
+    }
+
+    private boolean matchesScalar(@Nullable Object value) {
+      return exact.contains(value) || (value instanceof String && prefixes.matchesPrefixOf((String) value));
+    }
+  }
+
+  /**
+   * An access attribute map, where all keys must match.
+   */
+  private static final class CompiledAttributeMap {
+
+    CompiledAttributeMap(@NotNull AttributeMap accessMap) {
+      final int size = accessMap.size();
+      keys = new String[size];
+      values = new Object[size][];
+      prefixes = new String[size][];
+      int i = 0;
+      for (final Entry<String, Object> entry : accessMap.entrySet()) {
+        keys[i] = entry.getKey();
+        final Object value = entry.getValue();
+        final List<?> list = value instanceof List ? (List<?>) value : null;
+        final int n = list != null ? list.size() : 1;
+        values[i] = new Object[n];
+        prefixes[i] = new String[n];
+        for (int j = 0; j < n; j++) {
+          final Object v = list != null ? list.get(j) : value;
+          values[i][j] = v;
+          prefixes[i][j] = prefixOf(v);
+        }
+        i++;
+      }
+    }
+
+    private final @NotNull String @NotNull [] keys;
+
+    /**
+     * The access values per key, all of them must be matched by the resource. An empty array never matches.
+     */
+    private final @Nullable Object @NotNull [] @NotNull [] values;
+
+    /**
+     * The prefix of each access value, if it is a wildcard value.
+     */
+    private final @Nullable String @NotNull [] @NotNull [] prefixes;
+
+    boolean matches(@NotNull Map<String, Object> resource) {
+      for (int i = 0; i < keys.length; i++) {
+        final Object[] accessValues = values[i];
+        if (accessValues.length == 0) {
+          return false;
+        }
+        final Object resourceValue = resource.get(keys[i]);
+        for (int j = 0; j < accessValues.length; j++) {
+          if (!matchesAny(accessValues[j], prefixes[i][j], resourceValue)) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    private static boolean matchesAny(
+        @Nullable Object accessValue, @Nullable String prefix, @Nullable Object resourceValue) {
+      if (resourceValue instanceof List) {
+        for (final Object value : (List<?>) resourceValue) {
+          if (matchesScalar(accessValue, prefix, value)) {
+            return true;
+          }
+        }
+        return false;
+      }
+      return matchesScalar(accessValue, prefix, resourceValue);
+    }
+
+    private static boolean matchesScalar(
+        @Nullable Object accessValue, @Nullable String prefix, @Nullable Object resourceValue) {
+      return Objects.equals(accessValue, resourceValue)
+          || (prefix != null && resourceValue instanceof String && ((String) resourceValue).startsWith(prefix));
+    }
+  }
+
+  /**
+   * Returns the prefix of a wildcard value.
+   *
+   * @param accessValue the access value.
+   * @return the prefix, if the value is a string ending with the {@link AttributeMap#WILDCARD}; {@code null} otherwise.
+   */
+  private static @Nullable String prefixOf(@Nullable Object accessValue) {
+    if (accessValue instanceof String) {
+      final String s = (String) accessValue;
+      if (s.endsWith(AttributeMap.WILDCARD)) {
+        return s.substring(0, s.length() - AttributeMap.WILDCARD.length());
+      }
+    }
+    return null;
+  }
+
+  /**
+   * A trie of prefixes, to find out if any of them is a prefix of a string, in the time of walking the string once.
+   */
+  private static final class PrefixTrie {
+
+    private static final class Node {
+      boolean terminal;
+      @Nullable HashMap<Character, Node> children;
+    }
+
+    private final @NotNull Node root = new Node();
+
+    void add(@NotNull String prefix) {
+      Node node = root;
+      for (int i = 0; i < prefix.length(); i++) {
+        if (node.children == null) {
+          node.children = new HashMap<>();
+        }
+        node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+      }
+      node.terminal = true;
+    }
+
+    boolean matchesPrefixOf(@NotNull String value) {
+      Node node = root;
+      for (int i = 0; ; i++) {
+        if (node.terminal) {
+          return true;
+        }
+        if (i == value.length() || node.children == null) {
+          return false;
+        }
+        node = node.children.get(value.charAt(i));
+        if (node == null) {
+          return false;
+        }
+      }
+    }
+  }
+}
@@ -18,11 +18,43 @@
  */
 package com.here.naksha.lib.core.models.auth;
 
+import com.here.naksha.lib.core.NakshaVersion;
 import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * The service action matrix contains the action matrices of multiple services. The key is the service identifier and the value the
  * corresponding action matrix that describes all access rights the corresponding user or application does have for that service. This
  * structure is very helpful for caching and offline access control.
  */
-public class ServiceMatrix extends LinkedHashMap<String, ActionMatrix> {}
+public class ServiceMatrix extends LinkedHashMap<String, ActionMatrix> {
+
+  /**
+   * The compiled action matrices by service identifier, the service matrix is created once per token, so this caches them per token.
+   */
+  private final transient @NotNull ConcurrentHashMap<@NotNull String, @NotNull CompiledActionMatrix> compiled =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Returns the compiled access rights matrix of the given service. The matrix is compiled only once, therefore the action matrix of the
+   * service must not be modified afterwards.
+   *
+   * @param serviceId the service identifier.
+   * @return the compiled access rights matrix; {@code null} if there is no action matrix for the service.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @Nullable CompiledActionMatrix compiled(@NotNull String serviceId) {
+    final CompiledActionMatrix existing = compiled.get(serviceId);
+    if (existing != null) {
+      return existing;
+    }
+    final ActionMatrix actionMatrix = get(serviceId);
+    if (actionMatrix == null) {
+      return null;
+    }
+    return compiled.computeIfAbsent(serviceId, id -> actionMatrix.compile());
+  }
+}
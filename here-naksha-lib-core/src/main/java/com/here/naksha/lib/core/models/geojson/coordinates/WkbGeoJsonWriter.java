@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.geojson.coordinates;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Converts <a href="https://libgeos.org/specifications/wkb/">Extended WKB</a> (as returned by PostGIS {@code ST_AsEWKB}) and ISO WKB
+ * directly into GeoJSON, without creating any JTS or XYZ geometry objects. The output is the same as serializing the
+ * {@link com.here.naksha.lib.core.models.geojson.implementation.XyzGeometry} created via {@link JTSHelper#fromGeometry(
+ * org.locationtech.jts.geom.Geometry)}: only the {@code x}, {@code y} and, when available, the {@code z} ordinate are written, the
+ * {@code m} ordinate is dropped.
+ */
+public final class WkbGeoJsonWriter {
+
+  private WkbGeoJsonWriter() {}
+
+  private static final int POINT = 1;
+  private static final int LINE_STRING = 2;
+  private static final int POLYGON = 3;
+  private static final int MULTI_POINT = 4;
+  private static final int MULTI_LINE_STRING = 5;
+  private static final int MULTI_POLYGON = 6;
+  private static final int GEOMETRY_COLLECTION = 7;
+
+  private static final int EWKB_Z = 0x80000000;
+  private static final int EWKB_M = 0x40000000;
+  private static final int EWKB_SRID = 0x20000000;
+
+  private static final String[] TYPE_NAMES = {
+    null, "Point", "LineString", "Polygon", "MultiPoint", "MultiLineString", "MultiPolygon", "GeometryCollection"
+  };
+
+  /**
+   * The header of a geometry.
+   */
+  private static final class Header {
+
+    int type;
+    boolean hasZ;
+    boolean hasM;
+
+    int dimensions() {
+      return 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+    }
+  }
+
+  /**
+   * Converts the given WKB into a GeoJSON geometry.
+   *
+   * @param wkb The (extended) WKB.
+   * @return the GeoJSON.
+   * @throws IllegalArgumentException If the WKB is invalid.
+   */
+  public static @NotNull String toGeoJson(byte @NotNull [] wkb) {
+    final StringBuilder sb = new StringBuilder(wkb.length * 2);
+    write(wkb, sb);
+    return sb.toString();
+  }
+
+  /**
+   * Converts the given WKB into a GeoJSON geometry and appends it to the given string builder.
+   *
+   * @param wkb The (extended) WKB.
+   * @param sb  The string builder to append the GeoJSON to.
+   * @return the given string builder.
+   * @throws IllegalArgumentException If the WKB is invalid.
+   */
+  public static @NotNull StringBuilder write(byte @NotNull [] wkb, @NotNull StringBuilder sb) {
+    try {
+      writeGeometry(ByteBuffer.wrap(wkb), sb, new Header());
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid WKB", e);
+    }
+    return sb;
+  }
+
+  /**
+   * Calculates the bounding box of the given WKB.
+   *
+   * @param wkb The (extended) WKB.
+   * @return the bounding box; {@code null} if the geometry is empty.
+   * @throws IllegalArgumentException If the WKB is invalid.
+   */
+  public static @Nullable BBox bbox(byte @NotNull [] wkb) {
+    final double[] bbox = newBBox();
+    extendBBox(wkb, bbox);
+    return toBBox(bbox);
+  }
+
+  /**
+   * Converts the given bounding box array into a bounding box.
+   *
+   * @param bbox The bounding box array, being {@code [minX, minY, maxX, maxY]}.
+   * @return the bounding box; {@code null} if the bounding box array is empty.
+   */
+  public static @Nullable BBox toBBox(double @NotNull [] bbox) {
+    return isEmpty(bbox) ? null : new BBox(bbox[0], bbox[1], bbox[2], bbox[3]);
+  }
+
+  /**
+   * Extends the given bounding box array by the given bounding box.
+   *
+   * @param bbox  The bounding box array to extend, being {@code [minX, minY, maxX, maxY]}.
+   * @param other The bounding box to add; {@code null} if there is none.
+   */
+  public static void extendBBox(double @NotNull [] bbox, @Nullable BBox other) {
+    if (other != null) {
+      if (other.minLon() < bbox[0]) bbox[0] = other.minLon();
+      if (other.minLat() < bbox[1]) bbox[1] = other.minLat();
+      if (other.maxLon() > bbox[2]) bbox[2] = other.maxLon();
+      if (other.maxLat() > bbox[3]) bbox[3] = other.maxLat();
+    }
+  }
+
+  /**
+   * Creates a new empty bounding box array, to be used with {@link #extendBBox(byte[], double[])}.
+   *
+   * @return a new empty bounding box array, being {@code [minX, minY, maxX, maxY]}.
+   */
+  public static double @NotNull [] newBBox() {
+    return new double[] {
+      Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY
+    };
+  }
+
+  /**
+   * Tests if the given bounding box array is still empty.
+   *
+   * @param bbox The bounding box array.
+   * @return {@code true} if the bounding box is empty; {@code false} otherwise.
+   */
+  public static boolean isEmpty(double @NotNull [] bbox) {
+    return bbox[0] > bbox[2] || bbox[1] > bbox[3];
+  }
+
+  /**
+   * Extends the given bounding box array by all coordinates of the given WKB. This allows to calculate the bounding box of multiple
+   * geometries without any allocation.
+   *
+   * @param wkb  The (extended) WKB.
+   * @param bbox The bounding box array to extend, being {@code [minX, minY, maxX, maxY]}.
+   * @throws IllegalArgumentException If the WKB is invalid.
+   */
+  public static void extendBBox(byte @NotNull [] wkb, double @NotNull [] bbox) {
+    try {
+      extendBBox(ByteBuffer.wrap(wkb), bbox, new Header());
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid WKB", e);
+    }
+  }
+
+  private static void readHeader(@NotNull ByteBuffer bb, @NotNull Header header) {
+    bb.order(bb.get() == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+    final int raw = bb.getInt();
+    header.hasZ = (raw & EWKB_Z) != 0;
+    header.hasM = (raw & EWKB_M) != 0;
+    if ((raw & EWKB_SRID) != 0) {
+      bb.getInt();
+    }
+    final int iso = raw & 0x0fffffff;
+    header.type = iso % 1000;
+    final int isoDims = iso / 1000;
+    if (isoDims == 1 || isoDims == 3) {
+      header.hasZ = true;
+    }
+    if (isoDims == 2 || isoDims == 3) {
+      header.hasM = true;
+    }
+    if (header.type < POINT || header.type > GEOMETRY_COLLECTION) {
+      throw new IllegalArgumentException("Unknown geometry type: " + raw);
+    }
+  }
+
+  private static void writeGeometry(@NotNull ByteBuffer bb, @NotNull StringBuilder sb, @NotNull Header header) {
+    readHeader(bb, header);
+    final int type = header.type;
+    final boolean hasZ = header.hasZ;
+    final int dims = header.dimensions();
+    sb.append("{\"type\":\"").append(TYPE_NAMES[type]).append('"');
+    if (type == GEOMETRY_COLLECTION) {
+      sb.append(",\"geometries\":[");
+      final int n = bb.getInt();
+      for (int i = 0; i < n; i++) {
+        if (i > 0) {
+          sb.append(',');
+        }
+        writeGeometry(bb, sb, header);
+      }
+      sb.append("]}");
+      return;
+    }
+    sb.append(",\"coordinates\":");
+    switch (type) {
+      case POINT:
+        writePoint(bb, sb, hasZ, dims);
+        break;
+      case LINE_STRING:
+        writePoints(bb, sb, hasZ, dims);
+        break;
+      case POLYGON:
+        writeRings(bb, sb, hasZ, dims);
+        break;
+      default:
+        // Multi-geometries, every member has its own header.
+        sb.append('[');
+        final int n = bb.getInt();
+        for (int i = 0; i < n; i++) {
+          if (i > 0) {
+            sb.append(',');
+          }
+          readHeader(bb, header);
+          if (type == MULTI_POINT) {
+            writePoint(bb, sb, header.hasZ, header.dimensions());
+          } else if (type == MULTI_LINE_STRING) {
+            writePoints(bb, sb, header.hasZ, header.dimensions());
+          } else {
+            writeRings(bb, sb, header.hasZ, header.dimensions());
+          }
+        }
+        sb.append(']');
+    }
+    sb.append('}');
+  }
+
+  private static void writePoint(@NotNull ByteBuffer bb, @NotNull StringBuilder sb, boolean hasZ, int dims) {
+    final double x = bb.getDouble();
+    final double y = bb.getDouble();
+    final double z = hasZ ? bb.getDouble() : Double.NaN;
+    skipOrdinates(bb, dims, hasZ);
+    if (Double.isNaN(x) && Double.isNaN(y)) {
+      // Empty point.
+      sb.append("[]");
+      return;
+    }
+    writePosition(sb, x, y, z);
+  }
+
+  private static void writePoints(@NotNull ByteBuffer bb, @NotNull StringBuilder sb, boolean hasZ, int dims) {
+    sb.append('[');
+    final int n = bb.getInt();
+    for (int i = 0; i < n; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      final double x = bb.getDouble();
+      final double y = bb.getDouble();
+      final double z = hasZ ? bb.getDouble() : Double.NaN;
+      skipOrdinates(bb, dims, hasZ);
+      writePosition(sb, x, y, z);
+    }
+    sb.append(']');
+  }
+
+  private static void writeRings(@NotNull ByteBuffer bb, @NotNull StringBuilder sb, boolean hasZ, int dims) {
+    sb.append('[');
+    final int n = bb.getInt();
+    for (int i = 0; i < n; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      writePoints(bb, sb, hasZ, dims);
+    }
+    sb.append(']');
+  }
+
+  private static void writePosition(@NotNull StringBuilder sb, double x, double y, double z) {
+    sb.append('[').append(x).append(',').append(y);
+    if (!Double.isNaN(z)) {
+      sb.append(',').append(z);
+    }
+    sb.append(']');
+  }
+
+  private static void skipOrdinates(@NotNull ByteBuffer bb, int dims, boolean hasZ) {
+    final int read = hasZ ? 3 : 2;
+    if (dims > read) {
+      bb.position(bb.position() + (dims - read) * Double.BYTES);
+    }
+  }
+
+  private static void extendBBox(@NotNull ByteBuffer bb, double @NotNull [] bbox, @NotNull Header header) {
+    readHeader(bb, header);
+    final int type = header.type;
+    final int dims = header.dimensions();
+    switch (type) {
+      case POINT:
+        extendByPositions(bb, bbox, 1, dims);
+        break;
+      case LINE_STRING:
+        extendByPositions(bb, bbox, bb.getInt(), dims);
+        break;
+      case POLYGON:
+        final int rings = bb.getInt();
+        for (int i = 0; i < rings; i++) {
+          extendByPositions(bb, bbox, bb.getInt(), dims);
+        }
+        break;
+      default:
+        final int n = bb.getInt();
+        for (int i = 0; i < n; i++) {
+          extendBBox(bb, bbox, header);
+        }
+    }
+  }
+
+  private static void extendByPositions(@NotNull ByteBuffer bb, double @NotNull [] bbox, int n, int dims) {
+    final int skip = (dims - 2) * Double.BYTES;
+    for (int i = 0; i < n; i++) {
+      final double x = bb.getDouble();
+      final double y = bb.getDouble();
+      if (skip > 0) {
+        bb.position(bb.position() + skip);
+      }
+      // Empty points are encoded as NaN, for which all comparisons are false.
+      if (x < bbox[0]) bbox[0] = x;
+      if (y < bbox[1]) bbox[1] = y;
+      if (x > bbox[2]) bbox[2] = x;
+      if (y > bbox[3]) bbox[3] = y;
+    }
+  }
+}
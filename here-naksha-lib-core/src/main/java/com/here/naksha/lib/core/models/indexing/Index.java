@@ -27,6 +27,13 @@ import org.jetbrains.annotations.NotNull;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Index {
 
+  /**
+   * The unique name of the index within the collection, only lower case letters, digits and underscores are allowed. The storage uses the name to
+   * detect which indices need to be created or dropped, therefore the name must be changed when the definition of an index is modified.
+   */
+  @JsonProperty
+  public String name;
+
   /**
    * The algorithm to use. The implementing processor will decide if it supports the algorithm.
    *
@@ -26,10 +26,17 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class IndexProperty {
 
-  /** The JSON path to the property to index. */
+  /** The JSON path to the property to index, for example {@code properties.featureType}. */
   @JsonProperty
   public String path;
 
+  /**
+   * The type of the property value. Only queries that compare the property with a value of the same type can use the index, so a
+   * {@link Type#LONG} index is used when searching for an integer, but not when searching for a floating point number.
+   */
+  @JsonProperty
+  public Type type = Type.STRING;
+
   /** If the property should be naturally ordered ascending. */
   @JsonProperty
   public boolean asc = true;
@@ -45,4 +52,21 @@ public class IndexProperty {
     FIRST,
     LAST
   }
+
+  public enum Type {
+    /** The value is a string. */
+    STRING,
+
+    /** The value is an integer. */
+    LONG,
+
+    /** The value is a floating point number. */
+    DOUBLE,
+
+    /** The value is a boolean. */
+    BOOLEAN,
+
+    /** The value is an arbitrary JSON value (for example a list or map), to be searched using contains. */
+    JSON
+  }
 }
@@ -25,9 +25,12 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.models.indexing.Index;
+import java.util.List;
 import java.util.Objects;
 import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A collection is a virtual container for features, managed by a {@link Storage}. All collections optionally have a history and transaction
@@ -67,6 +70,9 @@ public class XyzCollection extends NakshaFeature {
   @AvailableSince(NakshaVersion.v2_0_7)
   public static final String PARTITION_COUNT = "partitionCount";
 
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static final String INDICES = "indices";
+
   /**
    * Create a new empty default collection with default properties.
    *
@@ -341,6 +347,32 @@ public class XyzCollection extends NakshaFeature {
   @JsonInclude(Include.NON_EMPTY)
   private long estimatedDeletedFeatures;
 
+  /**
+   * Returns the user-defined indices of this collection, additionally to the indices that the storage always creates.
+   *
+   * @return the user-defined indices; {@code null} if none.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @Nullable List<@NotNull Index> getIndices() {
+    return indices;
+  }
+
+  /**
+   * Sets the user-defined indices of this collection. The storage creates missing indices and drops removed ones in the background, after
+   * the collection was written.
+   *
+   * @param indices the user-defined indices; {@code null} if none.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public void setIndices(@Nullable List<@NotNull Index> indices) {
+    this.indices = indices;
+  }
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  @JsonProperty(INDICES)
+  @JsonInclude(Include.NON_EMPTY)
+  private @Nullable List<@NotNull Index> indices;
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -29,6 +29,9 @@ import org.jetbrains.annotations.Nullable;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public final class Sampling {
 
+  // Must be initialized before the named settings, which register themselves.
+  private static final ConcurrentHashMap<@NotNull String, @NotNull Sampling> allByText = new ConcurrentHashMap<>();
+
   // Named settings.
   public static final Sampling OFF = new Sampling(1, 1, 0, 100_000, "off");
   public static final Sampling LOW = new Sampling(1, 8, 10, 80_000, "low");
@@ -120,6 +123,4 @@ public final class Sampling {
   public @NotNull String toString() {
     return name;
   }
-
-  private static final ConcurrentHashMap<@NotNull String, @NotNull Sampling> allByText = new ConcurrentHashMap<>();
 }
@@ -47,7 +47,7 @@ public class TweaksSampling extends Tweaks {
     Algorithm(@NotNull String text, boolean distribution, boolean distribution2) {
       this.text = text;
       this.distribution = distribution;
-      this.distribution2 = distribution;
+      this.distribution2 = distribution2;
     }
 
     @JsonCreator
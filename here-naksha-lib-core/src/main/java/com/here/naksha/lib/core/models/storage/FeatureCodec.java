@@ -21,7 +21,14 @@ package com.here.naksha.lib.core.models.storage;
 import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
 import static com.here.naksha.lib.core.util.StringCache.string;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.util.json.JsonPathReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -94,6 +101,7 @@ public abstract class FeatureCodec<FEATURE, SELF extends FeatureCodec<FEATURE, S
     json = otherCodec.json;
     wkb = otherCodec.wkb;
     geometry = otherCodec.geometry;
+    clearLazyValues();
     return self();
   }
 
@@ -146,6 +154,7 @@ public abstract class FeatureCodec<FEATURE, SELF extends FeatureCodec<FEATURE, S
     propertiesType = null;
     wkb = null;
     geometry = null;
+    clearLazyValues();
     return self();
   }
 
@@ -163,6 +172,7 @@ public abstract class FeatureCodec<FEATURE, SELF extends FeatureCodec<FEATURE, S
     propertiesType = null;
     wkb = null;
     geometry = null;
+    clearLazyValues();
     return self();
   }
 
@@ -175,6 +185,7 @@ public abstract class FeatureCodec<FEATURE, SELF extends FeatureCodec<FEATURE, S
     isEncoded = false;
     err = null;
     feature = null;
+    clearLazyValues();
     return self();
   }
 
@@ -232,6 +243,105 @@ public abstract class FeatureCodec<FEATURE, SELF extends FeatureCodec<FEATURE, S
    */
   protected @Nullable String errorJson;
 
+  /**
+   * The values of individual paths, lazily decoded via {@link #decodePaths(List)}.
+   */
+  protected @Nullable Map<@NotNull List<@NotNull String>, @Nullable Object> pathValues;
+
+  /**
+   * Decodes the values of the given properties, without decoding the whole feature. If the feature is available, the values are read
+   * from the feature, otherwise only the requested paths are read from the JSON using a streaming parser. The values are cached, until
+   * the JSON or the feature are modified via the codec. Note that the geometry is not part of the JSON.
+   *
+   * <p>Values are always returned as plain JSON values ({@link Map}, {@link List}, {@link String}, {@link Number}, {@link Boolean} or
+   * {@code null}), no matter if they were read from the JSON or from an already decoded feature. For a tag-reference
+   * ({@link PRef#tag(CharSequence)}) the whole tags array is decoded.
+   *
+   * @param refs The references to the properties to decode.
+   * @return this.
+   */
+  public @NotNull SELF decodePaths(@NotNull List<@NotNull PRef> refs) {
+    List<List<String>> missing = null;
+    for (final PRef ref : refs) {
+      final List<String> path = ref.getPath();
+      if (pathValues == null || !pathValues.containsKey(path)) {
+        if (missing == null) {
+          missing = new ArrayList<>(refs.size());
+        }
+        missing.add(path);
+      }
+    }
+    if (missing == null) {
+      return self();
+    }
+    Map<List<String>, Object> pathValues = this.pathValues;
+    if (pathValues == null) {
+      this.pathValues = pathValues = new HashMap<>();
+    }
+    if (feature != null) {
+      for (final List<String> path : missing) {
+        pathValues.put(path, featurePathValue(path));
+      }
+    } else if (json != null) {
+      final Map<List<String>, Object> found = JsonPathReader.read(json, missing);
+      for (final List<String> path : missing) {
+        pathValues.put(path, found.get(path));
+      }
+    } else {
+      for (final List<String> path : missing) {
+        pathValues.put(path, null);
+      }
+    }
+    return self();
+  }
+
+  /**
+   * Returns the value of the given property, decoding only this property, if the feature is not yet decoded.
+   *
+   * @param ref The reference to the property.
+   * @return the value of the property; {@code null} if the feature does not have this property.
+   * @see #decodePaths(List)
+   */
+  public @Nullable Object getPathValue(@NotNull PRef ref) {
+    decodePaths(List.of(ref));
+    final Map<List<String>, Object> pathValues = this.pathValues;
+    assert pathValues != null;
+    return pathValues.get(ref.getPath());
+  }
+
+  /**
+   * Reads the value of the given path from the {@link #feature}. The default implementation supports features that are maps, which is
+   * true for all {@link com.here.naksha.lib.core.util.json.JsonObject}'s. Values that are not scalars are converted into plain JSON
+   * values, so that the result does not depend upon whether the feature is decoded or not.
+   *
+   * @param path The path to read.
+   * @return the value; {@code null} if no such value exists.
+   */
+  protected @Nullable Object featurePathValue(@NotNull List<@NotNull String> path) {
+    Object value = feature;
+    for (final String name : path) {
+      if (!(value instanceof Map)) {
+        return null;
+      }
+      value = ((Map<?, ?>) value).get(name);
+    }
+    if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+      return value;
+    }
+    try (final Json jp = Json.get()) {
+      return jp.reader().forType(Object.class).readValue(jp.convert(value, JsonNode.class));
+    } catch (IOException e) {
+      throw unchecked(e);
+    }
+  }
+
+  /**
+   * Clears all values that were lazily decoded, because the JSON or the feature have been modified.
+   */
+  protected void clearLazyValues() {
+    pathValues = null;
+  }
+
   /**
    * Sets the given geometry and clears the WKB.
    *
@@ -338,6 +448,7 @@ public abstract class FeatureCodec<FEATURE, SELF extends FeatureCodec<FEATURE, S
   public @Nullable String setJson(@Nullable CharSequence json) {
     final String old = this.json;
     this.json = string(json);
+    clearLazyValues();
     return old;
   }
 
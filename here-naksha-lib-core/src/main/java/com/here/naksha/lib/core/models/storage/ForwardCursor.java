@@ -393,6 +393,21 @@ public abstract class ForwardCursor<FEATURE, CODEC extends FeatureCodec<FEATURE,
     return currentRow.codec.getWkb();
   }
 
+  /**
+   * Returns the value of the given property, without decoding the whole feature, if not necessary.
+   *
+   * @param ref The reference to the property.
+   * @return the value of the property; {@code null} if the feature does not have this property.
+   * @throws NoSuchElementException If the cursor currently is not at a valid result.
+   * @see FeatureCodec#decodePaths(java.util.List)
+   */
+  public @Nullable Object getPathValue(@NotNull PRef ref) throws NoSuchElementException {
+    if (!currentRow.valid) {
+      throw new NoSuchElementException();
+    }
+    return currentRow.codec.getPathValue(ref);
+  }
+
   /**
    * Returns the JTS geometry.
    *
@@ -421,6 +436,19 @@ public abstract class ForwardCursor<FEATURE, CODEC extends FeatureCodec<FEATURE,
     return feature;
   }
 
+  /**
+   * Returns the feature as POJO, but only if it is already available, so without decoding the raw JSON and WKB.
+   *
+   * @return the feature as POJO, if it is already available; {@code null} otherwise.
+   * @throws NoSuchElementException If the cursor currently is not at a valid result.
+   */
+  public @Nullable FEATURE getDecodedFeature() throws NoSuchElementException {
+    if (!currentRow.valid) {
+      throw new NoSuchElementException();
+    }
+    return currentRow.codec.getFeature();
+  }
+
   /**
    * Returns true if current row has error, otherwise false.
    * @return
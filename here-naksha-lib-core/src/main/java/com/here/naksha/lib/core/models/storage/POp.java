@@ -26,13 +26,18 @@ import static com.here.naksha.lib.core.models.storage.POpType.EQ;
 import static com.here.naksha.lib.core.models.storage.POpType.EXISTS;
 import static com.here.naksha.lib.core.models.storage.POpType.GT;
 import static com.here.naksha.lib.core.models.storage.POpType.GTE;
+import static com.here.naksha.lib.core.models.storage.POpType.IN;
 import static com.here.naksha.lib.core.models.storage.POpType.LT;
 import static com.here.naksha.lib.core.models.storage.POpType.LTE;
 import static com.here.naksha.lib.core.models.storage.POpType.NOT_NULL;
 import static com.here.naksha.lib.core.models.storage.POpType.NULL;
 import static com.here.naksha.lib.core.models.storage.POpType.STARTS_WITH;
 
+import com.here.naksha.lib.core.NakshaVersion;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Objects;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -100,6 +105,49 @@ public class POp extends Op<POp> {
     return new POp(EQ, propertyRef, value);
   }
 
+  /**
+   * Tests if the property is equal to any of the given strings. The values are bound as a single array parameter, so the query stays the
+   * same, independent of the amount of values. When applied to {@link PRef#tags()}, tests if the feature has any of the given tags.
+   *
+   * @param propertyRef The property to test.
+   * @param values      The values.
+   * @return the operation.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static @NotNull POp in(@NotNull PRef propertyRef, @NotNull String... values) {
+    return new POp(IN, propertyRef, values.clone());
+  }
+
+  /**
+   * Tests if the property is equal to any of the given strings.
+   *
+   * @param propertyRef The property to test.
+   * @param values      The values.
+   * @return the operation.
+   * @see #in(PRef, String...)
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static @NotNull POp in(@NotNull PRef propertyRef, @NotNull Collection<@NotNull String> values) {
+    return new POp(IN, propertyRef, values.toArray(new String[0]));
+  }
+
+  /**
+   * Tests if the integer property is equal to any of the given values.
+   *
+   * @param propertyRef The property to test.
+   * @param values      The values.
+   * @return the operation.
+   * @see #in(PRef, String...)
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static @NotNull POp in(@NotNull PRef propertyRef, long @NotNull ... values) {
+    final Long[] boxed = new Long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      boxed[i] = values[i];
+    }
+    return new POp(IN, propertyRef, boxed);
+  }
+
   public static @NotNull POp gt(@NotNull PRef propertyRef, @NotNull Number value) {
     return new POp(GT, propertyRef, value);
   }
@@ -182,11 +230,11 @@ public class POp extends Op<POp> {
       return false;
     }
     POp pOp = (POp) o;
-    return Objects.equals(propertyRef, pOp.propertyRef) && Objects.equals(value, pOp.value);
+    return Objects.equals(propertyRef, pOp.propertyRef) && Objects.deepEquals(value, pOp.value);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(propertyRef, value);
+    return Arrays.deepHashCode(new Object[] {propertyRef, value});
   }
 }
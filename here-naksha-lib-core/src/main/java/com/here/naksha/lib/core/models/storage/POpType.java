@@ -18,6 +18,8 @@
  */
 package com.here.naksha.lib.core.models.storage;
 
+import com.here.naksha.lib.core.NakshaVersion;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.Nullable;
 
 public class POpType extends OpType {
@@ -34,6 +36,13 @@ public class POpType extends OpType {
   public static final POpType CONTAINS =
       defIgnoreCase(POpType.class, "contains").with(POpType.class, (self) -> self.op = "@>");
 
+  /**
+   * Tests if the property is equal to any of the values, given as array. When applied to the {@link PRef#tags() tags}, tests if any of the
+   * tags exists.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static final POpType IN = defIgnoreCase(POpType.class, "in");
+
   private @Nullable String op;
 
   public @Nullable String op() {
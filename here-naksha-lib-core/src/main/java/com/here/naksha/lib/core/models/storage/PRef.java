@@ -30,9 +30,11 @@ import static com.here.naksha.lib.core.models.geojson.implementation.namespaces.
 import static com.here.naksha.lib.core.models.geojson.implementation.namespaces.XyzNamespace.UUID;
 import static com.here.naksha.lib.core.util.StringCache.string;
 
+import com.here.naksha.lib.core.NakshaVersion;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -179,6 +181,16 @@ public class PRef {
     return new PRef(TAGS_PROP_PATH).withTagName(tagName);
   }
 
+  /**
+   * Returns the reference to the {@code tags} array of the XYZ-Namespace, only supported by the {@link POpType#IN IN} operation.
+   *
+   * @return the reference to the {@code tags} array of the XYZ-Namespace.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static @NotNull PRef tags() {
+    return PREF_TAGS;
+  }
+
   /**
    * Returns the reference to the {@code txn} property from the XYZ-Namespace.
    *
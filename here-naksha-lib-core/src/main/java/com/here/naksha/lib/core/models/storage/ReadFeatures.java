@@ -18,13 +18,21 @@
  */
 package com.here.naksha.lib.core.models.storage;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
+import com.here.naksha.lib.core.models.payload.events.clustering.Clustering;
+import com.here.naksha.lib.core.models.payload.events.tweaks.Tweaks;
+import com.here.naksha.lib.core.models.payload.events.tweaks.TweaksSampling;
+import com.here.naksha.lib.core.models.payload.events.tweaks.TweaksSimplification;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Geometry;
 
 @SuppressWarnings("unused")
 @AvailableSince(NakshaVersion.v2_0_7)
@@ -183,6 +191,174 @@ public class ReadFeatures extends ReadRequest<ReadFeatures> {
     return this;
   }
 
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  private @Nullable Geometry clipGeometry;
+
+  /**
+   * Returns the geometry to which the storage should clip the geometry of the returned features.
+   *
+   * @return the geometry to clip to, {@code null} if the geometries should be returned unmodified.
+   */
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @Nullable Geometry getClipGeometry() {
+    return clipGeometry;
+  }
+
+  /**
+   * Requests the storage to clip the geometry of the returned features to the given geometry, so that only the clipped geometries need
+   * to be transferred. Storages that do not support this, return the geometries unmodified.
+   *
+   * @param clipGeometry The geometry to clip to, {@code null} to return the geometries unmodified.
+   * @return this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull ReadFeatures withClipGeometry(@Nullable Geometry clipGeometry) {
+    this.clipGeometry = clipGeometry;
+    return this;
+  }
+
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  private @Nullable WebMercatorTile mvtTile;
+
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  private @Nullable List<@NotNull String> mvtProperties;
+
+  /**
+   * Returns the tile to render the features into as Mapbox Vector Tile.
+   *
+   * @return the tile, {@code null} if the features should be returned.
+   */
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @Nullable WebMercatorTile getMvtTile() {
+    return mvtTile;
+  }
+
+  /**
+   * Returns the paths of the properties to add to the features of the Mapbox Vector Tile.
+   *
+   * @return the paths, for example {@code properties.name}, {@code null} to add all properties.
+   */
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @Nullable List<@NotNull String> getMvtProperties() {
+    return mvtProperties;
+  }
+
+  /**
+   * Requests the storage to render the features into a Mapbox Vector Tile, instead of returning them. The storage returns a
+   * {@link BinaryResult} with the encoded tile, storages that do not support this, return an {@link ErrorResult} with
+   * {@link com.here.naksha.lib.core.models.XyzError#NOT_IMPLEMENTED}.
+   *
+   * @param tile       The tile to render, {@code null} to return the features.
+   * @param properties The paths of the properties to add to the features, for example {@code properties.name}, {@code null} to add all
+   *                   properties.
+   * @return this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull ReadFeatures withMvt(@Nullable WebMercatorTile tile, @Nullable Collection<@NotNull String> properties) {
+    this.mvtTile = tile;
+    this.mvtProperties = properties != null ? new ArrayList<>(properties) : null;
+    return this;
+  }
+
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  private @Nullable Clustering clustering;
+
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  private int clusteringLevel;
+
+  /**
+   * Returns the clustering to apply to the features.
+   *
+   * @return the clustering, {@code null} if the features should be returned.
+   */
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @Nullable Clustering getClustering() {
+    return clustering;
+  }
+
+  /**
+   * Returns the Web Mercator level of detail for which the features are clustered, the resolutions of the clustering are relative to
+   * this level.
+   *
+   * @return the level of detail.
+   */
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public int getClusteringLevel() {
+    return clusteringLevel;
+  }
+
+  /**
+   * Requests the storage to aggregate the features, selected by the spatial operation, into clusters and to return one feature per
+   * cluster, instead of the features themselves. Storages that do not support this, return an {@link ErrorResult} with
+   * {@link com.here.naksha.lib.core.models.XyzError#NOT_IMPLEMENTED}.
+   *
+   * @param clustering The clustering, {@code null} to return the features.
+   * @param level      The Web Mercator level of detail of the requested area, for example the level of the requested tile.
+   * @return this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull ReadFeatures withClustering(@Nullable Clustering clustering, int level) {
+    this.clustering = clustering;
+    this.clusteringLevel = level;
+    return this;
+  }
+
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  private @Nullable Tweaks tweaks;
+
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  private int tweaksLevel;
+
+  /**
+   * Returns the tweaks to apply to the features, being either {@link TweaksSampling} or {@link TweaksSimplification}.
+   *
+   * @return the tweaks, {@code null} if all features should be returned unchanged.
+   */
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @Nullable Tweaks getTweaks() {
+    return tweaks;
+  }
+
+  /**
+   * Returns the Web Mercator level of detail for which the features are tweaked, the simplification tolerance is relative to this level.
+   *
+   * @return the level of detail.
+   */
+  @JsonIgnore
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public int getTweaksLevel() {
+    return tweaksLevel;
+  }
+
+  /**
+   * Requests the storage to return only a representative subset of the features ({@link TweaksSampling}) or to simplify their geometries
+   * ({@link TweaksSimplification}), which is useful to render low levels of detail. Storages that do not support a tweak, return an
+   * {@link ErrorResult} with {@link com.here.naksha.lib.core.models.XyzError#NOT_IMPLEMENTED}.
+   *
+   * @param tweaks The tweaks, {@code null} to return the features unchanged.
+   * @param level  The Web Mercator level of detail of the requested area, for example the level of the requested tile.
+   * @return this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull ReadFeatures withTweaks(@Nullable Tweaks tweaks, int level) {
+    this.tweaks = tweaks;
+    this.tweaksLevel = level;
+    return this;
+  }
+
   @AvailableSince(NakshaVersion.v2_0_7)
   public @NotNull ReadFeatures withLimit(@NotNull Long limit) {
     this.limit = limit;
@@ -196,6 +372,13 @@ public class ReadFeatures extends ReadRequest<ReadFeatures> {
     clone.setPropertyOp(this.getPropertyOp());
     clone.setCollections(this.getCollections());
     clone.setSpatialOp(this.getSpatialOp());
+    clone.clipGeometry = this.clipGeometry;
+    clone.mvtTile = this.mvtTile;
+    clone.mvtProperties = this.mvtProperties;
+    clone.clustering = this.clustering;
+    clone.clusteringLevel = this.clusteringLevel;
+    clone.tweaks = this.tweaks;
+    clone.tweaksLevel = this.tweaksLevel;
     clone.limit = this.limit;
     clone.returnDeleted = this.returnDeleted;
     clone.returnAllVersions = this.returnAllVersions;
@@ -69,6 +69,10 @@ public class ReadFeaturesProxyWrapper extends ReadFeatures {
     clone.setPropertyOp(this.getPropertyOp());
     clone.setCollections(this.getCollections());
     clone.setSpatialOp(this.getSpatialOp());
+    clone.withClipGeometry(this.getClipGeometry());
+    clone.withMvt(this.getMvtTile(), this.getMvtProperties());
+    clone.withClustering(this.getClustering(), this.getClusteringLevel());
+    clone.withTweaks(this.getTweaks(), this.getTweaksLevel());
     clone.limit = this.limit;
     clone.returnDeleted = this.returnDeleted;
     clone.withReturnAllVersions(isReturnAllVersions());
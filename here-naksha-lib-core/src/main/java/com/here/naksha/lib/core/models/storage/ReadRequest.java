@@ -35,6 +35,7 @@ import org.jetbrains.annotations.ApiStatus.AvailableSince;
 @JsonSubTypes({
   @JsonSubTypes.Type(value = ReadFeatures.class),
   @JsonSubTypes.Type(value = ReadCollections.class),
+  @JsonSubTypes.Type(value = ReadStatistics.class),
   @JsonSubTypes.Type(value = ReadTransactionsByComment.class),
   @JsonSubTypes.Type(value = ReadTransactionsForSequence.class),
   @JsonSubTypes.Type(value = ReadTransactionsByTxn.class)
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.storage;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.models.payload.responses.StatisticsResponse;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Requests the statistics of a collection, like the amount of features, the bounding box and the property keys. The storage answers with
+ * a {@link StatisticsResult}. The values are estimated from the statistics the storage keeps anyway, so that they are available without
+ * reading the features, the estimated values are marked as such. Storages that do not support this, return an {@link ErrorResult} with
+ * {@link com.here.naksha.lib.core.models.XyzError#NOT_IMPLEMENTED}.
+ *
+ * @see StatisticsResponse
+ */
+@AvailableSince(NakshaVersion.v2_1_0)
+public class ReadStatistics extends ReadRequest<ReadStatistics> {
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public ReadStatistics() {}
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public ReadStatistics(@NotNull String collectionId) {
+    this.collectionId = collectionId;
+  }
+
+  /**
+   * The identifier of the collection.
+   */
+  private String collectionId;
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull String getCollectionId() {
+    return collectionId;
+  }
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public void setCollectionId(@NotNull String collectionId) {
+    this.collectionId = collectionId;
+  }
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull ReadStatistics withCollectionId(@NotNull String collectionId) {
+    this.collectionId = collectionId;
+    return this;
+  }
+}
@@ -21,10 +21,15 @@ package com.here.naksha.lib.core.models.storage;
 import static com.here.naksha.lib.core.models.storage.OpType.AND;
 import static com.here.naksha.lib.core.models.storage.OpType.NOT;
 import static com.here.naksha.lib.core.models.storage.OpType.OR;
+import static com.here.naksha.lib.core.models.storage.SOpType.CONTAINS;
+import static com.here.naksha.lib.core.models.storage.SOpType.DWITHIN;
 import static com.here.naksha.lib.core.models.storage.SOpType.INTERSECTS;
+import static com.here.naksha.lib.core.models.storage.SOpType.WITHIN;
 
+import com.here.naksha.lib.core.NakshaVersion;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzGeometry;
 import com.here.naksha.lib.core.models.storage.transformation.GeometryTransformation;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.locationtech.jts.geom.Geometry;
@@ -41,13 +46,23 @@ public class SOp extends Op<SOp> {
   }
 
   SOp(@NotNull OpType op, @Nullable Geometry geometry, @Nullable GeometryTransformation transformation) {
+    this(op, geometry, transformation, 0d);
+  }
+
+  SOp(
+      @NotNull OpType op,
+      @Nullable Geometry geometry,
+      @Nullable GeometryTransformation transformation,
+      double distance) {
     super(op);
     this.geometry = geometry;
     this.transformation = transformation;
+    this.distance = distance;
   }
 
   private final @Nullable Geometry geometry;
   private final @Nullable GeometryTransformation transformation;
+  private final double distance;
 
   public @Nullable Geometry getGeometry() {
     return geometry;
@@ -57,6 +72,16 @@ public class SOp extends Op<SOp> {
     return transformation;
   }
 
+  /**
+   * Returns the distance in meters, only used by {@link SOpType#DWITHIN}.
+   *
+   * @return the distance in meters.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public double getDistance() {
+    return distance;
+  }
+
   public static @NotNull SOp and(@NotNull SOp... children) {
     return new SOp(AND, children);
   }
@@ -126,4 +151,55 @@ public class SOp extends Op<SOp> {
       @NotNull XyzGeometry geometry, @NotNull GeometryTransformation geometryTransformation) {
     return intersects(geometry.getJTSGeometry(), geometryTransformation);
   }
+
+  /**
+   * Returns an operation that tests if features are within the given distance of the given geometry. The distance is measured on the
+   * spheroid, so this replaces an intersection with a geometry buffered in meters, but allows the storage to use its spatial index.
+   *
+   * @param geometry The geometry to which the distance is measured.
+   * @param meters   The maximal distance in meters.
+   * @return The operation describing this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static @NotNull SOp dwithin(@NotNull Geometry geometry, double meters) {
+    if (meters < 0d) {
+      throw new IllegalArgumentException("The distance must not be negative: " + meters);
+    }
+    return new SOp(DWITHIN, geometry, null, meters);
+  }
+
+  /**
+   * Returns an operation that tests if features are within the given distance of the given geometry.
+   *
+   * @param geometry The geometry to which the distance is measured.
+   * @param meters   The maximal distance in meters.
+   * @return The operation describing this.
+   * @see #dwithin(Geometry, double)
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static @NotNull SOp dwithin(@NotNull XyzGeometry geometry, double meters) {
+    return dwithin(geometry.getJTSGeometry(), meters);
+  }
+
+  /**
+   * Returns an operation that tests if the geometry of features contains the given geometry.
+   *
+   * @param geometry The geometry that features need to contain.
+   * @return The operation describing this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static @NotNull SOp contains(@NotNull Geometry geometry) {
+    return new SOp(CONTAINS, geometry, null);
+  }
+
+  /**
+   * Returns an operation that tests if the geometry of features is within the given geometry.
+   *
+   * @param geometry The geometry in which features need to be.
+   * @return The operation describing this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static @NotNull SOp within(@NotNull Geometry geometry) {
+    return new SOp(WITHIN, geometry, null);
+  }
 }
@@ -18,10 +18,31 @@
  */
 package com.here.naksha.lib.core.models.storage;
 
+import com.here.naksha.lib.core.NakshaVersion;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+
 public class SOpType extends OpType {
 
   /**
    * Test if the feature in the database intersects with the parameter geometry.
    */
   public static final SOpType INTERSECTS = defIgnoreCase(SOpType.class, "intersects");
+
+  /**
+   * Test if the feature in the database is within the given distance in meters of the parameter geometry.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static final SOpType DWITHIN = defIgnoreCase(SOpType.class, "dwithin");
+
+  /**
+   * Test if the feature in the database contains the parameter geometry.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static final SOpType CONTAINS = defIgnoreCase(SOpType.class, "contains");
+
+  /**
+   * Test if the feature in the database is within the parameter geometry.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static final SOpType WITHIN = defIgnoreCase(SOpType.class, "within");
 }
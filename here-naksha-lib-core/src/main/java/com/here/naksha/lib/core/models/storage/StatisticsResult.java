@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.storage;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.models.payload.responses.StatisticsResponse;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The result of a {@link ReadStatistics} request.
+ */
+@AvailableSince(NakshaVersion.v2_1_0)
+public class StatisticsResult extends SuccessResult {
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public StatisticsResult(@NotNull StatisticsResponse statistics) {
+    this.statistics = statistics;
+  }
+
+  /**
+   * The statistics of the collection.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public final @NotNull StatisticsResponse statistics;
+}
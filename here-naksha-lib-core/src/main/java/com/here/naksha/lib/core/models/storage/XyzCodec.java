@@ -19,6 +19,8 @@
 package com.here.naksha.lib.core.models.storage;
 
 import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
+import static com.here.naksha.lib.core.models.geojson.implementation.XyzFeature.PROPERTIES;
+import static com.here.naksha.lib.core.models.geojson.implementation.XyzProperties.XYZ_NAMESPACE;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.naksha.lib.core.models.geojson.coordinates.JTSHelper;
@@ -27,6 +29,8 @@ import com.here.naksha.lib.core.models.geojson.implementation.XyzGeometry;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzProperties;
 import com.here.naksha.lib.core.models.geojson.implementation.namespaces.XyzNamespace;
 import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.util.json.JsonPathReader;
+import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -42,6 +46,46 @@ public class XyzCodec<FEATURE extends XyzFeature, SELF extends XyzCodec<FEATURE,
 
   private final @NotNull Class<FEATURE> featureClass;
 
+  private static final List<@NotNull String> XYZ_NAMESPACE_PATH = List.of(PROPERTIES, XYZ_NAMESPACE);
+
+  /**
+   * The XYZ namespace, lazily decoded from the JSON.
+   */
+  private @Nullable XyzNamespace xyzNamespace;
+
+  /**
+   * Returns the XYZ namespace of the feature. If the feature is not yet decoded, only the namespace is decoded from the JSON, the rest
+   * of the feature is skipped. The returned namespace must be treated as read-only, unless the feature is decoded.
+   *
+   * @return the XYZ namespace; {@code null} if the feature does not have any.
+   */
+  public @Nullable XyzNamespace getXyzNamespace() {
+    if (feature != null) {
+      return feature.getProperties().getXyzNamespace();
+    }
+    if (xyzNamespace == null && json != null) {
+      xyzNamespace = JsonPathReader.read(json, XYZ_NAMESPACE_PATH, XyzNamespace.class);
+    }
+    return xyzNamespace;
+  }
+
+  /**
+   * Returns the tags of the feature, decoding only the XYZ namespace, if the feature is not yet decoded.
+   *
+   * @return the tags of the feature; {@code null} if the feature does not have tags.
+   * @see #getXyzNamespace()
+   */
+  public @Nullable List<@NotNull String> getTags() {
+    final XyzNamespace xyz = getXyzNamespace();
+    return xyz != null ? xyz.getTags() : null;
+  }
+
+  @Override
+  protected void clearLazyValues() {
+    super.clearLazyValues();
+    xyzNamespace = null;
+  }
+
   @NotNull
   @Override
   public final SELF decodeParts(boolean force) {
@@ -101,7 +145,7 @@ public class XyzCodec<FEATURE extends XyzFeature, SELF extends XyzCodec<FEATURE,
     }
     feature = null;
     try (final Json jp = Json.get()) {
-      feature = jp.reader().forType(featureClass).readValue(json);
+      feature = jp.readerFor(featureClass).readValue(json);
       feature.setGeometry(JTSHelper.fromGeometry(getGeometry()));
     } catch (JsonProcessingException e) {
       throw unchecked(e);
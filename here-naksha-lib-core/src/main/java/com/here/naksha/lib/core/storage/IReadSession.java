@@ -68,6 +68,25 @@ public interface IReadSession extends ISession {
   @AvailableSince(NakshaVersion.v2_0_7)
   void setFetchSize(int size);
 
+  /**
+   * Tests if features of large results are decoded in parallel, while further rows are fetched from the storage.
+   *
+   * @return {@code true} if features of large results are decoded in parallel; {@code false} if they are decoded lazily when read.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  default boolean isParallelDecode() {
+    return false;
+  }
+
+  /**
+   * Enables or disables the parallel decoding of large results. Storages that do not support this, ignore it. Parallel decoding eagerly
+   * decodes all features, so it should only be enabled, when the features are consumed as objects and not as raw JSON.
+   *
+   * @param parallelDecode {@code true} to decode features of large results in parallel; {@code false} to decode lazily.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  default void setParallelDecode(boolean parallelDecode) {}
+
   /**
    * Returns the statement timeout.
    *
@@ -477,6 +477,7 @@ public class MIMEType {
   public static final String APPLICATION_GML_XML = "application/gml+xml";
   public static final String APPLICATION_GPX_XML = "application/gpx+xml";
   public static final String APPLICATION_GEO_JSON = "application/geo+json";
+  public static final String APPLICATION_GEO_JSON_SEQ = "application/geo+json-seq"; // GeoJSON text sequence, RFC 8142
 
   static {
     xml(APPLICATION_ATOM_XML);
@@ -491,6 +492,7 @@ public class MIMEType {
     xml(APPLICATION_GML_XML);
     xml(APPLICATION_GPX_XML);
     json(APPLICATION_GEO_JSON);
+    text(APPLICATION_GEO_JSON_SEQ);
   }
 
   public static final String APPLICATION_VND_MAPBOX_VECTOR_TILE =
@@ -1076,6 +1078,7 @@ public class MIMEType {
   public static final String APPLICATION_X_MSSCHEDULE = "application/x-msschedule";
   public static final String APPLICATION_X_MSTERMINAL = "application/x-msterminal";
   public static final String APPLICATION_X_MSWRITE = "application/x-mswrite";
+  public static final String APPLICATION_X_NDJSON = "application/x-ndjson"; // Newline delimited JSON
   public static final String APPLICATION_X_NETCDF = "application/x-netcdf";
   public static final String APPLICATION_X_NZB = "application/x-nzb";
   public static final String APPLICATION_X_PKCS12 = "application/x-pkcs12";
@@ -1309,6 +1312,7 @@ public class MIMEType {
 
   static {
     json(TEXT_JSON);
+    text(APPLICATION_X_NDJSON);
   }
 
   public static HashMap<String, String> MIMEtoExt = new HashMap<>() {
@@ -38,13 +38,17 @@ import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeatureCollection;
+import com.here.naksha.lib.core.models.naksha.EventHandler;
+import com.here.naksha.lib.core.models.naksha.Space;
 import com.here.naksha.lib.core.view.ViewDeserialize;
 import com.here.naksha.lib.core.view.ViewSerialize;
 import java.lang.ref.WeakReference;
 import java.nio.ByteOrder;
 import java.util.Formatter;
-import java.util.HashMap;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -150,22 +154,11 @@ public final class Json implements AutoCloseable {
     }
   }
 
-  /**
-   * Create a new Json instance.
-   */
-  Json() {
-    this.weakRef = new JsonWeakRef(this);
-    final JsonFactory jsonFactory = new JsonFactoryBuilder()
-        .configure(Feature.INTERN_FIELD_NAMES, false)
-        .configure(Feature.CANONICALIZE_FIELD_NAMES, false)
-        .configure(Feature.USE_THREAD_LOCAL_FOR_BUFFER_RECYCLING, true)
-        .build();
-    jsonFactory.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
-    jsonFactory.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
-    this.mapper = JsonMapper.builder(jsonFactory)
+  private static @NotNull JsonMapper newMapper(@NotNull JsonFactory jsonFactory, boolean sortCreatorPropertiesFirst) {
+    return JsonMapper.builder(jsonFactory)
         .enable(DEFAULT_VIEW_INCLUSION)
         .enable(SORT_PROPERTIES_ALPHABETICALLY)
-        .enable(SORT_CREATOR_PROPERTIES_FIRST)
+        .configure(SORT_CREATOR_PROPERTIES_FIRST, sortCreatorPropertiesFirst)
         .serializationInclusion(Include.NON_NULL)
         .visibility(PropertyAccessor.SETTER, Visibility.ANY)
         .visibility(PropertyAccessor.GETTER, Visibility.PUBLIC_ONLY)
@@ -174,35 +167,90 @@ public final class Json implements AutoCloseable {
         .configure(SerializationFeature.CLOSE_CLOSEABLE, false)
         .addModule(new JsonModule())
         .build();
-    this.hashMapper = JsonMapper.builder(jsonFactory)
-        .enable(DEFAULT_VIEW_INCLUSION)
-        .enable(SORT_PROPERTIES_ALPHABETICALLY)
-        .disable(SORT_CREATOR_PROPERTIES_FIRST)
-        .serializationInclusion(Include.NON_NULL)
-        .visibility(PropertyAccessor.SETTER, Visibility.ANY)
-        .visibility(PropertyAccessor.GETTER, Visibility.PUBLIC_ONLY)
-        .visibility(PropertyAccessor.IS_GETTER, Visibility.NONE)
-        .visibility(PropertyAccessor.CREATOR, Visibility.ANY)
-        .configure(SerializationFeature.CLOSE_CLOSEABLE, false)
-        .addModule(new JsonModule())
+  }
+
+  private static final @NotNull JsonFactory JSON_FACTORY;
+
+  /**
+   * The Jackson mapper, shared by all instances. The mapper is only configured here, after that it is thread-safe and caches the
+   * (de)serializers of all types it ever processed, so they are only resolved once per process.
+   */
+  private static final @NotNull ObjectMapper MAPPER;
+
+  /**
+   * The Jackson mapper to serialize for hashing, shared by all instances.
+   */
+  private static final @NotNull ObjectMapper HASH_MAPPER;
+
+  static {
+    JSON_FACTORY = new JsonFactoryBuilder()
+        .configure(Feature.INTERN_FIELD_NAMES, false)
+        .configure(Feature.CANONICALIZE_FIELD_NAMES, false)
+        .configure(Feature.USE_THREAD_LOCAL_FOR_BUFFER_RECYCLING, true)
         .build();
+    JSON_FACTORY.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+    JSON_FACTORY.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+    MAPPER = newMapper(JSON_FACTORY, true);
+    HASH_MAPPER = newMapper(JSON_FACTORY, false);
+  }
+
+  private static final @NotNull ObjectReader SIMPLE_READER = MAPPER.reader();
+  private static final @NotNull ObjectWriter SIMPLE_WRITER = MAPPER.writer();
+  private static final @NotNull ObjectWriter SIMPLE_HASH_WRITER = HASH_MAPPER.writer();
+
+  // Readers and writers are immutable and thread-safe, therefore we share them.
+  private static final ConcurrentHashMap<@NotNull Class<? extends ViewDeserialize>, @NotNull ObjectReader> READERS =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<@NotNull Class<? extends ViewSerialize>, @NotNull ObjectWriter> WRITERS =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<@NotNull Class<? extends ViewSerialize>, @NotNull ObjectWriter>
+      PRETTY_WRITERS = new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<@NotNull Class<?>, @NotNull ObjectReader> TYPED_READERS =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<@NotNull Class<?>, @NotNull ObjectWriter> TYPED_WRITERS =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The types for which readers and writers are resolved, when the first typed reader or writer is requested. These are the types
+   * processed with nearly every request.
+   */
+  private static final class PreResolved {
+
+    static {
+      for (final Class<?> type :
+          new Class<?>[] {XyzFeature.class, XyzFeatureCollection.class, Space.class, EventHandler.class}) {
+        TYPED_READERS.put(type, SIMPLE_READER.forType(type));
+        TYPED_WRITERS.put(type, SIMPLE_WRITER.forType(type));
+      }
+    }
+
+    static void ensure() {}
+  }
+
+  /**
+   * Create a new Json instance.
+   */
+  Json() {
+    this.weakRef = new JsonWeakRef(this);
+    this.mapper = MAPPER;
+    this.hashMapper = HASH_MAPPER;
     // Note: eWKB does encode the endian into the binary, so we can simply use the optimal one for this hardware.
     // - https://postgis.net/docs/ST_AsEWKB.html
     // - https://postgis.net/docs/ST_GeomFromEWKB.html
     this.wkbReader = new WKBReader(new GeometryFactory(new PrecisionModel(), 4326));
     this.wkbWriter = new WKBWriter(3, nativeOrder() == ByteOrder.LITTLE_ENDIAN ? LITTLE_ENDIAN : BIG_ENDIAN, true);
-    this.simpleReader = mapper.reader();
-    this.simpleWriter = mapper.writer();
-    this.simpleHashWriter = hashMapper.writer();
+    this.simpleReader = SIMPLE_READER;
+    this.simpleWriter = SIMPLE_WRITER;
+    this.simpleHashWriter = SIMPLE_HASH_WRITER;
   }
 
   /**
-   * The WKB reader for PostgresQL.
+   * The WKB reader for PostgresQL, this is not thread-safe and therefore the only state held per instance.
    */
   public final @NotNull WKBReader wkbReader;
 
   /**
-   * The WKB writer for PostgresQL.
+   * The WKB writer for PostgresQL, this is not thread-safe and therefore the only state held per instance.
    */
   public final @NotNull WKBWriter wkbWriter;
 
@@ -247,7 +295,6 @@ public final class Json implements AutoCloseable {
    * @return The Json instance.
    */
   public static @NotNull Json get() {
-    // TODO HP_QUERY : Reason for recreating ObjectMapper class (instead of using it as singleton)?
     final JsonWeakRef weakRef = idleCache.get();
     Json json = null;
     if (weakRef != null) {
@@ -281,11 +328,6 @@ public final class Json implements AutoCloseable {
    */
   private static final ThreadLocal<@Nullable JsonWeakRef> idleCache = new ThreadLocal<>();
 
-  private final HashMap<@NotNull Class<? extends ViewDeserialize>, @NotNull ObjectReader> readers = new HashMap<>();
-  private final HashMap<@NotNull Class<? extends ViewSerialize>, @NotNull ObjectWriter> writers = new HashMap<>();
-  private final HashMap<@NotNull Class<? extends ViewSerialize>, @NotNull ObjectWriter> pretty_writers =
-      new HashMap<>();
-
   // ------------------------------------------------------------------------------------------------------------------------------------
   // Standard API
   // ------------------------------------------------------------------------------------------------------------------------------------
@@ -308,12 +350,7 @@ public final class Json implements AutoCloseable {
    * @return The reader for this view.
    */
   public @NotNull ObjectReader reader(@NotNull Class<? extends ViewDeserialize> view) {
-    ObjectReader reader = readers.get(view);
-    if (reader == null) {
-      reader = mapper.readerWithView(view);
-      readers.put(view, reader);
-    }
-    return reader;
+    return READERS.computeIfAbsent(view, MAPPER::readerWithView);
   }
 
   /**
@@ -323,6 +360,17 @@ public final class Json implements AutoCloseable {
     return simpleReader;
   }
 
+  /**
+   * Returns the reader without any view applied for the given type. The reader is shared and has the root deserializer already resolved.
+   *
+   * @param type The type to read.
+   * @return The reader for this type.
+   */
+  public @NotNull ObjectReader readerFor(@NotNull Class<?> type) {
+    PreResolved.ensure();
+    return TYPED_READERS.computeIfAbsent(type, SIMPLE_READER::forType);
+  }
+
   /**
    * Convert the given object into the target object. This normally returns a copy, but there is no guarantee how much is copied.
    *
@@ -339,6 +387,17 @@ public final class Json implements AutoCloseable {
     return simpleWriter;
   }
 
+  /**
+   * Returns the writer without any view applied for the given type. The writer is shared and has the root serializer already resolved.
+   *
+   * @param type The type to write.
+   * @return The writer for this type.
+   */
+  public @NotNull ObjectWriter writerFor(@NotNull Class<?> type) {
+    PreResolved.ensure();
+    return TYPED_WRITERS.computeIfAbsent(type, SIMPLE_WRITER::forType);
+  }
+
   /**
    * Returns the writer for the given view.
    *
@@ -357,21 +416,11 @@ public final class Json implements AutoCloseable {
    * @return the writer for this view.
    */
   public @NotNull ObjectWriter writer(@NotNull Class<? extends ViewSerialize> view, boolean pretty) {
-    ObjectWriter writer;
     if (DEBUG || pretty) {
-      writer = pretty_writers.get(view);
-      if (writer == null) {
-        writer = mapper.writerWithView(view).withDefaultPrettyPrinter();
-        pretty_writers.put(view, writer);
-      }
-    } else {
-      writer = writers.get(view);
-      if (writer == null) {
-        writer = mapper.writerWithView(view);
-        writers.put(view, writer);
-      }
+      return PRETTY_WRITERS.computeIfAbsent(
+          view, v -> MAPPER.writerWithView(v).withDefaultPrettyPrinter());
     }
-    return writer;
+    return WRITERS.computeIfAbsent(view, MAPPER::writerWithView);
   }
 
   public static boolean mightBeJson(String json) {
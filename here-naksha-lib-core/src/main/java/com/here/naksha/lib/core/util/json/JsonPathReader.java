@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.util.json;
+
+import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A helper that reads only selected paths from a JSON string using the Jackson streaming parser. All other values are skipped without
+ * being materialized, and the parsing stops as soon as all requested paths have been found.
+ *
+ * <p>A path is a list of object member names, starting at the root object. Values found are materialized as standard Java objects
+ * ({@link Map}, {@link List}, {@link String}, {@link Number}, {@link Boolean} or {@code null}). Paths that are not found, are not added
+ * to the result map, which allows to distinguish between an explicit {@code null} and a missing value.
+ */
+public final class JsonPathReader {
+
+  private JsonPathReader() {}
+
+  private static final class Node {
+
+    final @NotNull Map<@NotNull String, @NotNull Node> children = new HashMap<>();
+    @Nullable List<@NotNull String> path;
+  }
+
+  /**
+   * Reads the values of the given paths from the given JSON.
+   *
+   * @param json  The JSON to read, the root must be an object.
+   * @param paths The paths to read.
+   * @return a map with all found paths as key and the value found as value.
+   */
+  public static @NotNull Map<@NotNull List<@NotNull String>, @Nullable Object> read(
+      @NotNull String json, @NotNull Collection<@NotNull List<@NotNull String>> paths) {
+    final Map<List<String>, Object> values = new HashMap<>();
+    if (paths.isEmpty()) {
+      return values;
+    }
+    final Node root = new Node();
+    int remaining = 0;
+    for (final List<String> path : paths) {
+      Node node = root;
+      for (final String name : path) {
+        node = node.children.computeIfAbsent(name, k -> new Node());
+      }
+      if (node.path == null) {
+        node.path = path;
+        remaining++;
+      }
+    }
+    try (final Json jp = Json.get()) {
+      final ObjectReader reader = jp.reader().forType(Object.class);
+      try (final JsonParser parser = reader.createParser(json)) {
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+          readObject(parser, reader, root, values, remaining);
+        }
+      }
+    } catch (IOException e) {
+      throw unchecked(e);
+    }
+    return values;
+  }
+
+  /**
+   * Reads the value of a single path from the given JSON directly into the given type.
+   *
+   * @param json The JSON to read, the root must be an object.
+   * @param path The path to read.
+   * @param type The type of the value.
+   * @param <T>  The value-type.
+   * @return the value; {@code null} if no such value exists.
+   */
+  public static <T> @Nullable T read(
+      @NotNull String json, @NotNull List<@NotNull String> path, @NotNull Class<T> type) {
+    try (final Json jp = Json.get()) {
+      final ObjectReader reader = jp.reader().forType(type);
+      try (final JsonParser parser = reader.createParser(json)) {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+          return null;
+        }
+        int i = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final boolean matches = path.get(i).equals(parser.getCurrentName());
+          final JsonToken token = parser.nextToken();
+          if (!matches) {
+            parser.skipChildren();
+          } else if (++i == path.size()) {
+            return reader.readValue(parser);
+          } else if (token != JsonToken.START_OBJECT) {
+            return null;
+          }
+        }
+        return null;
+      }
+    } catch (IOException e) {
+      throw unchecked(e);
+    }
+  }
+
+  /**
+   * Reads the members of the object at which the parser is positioned.
+   *
+   * @param parser    The parser, positioned at the start of an object.
+   * @param reader    The reader to materialize values.
+   * @param node      The node of the path-tree that matches this object.
+   * @param values    The map to add found values.
+   * @param remaining The amount of paths not yet found.
+   * @return the amount of paths still not found; when zero, the parser is left somewhere within the object.
+   * @throws IOException If parsing failed.
+   */
+  private static int readObject(
+      @NotNull JsonParser parser,
+      @NotNull ObjectReader reader,
+      @NotNull Node node,
+      @NotNull Map<List<String>, Object> values,
+      int remaining)
+      throws IOException {
+    while (remaining > 0 && parser.nextToken() == JsonToken.FIELD_NAME) {
+      final Node child = node.children.get(parser.getCurrentName());
+      final JsonToken token = parser.nextToken();
+      if (child == null) {
+        parser.skipChildren();
+      } else if (child.path != null) {
+        final Object value = reader.readValue(parser);
+        values.put(child.path, value);
+        remaining = resolveChildren(child, value, values, remaining - 1);
+      } else if (token == JsonToken.START_OBJECT) {
+        remaining = readObject(parser, reader, child, values, remaining);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return remaining;
+  }
+
+  /**
+   * When a path was requested together with some of its sub-paths, the value has been materialized, so the sub-paths are resolved from
+   * the value.
+   */
+  private static int resolveChildren(
+      @NotNull Node node, @Nullable Object value, @NotNull Map<List<String>, Object> values, int remaining) {
+    if (node.children.isEmpty() || !(value instanceof Map)) {
+      return remaining;
+    }
+    final Map<?, ?> map = (Map<?, ?>) value;
+    for (final Map.Entry<String, Node> entry : node.children.entrySet()) {
+      if (map.containsKey(entry.getKey())) {
+        final Node child = entry.getValue();
+        final Object childValue = map.get(entry.getKey());
+        if (child.path != null) {
+          values.put(child.path, childValue);
+          remaining--;
+        }
+        remaining = resolveChildren(child, childValue, values, remaining);
+      }
+    }
+    return remaining;
+  }
+}
@@ -19,7 +19,7 @@
 package com.here.naksha.lib.core.util.storage;
 
 import static com.here.naksha.lib.core.models.storage.POp.eq;
-import static com.here.naksha.lib.core.models.storage.POp.or;
+import static com.here.naksha.lib.core.models.storage.POp.in;
 import static com.here.naksha.lib.core.models.storage.PRef.PATH_TO_PREF_MAPPING;
 import static com.here.naksha.lib.core.models.storage.PRef.id;
 
@@ -65,9 +65,8 @@ public class RequestHelper {
   @AvailableSince(NakshaVersion.v2_0_7)
   public static @NotNull ReadFeaturesProxyWrapper readFeaturesByIdsRequest(
       final @NotNull String collectionName, final @NotNull List<@NotNull String> featureIds) {
-    final POp[] ops = featureIds.stream().map(id -> eq(id(), id)).toArray(POp[]::new);
     return (ReadFeaturesProxyWrapper)
-        new ReadFeaturesProxyWrapper().addCollection(collectionName).withPropertyOp(or(ops));
+        new ReadFeaturesProxyWrapper().addCollection(collectionName).withPropertyOp(in(id(), featureIds));
   }
 
   /**
@@ -20,19 +20,30 @@ package com.here.naksha.lib.core.util.storage;
 
 import static java.util.Collections.emptyList;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.here.naksha.lib.core.exceptions.NoCursor;
+import com.here.naksha.lib.core.lambdas.F1;
+import com.here.naksha.lib.core.models.geojson.coordinates.BBox;
+import com.here.naksha.lib.core.models.geojson.coordinates.WkbGeoJsonWriter;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzGeometry;
 import com.here.naksha.lib.core.models.storage.EExecutedOp;
 import com.here.naksha.lib.core.models.storage.ForwardCursor;
 import com.here.naksha.lib.core.models.storage.Result;
 import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.util.json.JsonSerializable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Envelope;
 
 public class ResultHelper {
 
@@ -90,6 +101,231 @@ public class ResultHelper {
     }
   }
 
+  /**
+   * Helper method to write features from given Result directly as JSON array into the given string builder. Unlike
+   * {@link #readFeaturesFromResult(Result, Class, long, long)} the features are not decoded, the raw JSON of each feature is written with
+   * the geometry converted directly from WKB to GeoJSON, so neither a POJO, nor a JTS geometry is created. Features that are already
+   * decoded, or that hold members that must not be exposed as they are, are serialized as usual.
+   *
+   * @param result the Result which is to be read
+   * @param offset the offset position (0-based index) in a list from where features to be extracted
+   * @param limit  the max number of features to be extracted
+   * @param sb     the string builder to write the JSON array to
+   * @return the number of features written
+   */
+  public static long writeFeaturesFromResult(Result result, long offset, long limit, StringBuilder sb)
+      throws NoCursor, NoSuchElementException {
+    return writeFeaturesFromResult(result, offset, limit, sb, null);
+  }
+
+  /**
+   * Like {@link #writeFeaturesFromResult(Result, long, long, StringBuilder)}, but extends the given bounding box array by the geometries of
+   * the written features, which is calculated directly from WKB as well.
+   *
+   * @param result the Result which is to be read
+   * @param offset the offset position (0-based index) in a list from where features to be extracted
+   * @param limit  the max number of features to be extracted
+   * @param sb     the string builder to write the JSON array to
+   * @param bbox   the bounding box array to extend, see {@link WkbGeoJsonWriter#newBBox()}; {@code null} if not needed
+   * @return the number of features written
+   */
+  public static long writeFeaturesFromResult(
+      Result result, long offset, long limit, StringBuilder sb, double @Nullable [] bbox)
+      throws NoCursor, NoSuchElementException {
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> resultCursor = result.getXyzFeatureCursor()) {
+      if (!resultCursor.hasNext()) {
+        throw new NoSuchElementException("Result Cursor is empty");
+      }
+      sb.append('[');
+      int pos = 0;
+      int cnt = 0;
+      while (resultCursor.hasNext() && cnt < limit) {
+        if (!resultCursor.next()) {
+          throw new RuntimeException("Unexpected invalid result");
+        }
+        if (pos++ < offset) {
+          continue; // skip initial records till we reach to desired offset
+        }
+        if (cnt++ > 0) {
+          sb.append(',');
+        }
+        writeFeature(resultCursor, sb, bbox);
+      }
+      sb.append(']');
+      return cnt;
+    }
+  }
+
+  /**
+   * Helper method to write the next features of the given cursor as newline-delimited GeoJSON (one feature per line), until the string
+   * builder holds at least the given amount of characters, or the cursor is exhausted. This allows to stream the features of a cursor in
+   * chunks, without ever holding all of them in memory. Like {@link #writeFeaturesFromResult(Result, long, long, StringBuilder)}, the
+   * raw JSON is written, unless a processing function is given, which requires the features to be decoded.
+   *
+   * @param cursor          the cursor to read the features from
+   * @param processing      the optional function to apply to each feature, returning {@code null} skips the feature
+   * @param recordSeparator {@code true} to prefix each line with the ASCII record separator, as required by GeoJSON text sequences
+   *                        (RFC 8142)
+   * @param minLength       the amount of characters after which to stop writing
+   * @param sb              the string builder to write the lines to
+   * @return the number of features read from the cursor; zero, if the cursor is exhausted
+   */
+  public static int writeFeatureLinesFromCursor(
+      final @NotNull ForwardCursor<XyzFeature, XyzFeatureCodec> cursor,
+      final @Nullable F1<XyzFeature, XyzFeature> processing,
+      final boolean recordSeparator,
+      final int minLength,
+      final @NotNull StringBuilder sb) {
+    int cnt = 0;
+    while (sb.length() < minLength && cursor.hasNext()) {
+      cursor.next();
+      cnt++;
+      final XyzFeature feature = processing != null ? processing.call(cursor.getFeature()) : null;
+      if (processing != null && feature == null) {
+        continue;
+      }
+      if (recordSeparator) {
+        sb.append('\u001e');
+      }
+      if (feature == null) {
+        writeFeature(cursor, sb, null);
+      } else {
+        sb.append(JsonSerializable.serialize(feature));
+      }
+      sb.append('\n');
+    }
+    return cnt;
+  }
+
+  /**
+   * Helper method to collect the IDs of the features of the given Result, grouped by the operation that was executed for them, without
+   * decoding the features. This allows to merge the results of multiple write requests, without holding their features in memory. IDs of
+   * operations without a list are skipped.
+   *
+   * @param result the Result which is to be read
+   * @param ids    the lists to add the feature IDs to, by operation
+   * @return the number of features read from the result
+   */
+  public static long readIdsGroupedByOp(
+      final @NotNull Result result, final @NotNull Map<EExecutedOp, List<String>> ids) throws NoCursor {
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> resultCursor = result.getXyzFeatureCursor()) {
+      long cnt = 0;
+      while (resultCursor.hasNext()) {
+        if (!resultCursor.next()) {
+          throw new RuntimeException("Unexpected invalid result");
+        }
+        cnt++;
+        final List<String> opIds = ids.get(resultCursor.getOp());
+        if (opIds != null) {
+          opIds.add(resultCursor.getId());
+        }
+      }
+      return cnt;
+    }
+  }
+
+  /**
+   * Calculates the bounding box of the geometries of the given features, the same way as
+   * {@link #writeFeaturesFromResult(Result, long, long, StringBuilder, double[])} does from WKB.
+   *
+   * @param features the features
+   * @return the bounding box; {@code null} if none of the features has a geometry
+   */
+  public static @Nullable BBox bboxOf(final @NotNull List<? extends XyzFeature> features) {
+    final double[] bbox = WkbGeoJsonWriter.newBBox();
+    for (final XyzFeature feature : features) {
+      extendBBox(bbox, feature);
+    }
+    return WkbGeoJsonWriter.toBBox(bbox);
+  }
+
+  private static void extendBBox(final double @NotNull [] bbox, final @Nullable XyzFeature feature) {
+    final XyzGeometry geometry = feature != null ? feature.getGeometry() : null;
+    if (geometry != null) {
+      final Envelope envelope = geometry.getJTSGeometry().getEnvelopeInternal();
+      if (!envelope.isNull()) {
+        WkbGeoJsonWriter.extendBBox(
+            bbox, new BBox(envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY()));
+      }
+    }
+  }
+
+  private static void writeFeature(
+      final @NotNull ForwardCursor<XyzFeature, XyzFeatureCodec> cursor,
+      final @NotNull StringBuilder sb,
+      final double @Nullable [] bbox) {
+    final XyzFeature decoded = cursor.getDecodedFeature();
+    final String json = decoded == null ? cursor.getJson() : null;
+    if (json == null || !isRawWritable(json)) {
+      final XyzFeature feature = cursor.getFeature();
+      if (bbox != null) {
+        extendBBox(bbox, feature);
+      }
+      sb.append(JsonSerializable.serialize(feature));
+      return;
+    }
+    final int end = json.lastIndexOf('}');
+    final byte[] wkb = cursor.getWkb();
+    if (end < 0 || wkb == null) {
+      sb.append(json);
+      return;
+    }
+    if (bbox != null) {
+      WkbGeoJsonWriter.extendBBox(wkb, bbox);
+    }
+    sb.append(json, 0, end);
+    if (hasMembers(json, end)) {
+      sb.append(',');
+    }
+    sb.append("\"geometry\":");
+    WkbGeoJsonWriter.write(wkb, sb);
+    sb.append(json, end, json.length());
+  }
+
+  /**
+   * The top-level members of a feature that prevent the raw JSON from being returned as it is.
+   */
+  private static final Set<String> NOT_RAW_WRITABLE_MEMBERS = Set.of(
+      XyzFeature.GEOMETRY, XyzFeature.ON_FEATURE_NOT_EXISTS, XyzFeature.ON_FEATURE_EXISTS, XyzFeature.ON_MERGE_CONFLICT);
+
+  /**
+   * Tests if the raw JSON of a feature can be returned as it is. This is not the case, if the JSON holds a geometry (which is stored
+   * separately) or members that are hidden from users when serializing a feature. Only the names of the top-level members are checked,
+   * all nested values are skipped, so properties with the same names do not matter.
+   */
+  static boolean isRawWritable(final @NotNull String json) {
+    try (final Json jp = Json.get();
+        final JsonParser parser = jp.reader().createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return false;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        if (NOT_RAW_WRITABLE_MEMBERS.contains(parser.getCurrentName())) {
+          return false;
+        }
+        parser.nextToken();
+        parser.skipChildren();
+      }
+      return parser.currentToken() == JsonToken.END_OBJECT;
+    } catch (IOException e) {
+      // Let the regular serialization deal with invalid JSON.
+      return false;
+    }
+  }
+
+  private static boolean hasMembers(final @NotNull String json, final int end) {
+    for (int i = end - 1; i >= 0; i--) {
+      final char c = json.charAt(i);
+      if (c == '{') {
+        return false;
+      }
+      if (!Character.isWhitespace(c)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Helper method to read single feature from Result
    *
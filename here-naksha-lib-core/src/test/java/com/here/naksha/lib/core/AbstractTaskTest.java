@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.here.naksha.lib.core.exceptions.TooManyTasks;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AbstractTaskTest {
+
+  private static final long TIMEOUT_SECONDS = 10;
+
+  /**
+   * A task that sends its response after {@link #execute()} returned, when the given stage is completed.
+   */
+  private static final class DeferredTask extends AbstractTask<String, DeferredTask> {
+
+    @SuppressWarnings("DataFlowIssue")
+    DeferredTask(@Nullable CompletableFuture<Void> end) {
+      super(null, new NakshaContext());
+      this.end = end;
+    }
+
+    private final @Nullable CompletableFuture<Void> end;
+    private final CountDownLatch executed = new CountDownLatch(1);
+
+    @Override
+    protected void init() {}
+
+    @Override
+    protected @NotNull String execute() {
+      if (end != null) {
+        deferEnd(end);
+      }
+      executed.countDown();
+      return "done";
+    }
+  }
+
+  @BeforeEach
+  void limitToOneTask() {
+    AbstractTask.setConcurrencyLimitManager(new IRequestLimitManager() {
+      @Override
+      public long getInstanceLevelLimit() {
+        return 1;
+      }
+
+      @Override
+      public long getActorLevelLimit(NakshaContext context) {
+        return 1;
+      }
+    });
+  }
+
+  @AfterEach
+  void resetLimit() {
+    AbstractTask.setConcurrencyLimitManager(new DefaultRequestLimitManager());
+  }
+
+  @Test
+  void testDeferredEndKeepsSlot() throws Exception {
+    final CompletableFuture<Void> end = new CompletableFuture<>();
+    final DeferredTask task = new DeferredTask(end);
+    final AtomicInteger listenerCalls = new AtomicInteger();
+    task.addListener(response -> listenerCalls.incrementAndGet());
+    final Future<String> future = task.start();
+    task.executed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    // The response is still being sent, the task must keep its slot and must not be done.
+    Thread.sleep(100);
+    assertFalse(future.isDone());
+    assertEquals(0, listenerCalls.get());
+    assertThrows(TooManyTasks.class, () -> new DeferredTask(null).start());
+
+    end.complete(null);
+    assertEquals("done", future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertEquals(1, listenerCalls.get());
+    assertEquals(AbstractTask.State.DONE, task.state());
+    assertEquals("done", new DeferredTask(null).start().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testWithoutDeferredEnd() throws Exception {
+    final DeferredTask task = new DeferredTask(null);
+    assertEquals("done", task.start().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertEquals(AbstractTask.State.DONE, task.state());
+    assertEquals("done", new DeferredTask(null).start().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+  }
+}
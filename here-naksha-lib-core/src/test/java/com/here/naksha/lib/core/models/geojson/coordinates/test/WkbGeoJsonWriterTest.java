@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.geojson.coordinates.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.here.naksha.lib.core.models.geojson.coordinates.BBox;
+import com.here.naksha.lib.core.models.geojson.coordinates.JTSHelper;
+import com.here.naksha.lib.core.models.geojson.coordinates.WkbGeoJsonWriter;
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.util.json.JsonSerializable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.io.WKTReader;
+
+public class WkbGeoJsonWriterTest {
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "POINT (1 2)",
+        "POINT Z (1 2 3)",
+        "LINESTRING (1 2, 3 4.5, -5 6)",
+        "LINESTRING Z (1 2 3, 4 5 6)",
+        "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 2 1, 2 2, 1 1))",
+        "MULTIPOINT ((1 2), (3 4))",
+        "MULTILINESTRING ((1 2, 3 4), (5 6, 7 8))",
+        "MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), ((5 5, 6 5, 6 6, 5 5)))",
+        "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (3 4, 5 6))"
+      })
+  void sameAsJts(String wkt) throws Exception {
+    final Geometry geometry = new WKTReader().read(wkt);
+    geometry.setSRID(4326);
+    final byte[] wkb;
+    try (final Json jp = Json.get()) {
+      wkb = jp.wkbWriter.write(geometry);
+    }
+    final String expected = JsonSerializable.serialize(JTSHelper.fromGeometry(geometry));
+    final String actual = WkbGeoJsonWriter.toGeoJson(wkb);
+    final ObjectMapper mapper = new ObjectMapper();
+    assertEquals(mapper.readTree(expected), mapper.readTree(actual));
+
+    // The same for big-endian WKB without SRID.
+    final byte[] bigEndian = new WKBWriter(3, false).write(geometry);
+    assertEquals(mapper.readTree(expected), mapper.readTree(WkbGeoJsonWriter.toGeoJson(bigEndian)));
+  }
+
+  @Test
+  void bbox() throws Exception {
+    final Geometry geometry =
+        new WKTReader().read("GEOMETRYCOLLECTION (POINT (-1 2), LINESTRING Z (3 4 100, 5 -6 200))");
+    final BBox bbox = WkbGeoJsonWriter.bbox(new WKBWriter(3).write(geometry));
+    assertNotNull(bbox);
+    assertEquals(-1d, bbox.minLon());
+    assertEquals(-6d, bbox.minLat());
+    assertEquals(5d, bbox.maxLon());
+    assertEquals(4d, bbox.maxLat());
+  }
+
+  @Test
+  void invalid() {
+    assertThrows(IllegalArgumentException.class, () -> WkbGeoJsonWriter.toGeoJson(new byte[] {1, 2, 0, 0, 0, 0}));
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.models.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.namespaces.XyzNamespace;
+import com.here.naksha.lib.core.util.json.JsonPathReader;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class XyzCodecLazyDecodeTest {
+
+  private static final String JSON = "{\"id\":\"f1\",\"type\":\"Feature\",\"bbox\":[1,2,3,4],"
+      + "\"properties\":{\"featureType\":\"Road\",\"speedLimit\":50,\"nested\":{\"a\":1,\"b\":[1,2]},"
+      + "\"@ns:com:here:xyz\":{\"uuid\":\"u1\",\"puuid\":\"u0\",\"tags\":[\"foo\",\"bar\"]}}}";
+
+  private static final PRef FEATURE_TYPE = new NonIndexedPRef("properties", "featureType");
+  private static final PRef SPEED_LIMIT = new NonIndexedPRef("properties", "speedLimit");
+  private static final PRef NESTED = new NonIndexedPRef("properties", "nested");
+  private static final PRef NESTED_A = new NonIndexedPRef("properties", "nested", "a");
+  private static final PRef MISSING = new NonIndexedPRef("properties", "missing");
+
+  @Test
+  void jsonPathReader() {
+    final Map<List<String>, Object> values = JsonPathReader.read(
+        JSON, List.of(FEATURE_TYPE.getPath(), NESTED.getPath(), NESTED_A.getPath(), MISSING.getPath()));
+    assertEquals("Road", values.get(FEATURE_TYPE.getPath()));
+    assertTrue(values.get(NESTED.getPath()) instanceof Map);
+    assertEquals(1, values.get(NESTED_A.getPath()));
+    assertFalse(values.containsKey(MISSING.getPath()));
+
+    assertEquals("f1", JsonPathReader.read(JSON, List.of("id"), String.class));
+    assertNull(JsonPathReader.read(JSON, List.of("properties", "speedLimit", "x"), String.class));
+  }
+
+  @Test
+  void decodePathsWithoutFeature() {
+    final XyzFeatureCodec codec = XyzFeatureCodecFactory.get().newInstance().withJson(JSON);
+    codec.decodePaths(List.of(FEATURE_TYPE, SPEED_LIMIT, PRef.tag("foo")));
+    assertEquals("Road", codec.getPathValue(FEATURE_TYPE));
+    assertEquals(50, codec.getPathValue(SPEED_LIMIT));
+    assertEquals(List.of("foo", "bar"), codec.getPathValue(PRef.tag("foo")));
+    assertNull(codec.getPathValue(MISSING));
+    assertEquals("f1", codec.getPathValue(PRef.id()));
+    // Nothing else decoded.
+    assertNull(codec.getFeature());
+
+    final XyzNamespace xyz = codec.getXyzNamespace();
+    assertNotNull(xyz);
+    assertEquals("u1", xyz.getUuid());
+    assertEquals("u0", xyz.getPuuid());
+    assertEquals(List.of("foo", "bar"), codec.getTags());
+    assertNull(codec.getFeature());
+
+    // Modifying the JSON drops the cached values.
+    codec.setJson("{\"id\":\"f2\",\"properties\":{\"featureType\":\"Lane\"}}");
+    assertEquals("Lane", codec.getPathValue(FEATURE_TYPE));
+    assertNull(codec.getXyzNamespace());
+  }
+
+  @Test
+  void decodePathsFromFeature() {
+    final XyzFeature feature = new XyzFeature("f3");
+    feature.getProperties().put("featureType", "Sign");
+    feature.getProperties().getXyzNamespace().setUuid("u3");
+    final XyzFeatureCodec codec = XyzFeatureCodecFactory.get().newInstance().withFeature(feature);
+    assertEquals("Sign", codec.getPathValue(FEATURE_TYPE));
+    assertEquals("f3", codec.getPathValue(PRef.id()));
+    assertEquals("u3", codec.getXyzNamespace().getUuid());
+  }
+
+  @Test
+  void pathValuesDoNotDependOnDecodeState() {
+    final PRef xyzRef = new NonIndexedPRef("properties", "@ns:com:here:xyz");
+    final XyzFeatureCodec lazy = XyzFeatureCodecFactory.get().newInstance().withJson(JSON);
+    final XyzFeatureCodec decoded = XyzFeatureCodecFactory.get().newInstance().withJson(JSON);
+    assertNotNull(decoded.encodeFeature(false).getFeature());
+    for (final PRef ref : List.of(FEATURE_TYPE, SPEED_LIMIT, NESTED, NESTED_A, PRef.tag("foo"))) {
+      assertEquals(lazy.getPathValue(ref), decoded.getPathValue(ref), ref.getPath().toString());
+    }
+    // The namespace is a typed object in the decoded feature, but must be returned as plain map.
+    final Object xyz = decoded.getPathValue(xyzRef);
+    assertTrue(xyz instanceof Map);
+    assertFalse(xyz instanceof XyzNamespace);
+    assertEquals("u1", ((Map<?, ?>) xyz).get("uuid"));
+    assertEquals(((Map<?, ?>) lazy.getPathValue(xyzRef)).get("tags"), ((Map<?, ?>) xyz).get("tags"));
+  }
+}
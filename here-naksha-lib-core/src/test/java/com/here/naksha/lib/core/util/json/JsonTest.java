@@ -20,7 +20,11 @@ package com.here.naksha.lib.core.util.json;
 
 import static com.here.naksha.lib.core.util.json.Json.toJsonString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.view.ViewSerialize;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
@@ -41,4 +45,21 @@ class JsonTest {
     toJsonString("\u0000\t\r\nHello World", empty());
     assertEquals("\"\\u0000\\t\\r\\nHello World\"", sb.toString());
   }
+
+  @Test
+  void test_sharedMapper() throws Exception {
+    try (final Json outer = Json.get();
+        final Json inner = Json.get()) {
+      // Only the WKB reader and writer are per instance.
+      assertNotSame(outer, inner);
+      assertNotSame(outer.wkbWriter, inner.wkbWriter);
+      assertSame(outer.mapper, inner.mapper);
+      assertSame(outer.reader(), inner.reader());
+      assertSame(outer.writer(ViewSerialize.User.class), inner.writer(ViewSerialize.User.class));
+      assertSame(outer.readerFor(XyzFeature.class), inner.readerFor(XyzFeature.class));
+
+      final XyzFeature feature = outer.readerFor(XyzFeature.class).readValue("{\"id\":\"foo\"}");
+      assertEquals("foo", feature.getId());
+    }
+  }
 }
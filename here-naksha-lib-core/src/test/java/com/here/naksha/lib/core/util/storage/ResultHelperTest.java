@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.core.util.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.here.naksha.lib.core.models.geojson.coordinates.BBox;
+import com.here.naksha.lib.core.models.geojson.coordinates.WkbGeoJsonWriter;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.ContextXyzFeatureResult;
+import com.here.naksha.lib.core.models.storage.EExecutedOp;
+import com.here.naksha.lib.core.models.storage.ListBasedForwardCursor;
+import com.here.naksha.lib.core.models.storage.Result;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.util.json.JsonSerializable;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKTReader;
+
+class ResultHelperTest {
+
+  @Test
+  void rawWritableChecksTopLevelMembersOnly() {
+    assertTrue(ResultHelper.isRawWritable("{\"id\":\"a\",\"type\":\"Feature\",\"properties\":{}}"));
+    // Properties with the names of hidden members, or values holding them, do not matter.
+    assertTrue(ResultHelper.isRawWritable(
+        "{\"id\":\"a\",\"properties\":{\"geometry\":{\"type\":\"Point\"},\"note\":\"\\\"onMergeConflict\\\"\"}}"));
+    assertTrue(ResultHelper.isRawWritable("{\"id\":\"\\\"geometry\\\"\",\"bbox\":[1,2,3,4]}"));
+
+    assertFalse(ResultHelper.isRawWritable("{\"id\":\"a\",\"geometry\":null}"));
+    assertFalse(ResultHelper.isRawWritable("{\"id\":\"a\",\"properties\":{},\"onFeatureExists\":\"retain\"}"));
+    assertFalse(ResultHelper.isRawWritable("{\"onFeatureNotExists\":\"create\"}"));
+    assertFalse(ResultHelper.isRawWritable("{\"onMergeConflict\":\"error\"}"));
+    assertFalse(ResultHelper.isRawWritable("[]"));
+    assertFalse(ResultHelper.isRawWritable("{\"id\":"));
+  }
+
+  private static final String[] GEOMETRIES = {
+    "POINT (8.6578 50.1234)",
+    null,
+    "LINESTRING Z (-1.5 2 10, 3 -4.25 20)",
+    "POLYGON ((-10 -10, 10 -10, 10 10, -10 10, -10 -10))",
+    "GEOMETRYCOLLECTION (POINT (-20 5), LINESTRING (1 2, 3 45))"
+  };
+
+  private static @NotNull Result result() throws Exception {
+    final List<XyzFeatureCodec> codecs = new ArrayList<>();
+    for (int i = 0; i < GEOMETRIES.length; i++) {
+      final String id = "feature_" + i;
+      byte @Nullable [] wkb = null;
+      if (GEOMETRIES[i] != null) {
+        final Geometry geometry = new WKTReader().read(GEOMETRIES[i]);
+        geometry.setSRID(4326);
+        try (final Json jp = Json.get()) {
+          wkb = jp.wkbWriter.write(geometry);
+        }
+      }
+      codecs.add(XyzFeatureCodecFactory.get()
+          .newInstance()
+          .withOp(EExecutedOp.READ)
+          .withId(id)
+          .withJson("{\"type\":\"Feature\",\"id\":\"" + id + "\",\"properties\":{\"n\":" + i + "}}")
+          .withWkb(wkb));
+    }
+    return new ContextXyzFeatureResult(new ListBasedForwardCursor<>(XyzFeatureCodecFactory.get(), codecs));
+  }
+
+  @Test
+  void rawAndDecodedPathsAreEqual() throws Exception {
+    final StringBuilder sb = new StringBuilder();
+    final double[] rawBBox = WkbGeoJsonWriter.newBBox();
+    assertEquals(GEOMETRIES.length, ResultHelper.writeFeaturesFromResult(result(), 0, Long.MAX_VALUE, sb, rawBBox));
+
+    final List<XyzFeature> features = ResultHelper.readFeaturesFromResult(result(), XyzFeature.class);
+    final StringBuilder decoded = new StringBuilder("[");
+    for (final XyzFeature feature : features) {
+      if (decoded.length() > 1) {
+        decoded.append(',');
+      }
+      decoded.append(JsonSerializable.serialize(feature));
+    }
+    decoded.append(']');
+
+    final ObjectMapper mapper = new ObjectMapper();
+    final JsonNode raw = mapper.readTree(sb.toString());
+    assertEquals(mapper.readTree(decoded.toString()), raw);
+    assertTrue(raw.get(2).has("geometry"));
+    assertFalse(raw.get(1).has("geometry"));
+
+    final BBox bbox = WkbGeoJsonWriter.toBBox(rawBBox);
+    assertNotNull(bbox);
+    assertEquals(ResultHelper.bboxOf(features), bbox);
+    assertEquals(-20d, bbox.minLon());
+    assertEquals(-10d, bbox.minLat());
+    assertEquals(10d, bbox.maxLon());
+    assertEquals(50.1234d, bbox.maxLat());
+  }
+}
@@ -45,6 +45,10 @@ public class POpAssertion {
     return hasType(POpType.EXISTS).hasTagName(tagName);
   }
 
+  public POpAssertion inTags(String... tags) {
+    return hasType(POpType.IN).hasPRef(PRef.tags()).hasValues(tags);
+  }
+
   public POpAssertion hasType(OpType expectedOpType) {
     assertEquals(expectedOpType, subject.op());
     return this;
@@ -91,6 +95,16 @@ public class POpAssertion {
     return this;
   }
 
+  public POpAssertion hasValues(String... values) {
+    assertArrayEquals(values, (Object[]) subject.getValue());
+    return this;
+  }
+
+  public POpAssertion hasValues(Long... values) {
+    assertArrayEquals(values, (Object[]) subject.getValue());
+    return this;
+  }
+
   @SafeVarargs
   public final POpAssertion hasChildrenThat(Consumer<POpAssertion>... childrenAssertions) {
     List<POp> subjects = subject.children();
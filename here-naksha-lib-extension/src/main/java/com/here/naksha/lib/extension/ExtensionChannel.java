@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.extension;
+
+import static com.here.naksha.lib.core.NakshaLogger.currentLogger;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.extension.NakshaExtSocket.Frame;
+import com.here.naksha.lib.extension.messages.ExtensionMessage;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Multiplexes concurrent requests over a single {@link NakshaExtSocket} that uses the binary protocol. A reader thread dispatches the
+ * received frames by their request identifier to the {@link Exchange} of the request, frames of unknown requests are handed to the request
+ * listener, if there is any (server side), otherwise they are dropped.
+ */
+@AvailableSince(NakshaVersion.v2_1_0)
+final class ExtensionChannel implements AutoCloseable {
+
+  /**
+   * Added to the inbox of all pending exchanges, when the channel is closed.
+   */
+  private static final Object CLOSED = new Object();
+
+  /**
+   * Creates a new channel and starts the reader thread.
+   *
+   * @param socket    the socket, must use the binary protocol.
+   * @param onRequest the listener to call (in the reader thread) for frames of unknown requests; {@code null} to drop them.
+   */
+  ExtensionChannel(
+      @NotNull NakshaExtSocket socket, @Nullable BiConsumer<@NotNull ExtensionChannel, @NotNull Frame> onRequest) {
+    if (!socket.isBinary()) {
+      throw new IllegalArgumentException("Multiplexing requires the binary protocol");
+    }
+    this.socket = socket;
+    this.onRequest = onRequest;
+    this.lastUsed = System.currentTimeMillis();
+    reader = new Thread(this::read, "naksha-ext-channel");
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  private final @NotNull NakshaExtSocket socket;
+  private final @Nullable BiConsumer<@NotNull ExtensionChannel, @NotNull Frame> onRequest;
+  private final @NotNull ConcurrentHashMap<@NotNull Long, @NotNull Exchange> exchanges = new ConcurrentHashMap<>();
+  private final @NotNull AtomicLong nextRequestId = new AtomicLong();
+  private final @NotNull AtomicBoolean closed = new AtomicBoolean();
+  private final @NotNull Thread reader;
+  private volatile long lastUsed;
+
+  /**
+   * Opens a new request (client side).
+   *
+   * @return the exchange of the new request.
+   */
+  @NotNull
+  Exchange open() {
+    return join(nextRequestId.incrementAndGet());
+  }
+
+  /**
+   * Joins the request with the given identifier (server side), all further frames of this request are routed to the returned exchange.
+   *
+   * @param requestId the identifier of the request.
+   * @return the exchange of the request.
+   */
+  @NotNull
+  Exchange join(long requestId) {
+    final Exchange exchange = new Exchange(requestId);
+    exchanges.put(requestId, exchange);
+    lastUsed = System.currentTimeMillis();
+    if (closed.get()) {
+      // The channel was closed concurrently, ensure that the exchange does not wait forever.
+      exchange.inbox.add(CLOSED);
+    }
+    return exchange;
+  }
+
+  /**
+   * Returns the amount of requests currently in flight.
+   *
+   * @return the amount of requests currently in flight.
+   */
+  int inFlight() {
+    return exchanges.size();
+  }
+
+  /**
+   * Returns the epoch milliseconds when the channel was used the last time.
+   *
+   * @return the epoch milliseconds when the channel was used the last time.
+   */
+  long lastUsed() {
+    return lastUsed;
+  }
+
+  /**
+   * Tests if the channel can be used, so the channel is not closed and the reader is alive.
+   *
+   * @return {@code true} if the channel can be used; {@code false} otherwise.
+   */
+  boolean isHealthy() {
+    return !closed.get() && socket.isOpen() && reader.isAlive();
+  }
+
+  private void read() {
+    try {
+      while (!closed.get()) {
+        final Frame frame = socket.readFrame();
+        final Exchange exchange = exchanges.get(frame.requestId);
+        if (exchange != null) {
+          exchange.inbox.add(frame.message);
+        } else if (onRequest != null) {
+          onRequest.accept(this, frame);
+        } else {
+          currentLogger()
+              .atWarn("Dropped message of unknown request {}: {}")
+              .add(frame.requestId)
+              .add(frame.message)
+              .log();
+        }
+      }
+    } catch (Throwable t) {
+      if (!closed.get()) {
+        currentLogger()
+            .atWarn("Naksha extension channel failed, closing it")
+            .setCause(t)
+            .log();
+      }
+    } finally {
+      close();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      socket.close();
+      for (final Exchange exchange : exchanges.values()) {
+        exchange.inbox.add(CLOSED);
+      }
+    }
+  }
+
+  /**
+   * The messages exchanged for a single request.
+   */
+  final class Exchange implements IExtensionExchange {
+
+    private Exchange(long requestId) {
+      this.requestId = requestId;
+    }
+
+    final long requestId;
+    private final @NotNull LinkedBlockingQueue<@NotNull Object> inbox = new LinkedBlockingQueue<>();
+
+    @Override
+    public void send(@NotNull ExtensionMessage msg) {
+      lastUsed = System.currentTimeMillis();
+      socket.sendMessage(requestId, msg);
+    }
+
+    @Override
+    public @NotNull ExtensionMessage receive(long timeoutInMillis) throws IOException, InterruptedException {
+      final Object msg = timeoutInMillis > 0 ? inbox.poll(timeoutInMillis, TimeUnit.MILLISECONDS) : inbox.take();
+      if (msg == null) {
+        throw new SocketTimeoutException("Timeout while waiting for response to request " + requestId);
+      }
+      if (msg == CLOSED) {
+        throw new IOException("The Naksha extension channel was closed");
+      }
+      lastUsed = System.currentTimeMillis();
+      return (ExtensionMessage) msg;
+    }
+
+    @Override
+    public void close() {
+      exchanges.remove(requestId);
+      lastUsed = System.currentTimeMillis();
+    }
+  }
+}
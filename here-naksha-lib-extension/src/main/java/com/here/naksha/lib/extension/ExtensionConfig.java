@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.extension;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The configuration needed to connect to a Naksha extension server.
+ */
+@AvailableSince(NakshaVersion.v2_1_0)
+public final class ExtensionConfig {
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static final int DEFAULT_CONN_TIMEOUT = 5_000;
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static final int DEFAULT_READ_TIMEOUT = 60_000;
+
+  /**
+   * Creates a new extension configuration with default timeouts.
+   *
+   * @param id   the unique identifier of the extension.
+   * @param host the host name of the extension server.
+   * @param port the port of the extension server.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public ExtensionConfig(@NotNull String id, @NotNull String host, int port) {
+    this(id, host, port, DEFAULT_CONN_TIMEOUT, DEFAULT_READ_TIMEOUT);
+  }
+
+  /**
+   * Creates a new extension configuration.
+   *
+   * @param id          the unique identifier of the extension.
+   * @param host        the host name of the extension server.
+   * @param port        the port of the extension server.
+   * @param connTimeout the timeout in milliseconds to establish a connection.
+   * @param readTimeout the timeout in milliseconds to wait for a message.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public ExtensionConfig(@NotNull String id, @NotNull String host, int port, int connTimeout, int readTimeout) {
+    this.id = id;
+    this.host = host;
+    this.port = port;
+    this.connTimeout = connTimeout;
+    this.readTimeout = readTimeout;
+  }
+
+  private final @NotNull String id;
+  private final @NotNull String host;
+  private final int port;
+  private final int connTimeout;
+  private final int readTimeout;
+
+  public @NotNull String getId() {
+    return id;
+  }
+
+  public @NotNull String getHost() {
+    return host;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  public int getConnTimeout() {
+    return connTimeout;
+  }
+
+  public int getReadTimeout() {
+    return readTimeout;
+  }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.extension;
+
+import static com.here.naksha.lib.core.NakshaLogger.currentLogger;
+import static com.here.naksha.lib.core.exceptions.UncheckedException.causeOf;
+import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.extension.NakshaExtSocket.BinaryNotSupportedException;
+import com.here.naksha.lib.extension.messages.ExtensionMessage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A pool of persistent, multiplexed connections to the extension servers. For every extension up to {@link #maxConnections} channels are
+ * kept open, each carrying up to {@link #maxInFlight} concurrent requests (soft limit, when all channels are saturated, the least loaded
+ * one is used). Channels that are broken, or that have been idle for longer than {@link #idleTimeoutInMillis}, are closed and removed.
+ *
+ * <p>Extensions that refuse the binary protocol are served the plain JSON way, with one connection per request. The binary protocol is
+ * probed again, when the extension refused it longer than {@link #idleTimeoutInMillis} ago.
+ */
+@AvailableSince(NakshaVersion.v2_1_0)
+final class ExtensionConnectionPool implements AutoCloseable {
+
+  static final int DEFAULT_MAX_CONNECTIONS = 4;
+  static final int DEFAULT_MAX_IN_FLIGHT = 64;
+  static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  ExtensionConnectionPool() {
+    this(DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_IN_FLIGHT, DEFAULT_IDLE_TIMEOUT_MILLIS);
+  }
+
+  ExtensionConnectionPool(int maxConnections, int maxInFlight, long idleTimeoutInMillis) {
+    this.maxConnections = Math.max(1, maxConnections);
+    this.maxInFlight = Math.max(1, maxInFlight);
+    this.idleTimeoutInMillis = idleTimeoutInMillis;
+    reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+      final Thread thread = new Thread(r, "naksha-ext-pool-reaper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    final long period = Math.max(1000L, idleTimeoutInMillis / 2);
+    reaper.scheduleWithFixedDelay(this::reap, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  final int maxConnections;
+  final int maxInFlight;
+  final long idleTimeoutInMillis;
+  private final @NotNull ScheduledExecutorService reaper;
+  private final @NotNull ConcurrentHashMap<@NotNull String, @NotNull Pool> channels = new ConcurrentHashMap<>();
+
+  /**
+   * The channels to a single extension, guarded by the lock of the list.
+   */
+  private static final class Pool extends ArrayList<@NotNull ExtensionChannel> {
+
+    /**
+     * The amount of channels being connected.
+     */
+    int connecting;
+  }
+
+  /**
+   * The extensions that refused the binary protocol, mapped to the epoch milliseconds when they did.
+   */
+  private final @NotNull ConcurrentHashMap<@NotNull String, @NotNull Long> jsonOnly = new ConcurrentHashMap<>();
+
+  /**
+   * Opens a new request to the given extension, reusing an existing channel when possible.
+   *
+   * @param config the extension configuration.
+   * @return the exchange of the new request, must be closed when the request is done.
+   */
+  @NotNull
+  IExtensionExchange open(@NotNull ExtensionConfig config) {
+    final Long refused = jsonOnly.get(config.getId());
+    if (refused != null && System.currentTimeMillis() - refused <= idleTimeoutInMillis) {
+      return new JsonExchange(NakshaExtSocket.connect(config));
+    }
+    final Pool pool = channels.computeIfAbsent(config.getId(), id -> new Pool());
+    final ExtensionChannel best;
+    synchronized (pool) {
+      best = leastLoaded(pool);
+      if (best != null && (best.inFlight() < maxInFlight || pool.size() + pool.connecting >= maxConnections)) {
+        // Open the request while holding the lock, so that the reaper does not close the channel as idle.
+        return best.open();
+      }
+      pool.connecting++;
+    }
+    // Connect without holding the lock, so that a slow or unreachable extension does not block the requests to the open channels.
+    final ExtensionChannel channel;
+    try {
+      channel = connect(config);
+    } catch (RuntimeException e) {
+      synchronized (pool) {
+        pool.connecting--;
+      }
+      throw e;
+    }
+    synchronized (pool) {
+      pool.connecting--;
+      if (channel != null) {
+        pool.add(channel);
+        return channel.open();
+      }
+      if (best != null && pool.contains(best)) {
+        return best.open();
+      }
+    }
+    return new JsonExchange(NakshaExtSocket.connect(config));
+  }
+
+  /**
+   * Closes and removes the broken channels of the given pool and returns the channel with the least requests in flight. The caller must
+   * hold the lock of the pool.
+   *
+   * @param pool the pool.
+   * @return the least loaded channel; {@code null} if the pool is empty.
+   */
+  private static @Nullable ExtensionChannel leastLoaded(@NotNull Pool pool) {
+    ExtensionChannel best = null;
+    for (int i = pool.size() - 1; i >= 0; i--) {
+      final ExtensionChannel channel = pool.get(i);
+      if (!channel.isHealthy()) {
+        pool.remove(i);
+        channel.close();
+      } else if (best == null || channel.inFlight() < best.inFlight()) {
+        best = channel;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Connects a new channel to the given extension.
+   *
+   * @param config the extension configuration.
+   * @return the new channel; {@code null} if the extension refused the binary protocol.
+   */
+  private @Nullable ExtensionChannel connect(@NotNull ExtensionConfig config) {
+    final NakshaExtSocket socket;
+    try {
+      socket = NakshaExtSocket.connect(config, true);
+    } catch (RuntimeException e) {
+      if (causeOf(e, BinaryNotSupportedException.class) == null) {
+        throw e;
+      }
+      currentLogger()
+          .atInfo("Extension {} does not support the binary protocol, falling back to JSON")
+          .add(config.getId())
+          .log();
+      jsonOnly.put(config.getId(), System.currentTimeMillis());
+      return null;
+    }
+    jsonOnly.remove(config.getId());
+    try {
+      // The reader thread waits for frames of any request, timeouts are applied per request.
+      socket.withReadTimeout(0);
+    } catch (IOException e) {
+      socket.close();
+      throw unchecked(e);
+    }
+    return new ExtensionChannel(socket, null);
+  }
+
+  /**
+   * Closes and removes broken channels and channels being idle for too long.
+   */
+  void reap() {
+    final long now = System.currentTimeMillis();
+    for (final Pool pool : channels.values()) {
+      synchronized (pool) {
+        for (int i = pool.size() - 1; i >= 0; i--) {
+          final ExtensionChannel channel = pool.get(i);
+          if (!channel.isHealthy()
+              || (channel.inFlight() == 0 && now - channel.lastUsed() > idleTimeoutInMillis)) {
+            pool.remove(i);
+            channel.close();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the amount of open channels to the given extension.
+   *
+   * @param extensionId the identifier of the extension.
+   * @return the amount of open channels.
+   */
+  int size(@NotNull String extensionId) {
+    final Pool pool = channels.get(extensionId);
+    if (pool == null) {
+      return 0;
+    }
+    synchronized (pool) {
+      return pool.size();
+    }
+  }
+
+  /**
+   * The messages of a single request, exchanged as plain JSON over a dedicated connection.
+   */
+  private static final class JsonExchange implements IExtensionExchange {
+
+    private JsonExchange(@NotNull NakshaExtSocket socket) {
+      this.socket = socket;
+    }
+
+    private final @NotNull NakshaExtSocket socket;
+
+    @Override
+    public void send(@NotNull ExtensionMessage msg) {
+      socket.sendMessage(msg);
+    }
+
+    @Override
+    public @NotNull ExtensionMessage receive(long timeoutInMillis) throws IOException {
+      socket.withReadTimeout((int) Math.max(0L, Math.min(timeoutInMillis, Integer.MAX_VALUE)));
+      return socket.readMessage();
+    }
+
+    @Override
+    public void close() {
+      socket.close();
+    }
+  }
+
+  @Override
+  public void close() {
+    reaper.shutdownNow();
+    for (final Pool pool : channels.values()) {
+      synchronized (pool) {
+        for (final ExtensionChannel channel : pool) {
+          channel.close();
+        }
+        pool.clear();
+      }
+    }
+  }
+}
@@ -20,20 +20,13 @@ package com.here.naksha.lib.extension;
 
 import static com.here.naksha.lib.core.exceptions.UncheckedException.cause;
 
-import com.here.naksha.lib.core.IEvent;
-import com.here.naksha.lib.core.IEventHandler;
-import com.here.naksha.lib.core.INaksha;
-import com.here.naksha.lib.core.NakshaBound;
 import com.here.naksha.lib.core.NakshaVersion;
 import com.here.naksha.lib.core.exceptions.XyzErrorException;
-import com.here.naksha.lib.core.models.PluginCache;
 import com.here.naksha.lib.core.models.XyzError;
-import com.here.naksha.lib.core.models.features.Extension;
 import com.here.naksha.lib.core.models.naksha.EventHandler;
 import com.here.naksha.lib.core.models.payload.Event;
 import com.here.naksha.lib.core.models.payload.XyzResponse;
 import com.here.naksha.lib.core.models.payload.responses.ErrorResponse;
-import com.here.naksha.lib.core.storage.IReadTransaction;
 import com.here.naksha.lib.extension.messages.ExtensionMessage;
 import com.here.naksha.lib.extension.messages.ProcessEventMsg;
 import com.here.naksha.lib.extension.messages.ResponseMsg;
@@ -48,79 +41,47 @@ import org.slf4j.LoggerFactory;
  */
 @SuppressWarnings("unused")
 @AvailableSince(NakshaVersion.v2_0_3)
-public class ExtensionHandler extends NakshaBound implements IEventHandler {
+public class ExtensionHandler implements IExtensionEventHandler {
 
   private static final Logger log = LoggerFactory.getLogger(ExtensionHandler.class);
-  // extension: 1234
-  // className: com.here.dcu.ValidationHandler <-- IEventHandler
 
   /**
-   * Internally used by Naksha-Hub as replacement for {@link EventHandler#newInstance()}, because this will return an internal proxy handler,
-   * when this is an extension connector.
-   *
-   * @return the event-handler.
-   */
-  public static @NotNull IEventHandler newInstanceOrExtensionHandler(
-      @NotNull INaksha naksha, @NotNull EventHandler eventHandler) {
-    if (eventHandler.getExtension() > 0) {
-      return new ExtensionHandler(naksha, eventHandler);
-    }
-    return PluginCache.newInstance(eventHandler.getClassName(), IEventHandler.class, eventHandler);
-  }
-
-  /**
-   * Creates a new extension handler.
-   *
-   * @param naksha    The naksha host.
-   * @param eventHandler the connector that must have a valid extension number.
+   * The connections to the extension servers, shared by all extension handlers, so that events are multiplexed over persistent
+   * connections instead of connecting for every event.
    */
-  @AvailableSince(NakshaVersion.v2_0_3)
-  public ExtensionHandler(@NotNull INaksha naksha, @NotNull EventHandler eventHandler) {
-    super(naksha);
-    Extension config = null;
-    try (final IReadTransaction tx = naksha.storage().openReplicationTransaction(naksha.settings())) {
-      // TODO : Need to use new storage API to fetch extension config (old way is deprecated, so comment it out)
-      /*config = tx.readFeatures(Extension.class, NakshaAdminCollection.EXTENSIONS)
-      .getFeatureById(connector.getId());*/
-      if (config == null) {
-        throw new IllegalArgumentException("No such extension exists: " + eventHandler.getId());
-      }
-    }
-    this.eventHandler = eventHandler;
-    this.config = config;
-  }
+  private static final ExtensionConnectionPool connectionPool = new ExtensionConnectionPool();
+  // extension: 1234
+  // className: com.here.dcu.ValidationHandler <-- IExtensionEventHandler
 
   /**
    * Creates a new extension handler.
    *
-   * @param naksha    The naksha host.
-   * @param eventHandler the connector that must have a valid extension number.
-   * @param config    the configuration to use.
+   * @param eventHandler the event handler to run in the extension.
+   * @param config       the configuration of the extension that hosts the handler.
    */
-  @AvailableSince(NakshaVersion.v2_0_3)
-  public ExtensionHandler(@NotNull INaksha naksha, @NotNull EventHandler eventHandler, @NotNull Extension config) {
-    super(naksha);
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public ExtensionHandler(@NotNull EventHandler eventHandler, @NotNull ExtensionConfig config) {
     this.eventHandler = eventHandler;
     this.config = config;
   }
 
-  private final @NotNull Extension config;
+  private final @NotNull ExtensionConfig config;
   private final @NotNull EventHandler eventHandler;
 
   @AvailableSince(NakshaVersion.v2_0_3)
   @Override
-  public @NotNull XyzResponse processEvent(@NotNull IEvent eventContext) {
-    final Event event = eventContext.getRequest();
-    try (final NakshaExtSocket nakshaExtSocket = NakshaExtSocket.connect(config)) {
-      nakshaExtSocket.sendMessage(new ProcessEventMsg(eventHandler, event));
+  public @NotNull XyzResponse processEvent(@NotNull IExtensionEvent eventContext) {
+    final Event event = eventContext.getEvent();
+    try (final IExtensionExchange exchange = connectionPool.open(config)) {
+      exchange.send(new ProcessEventMsg(eventHandler, event));
       while (true) {
-        final ExtensionMessage message = nakshaExtSocket.readMessage();
+        final ExtensionMessage message = exchange.receive(config.getReadTimeout());
         if (message instanceof ResponseMsg extResponse) {
           return extResponse.response;
         }
         if (message instanceof SendUpstreamMsg sendUpstream) {
           final XyzResponse xyzResponse = eventContext.sendUpstream(sendUpstream.event);
-          nakshaExtSocket.sendMessage(new ResponseMsg(xyzResponse));
+          exchange.send(new ResponseMsg(xyzResponse));
           // We then need to read the response again.
         } else {
           log.atInfo()
@@ -20,21 +20,26 @@ package com.here.naksha.lib.extension;
 
 import static com.here.naksha.lib.core.NakshaLogger.currentLogger;
 
-import com.here.naksha.lib.core.IEvent;
-import com.here.naksha.lib.core.IEventHandler;
 import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.naksha.EventHandler;
 import com.here.naksha.lib.core.models.payload.Event;
 import com.here.naksha.lib.core.models.payload.XyzResponse;
 import com.here.naksha.lib.core.models.payload.responses.ErrorResponse;
+import com.here.naksha.lib.extension.NakshaExtSocket.Frame;
 import com.here.naksha.lib.extension.messages.ExtensionMessage;
 import com.here.naksha.lib.extension.messages.ProcessEventMsg;
 import com.here.naksha.lib.extension.messages.ResponseMsg;
 import com.here.naksha.lib.extension.messages.SendUpstreamMsg;
 import java.net.Socket;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.jetbrains.annotations.NotNull;
 
-class ExtensionServerConnection extends Thread implements IEvent {
+class ExtensionServerConnection extends Thread implements IExtensionEvent {
   private final NakshaExtSocket nakshaExtSocket;
 
   ExtensionServerConnection(Socket socket) {
@@ -45,7 +50,14 @@ class ExtensionServerConnection extends Thread implements IEvent {
   @Override
   public void run() {
     final ExtensionMessage msg;
+    boolean multiplexed = false;
     try {
+      if (nakshaExtSocket.accept().isBinary()) {
+        // The channel takes over the socket and processes the requests until the client closes the connection.
+        new ExtensionChannel(nakshaExtSocket, ExtensionServerConnection::onRequest);
+        multiplexed = true;
+        return;
+      }
       msg = nakshaExtSocket.readMessage();
       if (msg instanceof ProcessEventMsg processEvent) {
         event = processEvent.event;
@@ -53,8 +65,7 @@ class ExtensionServerConnection extends Thread implements IEvent {
             .atInfo("Handling event with streamID {}")
             .add(event.getStreamId())
             .log();
-        final IEventHandler handler =
-            Objects.requireNonNull(processEvent.eventHandler).newInstance();
+        final IExtensionEventHandler handler = newHandler(Objects.requireNonNull(processEvent.eventHandler));
         final XyzResponse response = handler.processEvent(this);
         nakshaExtSocket.sendMessage(new ResponseMsg(response));
       }
@@ -62,7 +73,190 @@ class ExtensionServerConnection extends Thread implements IEvent {
       currentLogger().atError().setCause(e).log();
       e.printStackTrace();
     } finally {
-      nakshaExtSocket.close();
+      if (!multiplexed) {
+        nakshaExtSocket.close();
+      }
+    }
+  }
+
+  /**
+   * Creates the extension event handler configured by the given event handler. The handler class must implement
+   * {@link IExtensionEventHandler} and provide either a public constructor accepting the {@link EventHandler} or a public default
+   * constructor.
+   *
+   * @param eventHandler the event handler configuration.
+   * @return the new handler instance.
+   * @throws ReflectiveOperationException if the handler can't be instantiated.
+   */
+  static @NotNull IExtensionEventHandler newHandler(@NotNull EventHandler eventHandler)
+      throws ReflectiveOperationException {
+    final Class<?> handlerClass = Class.forName(eventHandler.getClassName());
+    if (!IExtensionEventHandler.class.isAssignableFrom(handlerClass)) {
+      throw new ClassCastException(
+          "The class " + handlerClass.getName() + " does not implement " + IExtensionEventHandler.class.getName());
+    }
+    try {
+      return (IExtensionEventHandler)
+          handlerClass.getConstructor(EventHandler.class).newInstance(eventHandler);
+    } catch (NoSuchMethodException e) {
+      return (IExtensionEventHandler) handlerClass.getConstructor().newInstance();
+    }
+  }
+
+  /**
+   * The maximum amount of events of multiplexed channels being processed concurrently.
+   */
+  static final int MAX_EVENT_THREADS = 256;
+
+  /**
+   * The maximum amount of events of multiplexed channels waiting to be processed, further events are rejected.
+   */
+  static final int MAX_QUEUED_EVENTS = 1024;
+
+  /**
+   * Processes the events of all multiplexed channels.
+   */
+  private static final ThreadPoolExecutor eventExecutor;
+
+  static {
+    final AtomicLong threadCount = new AtomicLong();
+    eventExecutor = new ThreadPoolExecutor(
+        MAX_EVENT_THREADS,
+        MAX_EVENT_THREADS,
+        1,
+        TimeUnit.MINUTES,
+        new ArrayBlockingQueue<>(MAX_QUEUED_EVENTS),
+        r -> {
+          final Thread thread = new Thread(r, "naksha-ext-event-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    eventExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Called by the reader of a multiplexed channel for the first frame of every new request.
+   */
+  private static void onRequest(@NotNull ExtensionChannel channel, @NotNull Frame frame) {
+    if (frame.message instanceof ProcessEventMsg processEvent) {
+      final MultiplexedEvent event = new MultiplexedEvent(channel.join(frame.requestId), processEvent);
+      try {
+        eventExecutor.execute(event);
+      } catch (RejectedExecutionException e) {
+        currentLogger()
+            .atWarn("Rejecting event with streamID {}, too many events in progress")
+            .add(processEvent.event.getStreamId())
+            .log();
+        event.reject();
+      }
+    } else {
+      currentLogger()
+          .atWarn("Received unexpected message for new request {}: {}")
+          .add(frame.requestId)
+          .add(frame.message)
+          .log();
+    }
+  }
+
+  /**
+   * Processes a single request of a multiplexed channel.
+   */
+  private static final class MultiplexedEvent implements Runnable, IExtensionEvent {
+
+    private MultiplexedEvent(@NotNull ExtensionChannel.Exchange exchange, @NotNull ProcessEventMsg processEvent) {
+      this.exchange = exchange;
+      this.processEvent = processEvent;
+      this.event = processEvent.event;
+    }
+
+    private final @NotNull ExtensionChannel.Exchange exchange;
+    private final @NotNull ProcessEventMsg processEvent;
+    private @NotNull Event event;
+
+    @Override
+    public void run() {
+      try (exchange) {
+        currentLogger()
+            .atInfo("Handling event with streamID {}")
+            .add(event.getStreamId())
+            .log();
+        XyzResponse response;
+        try {
+          final IExtensionEventHandler handler = newHandler(Objects.requireNonNull(processEvent.eventHandler));
+          response = handler.processEvent(this);
+        } catch (Exception e) {
+          currentLogger()
+              .atError("Failed to process event with streamID {}")
+              .add(event.getStreamId())
+              .setCause(e)
+              .log();
+          // Respond with an error, so that Naksha does not wait for the response until the request times out.
+          response = errorResponse(XyzError.EXCEPTION, "Failed to process event: " + e.getMessage());
+        }
+        exchange.send(new ResponseMsg(response));
+      } catch (Exception e) {
+        currentLogger()
+            .atError("Failed to send the response for event with streamID {}")
+            .add(event.getStreamId())
+            .setCause(e)
+            .log();
+      }
+    }
+
+    /**
+     * Rejects this event, because the server is overloaded.
+     */
+    private void reject() {
+      try (exchange) {
+        exchange.send(new ResponseMsg(
+            errorResponse(XyzError.TOO_MANY_REQUESTS, "Too many events in progress at the extension server")));
+      } catch (Exception e) {
+        currentLogger()
+            .atWarn("Failed to reject event with streamID {}")
+            .add(event.getStreamId())
+            .setCause(e)
+            .log();
+      }
+    }
+
+    private @NotNull ErrorResponse errorResponse(@NotNull XyzError error, @NotNull String message) {
+      return new ErrorResponse()
+          .withError(error)
+          .withErrorMessage(message)
+          .withStreamId(event.getStreamId());
+    }
+
+    @Override
+    public @NotNull Event getEvent() {
+      return event;
+    }
+
+    @Override
+    public @NotNull Event setEvent(@NotNull Event event) {
+      final Event oldEvent = this.event;
+      this.event = event;
+      return oldEvent;
+    }
+
+    @Override
+    public @NotNull XyzResponse sendUpstream() {
+      try {
+        exchange.send(new SendUpstreamMsg(event));
+        final ExtensionMessage message = exchange.receive(0);
+        if (message instanceof ResponseMsg responseMsg) {
+          return responseMsg.response;
+        }
+      } catch (final Throwable t) {
+        currentLogger()
+            .atError("Failed to process event: {}")
+            .add(event)
+            .setCause(t)
+            .log();
+      }
+      return new ErrorResponse()
+          .withError(XyzError.EXCEPTION)
+          .withErrorMessage("Received invalid message from Naksha.")
+          .withStreamId(event.getStreamId());
     }
   }
 
@@ -74,7 +268,7 @@ class ExtensionServerConnection extends Thread implements IEvent {
    * @return the current event of the underlying pipeline.
    */
   @Override
-  public @NotNull Event getRequest() {
+  public @NotNull Event getEvent() {
     return event;
   }
 
@@ -85,7 +279,7 @@ class ExtensionServerConnection extends Thread implements IEvent {
    * @return The previous event.
    */
   @Override
-  public @NotNull Event setRequest(@NotNull Event event) {
+  public @NotNull Event setEvent(@NotNull Event event) {
     var oldEvent = this.event;
     this.event = event;
     return oldEvent;
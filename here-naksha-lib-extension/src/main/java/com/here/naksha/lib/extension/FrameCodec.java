@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.extension;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.flatbuffers.FlatBufferBuilder;
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.bin.ConnectorPayload;
+import com.here.naksha.lib.core.bin.FeaturePayload;
+import com.here.naksha.lib.core.models.geojson.coordinates.JTSHelper;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeatureCollection;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzGeometry;
+import com.here.naksha.lib.core.models.payload.Event;
+import com.here.naksha.lib.core.models.payload.events.feature.ModifyFeaturesEvent;
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.view.ViewDeserialize;
+import com.here.naksha.lib.core.view.ViewSerialize;
+import com.here.naksha.lib.extension.NakshaExtSocket.Frame;
+import com.here.naksha.lib.extension.messages.ExtensionMessage;
+import com.here.naksha.lib.extension.messages.ProcessEventMsg;
+import com.here.naksha.lib.extension.messages.ResponseMsg;
+import com.here.naksha.lib.extension.messages.SendUpstreamMsg;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.io.ParseException;
+
+/**
+ * Encodes and decodes the {@link ConnectorPayload} frames of the binary extension protocol. The features of a message are not embedded
+ * into the JSON of the message, every feature is carried as {@link FeaturePayload}, holding the JSON of the feature without geometry and
+ * the geometry as WKB. This way the message envelope stays small and the geometries never pass through the JSON parser.
+ */
+@AvailableSince(NakshaVersion.v2_1_0)
+final class FrameCodec {
+
+  /**
+   * The features of a {@link XyzFeatureCollection} response.
+   */
+  static final int FEATURES = 0;
+
+  /**
+   * The {@link ModifyFeaturesEvent#getInsertFeatures() insert features} of an event.
+   */
+  static final int INSERT_FEATURES = 1;
+
+  /**
+   * The {@link ModifyFeaturesEvent#getUpdateFeatures() update features} of an event.
+   */
+  static final int UPDATE_FEATURES = 2;
+
+  /**
+   * The {@link ModifyFeaturesEvent#getUpsertFeatures() upsert features} of an event.
+   */
+  static final int UPSERT_FEATURES = 3;
+
+  private static final int LISTS = 4;
+
+  private FrameCodec() {}
+
+  /**
+   * Encodes the given message into a size-prefixed frame. The message is modified while encoding, but restored before the method returns.
+   *
+   * @param json      the JSON helper to use.
+   * @param requestId the identifier of the request to which the message belongs.
+   * @param msg       the message to encode.
+   * @return the frame, including the size prefix.
+   * @throws IOException if serializing the message failed.
+   */
+  static @NotNull ByteBuffer encode(@NotNull Json json, long requestId, @NotNull ExtensionMessage msg) throws IOException {
+    final ObjectWriter writer = json.writer(ViewSerialize.Internal.class);
+    final List<@Nullable List<XyzFeature>> lists = detach(msg);
+    try {
+      final byte[] message = writer.writeValueAsBytes(msg);
+      final FlatBufferBuilder builder = new FlatBufferBuilder(message.length + 1024);
+      int size = 0;
+      for (final List<XyzFeature> features : lists) {
+        size += features != null ? features.size() : 0;
+      }
+      int featuresOffset = 0;
+      if (size > 0) {
+        final int[] features = new int[size];
+        int i = 0;
+        for (int list = 0; list < LISTS; list++) {
+          final List<XyzFeature> listFeatures = lists.get(list);
+          if (listFeatures == null) {
+            continue;
+          }
+          for (final XyzFeature feature : listFeatures) {
+            features[i++] = encodeFeature(json, writer, builder, list, feature);
+          }
+        }
+        featuresOffset = ConnectorPayload.createFeaturesVector(builder, features);
+      }
+      final int mimeType = builder.createString(NakshaExtSocket.MESSAGE_MIME_TYPE);
+      final int bytes = ConnectorPayload.createBytesVector(builder, message);
+      final int root =
+          ConnectorPayload.createConnectorPayload(builder, mimeType, 0, bytes, requestId, featuresOffset);
+      ConnectorPayload.finishSizePrefixedConnectorPayloadBuffer(builder, root);
+      return builder.dataBuffer();
+    } finally {
+      attach(msg, lists);
+    }
+  }
+
+  private static int encodeFeature(
+      @NotNull Json json,
+      @NotNull ObjectWriter writer,
+      @NotNull FlatBufferBuilder builder,
+      int list,
+      @NotNull XyzFeature feature)
+      throws IOException {
+    final XyzGeometry geometry = feature.removeGeometry();
+    final byte[] featureJson;
+    try {
+      featureJson = writer.writeValueAsBytes(feature);
+    } finally {
+      feature.setGeometry(geometry);
+    }
+    final int jsonOffset = FeaturePayload.createJsonVector(builder, featureJson);
+    final int wkbOffset = geometry != null
+        ? FeaturePayload.createWkbVector(builder, json.wkbWriter.write(geometry.getJTSGeometry()))
+        : 0;
+    return FeaturePayload.createFeaturePayload(builder, list, jsonOffset, wkbOffset);
+  }
+
+  /**
+   * Decodes a frame, without the size prefix.
+   *
+   * @param json  the JSON helper to use.
+   * @param frame the frame to decode.
+   * @return the decoded frame.
+   * @throws IOException if the frame is invalid.
+   */
+  static @NotNull Frame decode(@NotNull Json json, @NotNull ByteBuffer frame) throws IOException {
+    final ConnectorPayload payload = ConnectorPayload.getRootAsConnectorPayload(frame);
+    if (!NakshaExtSocket.MESSAGE_MIME_TYPE.equals(payload.mimeType())) {
+      throw new IOException("Unsupported frame content type: " + payload.mimeType());
+    }
+    // The bytes are a view into the frame, decode them in place, without copying.
+    final ByteBuffer bytes = payload.bytesAsByteBuffer();
+    if (bytes == null) {
+      throw new IOException("Received frame without payload");
+    }
+    final ExtensionMessage message = json.reader(ViewDeserialize.Internal.class)
+        .forType(ExtensionMessage.class)
+        .readValue(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+    final int size = payload.featuresLength();
+    if (size > 0) {
+      final ObjectReader reader = json.reader(ViewDeserialize.Internal.class).forType(XyzFeature.class);
+      final List<@Nullable List<XyzFeature>> lists = new ArrayList<>(Collections.nCopies(LISTS, null));
+      final FeaturePayload featurePayload = new FeaturePayload();
+      for (int i = 0; i < size; i++) {
+        payload.features(featurePayload, i);
+        final int list = featurePayload.list();
+        if (list >= LISTS) {
+          throw new IOException("Received feature for unknown list " + list);
+        }
+        List<XyzFeature> features = lists.get(list);
+        if (features == null) {
+          features = new ArrayList<>();
+          lists.set(list, features);
+        }
+        features.add(decodeFeature(json, reader, featurePayload));
+      }
+      attach(message, lists);
+    }
+    return new Frame(payload.requestId(), message);
+  }
+
+  private static @NotNull XyzFeature decodeFeature(
+      @NotNull Json json, @NotNull ObjectReader reader, @NotNull FeaturePayload payload) throws IOException {
+    final ByteBuffer featureJson = payload.jsonAsByteBuffer();
+    if (featureJson == null) {
+      throw new IOException("Received feature without JSON");
+    }
+    final XyzFeature feature = reader.readValue(
+        featureJson.array(), featureJson.arrayOffset() + featureJson.position(), featureJson.remaining());
+    final ByteBuffer wkb = payload.wkbAsByteBuffer();
+    if (wkb != null) {
+      final byte[] wkbBytes = new byte[wkb.remaining()];
+      wkb.get(wkbBytes);
+      try {
+        feature.setGeometry(JTSHelper.fromGeometry(json.wkbReader.read(wkbBytes)));
+      } catch (ParseException e) {
+        throw new IOException("Received feature with invalid WKB geometry", e);
+      }
+    }
+    return feature;
+  }
+
+  private static @Nullable Event eventOf(@NotNull ExtensionMessage msg) {
+    if (msg instanceof ProcessEventMsg processEvent) {
+      return processEvent.event;
+    }
+    if (msg instanceof SendUpstreamMsg sendUpstream) {
+      return sendUpstream.event;
+    }
+    return null;
+  }
+
+  /**
+   * Removes all non-empty feature lists from the message.
+   *
+   * @param msg the message.
+   * @return the removed lists, indexed by list number, {@code null} for the lists that were not removed.
+   */
+  private static @NotNull List<@Nullable List<XyzFeature>> detach(@NotNull ExtensionMessage msg) {
+    final List<@Nullable List<XyzFeature>> lists = new ArrayList<>(Collections.nCopies(LISTS, null));
+    if (msg instanceof ResponseMsg responseMsg && responseMsg.response instanceof XyzFeatureCollection collection) {
+      final List<XyzFeature> features = collection.getFeatures();
+      if (!features.isEmpty()) {
+        lists.set(FEATURES, features);
+        collection.setFeatures(new ArrayList<>());
+      }
+    } else if (eventOf(msg) instanceof ModifyFeaturesEvent event) {
+      if (event.getInsertFeatures() != null && !event.getInsertFeatures().isEmpty()) {
+        lists.set(INSERT_FEATURES, event.getInsertFeatures());
+        event.setInsertFeatures(null);
+      }
+      if (event.getUpdateFeatures() != null && !event.getUpdateFeatures().isEmpty()) {
+        lists.set(UPDATE_FEATURES, event.getUpdateFeatures());
+        event.setUpdateFeatures(null);
+      }
+      if (event.getUpsertFeatures() != null && !event.getUpsertFeatures().isEmpty()) {
+        lists.set(UPSERT_FEATURES, event.getUpsertFeatures());
+        event.setUpsertFeatures(null);
+      }
+    }
+    return lists;
+  }
+
+  /**
+   * Sets the given feature lists at the message, lists being {@code null} are left untouched.
+   *
+   * @param msg   the message.
+   * @param lists the lists to set, indexed by list number.
+   */
+  private static void attach(@NotNull ExtensionMessage msg, @NotNull List<@Nullable List<XyzFeature>> lists) {
+    if (msg instanceof ResponseMsg responseMsg && responseMsg.response instanceof XyzFeatureCollection collection) {
+      if (lists.get(FEATURES) != null) {
+        collection.setFeatures(lists.get(FEATURES));
+      }
+    } else if (eventOf(msg) instanceof ModifyFeaturesEvent event) {
+      if (lists.get(INSERT_FEATURES) != null) {
+        event.setInsertFeatures(lists.get(INSERT_FEATURES));
+      }
+      if (lists.get(UPDATE_FEATURES) != null) {
+        event.setUpdateFeatures(lists.get(UPDATE_FEATURES));
+      }
+      if (lists.get(UPSERT_FEATURES) != null) {
+        event.setUpsertFeatures(lists.get(UPSERT_FEATURES));
+      }
+    }
+  }
+}
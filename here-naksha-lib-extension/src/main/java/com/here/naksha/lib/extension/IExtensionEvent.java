@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.extension;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.models.payload.Event;
+import com.here.naksha.lib.core.models.payload.XyzResponse;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The event exchanged with a Naksha extension, wraps an {@link Event} of the extension protocol.
+ */
+@AvailableSince(NakshaVersion.v2_1_0)
+public interface IExtensionEvent {
+
+  /**
+   * Returns the current event.
+   *
+   * @return the current event.
+   */
+  @NotNull
+  Event getEvent();
+
+  /**
+   * Replace the event, returning the old event.
+   *
+   * @param event the new event.
+   * @return the previous event.
+   */
+  @NotNull
+  Event setEvent(@NotNull Event event);
+
+  /**
+   * Send the event upstream to the next event handler of the Naksha-Hub.
+   *
+   * @return the generated response.
+   */
+  @NotNull
+  XyzResponse sendUpstream();
+
+  /**
+   * Send the given event upstream to the next event handler of the Naksha-Hub. When the method returns, the current event is the same it
+   * was before calling the method.
+   *
+   * @param event the event to send upstream.
+   * @return the generated response.
+   */
+  default @NotNull XyzResponse sendUpstream(@NotNull Event event) {
+    final Event backup = setEvent(event);
+    try {
+      return sendUpstream();
+    } finally {
+      setEvent(backup);
+    }
+  }
+}
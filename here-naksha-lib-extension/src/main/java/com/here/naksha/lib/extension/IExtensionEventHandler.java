@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.extension;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.models.payload.XyzResponse;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to be implemented by event handlers hosted in a Naksha extension server. Implementations need a public constructor that
+ * accepts the {@link com.here.naksha.lib.core.models.naksha.EventHandler} configuration, or a public default constructor.
+ */
+@AvailableSince(NakshaVersion.v2_1_0)
+@FunctionalInterface
+public interface IExtensionEventHandler {
+
+  /**
+   * Process the given event.
+   *
+   * @param event the event to process.
+   * @return the response to return.
+   */
+  @NotNull
+  XyzResponse processEvent(@NotNull IExtensionEvent event);
+}
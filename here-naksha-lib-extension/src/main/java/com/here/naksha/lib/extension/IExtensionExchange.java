@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.extension;
+
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.extension.messages.ExtensionMessage;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The messages exchanged with an extension for a single request, independent of the protocol used to transport them.
+ */
+@AvailableSince(NakshaVersion.v2_1_0)
+interface IExtensionExchange extends AutoCloseable {
+
+  /**
+   * Sends a message of this request.
+   *
+   * @param msg the message to send.
+   */
+  void send(@NotNull ExtensionMessage msg);
+
+  /**
+   * Waits for the next message of this request.
+   *
+   * @param timeoutInMillis the maximal time to wait, zero or less to wait forever.
+   * @return the message.
+   * @throws SocketTimeoutException if no message arrived in time.
+   * @throws IOException            if the connection was closed.
+   * @throws InterruptedException   if the thread was interrupted while waiting.
+   */
+  @NotNull
+  ExtensionMessage receive(long timeoutInMillis) throws IOException, InterruptedException;
+
+  @Override
+  void close();
+}
@@ -21,7 +21,8 @@ package com.here.naksha.lib.extension;
 import static com.here.naksha.lib.core.NakshaLogger.currentLogger;
 import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
 
-import com.here.naksha.lib.core.models.features.Extension;
+import com.here.naksha.lib.core.NakshaVersion;
+import com.here.naksha.lib.core.bin.ConnectorPayload;
 import com.here.naksha.lib.core.util.json.Json;
 import com.here.naksha.lib.core.view.ViewDeserialize;
 import com.here.naksha.lib.core.view.ViewSerialize;
@@ -33,13 +34,39 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import org.jetbrains.annotations.ApiStatus.AvailableSince;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
- * Naksha extension socket to be used by Naksha and the extension-lib.
+ * Naksha extension socket to be used by Naksha and the extension-lib. By default messages are exchanged as plain JSON, optionally the
+ * client can negotiate the binary protocol, in which every message is sent as length-prefixed {@link ConnectorPayload} frame, that carries
+ * the features of the message as raw JSON and WKB slices (see {@link FrameCodec}).
  */
 public class NakshaExtSocket implements AutoCloseable {
 
+  /**
+   * The bytes send by a client directly after connecting to request the binary protocol, the server confirms by echoing them. As a JSON
+   * message always starts with an opening curly bracket (or whitespace), the server can detect the request by peeking at the first bytes.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  static final byte[] BINARY_MAGIC = {'N', 'X', 'B', 1};
+
+  /**
+   * The MIME type of the message being the payload of a binary frame.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  static final String MESSAGE_MIME_TYPE = "application/json";
+
+  /**
+   * The maximal size of a binary frame, bigger frames are rejected before allocating memory for them.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  static final int MAX_FRAME_SIZE = 256 * 1024 * 1024;
+
   /**
    * Creates a new client and connect it to the extension.
    *
@@ -48,7 +75,22 @@ public class NakshaExtSocket implements AutoCloseable {
    * @throws IOException          if any error occurs.
    * @throws UnknownHostException if the host name configured is unknown.
    */
-  public static @NotNull NakshaExtSocket connect(@NotNull Extension config) {
+  public static @NotNull NakshaExtSocket connect(@NotNull ExtensionConfig config) {
+    return connect(config, false);
+  }
+
+  /**
+   * Creates a new client and connect it to the extension.
+   *
+   * @param config the extension configuration.
+   * @param binary {@code true} to negotiate the binary protocol; {@code false} to use plain JSON.
+   * @return the established socket.
+   * @throws IOException                  if any error occurs.
+   * @throws BinaryNotSupportedException if the extension refused the binary protocol.
+   * @throws UnknownHostException         if the host name configured is unknown.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static @NotNull NakshaExtSocket connect(@NotNull ExtensionConfig config, boolean binary) {
     try {
       final InetAddress hostAddress = InetAddress.getByName(config.getHost());
       final int port = config.getPort();
@@ -59,9 +101,17 @@ public class NakshaExtSocket implements AutoCloseable {
       final Socket socket = new Socket();
       socket.connect(inetSocketAddress, config.getConnTimeout());
       socket.setTcpNoDelay(true);
-      return new NakshaExtSocket(socket)
-          .withReadTimeout(config.getReadTimeout())
-          .asClient();
+      final NakshaExtSocket extSocket =
+          new NakshaExtSocket(socket).withReadTimeout(config.getReadTimeout()).asClient();
+      if (binary) {
+        try {
+          extSocket.negotiateBinary();
+        } catch (IOException e) {
+          extSocket.close();
+          throw e;
+        }
+      }
+      return extSocket;
     } catch (IOException e) {
       throw unchecked(e);
     }
@@ -94,12 +144,65 @@ public class NakshaExtSocket implements AutoCloseable {
   private final @NotNull BufferedOutputStream out;
   private boolean isNew;
   private boolean isClient;
+  private boolean isBinary;
 
   private @NotNull NakshaExtSocket asClient() {
     this.isClient = true;
     return this;
   }
 
+  /**
+   * Tests if this socket uses the binary protocol.
+   *
+   * @return {@code true} if messages are exchanged as binary frames; {@code false} if as plain JSON.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public boolean isBinary() {
+    return isBinary;
+  }
+
+  /**
+   * Thrown by the client, when the extension does not confirm the request for the binary protocol. Extensions that only speak plain JSON
+   * fail to parse the request and close the connection, so the socket can't be used anymore and the client needs to reconnect.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static final class BinaryNotSupportedException extends IOException {
+
+    BinaryNotSupportedException(@Nullable Throwable cause) {
+      super("The extension does not support the binary protocol", cause);
+    }
+  }
+
+  private void negotiateBinary() throws IOException {
+    final byte[] ack;
+    try {
+      out.write(BINARY_MAGIC);
+      out.flush();
+      ack = in.readNBytes(BINARY_MAGIC.length);
+    } catch (IOException e) {
+      throw new BinaryNotSupportedException(e);
+    }
+    if (!Arrays.equals(BINARY_MAGIC, ack)) {
+      throw new BinaryNotSupportedException(null);
+    }
+    isBinary = true;
+  }
+
+  /**
+   * Called by the server for the first message to detect if the client requests the binary protocol.
+   */
+  private void acceptBinary() throws IOException {
+    in.mark(BINARY_MAGIC.length);
+    final byte[] magic = in.readNBytes(BINARY_MAGIC.length);
+    if (!Arrays.equals(BINARY_MAGIC, magic)) {
+      in.reset();
+      return;
+    }
+    out.write(BINARY_MAGIC);
+    out.flush();
+    isBinary = true;
+  }
+
   private void sendHttpRequestHeader() {
     //      final StringBuilder sb = new StringBuilder();
     //      sb.append("POST /naksha/extension/ HTTP/1.1\n")
@@ -129,12 +232,60 @@ public class NakshaExtSocket implements AutoCloseable {
 
   private void removeHttpHeader() {}
 
-  public @NotNull ExtensionMessage readMessage() {
+  /**
+   * A message received in binary mode, together with the identifier of the request it belongs to.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public static final class Frame {
+
+    Frame(long requestId, @NotNull ExtensionMessage message) {
+      this.requestId = requestId;
+      this.message = message;
+    }
+
+    /**
+     * The identifier of the request to which the message belongs, zero if the sender does not multiplex requests.
+     */
+    public final long requestId;
+
+    /**
+     * The message.
+     */
+    public final @NotNull ExtensionMessage message;
+  }
+
+  /**
+   * Called by the server before reading the first message, to detect the protocol requested by the client. Afterwards {@link #isBinary()}
+   * tells if the client negotiated the binary protocol, in which case it may multiplex requests.
+   *
+   * @return this.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull NakshaExtSocket accept() {
+    try {
+      start();
+    } catch (IOException e) {
+      throw unchecked(e);
+    }
+    return this;
+  }
+
+  private void start() throws IOException {
     if (isNew) {
       removeHttpHeader();
+      if (!isClient) {
+        acceptBinary();
+      }
       isNew = false;
     }
+  }
+
+  public @NotNull ExtensionMessage readMessage() {
     try (final Json json = Json.get()) {
+      start();
+      if (isBinary) {
+        return readFrame(json).message;
+      }
       return json.reader(ViewDeserialize.Internal.class)
           .forType(ExtensionMessage.class)
           .readValue(in);
@@ -143,23 +294,88 @@ public class NakshaExtSocket implements AutoCloseable {
     }
   }
 
-  public void sendMessage(@NotNull ExtensionMessage msg) {
-    if (isNew) {
-      if (isClient) {
-        sendHttpRequestHeader();
-      } else {
-        sendHttpResponseHeader();
+  /**
+   * Reads the next frame, only supported in binary mode. Must not be called concurrently.
+   *
+   * @return the next frame.
+   * @throws IllegalStateException If the socket does not use the binary protocol.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull Frame readFrame() {
+    try (final Json json = Json.get()) {
+      start();
+      if (!isBinary) {
+        throw new IllegalStateException("Frames are only supported by the binary protocol");
       }
-      isNew = false;
+      return readFrame(json);
+    } catch (IOException e) {
+      throw unchecked(e);
+    }
+  }
+
+  private @NotNull Frame readFrame(@NotNull Json json) throws IOException {
+    final byte[] sizeBytes = in.readNBytes(Integer.BYTES);
+    if (sizeBytes.length < Integer.BYTES) {
+      throw new IOException("Unexpected end of stream while reading frame size");
     }
+    final int size = ByteBuffer.wrap(sizeBytes).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    if (size <= 0 || size > MAX_FRAME_SIZE) {
+      throw new IOException("Invalid frame size: " + size);
+    }
+    final byte[] frame = in.readNBytes(size);
+    if (frame.length < size) {
+      throw new IOException("Unexpected end of stream while reading frame of " + size + " bytes");
+    }
+    return FrameCodec.decode(json, ByteBuffer.wrap(frame));
+  }
+
+  public void sendMessage(@NotNull ExtensionMessage msg) {
+    sendMessage(0L, msg);
+  }
+
+  /**
+   * Sends a message that belongs to the given request. The request identifier is only transmitted in binary mode. This method is thread
+   * safe, so multiple requests can share the socket.
+   *
+   * @param requestId the identifier of the request to which the message belongs.
+   * @param msg       the message to send.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public void sendMessage(long requestId, @NotNull ExtensionMessage msg) {
     try (final Json json = Json.get()) {
-      json.writer(ViewSerialize.Internal.class).writeValue(out, msg);
-      out.flush();
+      // Serialize outside the lock, only writing needs to be exclusive.
+      final ByteBuffer frame = isBinary ? FrameCodec.encode(json, requestId, msg) : null;
+      synchronized (out) {
+        if (isNew) {
+          if (isClient) {
+            sendHttpRequestHeader();
+          } else {
+            sendHttpResponseHeader();
+          }
+          isNew = false;
+        }
+        if (frame != null) {
+          out.write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+        } else {
+          json.writer(ViewSerialize.Internal.class).writeValue(out, msg);
+        }
+        out.flush();
+      }
     } catch (IOException e) {
       throw unchecked(e);
     }
   }
 
+  /**
+   * Tests if the underlying TCP/IP socket is still open.
+   *
+   * @return {@code true} if the socket is open; {@code false} if it was closed.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public boolean isOpen() {
+    return !socket.isClosed();
+  }
+
   @Override
   public void close() {
     try {
@@ -18,8 +18,6 @@
  */
 package com.here.naksha.lib.extension;
 
-import com.here.naksha.lib.core.IEvent;
-import com.here.naksha.lib.core.IEventHandler;
 import com.here.naksha.lib.core.models.naksha.EventHandler;
 import com.here.naksha.lib.core.models.payload.XyzResponse;
 import com.here.naksha.lib.core.models.payload.responses.HealthStatus;
@@ -30,12 +28,12 @@ import org.jetbrains.annotations.NotNull;
  * the remote server code can invoke it.
  * A handler that the customer supplied and wish to deploy.
  */
-public class TestRemoteCustomerHandler implements IEventHandler {
+public class TestRemoteCustomerHandler implements IExtensionEventHandler {
 
   public TestRemoteCustomerHandler(EventHandler eventHandler) {}
 
   @Override
-  public @NotNull XyzResponse processEvent(@NotNull IEvent event) {
+  public @NotNull XyzResponse processEvent(@NotNull IExtensionEvent event) {
     return new HealthStatus();
   }
 }
@@ -18,55 +18,41 @@
  */
 package com.here.naksha.lib.extension;
 
-import com.here.naksha.lib.core.INaksha;
-import com.here.naksha.lib.core.models.EventFeature;
+import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.payload.Event;
 import com.here.naksha.lib.core.models.payload.XyzResponse;
 import com.here.naksha.lib.core.models.payload.responses.ErrorResponse;
-import com.here.naksha.lib.core.storage.IStorage;
-import java.util.concurrent.Future;
-import java.util.function.Supplier;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-public abstract class AbstractSimulatedNakshaHub extends Thread implements INaksha {
+/**
+ * Simulates the Naksha-Hub, which sends an event through an {@link ExtensionHandler}, being the only handler of the pipeline.
+ */
+public abstract class AbstractSimulatedNakshaHub extends Thread implements IExtensionEvent {
 
   XyzResponse response;
   Exception exception;
-
-  @Override
-  public IStorage getAdminStorage() {
-    // TODO : Add logic
-    return null;
-  }
-
-  @Override
-  public IStorage getSpaceStorage() {
-    // TODO : Add logic
-    return null;
-  }
+  Event event;
 
   @Override
   public abstract void run();
 
   @Override
-  public @NotNull ErrorResponse toErrorResponse(@NotNull Throwable throwable) {
-    return new ErrorResponse(throwable, null);
-  }
-
-  @Override
-  public @NotNull <RESPONSE> Future<@Nullable RESPONSE> executeTask(@NotNull Supplier<RESPONSE> execute) {
-    throw new UnsupportedOperationException();
+  public @NotNull Event getEvent() {
+    return event;
   }
 
   @Override
-  public @NotNull Future<@NotNull XyzResponse> executeEvent(
-      @NotNull Event event, @NotNull EventFeature eventFeature) {
-    throw new UnsupportedOperationException();
+  public @NotNull Event setEvent(@NotNull Event event) {
+    final Event oldEvent = this.event;
+    this.event = event;
+    return oldEvent;
   }
 
   @Override
-  public @NotNull IStorage storage() {
-    throw new UnsupportedOperationException("adminStorage");
+  public @NotNull XyzResponse sendUpstream() {
+    return new ErrorResponse()
+        .withError(XyzError.NOT_IMPLEMENTED)
+        .withErrorMessage("No upstream handler")
+        .withStreamId(event.getStreamId());
   }
 }
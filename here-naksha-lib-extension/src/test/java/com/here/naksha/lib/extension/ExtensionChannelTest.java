@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.extension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeatureCollection;
+import com.here.naksha.lib.core.models.naksha.EventHandler;
+import com.here.naksha.lib.core.models.payload.events.info.HealthCheckEvent;
+import com.here.naksha.lib.extension.NakshaExtSocket.Frame;
+import com.here.naksha.lib.extension.messages.ExtensionMessage;
+import com.here.naksha.lib.extension.messages.ProcessEventMsg;
+import com.here.naksha.lib.extension.messages.ResponseMsg;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExtensionChannelTest {
+
+  static final long TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+  /**
+   * A request received by the simulated extension.
+   */
+  static final class Request {
+
+    Request(@NotNull ExtensionChannel.Exchange exchange, @NotNull String streamId) {
+      this.exchange = exchange;
+      this.streamId = streamId;
+    }
+
+    final @NotNull ExtensionChannel.Exchange exchange;
+    final @NotNull String streamId;
+  }
+
+  private ExtensionChannel client;
+  private ExtensionChannel server;
+  private final LinkedBlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+
+  @BeforeEach
+  void connect() throws Exception {
+    try (final ServerSocket serverSocket = new ServerSocket(0)) {
+      final ExtensionConfig config = new ExtensionConfig("test", "localhost", serverSocket.getLocalPort());
+      final CompletableFuture<NakshaExtSocket> clientSocket =
+          CompletableFuture.supplyAsync(() -> NakshaExtSocket.connect(config, true));
+      final NakshaExtSocket serverSocketConnection =
+          new NakshaExtSocket(serverSocket.accept()).accept().withReadTimeout(0);
+      client = new ExtensionChannel(clientSocket.get(TIMEOUT, TimeUnit.MILLISECONDS).withReadTimeout(0), null);
+      server = new ExtensionChannel(serverSocketConnection, this::onRequest);
+    }
+  }
+
+  @AfterEach
+  void close() {
+    client.close();
+    server.close();
+  }
+
+  private void onRequest(@NotNull ExtensionChannel channel, @NotNull Frame frame) {
+    final ProcessEventMsg processEvent = assertInstanceOf(ProcessEventMsg.class, frame.message);
+    requests.add(new Request(channel.join(frame.requestId), processEvent.event.getStreamId()));
+  }
+
+  private static @NotNull ProcessEventMsg processEvent(@NotNull String streamId) {
+    final HealthCheckEvent event = new HealthCheckEvent();
+    event.setStreamId(streamId);
+    return new ProcessEventMsg(new EventHandler(TestRemoteCustomerHandler.class.getName(), "test"), event);
+  }
+
+  private static void reply(@NotNull Request request) {
+    final XyzFeatureCollection response = new XyzFeatureCollection();
+    response.setFeatures(List.of(new XyzFeature(request.streamId)));
+    request.exchange.send(new ResponseMsg(response));
+    request.exchange.close();
+  }
+
+  private static @NotNull String responseId(@NotNull ExtensionMessage message) {
+    final ResponseMsg response = assertInstanceOf(ResponseMsg.class, message);
+    final XyzFeatureCollection collection = assertInstanceOf(XyzFeatureCollection.class, response.response);
+    assertEquals(1, collection.getFeatures().size());
+    return collection.getFeatures().get(0).getId();
+  }
+
+  private @NotNull Request nextRequest() throws InterruptedException {
+    final Request request = requests.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+    assertNotNull(request, "Timeout while waiting for request");
+    return request;
+  }
+
+  @Test
+  void testMultiplexing() throws Exception {
+    final int size = 10;
+    final List<ExtensionChannel.Exchange> exchanges = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      final ExtensionChannel.Exchange exchange = client.open();
+      exchange.send(processEvent("request-" + i));
+      exchanges.add(exchange);
+    }
+    assertEquals(size, client.inFlight());
+    for (int i = 0; i < size; i++) {
+      reply(nextRequest());
+    }
+    for (int i = 0; i < size; i++) {
+      try (final ExtensionChannel.Exchange exchange = exchanges.get(i)) {
+        assertEquals("request-" + i, responseId(exchange.receive(TIMEOUT)));
+      }
+    }
+    assertEquals(0, client.inFlight());
+    assertTrue(client.isHealthy());
+  }
+
+  @Test
+  void testOutOfOrderReplies() throws Exception {
+    final ExtensionChannel.Exchange first = client.open();
+    final ExtensionChannel.Exchange second = client.open();
+    final ExtensionChannel.Exchange third = client.open();
+    assertNotEquals(first.requestId, second.requestId);
+    first.send(processEvent("first"));
+    second.send(processEvent("second"));
+    third.send(processEvent("third"));
+    final List<Request> received = List.of(nextRequest(), nextRequest(), nextRequest());
+
+    // Reply in reverse order, every exchange must still receive its own response.
+    for (int i = received.size() - 1; i >= 0; i--) {
+      reply(received.get(i));
+    }
+    try (first;
+        second;
+        third) {
+      assertEquals("second", responseId(second.receive(TIMEOUT)));
+      assertEquals("third", responseId(third.receive(TIMEOUT)));
+      assertEquals("first", responseId(first.receive(TIMEOUT)));
+    }
+  }
+
+  @Test
+  void testReceiveTimeout() {
+    try (final ExtensionChannel.Exchange exchange = client.open()) {
+      exchange.send(processEvent("never-answered"));
+      assertThrows(SocketTimeoutException.class, () -> exchange.receive(50));
+    }
+    assertTrue(client.isHealthy());
+  }
+
+  @Test
+  void testChannelFailure() throws Exception {
+    final ExtensionChannel.Exchange pending = client.open();
+    pending.send(processEvent("pending"));
+    nextRequest();
+
+    // The extension goes away, the pending request must fail instead of waiting forever.
+    server.close();
+    final IOException e = assertThrows(IOException.class, () -> pending.receive(TIMEOUT));
+    assertFalse(e instanceof SocketTimeoutException);
+    pending.close();
+    assertFalse(client.isHealthy());
+
+    // Requests opened after the failure fail immediately.
+    try (final ExtensionChannel.Exchange late = client.open()) {
+      assertThrows(IOException.class, () -> late.receive(TIMEOUT));
+    }
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.extension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeatureCollection;
+import com.here.naksha.lib.core.models.naksha.EventHandler;
+import com.here.naksha.lib.core.models.payload.events.info.HealthCheckEvent;
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.view.ViewDeserialize;
+import com.here.naksha.lib.core.view.ViewSerialize;
+import com.here.naksha.lib.extension.NakshaExtSocket.Frame;
+import com.here.naksha.lib.extension.messages.ExtensionMessage;
+import com.here.naksha.lib.extension.messages.ProcessEventMsg;
+import com.here.naksha.lib.extension.messages.ResponseMsg;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class ExtensionConnectionPoolTest {
+
+  static final long TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+  static final long NO_REAPING = TimeUnit.MINUTES.toMillis(10);
+
+  /**
+   * A simulated extension server, that answers every event with a feature collection holding one feature, which has the stream-id of
+   * the event as identifier.
+   */
+  static final class SimulatedExtension implements AutoCloseable {
+
+    /**
+     * Starts a new simulated extension.
+     *
+     * @param binary {@code true} to support the binary protocol; {@code false} to simulate a legacy extension that only speaks JSON.
+     */
+    SimulatedExtension(boolean binary) throws IOException {
+      this.binary = binary;
+      serverSocket = new ServerSocket(0);
+      config = new ExtensionConfig(
+          "simulated-" + serverSocket.getLocalPort(), "localhost", serverSocket.getLocalPort(), 5_000, 5_000);
+      final Thread thread = new Thread(this::run, "simulated-extension");
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    final boolean binary;
+    final @NotNull ServerSocket serverSocket;
+    final @NotNull ExtensionConfig config;
+    final @NotNull AtomicInteger accepted = new AtomicInteger();
+    final @NotNull List<@NotNull NakshaExtSocket> connections = new CopyOnWriteArrayList<>();
+
+    private void run() {
+      try {
+        while (true) {
+          final Socket socket = serverSocket.accept();
+          accepted.incrementAndGet();
+          if (binary) {
+            final NakshaExtSocket extSocket =
+                new NakshaExtSocket(socket).accept().withReadTimeout(0);
+            connections.add(extSocket);
+            new ExtensionChannel(extSocket, SimulatedExtension::onRequest);
+          } else {
+            final Thread thread = new Thread(() -> serveJson(socket), "simulated-extension-json");
+            thread.setDaemon(true);
+            thread.start();
+          }
+        }
+      } catch (IOException ignore) {
+        // The server socket was closed.
+      }
+    }
+
+    private static void onRequest(@NotNull ExtensionChannel channel, @NotNull Frame frame) {
+      final ProcessEventMsg processEvent = (ProcessEventMsg) frame.message;
+      try (final ExtensionChannel.Exchange exchange = channel.join(frame.requestId)) {
+        exchange.send(response(processEvent.event.getStreamId()));
+      }
+    }
+
+    /**
+     * Serves a single event the way extensions did before the binary protocol existed.
+     */
+    private static void serveJson(@NotNull Socket socket) {
+      try (socket;
+          final Json json = Json.get()) {
+        final BufferedInputStream in = new BufferedInputStream(socket.getInputStream());
+        in.mark(1);
+        if (in.read() == NakshaExtSocket.BINARY_MAGIC[0]) {
+          // A legacy extension fails to parse the binary request and closes the connection.
+          return;
+        }
+        in.reset();
+        final ExtensionMessage msg = json.reader(ViewDeserialize.Internal.class)
+            .forType(ExtensionMessage.class)
+            .readValue(in);
+        final ProcessEventMsg processEvent = (ProcessEventMsg) msg;
+        json.writer(ViewSerialize.Internal.class)
+            .writeValue(socket.getOutputStream(), response(processEvent.event.getStreamId()));
+        socket.getOutputStream().flush();
+      } catch (IOException ignore) {
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      serverSocket.close();
+      for (final NakshaExtSocket connection : connections) {
+        connection.close();
+      }
+    }
+  }
+
+  private static @NotNull ResponseMsg response(@NotNull String streamId) {
+    final XyzFeatureCollection response = new XyzFeatureCollection();
+    response.setFeatures(List.of(new XyzFeature(streamId)));
+    return new ResponseMsg(response);
+  }
+
+  private static @NotNull ProcessEventMsg processEvent(@NotNull String streamId) {
+    final HealthCheckEvent event = new HealthCheckEvent();
+    event.setStreamId(streamId);
+    return new ProcessEventMsg(new EventHandler(TestRemoteCustomerHandler.class.getName(), "test"), event);
+  }
+
+  private static void assertRoundTrip(@NotNull IExtensionExchange exchange, @NotNull String streamId) throws Exception {
+    exchange.send(processEvent(streamId));
+    final ResponseMsg response = assertInstanceOf(ResponseMsg.class, exchange.receive(TIMEOUT));
+    final XyzFeatureCollection collection = assertInstanceOf(XyzFeatureCollection.class, response.response);
+    assertEquals(streamId, collection.getFeatures().get(0).getId());
+  }
+
+  @Test
+  void testReusesConnection() throws Exception {
+    try (final SimulatedExtension extension = new SimulatedExtension(true);
+        final ExtensionConnectionPool pool = new ExtensionConnectionPool(4, 64, NO_REAPING)) {
+      for (int i = 0; i < 5; i++) {
+        try (final IExtensionExchange exchange = pool.open(extension.config)) {
+          assertInstanceOf(ExtensionChannel.Exchange.class, exchange);
+          assertRoundTrip(exchange, "request-" + i);
+        }
+      }
+      assertEquals(1, pool.size(extension.config.getId()));
+      assertEquals(1, extension.accepted.get());
+    }
+  }
+
+  @Test
+  void testInFlightLimit() throws Exception {
+    try (final SimulatedExtension extension = new SimulatedExtension(true);
+        final ExtensionConnectionPool pool = new ExtensionConnectionPool(2, 2, NO_REAPING)) {
+      final List<IExtensionExchange> exchanges = new ArrayList<>();
+      try {
+        // The first channel takes two requests, then a second channel is opened.
+        exchanges.add(pool.open(extension.config));
+        exchanges.add(pool.open(extension.config));
+        assertEquals(1, pool.size(extension.config.getId()));
+        exchanges.add(pool.open(extension.config));
+        assertEquals(2, pool.size(extension.config.getId()));
+        exchanges.add(pool.open(extension.config));
+        assertEquals(2, pool.size(extension.config.getId()));
+
+        // All channels are saturated and the maximum of connections is reached, so the limit is exceeded.
+        exchanges.add(pool.open(extension.config));
+        assertEquals(2, pool.size(extension.config.getId()));
+        assertEquals(2, extension.accepted.get());
+        for (int i = 0; i < exchanges.size(); i++) {
+          assertRoundTrip(exchanges.get(i), "request-" + i);
+        }
+      } finally {
+        for (final IExtensionExchange exchange : exchanges) {
+          exchange.close();
+        }
+      }
+    }
+  }
+
+  @Test
+  void testBrokenChannelIsReplaced() throws Exception {
+    try (final SimulatedExtension extension = new SimulatedExtension(true);
+        final ExtensionConnectionPool pool = new ExtensionConnectionPool(4, 64, NO_REAPING)) {
+      try (final IExtensionExchange exchange = pool.open(extension.config)) {
+        assertRoundTrip(exchange, "before");
+      }
+      try (final IExtensionExchange pending = pool.open(extension.config)) {
+        // The extension drops all connections, the pending request fails.
+        for (final NakshaExtSocket connection : extension.connections) {
+          connection.close();
+        }
+        assertThrows(IOException.class, () -> pending.receive(TIMEOUT));
+      }
+      try (final IExtensionExchange exchange = pool.open(extension.config)) {
+        assertRoundTrip(exchange, "after");
+      }
+      assertEquals(1, pool.size(extension.config.getId()));
+      assertEquals(2, extension.accepted.get());
+    }
+  }
+
+  @Test
+  void testIdleChannelsAreReaped() throws Exception {
+    try (final SimulatedExtension extension = new SimulatedExtension(true);
+        final ExtensionConnectionPool pool = new ExtensionConnectionPool(4, 64, 50)) {
+      try (final IExtensionExchange exchange = pool.open(extension.config)) {
+        assertRoundTrip(exchange, "idle");
+      }
+      Thread.sleep(100);
+      pool.reap();
+      assertEquals(0, pool.size(extension.config.getId()));
+
+      // Channels with requests in flight are never reaped.
+      try (final IExtensionExchange exchange = pool.open(extension.config)) {
+        Thread.sleep(100);
+        pool.reap();
+        assertEquals(1, pool.size(extension.config.getId()));
+        assertRoundTrip(exchange, "busy");
+      }
+    }
+  }
+
+  @Test
+  void testJsonFallback() throws Exception {
+    try (final SimulatedExtension extension = new SimulatedExtension(false);
+        final ExtensionConnectionPool pool = new ExtensionConnectionPool(4, 64, NO_REAPING)) {
+      try (final IExtensionExchange exchange = pool.open(extension.config)) {
+        assertRoundTrip(exchange, "first");
+      }
+      // One connection to probe the binary protocol, one for the JSON request.
+      assertEquals(2, extension.accepted.get());
+      assertEquals(0, pool.size(extension.config.getId()));
+
+      // The binary protocol is not probed again.
+      try (final IExtensionExchange exchange = pool.open(extension.config)) {
+        assertRoundTrip(exchange, "second");
+      }
+      assertEquals(3, extension.accepted.get());
+    }
+  }
+}
@@ -22,21 +22,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import com.here.naksha.lib.core.EventPipeline;
-import com.here.naksha.lib.core.IEventHandler;
-import com.here.naksha.lib.core.models.features.Extension;
 import com.here.naksha.lib.core.models.naksha.EventHandler;
 import com.here.naksha.lib.core.models.payload.events.feature.GetFeaturesByIdEvent;
 import com.here.naksha.lib.core.models.payload.responses.SuccessResponse;
-import com.here.naksha.lib.core.storage.IStorage;
-import com.here.naksha.lib.core.storage.ITransactionSettings;
 import com.here.naksha.lib.core.util.json.Json;
-import com.here.naksha.lib.extension.messages.ExtensionMessage;
+import com.here.naksha.lib.extension.NakshaExtSocket.Frame;
 import com.here.naksha.lib.extension.messages.ProcessEventMsg;
 import com.here.naksha.lib.extension.messages.ResponseMsg;
 import java.net.ServerSocket;
-import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -53,7 +48,8 @@ class ExtensionHandlerTest {
     Json.DEBUG = false;
   }
 
-  static final int EXTENSION_ID = 2323;
+  static final int PORT = 2323;
+  static final String EXTENSION = "extension-handler-test";
   static final String CLASS_NAME = "com.here.some.Handler";
 
   static class Hub extends AbstractSimulatedNakshaHub {
@@ -62,58 +58,47 @@ class ExtensionHandlerTest {
     public void run() {
       try {
         // Simulate what Naksha-Hub would do:
-        final EventHandler testEventHandler = new EventHandler("test", CLASS_NAME);
-        testEventHandler.setExtension(EXTENSION_ID);
-        final Extension config = new Extension("localhost", EXTENSION_ID);
-        final IEventHandler eventHandler = new ExtensionHandler(this, testEventHandler, config);
-        final EventPipeline eventPipeline = new EventPipeline(this);
-        eventPipeline.addEventHandler(eventHandler);
-        final GetFeaturesByIdEvent event = new GetFeaturesByIdEvent();
-        // This sends the event through the pipeline.
+        final EventHandler testEventHandler = new EventHandler(CLASS_NAME, "test");
+        testEventHandler.setExtensionId(EXTENSION);
+        final ExtensionConfig config = new ExtensionConfig(EXTENSION, "localhost", PORT);
+        final ExtensionHandler eventHandler = new ExtensionHandler(testEventHandler, config);
+        event = new GetFeaturesByIdEvent();
         // The extension handler will serialize the event and send it to our server, run by the test.
         // This server simulates the CLASS_NAME class and returns something, we remember what is returned.
-        response = eventPipeline.sendEvent(event);
+        response = eventHandler.processEvent(this);
       } catch (Exception e) {
         exception = e;
       }
     }
-
-    @Override
-    public @NotNull IStorage getStorageById(@NotNull String storageId) {
-      return null;
-    }
-
-    @Override
-    public @NotNull ITransactionSettings settings() {
-      return null;
-    }
   }
 
   @Test
   void test_basics() throws Exception {
-    try (final ServerSocket serverSocket = new ServerSocket(EXTENSION_ID); ) {
+    try (final ServerSocket serverSocket = new ServerSocket(PORT); ) {
       // Start the Naksha-Hub.
       final Hub hub = new Hub();
       hub.start();
 
       // Accept incoming connection from the Naksha-Hub.
-      try (final NakshaExtSocket nakshaSocket = new NakshaExtSocket(serverSocket.accept())) {
+      try (final NakshaExtSocket nakshaSocket = new NakshaExtSocket(serverSocket.accept()).accept()) {
+        // The extension handler uses persistent connections, which require the binary protocol.
+        assertTrue(nakshaSocket.isBinary());
 
         // Wait for the message from the simulated Naksha-Hub.
-        final ExtensionMessage msg = nakshaSocket.readMessage();
-        assertNotNull(msg);
+        final Frame frame = nakshaSocket.readFrame();
+        assertNotNull(frame.message);
         // We should get an ProcessEvent envelope.
-        final ProcessEventMsg processEvent = assertInstanceOf(ProcessEventMsg.class, msg);
+        final ProcessEventMsg processEvent = assertInstanceOf(ProcessEventMsg.class, frame.message);
         // The event in the envelope should be an GetFeaturesByIdEvent.
         assertNotNull(processEvent.event);
         assertInstanceOf(GetFeaturesByIdEvent.class, processEvent.event);
         // The connector being part of the envelope should have the expected class-name and extension ID.
-        assertEquals(EXTENSION_ID, processEvent.eventHandler.getExtension());
+        assertEquals(EXTENSION, processEvent.eventHandler.getExtensionId());
         assertEquals(CLASS_NAME, processEvent.eventHandler.getClassName());
 
         // Simulate a SuccessResponse.
         final SuccessResponse response = new SuccessResponse();
-        nakshaSocket.sendMessage(new ResponseMsg(response));
+        nakshaSocket.sendMessage(frame.requestId, new ResponseMsg(response));
 
         // Wait until the simulated Naksha-Hub is done, and then verify the result.
         hub.join();
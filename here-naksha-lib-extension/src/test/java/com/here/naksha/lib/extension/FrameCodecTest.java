@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.extension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.here.naksha.lib.core.bin.ConnectorPayload;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeatureCollection;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzPoint;
+import com.here.naksha.lib.core.models.naksha.EventHandler;
+import com.here.naksha.lib.core.models.payload.events.feature.ModifyFeaturesEvent;
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.extension.NakshaExtSocket.Frame;
+import com.here.naksha.lib.extension.messages.ProcessEventMsg;
+import com.here.naksha.lib.extension.messages.ResponseMsg;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class FrameCodecTest {
+
+  private static @NotNull List<XyzFeature> features(@NotNull String prefix, int size) {
+    final List<XyzFeature> features = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      final XyzFeature feature = new XyzFeature(prefix + i);
+      feature.setGeometry(new XyzPoint(i, -i));
+      feature.getProperties().put("index", i);
+      features.add(feature);
+    }
+    return features;
+  }
+
+  /**
+   * Removes the size prefix, like {@link NakshaExtSocket} does when reading a frame.
+   */
+  private static @NotNull ByteBuffer unprefix(@NotNull ByteBuffer frame) {
+    final int size = frame.duplicate().order(ByteOrder.LITTLE_ENDIAN).getInt();
+    assertEquals(frame.remaining() - Integer.BYTES, size);
+    final byte[] bytes = new byte[size];
+    frame.duplicate().position(frame.position() + Integer.BYTES).get(bytes);
+    return ByteBuffer.wrap(bytes);
+  }
+
+  private static @NotNull String envelope(@NotNull ByteBuffer frame) {
+    final ByteBuffer bytes = ConnectorPayload.getRootAsConnectorPayload(frame.duplicate())
+        .bytesAsByteBuffer();
+    assertNotNull(bytes);
+    return new String(
+        bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining(), StandardCharsets.UTF_8);
+  }
+
+  private static void assertFeatures(@NotNull List<XyzFeature> expected, @NotNull List<XyzFeature> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      final XyzFeature feature = actual.get(i);
+      assertEquals(expected.get(i).getId(), feature.getId());
+      assertEquals(i, ((Number) feature.getProperties().get("index")).intValue());
+      final XyzPoint point = assertInstanceOf(XyzPoint.class, feature.getGeometry());
+      assertEquals((double) i, point.getCoordinates().getLongitude().doubleValue());
+      assertEquals((double) -i, point.getCoordinates().getLatitude().doubleValue());
+    }
+  }
+
+  @Test
+  void testModifyFeaturesRoundTrip() throws Exception {
+    final List<XyzFeature> inserts = features("insert_", 10);
+    final List<XyzFeature> upserts = features("upsert_", 5);
+    final ModifyFeaturesEvent event = new ModifyFeaturesEvent();
+    event.setInsertFeatures(inserts);
+    event.setUpsertFeatures(upserts);
+    final ProcessEventMsg msg = new ProcessEventMsg(new EventHandler("com.here.Handler", "test"), event);
+
+    final ByteBuffer frame;
+    try (final Json json = Json.get()) {
+      frame = unprefix(FrameCodec.encode(json, 42L, msg));
+    }
+    // The message must be restored after encoding.
+    assertSame(inserts, event.getInsertFeatures());
+    assertSame(upserts, event.getUpsertFeatures());
+    assertNull(event.getUpdateFeatures());
+    assertNotNull(inserts.get(0).getGeometry());
+
+    // The features are carried as raw slices, not as part of the JSON envelope.
+    final ConnectorPayload payload = ConnectorPayload.getRootAsConnectorPayload(frame.duplicate());
+    assertEquals(15, payload.featuresLength());
+    assertEquals(FrameCodec.INSERT_FEATURES, payload.features(0).list());
+    assertEquals(FrameCodec.UPSERT_FEATURES, payload.features(14).list());
+    assertNotNull(payload.features(0).wkbAsByteBuffer());
+    final String envelope = envelope(frame);
+    assertFalse(envelope.contains("insert_0"), envelope);
+    assertFalse(envelope.contains("upsert_0"), envelope);
+
+    final Frame decoded;
+    try (final Json json = Json.get()) {
+      decoded = FrameCodec.decode(json, frame);
+    }
+    assertEquals(42L, decoded.requestId);
+    final ProcessEventMsg processEvent = assertInstanceOf(ProcessEventMsg.class, decoded.message);
+    assertEquals("com.here.Handler", processEvent.eventHandler.getClassName());
+    final ModifyFeaturesEvent decodedEvent = assertInstanceOf(ModifyFeaturesEvent.class, processEvent.event);
+    assertFeatures(inserts, decodedEvent.getInsertFeatures());
+    assertFeatures(upserts, decodedEvent.getUpsertFeatures());
+    assertNull(decodedEvent.getUpdateFeatures());
+  }
+
+  @Test
+  void testFeatureCollectionRoundTrip() throws Exception {
+    final List<XyzFeature> features = features("feature_", 3);
+    final XyzFeatureCollection collection = new XyzFeatureCollection();
+    collection.setFeatures(features);
+    final XyzFeature noGeometry = new XyzFeature("no_geometry");
+    collection.getFeatures().add(noGeometry);
+    final ResponseMsg msg = new ResponseMsg(collection);
+
+    final ByteBuffer frame;
+    try (final Json json = Json.get()) {
+      frame = unprefix(FrameCodec.encode(json, 7L, msg));
+    }
+    assertSame(features, collection.getFeatures());
+    final ConnectorPayload payload = ConnectorPayload.getRootAsConnectorPayload(frame.duplicate());
+    assertEquals(4, payload.featuresLength());
+    assertNull(payload.features(3).wkbAsByteBuffer());
+    assertFalse(envelope(frame).contains("feature_0"));
+
+    final Frame decoded;
+    try (final Json json = Json.get()) {
+      decoded = FrameCodec.decode(json, frame);
+    }
+    assertEquals(7L, decoded.requestId);
+    final ResponseMsg response = assertInstanceOf(ResponseMsg.class, decoded.message);
+    final XyzFeatureCollection decodedCollection = assertInstanceOf(XyzFeatureCollection.class, response.response);
+    final List<XyzFeature> decodedFeatures = decodedCollection.getFeatures();
+    assertEquals(4, decodedFeatures.size());
+    assertFeatures(features.subList(0, 3), decodedFeatures.subList(0, 3));
+    assertEquals("no_geometry", decodedFeatures.get(3).getId());
+    assertNull(decodedFeatures.get(3).getGeometry());
+  }
+
+  @Test
+  void testMessageWithoutFeatures() throws Exception {
+    final ResponseMsg msg = new ResponseMsg(new XyzFeatureCollection());
+    final ByteBuffer frame;
+    try (final Json json = Json.get()) {
+      frame = unprefix(FrameCodec.encode(json, 1L, msg));
+    }
+    assertEquals(0, ConnectorPayload.getRootAsConnectorPayload(frame.duplicate()).featuresLength());
+    final Frame decoded;
+    try (final Json json = Json.get()) {
+      decoded = FrameCodec.decode(json, frame);
+    }
+    final ResponseMsg response = assertInstanceOf(ResponseMsg.class, decoded.message);
+    assertEquals(
+        0,
+        assertInstanceOf(XyzFeatureCollection.class, response.response)
+            .getFeatures()
+            .size());
+  }
+}
@@ -18,13 +18,14 @@
  */
 package com.here.naksha.lib.extension;
 
-import com.here.naksha.lib.core.EventPipeline;
-import com.here.naksha.lib.core.IEventHandler;
-import com.here.naksha.lib.core.models.features.Extension;
+import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.naksha.EventHandler;
 import com.here.naksha.lib.core.models.payload.events.info.HealthCheckEvent;
+import com.here.naksha.lib.core.models.payload.responses.ErrorResponse;
 import com.here.naksha.lib.core.models.payload.responses.HealthStatus;
 import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.extension.messages.ProcessEventMsg;
+import com.here.naksha.lib.extension.messages.ResponseMsg;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -42,26 +43,23 @@ public class RemoteScenarioTest {
     Json.DEBUG = false;
   }
 
-  static final int EXTENSION_ID = 2323;
+  static final int PORT = 2324;
+  static final String EXTENSION = "remote-scenario-test";
 
-  static class Hub extends ExtensionHandlerTest.Hub {
+  static class Hub extends AbstractSimulatedNakshaHub {
 
     @Override
     public void run() {
       try {
         // Simulate what Naksha-Hub would do:
-        final EventHandler testEventHandler = new EventHandler("test", TestRemoteCustomerHandler.class);
-        testEventHandler.setExtension(EXTENSION_ID);
-        final Extension config = new Extension("localhost", EXTENSION_ID);
-        final IEventHandler eventHandler = new ExtensionHandler(this, testEventHandler, config);
-        final EventPipeline eventPipeline = new EventPipeline(this);
-        eventPipeline.addEventHandler(eventHandler);
-        final HealthCheckEvent event = new HealthCheckEvent();
-        //        event.setConnector(testConnector);
-        // This sends the event through the pipeline.
-        // The extension handler will serialize the event and send it to our server, run by the test.
-        // This server simulates the CLASS_NAME class and returns something, we remember what is returned.
-        response = eventPipeline.sendEvent(event);
+        final EventHandler testEventHandler = new EventHandler(TestRemoteCustomerHandler.class.getName(), "test");
+        testEventHandler.setExtensionId(EXTENSION);
+        final ExtensionConfig config = new ExtensionConfig(EXTENSION, "localhost", PORT);
+        final ExtensionHandler eventHandler = new ExtensionHandler(testEventHandler, config);
+        event = new HealthCheckEvent();
+        // The extension handler will serialize the event and send it to the remote extension server, which
+        // instantiates the TestRemoteCustomerHandler and returns its response.
+        response = eventHandler.processEvent(this);
       } catch (Exception e) {
         exception = e;
       }
@@ -70,11 +68,38 @@ public class RemoteScenarioTest {
 
   @Test
   public void testRemote() throws Exception {
-    final Hub hub = new Hub();
-    hub.start();
+    final RemoteExtensionServer remoteExtensionServer = new RemoteExtensionServer(PORT);
+    try {
+      final Hub hub = new Hub();
+      hub.start();
+      hub.join();
+      Assertions.assertNull(hub.exception);
+      Assertions.assertInstanceOf(HealthStatus.class, hub.response);
+    } finally {
+      remoteExtensionServer.stop();
+      remoteExtensionServer.forceCloseSocket();
+    }
+  }
 
-    final RemoteExtensionServer remoteExtensionServer = new RemoteExtensionServer(EXTENSION_ID);
-    hub.join();
-    Assertions.assertInstanceOf(HealthStatus.class, hub.response);
+  @Test
+  public void testHandlerFailureIsAnswered() throws Exception {
+    final RemoteExtensionServer remoteExtensionServer = new RemoteExtensionServer(PORT);
+    try (final ExtensionConnectionPool pool = new ExtensionConnectionPool()) {
+      final ExtensionConfig config = new ExtensionConfig(EXTENSION, "localhost", PORT);
+      final HealthCheckEvent event = new HealthCheckEvent();
+      event.setStreamId("failing-handler");
+      try (final IExtensionExchange exchange = pool.open(config)) {
+        exchange.send(new ProcessEventMsg(new EventHandler("com.here.naksha.NoSuchHandler", "test"), event));
+        // The handler can't be created, the server must respond with an error instead of leaving the request open.
+        final ResponseMsg response =
+            Assertions.assertInstanceOf(ResponseMsg.class, exchange.receive(ExtensionConnectionPoolTest.TIMEOUT));
+        final ErrorResponse error = Assertions.assertInstanceOf(ErrorResponse.class, response.response);
+        Assertions.assertEquals(XyzError.EXCEPTION, error.getError());
+        Assertions.assertEquals("failing-handler", error.getStreamId());
+      }
+    } finally {
+      remoteExtensionServer.stop();
+      remoteExtensionServer.forceCloseSocket();
+    }
   }
 }
@@ -43,6 +43,7 @@ import com.here.naksha.lib.core.models.naksha.XyzCollection;
 import com.here.naksha.lib.core.models.storage.EWriteOp;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
 import com.here.naksha.lib.core.models.storage.ReadFeatures;
+import com.here.naksha.lib.core.models.storage.ReadStatistics;
 import com.here.naksha.lib.core.models.storage.Request;
 import com.here.naksha.lib.core.models.storage.Result;
 import com.here.naksha.lib.core.models.storage.SuccessResult;
@@ -91,6 +92,7 @@ public class DefaultStorageHandler extends AbstractEventHandler {
   protected EventProcessingStrategy processingStrategyFor(IEvent event) {
     final Request<?> request = event.getRequest();
     if (request instanceof ReadFeatures
+        || request instanceof ReadStatistics
         || request instanceof WriteFeatures
         || request instanceof WriteCollections) {
       return PROCESS;
@@ -170,6 +172,8 @@ public class DefaultStorageHandler extends AbstractEventHandler {
       final @NotNull StopWatch storageTimer) {
     if (request instanceof ReadFeatures rf) {
       return forwardReadFeatures(ctx, storageImpl, collection, rf, currentAttempt, storageTimer);
+    } else if (request instanceof ReadStatistics rs) {
+      return forwardReadStatistics(ctx, storageImpl, collection, rs, storageTimer);
     } else if (request instanceof WriteFeatures<?, ?, ?> wf) {
       return forwardWriteFeatures(ctx, storageImpl, collection, wf, currentAttempt, storageTimer);
     } else if (request instanceof WriteCollections<?, ?, ?> wc) {
@@ -201,6 +205,22 @@ public class DefaultStorageHandler extends AbstractEventHandler {
     }
   }
 
+  private @NotNull Result forwardReadStatistics(
+      final @NotNull NakshaContext ctx,
+      final @NotNull IStorage storageImpl,
+      final @NotNull XyzCollection collection,
+      final @NotNull ReadStatistics rs,
+      final @NotNull StopWatch storageTimer) {
+    logger.info("Processing ReadStatistics against {}", collection.getId());
+    return measuredStorageSupplier(
+        () -> {
+          try (final IReadSession reader = storageImpl.newReadSession(ctx, false)) {
+            return reader.execute(rs);
+          }
+        },
+        storageTimer);
+  }
+
   private @NotNull Result forwardWriteFeatures(
       final @NotNull NakshaContext ctx,
       final @NotNull IStorage storageImpl,
@@ -421,6 +441,8 @@ public class DefaultStorageHandler extends AbstractEventHandler {
   private void applyCollectionId(Request<?> request, @NotNull String customCollectionId) {
     if (request instanceof ReadFeatures rf) {
       rf.setCollections(List.of(customCollectionId));
+    } else if (request instanceof ReadStatistics rs) {
+      rs.setCollectionId(customCollectionId);
     } else if (request instanceof WriteFeatures<?, ?, ?> wf) {
       wf.setCollectionId(customCollectionId);
     } else if (request instanceof WriteCollections<?, ?, ?> wc) {
@@ -29,6 +29,7 @@ import com.here.naksha.lib.core.models.naksha.EventHandler;
 import com.here.naksha.lib.core.models.naksha.EventTarget;
 import com.here.naksha.lib.core.models.storage.*;
 import com.here.naksha.lib.handlers.util.PropertyOperationUtil;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -127,6 +128,13 @@ public class SourceIdHandler extends AbstractEventHandler {
 
   public static Optional<POp> mapIntoTagOperation(POp propertyOperation) {
 
+    if (sourceIdTransformationCapable(propertyOperation)
+        && propertyOperation.op().equals(POpType.IN)
+        && propertyOperation.getValue() instanceof String[] sourceIds) {
+      return Optional.of(POp.in(
+          PRef.tags(),
+          Arrays.stream(sourceIds).map(sourceId -> TAG_PREFIX + sourceId).toArray(String[]::new)));
+    }
     if (sourceIdTransformationCapable(propertyOperation) && operationTypeAllowed(propertyOperation)) {
       return Optional.of(POp.exists(PRef.tag(TAG_PREFIX + propertyOperation.getValue())));
     }
@@ -120,11 +120,59 @@ public class TagFilterHandler extends AbstractEventHandler {
     }
     if (isNotNullOrEmpty(codecList)) {
       for (final @NotNull XyzFeatureCodec codec : codecList) {
-        applyTagChangesOnFeature(codec.getFeature(), addTags, removeTags);
+        // The tags are decoded lazily, so the feature is only decoded, when its tags really change.
+        if (!tagChangesRequired(codec.getTags(), addTags, removeTags)) {
+          continue;
+        }
+        final XyzFeature feature = codec.getFeature();
+        if (feature != null) {
+          applyTagChangesOnFeature(feature, addTags, removeTags);
+        } else {
+          // Only the JSON is known, decode the feature and update the JSON from the modified feature.
+          final XyzFeature decoded = codec.encodeFeature(false).getFeature();
+          if (decoded != null) {
+            applyTagChangesOnFeature(decoded, addTags, removeTags);
+            codec.decodeParts(true);
+          }
+        }
       }
     }
   }
 
+  /**
+   * Tests if adding and removing the given tags would modify the given tags of a feature.
+   *
+   * @param tags       The current tags of the feature.
+   * @param addTags    The tags to add, will be normalized.
+   * @param removeTags The prefixes of the tags to remove.
+   * @return {@code true} if the tags would be modified; {@code false} otherwise.
+   */
+  static boolean tagChangesRequired(
+      final @Nullable List<String> tags,
+      final @Nullable List<String> addTags,
+      final @Nullable List<String> removeTags) {
+    if (isNotNullOrEmpty(tags) && isNotNullOrEmpty(removeTags)) {
+      for (final String tag : tags) {
+        for (final String prefix : removeTags) {
+          if (prefix != null && tag.startsWith(prefix)) {
+            return true;
+          }
+        }
+      }
+    }
+    if (isNotNullOrEmpty(addTags)) {
+      if (tags == null) {
+        return true;
+      }
+      for (final String tag : addTags) {
+        if (!tags.contains(XyzNamespace.normalizeTag(tag))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   private static void applyTagChangesOnFeature(
       final @Nullable XyzFeature feature,
       final @Nullable List<String> addTags,
@@ -194,4 +194,32 @@ class TagFilterHandlerTest {
         return JsonUtil.toJson(outputCollection);
     }
 
-}
\ No newline at end of file
+    @Test
+    void testWriteOnlyDecodesFeaturesWithChangedTags() {
+        // Given: codecs that only hold the JSON of the features
+        final XyzFeatureCodec unchanged = XyzFeatureCodecFactory.get().newInstance().withJson(
+                "{\"id\":\"f1\",\"type\":\"Feature\",\"properties\":{\"@ns:com:here:xyz\":{\"tags\":[\"one\"]}}}");
+        final XyzFeatureCodec changed = XyzFeatureCodecFactory.get().newInstance().withJson(
+                "{\"id\":\"f2\",\"type\":\"Feature\",\"properties\":{\"@ns:com:here:xyz\":{\"tags\":[\"two\"]}}}");
+        final WriteXyzFeatures wf = new WriteXyzFeatures("some_space", new ArrayList<>(List.of(unchanged, changed)));
+
+        // When: tag "one" is added
+        TagFilterHandler.applyTagChangesOnRequest(wf, List.of("One"), null);
+
+        // Then: the feature that already has the tag is not decoded at all
+        assertNull(unchanged.getFeature());
+        // Then: the other feature is decoded, modified and its JSON updated
+        assertNotNull(changed.getFeature());
+        assertEquals(List.of("two", "one"), changed.getFeature().getProperties().getXyzNamespace().getTags());
+        assertTrue(changed.getJson().contains("\"one\""));
+    }
+
+    @Test
+    void testTagChangesRequired() {
+        assertFalse(TagFilterHandler.tagChangesRequired(List.of("one", "two"), List.of("ONE"), List.of("three")));
+        assertTrue(TagFilterHandler.tagChangesRequired(List.of("one", "two"), List.of("three"), null));
+        assertTrue(TagFilterHandler.tagChangesRequired(List.of("one", "two"), null, List.of("tw")));
+        assertTrue(TagFilterHandler.tagChangesRequired(null, List.of("one"), null));
+        assertFalse(TagFilterHandler.tagChangesRequired(null, null, List.of("one")));
+    }
+}
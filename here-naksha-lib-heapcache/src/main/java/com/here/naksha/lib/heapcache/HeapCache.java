@@ -18,11 +18,17 @@
  */
 package com.here.naksha.lib.heapcache;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.lambdas.Fe1;
 import com.here.naksha.lib.core.lambdas.Pe1;
 import com.here.naksha.lib.core.models.TxSignalSet;
+import com.here.naksha.lib.core.models.geojson.coordinates.JTSHelper;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzGeometry;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
 import com.here.naksha.lib.core.storage.CollectionInfo;
 import com.here.naksha.lib.core.storage.IMasterTransaction;
 import com.here.naksha.lib.core.storage.IReadSession;
@@ -31,6 +37,7 @@ import com.here.naksha.lib.core.storage.IStorage;
 import com.here.naksha.lib.core.storage.ITransactionSettings;
 import com.here.naksha.lib.core.storage.IWriteSession;
 import com.here.naksha.lib.core.util.fib.FibSet;
+import com.here.naksha.lib.core.util.json.Json;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
@@ -38,6 +45,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Geometry;
 
 public class HeapCache implements IStorage {
 
@@ -45,6 +53,9 @@ public class HeapCache implements IStorage {
 
   public HeapCache(@NotNull HeapCacheConfig config) {
     this.config = config;
+    this.offHeap = config.offHeapMaxBytes > 0
+        ? new OffHeapFeatureStore(config.offHeapSlabSize, config.offHeapMaxBytes)
+        : null;
   }
 
   public void addListener(@NotNull CacheChangeListener listener) {
@@ -85,6 +96,7 @@ public class HeapCache implements IStorage {
   public void putCacheEntry(String key, XyzFeature feature) {
     CacheEntry entry = cache.putWeak(key);
     entry.setValue(feature);
+    storeOffHeap(key, feature);
     // Trigger notification
     notifyEntryAdded(key, feature);
   }
@@ -93,6 +105,7 @@ public class HeapCache implements IStorage {
     CacheEntry entry = cache.get(key);
     if (entry != null) {
       entry.setValue(feature);
+      storeOffHeap(key, feature);
       // Notify listeners
       notifyEntryUpdated(key, feature);
     }
@@ -100,6 +113,7 @@ public class HeapCache implements IStorage {
 
   public void removeCacheEntry(String key) {
     CacheEntry entry = cache.remove(key);
+    removeOffHeap(key);
     if (entry != null) {
       // Notify listeners
       notifyEntryRemoved(key);
@@ -109,6 +123,96 @@ public class HeapCache implements IStorage {
   protected final @NotNull HeapCacheConfig config;
   protected final @NotNull FibSet<String, CacheEntry> cache = new FibSet<>(CacheEntry::new);
 
+  /**
+   * The optional off-heap store that keeps a compact copy of all cached features, so that features collected from the weak heap cache
+   * can be restored without asking the storage.
+   */
+  protected final @Nullable OffHeapFeatureStore offHeap;
+
+  /**
+   * Returns the off-heap store, if enabled, for example to read the memory usage metrics.
+   *
+   * @return the off-heap store; {@code null} if disabled.
+   */
+  public @Nullable OffHeapFeatureStore getOffHeapStore() {
+    return offHeap;
+  }
+
+  /**
+   * Stores a compact copy of the given feature in the off-heap store, if enabled. The feature is serialized directly into UTF-8 bytes,
+   * without modifying it, and the store keeps the existing record, when the feature did not change.
+   *
+   * @param key     The key of the feature.
+   * @param feature The feature to store.
+   */
+  void storeOffHeap(@NotNull String key, @NotNull XyzFeature feature) {
+    final OffHeapFeatureStore offHeap = this.offHeap;
+    if (offHeap != null) {
+      // The feature is already visible to other threads, therefore it must not be modified, serialize a tree without the geometry.
+      final XyzGeometry geometry = feature.getGeometry();
+      byte[] json;
+      byte[] wkb = null;
+      try (final Json jp = Json.get()) {
+        final ObjectNode tree = jp.convert(feature, ObjectNode.class);
+        tree.remove("geometry");
+        json = jp.writer().writeValueAsBytes(tree);
+        final Geometry jtsGeometry = geometry != null ? geometry.getJTSGeometry() : null;
+        if (jtsGeometry != null) {
+          wkb = jp.wkbWriter.write(jtsGeometry);
+        }
+      } catch (JsonProcessingException | IllegalArgumentException e) {
+        json = null;
+      }
+      if (json == null || !offHeap.put(key, json, wkb)) {
+        // We must not keep an outdated copy.
+        offHeap.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Removes the feature from the off-heap store, if enabled.
+   *
+   * @param key The key of the feature.
+   */
+  void removeOffHeap(@NotNull String key) {
+    final OffHeapFeatureStore offHeap = this.offHeap;
+    if (offHeap != null) {
+      offHeap.remove(key);
+    }
+  }
+
+  /**
+   * Restores a feature from the off-heap store into the heap cache, if enabled. The feature is decoded as the requested type, so that
+   * subclasses of {@link XyzFeature} are restored as such.
+   *
+   * @param key          The key of the feature.
+   * @param featureClass The type of the feature to restore.
+   * @return the heap cache entry of the restored feature; {@code null} if the feature is not cached off-heap or not of the requested type.
+   */
+  @Nullable
+  CacheEntry loadOffHeap(@NotNull String key, @NotNull Class<? extends XyzFeature> featureClass) {
+    final OffHeapFeatureStore offHeap = this.offHeap;
+    if (offHeap == null) {
+      return null;
+    }
+    final XyzFeatureCodec codec = offHeap.get(key, XyzFeatureCodecFactory.get());
+    if (codec == null || codec.getJson() == null) {
+      return null;
+    }
+    final XyzFeature feature;
+    try (final Json jp = Json.get()) {
+      feature = jp.reader().forType(featureClass).readValue(codec.getJson());
+    } catch (JsonProcessingException e) {
+      // The stored feature is of another type.
+      return null;
+    }
+    feature.setGeometry(JTSHelper.fromGeometry(codec.getGeometry()));
+    final CacheEntry entry = cache.putWeak(key);
+    entry.setValue(feature);
+    return entry;
+  }
+
   @Override
   public void init() {}
 
@@ -145,7 +249,11 @@ public class HeapCache implements IStorage {
   }
 
   @Override
-  public void close() {}
+  public void close() {
+    if (offHeap != null) {
+      offHeap.close();
+    }
+  }
 
   /**
    * Initializes the storage, create the transaction table, install needed scripts and extensions.
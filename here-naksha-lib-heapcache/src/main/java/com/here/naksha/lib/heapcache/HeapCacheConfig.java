@@ -24,11 +24,34 @@ import org.jetbrains.annotations.Nullable;
 public class HeapCacheConfig {
 
   public HeapCacheConfig(@Nullable IStorage storage) {
+    this(storage, 0L, OffHeapFeatureStore.DEFAULT_SLAB_SIZE);
+  }
+
+  /**
+   * Create a configuration for a heap cache that keeps the cached features as well off-heap.
+   *
+   * @param storage         The storage to cache, if any.
+   * @param offHeapMaxBytes The maximal amount of off-heap memory to use in byte; 0 to disable the off-heap store.
+   * @param offHeapSlabSize The size of the slabs of the off-heap store in byte.
+   */
+  public HeapCacheConfig(@Nullable IStorage storage, long offHeapMaxBytes, int offHeapSlabSize) {
     this.storage = storage;
+    this.offHeapMaxBytes = offHeapMaxBytes;
+    this.offHeapSlabSize = offHeapSlabSize;
   }
 
   public final @Nullable IStorage storage;
 
+  /**
+   * The maximal amount of off-heap memory to use in byte, if 0 no off-heap store is used.
+   */
+  public final long offHeapMaxBytes;
+
+  /**
+   * The size of the slabs of the off-heap store in byte.
+   */
+  public final int offHeapSlabSize;
+
   public IStorage getStorage() {
     return storage;
   }
@@ -38,11 +38,26 @@ public class HeapFeatureReader<F extends XyzFeature> implements IFeatureReader<F
   final @NotNull Class<F> featureClass;
   final @NotNull CollectionInfo collection;
 
+  /**
+   * Returns the heap cache entry for the given {@code id}, restoring it from the off-heap store if it was garbage collected.
+   *
+   * @param id The {@code id} of the feature.
+   * @return the cache entry; {@code null} if no such feature cached.
+   */
+  @Nullable
+  CacheEntry entryOf(@NotNull String id) {
+    CacheEntry entry = cache.cache.get(id);
+    if (entry == null || entry.getValue() == null) {
+      entry = cache.loadOffHeap(id, featureClass);
+    }
+    return entry;
+  }
+
   @Override
   public @NotNull IResultSet<F> getFeaturesById(@NotNull String... ids) {
     final ArrayList<F> features = new ArrayList<>();
     for (final String id : ids) {
-      final CacheEntry entry = cache.cache.get(id);
+      final CacheEntry entry = entryOf(id);
       if (entry != null && featureClass.isInstance(entry.getValue())) {
         features.add(featureClass.cast(entry.getValue()));
       }
@@ -52,7 +67,7 @@ public class HeapFeatureReader<F extends XyzFeature> implements IFeatureReader<F
 
   @Override
   public @Nullable F getFeatureById(@NotNull String id) {
-    final CacheEntry entry = cache.cache.get(id);
+    final CacheEntry entry = entryOf(id);
     F feature = null;
     if (entry != null && featureClass.isInstance(entry.getValue())) {
       feature = featureClass.cast(entry.getValue());
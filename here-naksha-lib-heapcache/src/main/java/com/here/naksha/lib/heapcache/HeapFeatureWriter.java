@@ -37,19 +37,23 @@ public class HeapFeatureWriter<F extends XyzFeature> extends HeapFeatureReader<F
     for (final F feature : req.getInsert()) {
       final CacheEntry entry = cache.cache.putWeak(feature.getId());
       entry.setValue(feature);
+      cache.storeOffHeap(feature.getId(), feature);
     }
     for (final F feature : req.getUpdate()) {
       final CacheEntry entry = cache.cache.putWeak(feature.getId());
       entry.setValue(feature);
+      cache.storeOffHeap(feature.getId(), feature);
     }
     for (final F feature : req.getUpsert()) {
       final CacheEntry entry = cache.cache.putWeak(feature.getId());
       entry.setValue(feature);
+      cache.storeOffHeap(feature.getId(), feature);
     }
     for (final @NotNull DeleteOp feature : req.getDelete()) {
       if (cache.cache.get(feature.getId()) != null) {
         cache.cache.remove(feature.getId());
       }
+      cache.removeOffHeap(feature.getId());
     }
     return null;
   }
@@ -0,0 +1,641 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.heapcache;
+
+import static com.here.naksha.lib.core.util.LH64.highInt;
+import static com.here.naksha.lib.core.util.LH64.lh64;
+import static com.here.naksha.lib.core.util.LH64.lowInt;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.here.naksha.lib.core.models.storage.FeatureCodec;
+import com.here.naksha.lib.core.models.storage.FeatureCodecFactory;
+import com.here.naksha.lib.core.util.fib.FibSet;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A feature store that keeps features outside the Java heap in a compact binary form. Every feature is stored as a record of its
+ * {@code id}, its JSON (UTF-8 encoded) and its Extended WKB geometry, appended into direct {@link ByteBuffer} slabs. An open-addressing
+ * index maps the hash of the {@code id} to the slab address of the record.
+ *
+ * <p>Features are not decoded when read, the store only fills the parts of a {@link FeatureCodec}, so the feature is only materialized when
+ * the caller invokes {@link FeatureCodec#encodeFeature(boolean)}.
+ *
+ * <p>Removed or replaced records are only marked as dead, the space is reclaimed by {@link #compact()}, which is done automatically when
+ * the store runs out of memory. The compaction is done in place, so the store never allocates more than the maximal amount of memory.
+ * The store is thread safe.
+ */
+public class OffHeapFeatureStore implements AutoCloseable {
+
+  /**
+   * The default size of a single slab in byte.
+   */
+  public static final int DEFAULT_SLAB_SIZE = 16 * 1024 * 1024;
+
+  /**
+   * The size of the record header: record length, id length, json length and wkb length.
+   */
+  static final int HEADER_SIZE = 16;
+
+  private static final long EMPTY = -1L;
+  private static final long DELETED = -2L;
+  private static final int MIN_INDEX_CAPACITY = 1024;
+
+  /**
+   * Create a new off-heap store.
+   *
+   * @param slabSize The size of each slab in byte, limits the maximal size of a single record.
+   * @param maxBytes The maximal amount of off-heap memory to allocate in byte.
+   */
+  public OffHeapFeatureStore(int slabSize, long maxBytes) {
+    if (slabSize <= HEADER_SIZE) {
+      throw new IllegalArgumentException("slabSize must be bigger than " + HEADER_SIZE);
+    }
+    if (maxBytes < slabSize) {
+      throw new IllegalArgumentException("maxBytes must be at least one slab (" + slabSize + ")");
+    }
+    this.slabSize = slabSize;
+    this.maxSlabs = (int) Math.min(Integer.MAX_VALUE, maxBytes / slabSize);
+    this.hashes = new int[MIN_INDEX_CAPACITY];
+    this.addresses = new long[MIN_INDEX_CAPACITY];
+    Arrays.fill(addresses, EMPTY);
+  }
+
+  private final int slabSize;
+  private final int maxSlabs;
+  private final @NotNull ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final @NotNull ArrayList<@NotNull ByteBuffer> slabs = new ArrayList<>();
+
+  /**
+   * The hashes of the keys, only valid where the address is not {@link #EMPTY} or {@link #DELETED}.
+   */
+  private int @NotNull [] hashes;
+
+  /**
+   * The addresses of the records, low 32-bit being the offset in the slab, high 32-bit being the slab index.
+   */
+  private long @NotNull [] addresses;
+
+  private int size;
+  private int tombstones;
+  private long usedBytes;
+  private long deadBytes;
+
+  private final @NotNull LongAdder hits = new LongAdder();
+  private final @NotNull LongAdder misses = new LongAdder();
+  private final @NotNull LongAdder rejects = new LongAdder();
+  private final @NotNull LongAdder compactions = new LongAdder();
+
+  private static int hashOf(@NotNull String id) {
+    return id.hashCode() * FibSet.MUL32;
+  }
+
+  private int slotOf(int hash) {
+    return (hash >>> 1) & (addresses.length - 1);
+  }
+
+  /**
+   * Stores the parts of the given codec. The codec must have at least an {@code id} and the JSON decoded.
+   *
+   * @param codec The codec to store.
+   * @return {@code true} if the feature was stored; {@code false} if there is not enough memory left.
+   */
+  public boolean put(@NotNull FeatureCodec<?, ?> codec) {
+    final String id = codec.getId();
+    final String json = codec.getJson();
+    if (id == null || json == null) {
+      throw new IllegalArgumentException("The codec must have an id and json");
+    }
+    return put(id, json, codec.getWkb());
+  }
+
+  /**
+   * Stores a feature.
+   *
+   * @param id   The {@code id} of the feature.
+   * @param json The JSON of the feature.
+   * @param wkb  The Extended WKB of the geometry, if any.
+   * @return {@code true} if the feature was stored; {@code false} if there is not enough memory left.
+   */
+  public boolean put(@NotNull String id, @NotNull String json, byte @Nullable [] wkb) {
+    return put(id, json.getBytes(UTF_8), wkb);
+  }
+
+  /**
+   * Stores a feature. If the same JSON and WKB are already stored for the {@code id}, the existing record is kept.
+   *
+   * @param id   The {@code id} of the feature.
+   * @param json The UTF-8 encoded JSON of the feature.
+   * @param wkb  The Extended WKB of the geometry, if any.
+   * @return {@code true} if the feature was stored; {@code false} if there is not enough memory left.
+   */
+  public boolean put(@NotNull String id, byte @NotNull [] json, byte @Nullable [] wkb) {
+    final byte[] idBytes = id.getBytes(UTF_8);
+    final int wkbLength = wkb != null ? wkb.length : -1;
+    final long recordLength = (long) HEADER_SIZE + idBytes.length + json.length + Math.max(0, wkbLength);
+    if (recordLength > slabSize) {
+      rejects.increment();
+      return false;
+    }
+    final int hash = hashOf(id);
+    lock.writeLock().lock();
+    try {
+      if (recordEquals(find(hash, idBytes), idBytes.length, json, wkb)) {
+        return true;
+      }
+      ByteBuffer slab = slabFor((int) recordLength);
+      if (slab == null) {
+        if (deadBytes == 0) {
+          rejects.increment();
+          return false;
+        }
+        compactLocked();
+        slab = slabFor((int) recordLength);
+        if (slab == null) {
+          rejects.increment();
+          return false;
+        }
+      }
+      final int offset = slab.position();
+      slab.putInt((int) recordLength);
+      slab.putInt(idBytes.length);
+      slab.putInt(json.length);
+      slab.putInt(wkbLength);
+      slab.put(idBytes);
+      slab.put(json);
+      if (wkb != null) {
+        slab.put(wkb);
+      }
+      usedBytes += recordLength;
+      final long address = lh64(offset, slabs.size() - 1);
+      final int i = find(hash, idBytes);
+      if (i >= 0) {
+        deadBytes += recordLengthAt(addresses[i]);
+        addresses[i] = address;
+      } else {
+        insert(hash, address);
+      }
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Reads the feature with the given {@code id} into a new codec of the given factory. The feature itself is not decoded.
+   *
+   * @param id      The {@code id} of the feature to read.
+   * @param factory The codec factory to use.
+   * @param <CODEC> The codec-type.
+   * @return the codec with the {@code id}, the JSON and the WKB; {@code null} if no such feature stored.
+   */
+  public <FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> @Nullable CODEC get(
+      @NotNull String id, @NotNull FeatureCodecFactory<FEATURE, CODEC> factory) {
+    final byte[] idBytes = id.getBytes(UTF_8);
+    final int hash = hashOf(id);
+    final String json;
+    final byte[] wkb;
+    lock.readLock().lock();
+    try {
+      final int i = find(hash, idBytes);
+      if (i < 0) {
+        misses.increment();
+        return null;
+      }
+      final long address = addresses[i];
+      final ByteBuffer slab = slabs.get(highInt(address));
+      final int offset = lowInt(address);
+      final int idLength = slab.getInt(offset + 4);
+      final int jsonLength = slab.getInt(offset + 8);
+      final int wkbLength = slab.getInt(offset + 12);
+      final byte[] jsonBytes = new byte[jsonLength];
+      slab.get(offset + HEADER_SIZE + idLength, jsonBytes);
+      json = new String(jsonBytes, UTF_8);
+      if (wkbLength >= 0) {
+        wkb = new byte[wkbLength];
+        slab.get(offset + HEADER_SIZE + idLength + jsonLength, wkb);
+      } else {
+        wkb = null;
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    hits.increment();
+    return factory.newInstance().withId(id).withJson(json).withWkb(wkb);
+  }
+
+  /**
+   * Tests if a feature with the given {@code id} is stored.
+   *
+   * @param id The {@code id} of the feature.
+   * @return {@code true} if such a feature is stored; {@code false} otherwise.
+   */
+  public boolean contains(@NotNull String id) {
+    lock.readLock().lock();
+    try {
+      return find(hashOf(id), id.getBytes(UTF_8)) >= 0;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the feature with the given {@code id}.
+   *
+   * @param id The {@code id} of the feature to remove.
+   * @return {@code true} if the feature was removed; {@code false} if no such feature stored.
+   */
+  public boolean remove(@NotNull String id) {
+    final byte[] idBytes = id.getBytes(UTF_8);
+    final int hash = hashOf(id);
+    lock.writeLock().lock();
+    try {
+      final int i = find(hash, idBytes);
+      if (i < 0) {
+        return false;
+      }
+      deadBytes += recordLengthAt(addresses[i]);
+      addresses[i] = DELETED;
+      size--;
+      tombstones++;
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes all features and releases all slabs.
+   */
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      slabs.clear();
+      hashes = new int[MIN_INDEX_CAPACITY];
+      addresses = new long[MIN_INDEX_CAPACITY];
+      Arrays.fill(addresses, EMPTY);
+      size = 0;
+      tombstones = 0;
+      usedBytes = 0;
+      deadBytes = 0;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Moves all live records together to reclaim the space of removed and replaced records, and releases the slabs no longer needed.
+   */
+  public void compact() {
+    lock.writeLock().lock();
+    try {
+      compactLocked();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Releases all slabs. Note that the direct memory is returned to the operating system, when the garbage collector collects the slabs.
+   */
+  @Override
+  public void close() {
+    clear();
+  }
+
+  // ------------------------------------------------------------------------------------------------------------------------------------
+  // Metrics
+  // ------------------------------------------------------------------------------------------------------------------------------------
+
+  /**
+   * Returns the amount of features stored.
+   *
+   * @return the amount of features stored.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return size;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the amount of slabs allocated.
+   *
+   * @return the amount of slabs allocated.
+   */
+  public int slabCount() {
+    lock.readLock().lock();
+    try {
+      return slabs.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the amount of off-heap memory allocated in byte.
+   *
+   * @return the amount of off-heap memory allocated in byte.
+   */
+  public long allocatedBytes() {
+    return (long) slabCount() * slabSize;
+  }
+
+  /**
+   * Returns the maximal amount of off-heap memory the store will allocate in byte.
+   *
+   * @return the maximal amount of off-heap memory the store will allocate in byte.
+   */
+  public long maxBytes() {
+    return (long) maxSlabs * slabSize;
+  }
+
+  /**
+   * Returns the amount of byte written into the slabs, including dead records.
+   *
+   * @return the amount of byte written into the slabs.
+   */
+  public long usedBytes() {
+    lock.readLock().lock();
+    try {
+      return usedBytes;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the amount of byte occupied by removed or replaced records, which will be reclaimed by the next compaction.
+   *
+   * @return the amount of byte occupied by dead records.
+   */
+  public long deadBytes() {
+    lock.readLock().lock();
+    try {
+      return deadBytes;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the amount of byte occupied by the index on the heap.
+   *
+   * @return the amount of byte occupied by the index on the heap.
+   */
+  public long indexBytes() {
+    lock.readLock().lock();
+    try {
+      return (long) addresses.length * (Long.BYTES + Integer.BYTES);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the amount of successful reads.
+   *
+   * @return the amount of successful reads.
+   */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the amount of reads of features not being stored.
+   *
+   * @return the amount of reads of features not being stored.
+   */
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the amount of features that were not stored, because they were too big or the store was full.
+   *
+   * @return the amount of rejected features.
+   */
+  public long rejects() {
+    return rejects.sum();
+  }
+
+  /**
+   * Returns the amount of compactions done.
+   *
+   * @return the amount of compactions done.
+   */
+  public long compactions() {
+    return compactions.sum();
+  }
+
+  @Override
+  public @NotNull String toString() {
+    return "OffHeapFeatureStore{size=" + size() + ", slabs=" + slabCount() + ", allocatedBytes=" + allocatedBytes()
+        + ", usedBytes=" + usedBytes() + ", deadBytes=" + deadBytes() + ", hits=" + hits() + ", misses=" + misses()
+        + ", rejects=" + rejects() + "}";
+  }
+
+  // ------------------------------------------------------------------------------------------------------------------------------------
+  // Internals, all require to hold the lock.
+  // ------------------------------------------------------------------------------------------------------------------------------------
+
+  /**
+   * Returns the slab into which to append a record of the given length, allocates a new slab, if necessary and allowed.
+   *
+   * @param recordLength The length of the record.
+   * @return the slab, positioned where to write; {@code null} if no more slabs can be allocated.
+   */
+  private @Nullable ByteBuffer slabFor(int recordLength) {
+    if (!slabs.isEmpty()) {
+      final ByteBuffer slab = slabs.get(slabs.size() - 1);
+      if (slab.remaining() >= recordLength) {
+        return slab;
+      }
+    }
+    if (slabs.size() >= maxSlabs) {
+      return null;
+    }
+    final ByteBuffer slab = ByteBuffer.allocateDirect(slabSize);
+    slabs.add(slab);
+    return slab;
+  }
+
+  /**
+   * Tests if the record in the given slot holds the given JSON and WKB.
+   *
+   * @param i        The index of the slot, -1 if there is no record.
+   * @param idLength The length of the UTF-8 encoded {@code id}.
+   * @param json     The UTF-8 encoded JSON.
+   * @param wkb      The Extended WKB, if any.
+   * @return {@code true} if the record holds the given JSON and WKB; {@code false} otherwise.
+   */
+  private boolean recordEquals(int i, int idLength, byte @NotNull [] json, byte @Nullable [] wkb) {
+    if (i < 0) {
+      return false;
+    }
+    final long address = addresses[i];
+    final ByteBuffer slab = slabs.get(highInt(address));
+    final int offset = lowInt(address);
+    final int jsonLength = slab.getInt(offset + 8);
+    final int wkbLength = slab.getInt(offset + 12);
+    if (jsonLength != json.length || wkbLength != (wkb != null ? wkb.length : -1)) {
+      return false;
+    }
+    final int jsonOffset = offset + HEADER_SIZE + idLength;
+    if (!slab.slice(jsonOffset, jsonLength).equals(ByteBuffer.wrap(json))) {
+      return false;
+    }
+    return wkb == null || slab.slice(jsonOffset + jsonLength, wkbLength).equals(ByteBuffer.wrap(wkb));
+  }
+
+  private int recordLengthAt(long address) {
+    return slabs.get(highInt(address)).getInt(lowInt(address));
+  }
+
+  private boolean idEquals(long address, byte @NotNull [] idBytes) {
+    final ByteBuffer slab = slabs.get(highInt(address));
+    final int offset = lowInt(address);
+    if (slab.getInt(offset + 4) != idBytes.length) {
+      return false;
+    }
+    return slab.slice(offset + HEADER_SIZE, idBytes.length).equals(ByteBuffer.wrap(idBytes));
+  }
+
+  /**
+   * Searches the index for the given key.
+   *
+   * @param hash    The hash of the key.
+   * @param idBytes The UTF-8 encoded key.
+   * @return the index of the slot; -1 if not found.
+   */
+  private int find(int hash, byte @NotNull [] idBytes) {
+    final long[] addresses = this.addresses;
+    final int mask = addresses.length - 1;
+    int i = slotOf(hash);
+    while (true) {
+      final long address = addresses[i];
+      if (address == EMPTY) {
+        return -1;
+      }
+      if (address != DELETED && hashes[i] == hash && idEquals(address, idBytes)) {
+        return i;
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  private void insert(int hash, long address) {
+    if ((size + tombstones + 1) * 4L >= addresses.length * 3L) {
+      rehash(size * 4 >= addresses.length ? addresses.length << 1 : addresses.length);
+    }
+    final int mask = addresses.length - 1;
+    int i = slotOf(hash);
+    while (addresses[i] >= 0) {
+      i = (i + 1) & mask;
+    }
+    if (addresses[i] == DELETED) {
+      tombstones--;
+    }
+    hashes[i] = hash;
+    addresses[i] = address;
+    size++;
+  }
+
+  private void rehash(int capacity) {
+    final int[] oldHashes = this.hashes;
+    final long[] oldAddresses = this.addresses;
+    hashes = new int[capacity];
+    addresses = new long[capacity];
+    Arrays.fill(addresses, EMPTY);
+    final int mask = capacity - 1;
+    for (int j = 0; j < oldAddresses.length; j++) {
+      if (oldAddresses[j] >= 0) {
+        int i = slotOf(oldHashes[j]);
+        while (addresses[i] != EMPTY) {
+          i = (i + 1) & mask;
+        }
+        hashes[i] = oldHashes[j];
+        addresses[i] = oldAddresses[j];
+      }
+    }
+    tombstones = 0;
+  }
+
+  /**
+   * Moves all live records towards the first slab, in the order of their addresses, and releases the slabs that are not needed anymore.
+   * The write position never overtakes the read position, so the compaction is done in place, without allocating new slabs.
+   */
+  private void compactLocked() {
+    final long[] addresses = this.addresses;
+    final Integer[] live = new Integer[size];
+    int n = 0;
+    for (int i = 0; i < addresses.length; i++) {
+      if (addresses[i] >= 0) {
+        live[n++] = i;
+      }
+    }
+    Arrays.sort(live, 0, n, Comparator.comparingLong(i -> addresses[i]));
+    byte[] buffer = new byte[0];
+    int slabIndex = 0;
+    int offset = 0;
+    usedBytes = 0;
+    for (int j = 0; j < n; j++) {
+      final int i = live[j];
+      final long address = addresses[i];
+      final ByteBuffer oldSlab = slabs.get(highInt(address));
+      final int oldOffset = lowInt(address);
+      final int recordLength = oldSlab.getInt(oldOffset);
+      if (offset + recordLength > slabSize) {
+        slabIndex++;
+        offset = 0;
+      }
+      if (slabIndex != highInt(address) || offset != oldOffset) {
+        // The target may overlap the record, therefore copy via the heap.
+        if (buffer.length < recordLength) {
+          buffer = new byte[recordLength];
+        }
+        oldSlab.get(oldOffset, buffer, 0, recordLength);
+        slabs.get(slabIndex).put(offset, buffer, 0, recordLength);
+        addresses[i] = lh64(offset, slabIndex);
+      }
+      offset += recordLength;
+      usedBytes += recordLength;
+    }
+    if (n == 0) {
+      slabs.clear();
+    } else {
+      while (slabs.size() > slabIndex + 1) {
+        slabs.remove(slabs.size() - 1);
+      }
+      slabs.get(slabIndex).position(offset);
+    }
+    deadBytes = 0;
+    rehash(addresses.length);
+    compactions.increment();
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.heapcache;
+
+import static com.here.naksha.lib.heapcache.HeapCacheTest.gc;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzGeometry;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzPoint;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.core.storage.CollectionInfo;
+import com.here.naksha.lib.core.storage.IMasterTransaction;
+import com.here.naksha.lib.core.storage.ModifyFeaturesReq;
+import java.lang.ref.WeakReference;
+import org.junit.jupiter.api.Test;
+
+class OffHeapFeatureStoreTest {
+
+  @Test
+  void putGetRemove() {
+    try (final OffHeapFeatureStore store = new OffHeapFeatureStore(1024, 4096)) {
+      assertTrue(store.put("a", "{\"id\":\"a\"}", new byte[] {1, 2, 3}));
+      assertTrue(store.put("b", "{\"id\":\"b\"}", null));
+      assertEquals(2, store.size());
+      assertEquals(1, store.slabCount());
+
+      final XyzFeatureCodec a = store.get("a", XyzFeatureCodecFactory.get());
+      assertNotNull(a);
+      assertEquals("a", a.getId());
+      assertEquals("{\"id\":\"a\"}", a.getJson());
+      assertArrayEquals(new byte[] {1, 2, 3}, a.getWkb());
+      // The feature is not decoded, unless requested.
+      assertNull(a.getFeature());
+
+      final XyzFeatureCodec b = store.get("b", XyzFeatureCodecFactory.get());
+      assertNotNull(b);
+      assertNull(b.getWkb());
+
+      assertTrue(store.remove("a"));
+      assertFalse(store.remove("a"));
+      assertNull(store.get("a", XyzFeatureCodecFactory.get()));
+      assertEquals(1, store.size());
+      assertEquals(2, store.hits());
+      assertEquals(1, store.misses());
+    }
+  }
+
+  @Test
+  void replaceAndCompact() {
+    try (final OffHeapFeatureStore store = new OffHeapFeatureStore(256, 512)) {
+      final String json = "{\"id\":\"x\",\"properties\":{\"name\":\"" + "x".repeat(150) + "\"}}";
+      final String json2 = json.replace('x', 'y');
+      final String json3 = json.replace('x', 'z');
+      assertTrue(store.put("x", json, null));
+      // Storing the same feature again keeps the existing record.
+      assertTrue(store.put("x", json, null));
+      assertEquals(0, store.deadBytes());
+      assertTrue(store.put("x", json2, null));
+      assertEquals(1, store.size());
+      assertTrue(store.deadBytes() > 0);
+      assertEquals(2, store.slabCount());
+      // The store is full, the next write must compact.
+      assertTrue(store.put("x", json3, null));
+      assertEquals(1, store.compactions());
+      assertEquals(1, store.size());
+      assertEquals(2, store.slabCount());
+      assertEquals(json3, store.get("x", XyzFeatureCodecFactory.get()).getJson());
+      // Too big for a slab.
+      assertFalse(store.put("y", json + json, null));
+      assertEquals(1, store.rejects());
+    }
+  }
+
+  @Test
+  void manyFeatures() {
+    try (final OffHeapFeatureStore store = new OffHeapFeatureStore(64 * 1024, 16 * 64 * 1024)) {
+      for (int i = 0; i < 10_000; i++) {
+        assertTrue(store.put("f" + i, "{\"id\":\"f" + i + "\"}", null));
+      }
+      for (int i = 0; i < 10_000; i += 2) {
+        assertTrue(store.remove("f" + i));
+      }
+      assertEquals(5_000, store.size());
+      for (int i = 0; i < 10_000; i++) {
+        assertEquals(i % 2 == 1, store.contains("f" + i));
+      }
+    }
+  }
+
+  @Test
+  void heapCacheRestoresCollectedFeatures() {
+    final HeapCache cache = new HeapCache(new HeapCacheConfig(null, 1024 * 1024, 64 * 1024));
+    try (final IMasterTransaction tx = cache.openMasterTransaction(cache.createSettings())) {
+      tx.writeFeatures(XyzFeature.class, new CollectionInfo("foo"))
+          .modifyFeatures(new ModifyFeaturesReq<>().insert(new XyzFeature("x")));
+      tx.commit();
+
+      gc(new WeakReference<>(new Object()));
+
+      final XyzFeature feature =
+          tx.readFeatures(XyzFeature.class, new CollectionInfo("foo")).getFeatureById("x");
+      assertNotNull(feature);
+      assertEquals("x", feature.getId());
+      final OffHeapFeatureStore offHeap = cache.getOffHeapStore();
+      assertNotNull(offHeap);
+      assertEquals(1, offHeap.hits());
+    } finally {
+      cache.close();
+    }
+  }
+
+  @Test
+  void storeDoesNotModifyCachedFeature() {
+    final HeapCache cache = new HeapCache(new HeapCacheConfig(null, 1024 * 1024, 64 * 1024));
+    try {
+      final XyzFeature feature = new XyzFeature("p");
+      final XyzGeometry point = new XyzPoint(8.0, 50.0);
+      feature.setGeometry(point);
+      cache.putCacheEntry("p", feature);
+      assertSame(point, feature.getGeometry());
+
+      final OffHeapFeatureStore offHeap = cache.getOffHeapStore();
+      assertNotNull(offHeap);
+      final XyzFeatureCodec codec = offHeap.get("p", XyzFeatureCodecFactory.get());
+      assertNotNull(codec);
+      assertNotNull(codec.getWkb());
+      assertFalse(codec.getJson().contains("\"geometry\""));
+    } finally {
+      cache.close();
+    }
+  }
+}
@@ -104,7 +104,10 @@ public final class NakshaHubConfig extends XyzFeature implements JsonSerializabl
       @JsonProperty("extensionConfigParams") @Nullable ExtensionConfigParams extensionConfigParams,
       @JsonProperty("requestBodyLimit") @Nullable Integer requestBodyLimit,
       @JsonProperty("maxParallelRequestsPerCPU") @Nullable Integer maxParallelRequestsPerCPU,
-      @JsonProperty("maxPctParallelRequestsPerActor") @Nullable Integer maxPctParallelRequestsPerActor) {
+      @JsonProperty("maxPctParallelRequestsPerActor") @Nullable Integer maxPctParallelRequestsPerActor,
+      @JsonProperty("jwtCacheSize") @Nullable Integer jwtCacheSize,
+      @JsonProperty("jwtCacheTtlInSecs") @Nullable Integer jwtCacheTtlInSecs,
+      @JsonProperty("maxAsyncStreams") @Nullable Integer maxAsyncStreams) {
     super(id);
     if (httpPort != null && (httpPort < 0 || httpPort > 65535)) {
       logger.atError()
@@ -197,6 +200,10 @@ public final class NakshaHubConfig extends XyzFeature implements JsonSerializabl
     this.maxPctParallelRequestsPerActor = maxPctParallelRequestsPerActor != null
         ? maxPctParallelRequestsPerActor
         : defaultMaxPctParallelRequestsPerActor();
+    this.jwtCacheSize = jwtCacheSize != null && jwtCacheSize > 0 ? jwtCacheSize : defaultJwtCacheSize();
+    this.jwtCacheTtlInSecs =
+        jwtCacheTtlInSecs != null && jwtCacheTtlInSecs > 0 ? jwtCacheTtlInSecs : defaultJwtCacheTtlInSecs();
+    this.maxAsyncStreams = maxAsyncStreams != null && maxAsyncStreams > 0 ? maxAsyncStreams : defaultMaxAsyncStreams();
   }
 
   private String getEnv(String env) {
@@ -369,6 +376,52 @@ public final class NakshaHubConfig extends XyzFeature implements JsonSerializabl
   public static int defaultMaxPctParallelRequestsPerActor() {
     return 25;
   }
+
+  /**
+   * The maximal amount of verified JWTs to cache.
+   */
+  public final int jwtCacheSize;
+
+  /**
+   * Returns the default maximal amount of verified JWTs to cache.
+   *
+   * @return the default maximal amount of verified JWTs to cache
+   */
+  public static int defaultJwtCacheSize() {
+    return 10_000;
+  }
+
+  /**
+   * The maximal time (in seconds) to cache a verified JWT, tokens that expire earlier are cached until they expire.
+   */
+  public final int jwtCacheTtlInSecs;
+
+  /**
+   * Returns the default maximal time (in seconds) to cache a verified JWT.
+   *
+   * @return the default time-to-live of a verified JWT
+   */
+  public static int defaultJwtCacheTtlInSecs() {
+    return 5 * 60; // 5 minutes
+  }
+
+  /**
+   * The maximal amount of open streams, for example exports. Every stream holds a storage connection until the client consumed it,
+   * therefore this limit must stay below the size of the storage connection pool, to leave connections to the other requests. Further
+   * streams are rejected with {@code 429 Too Many Requests}.
+   */
+  public final int maxAsyncStreams;
+
+  /**
+   * Returns the default maximal amount of open streams, which leaves enough of the storage connection pool (100 connections) to the other
+   * requests.
+   *
+   * @return the default maximal amount of open streams.
+   */
+  public static int defaultMaxAsyncStreams() {
+    return 64;
+  }
+
   /**
    * Optional storage-specific parameters
    */
@@ -38,6 +38,7 @@ import com.here.naksha.lib.core.models.storage.Notification;
 import com.here.naksha.lib.core.models.storage.ReadCollections;
 import com.here.naksha.lib.core.models.storage.ReadFeatures;
 import com.here.naksha.lib.core.models.storage.ReadRequest;
+import com.here.naksha.lib.core.models.storage.ReadStatistics;
 import com.here.naksha.lib.core.models.storage.Result;
 import com.here.naksha.lib.core.models.storage.SuccessResult;
 import com.here.naksha.lib.core.storage.IReadSession;
@@ -196,6 +197,8 @@ public class NHSpaceStorageReader implements IReadSession {
       return executeReadCollections(rc);
     } else if (readRequest instanceof ReadFeatures rf) {
       return executeReadFeatures(rf);
+    } else if (readRequest instanceof ReadStatistics rs) {
+      return executeReadStatistics(rs);
     }
     throw new UnsupportedOperationException(
         "ReadRequest with unsupported type " + readRequest.getClass().getName());
@@ -224,6 +227,21 @@ public class NHSpaceStorageReader implements IReadSession {
     }
   }
 
+  private @NotNull Result executeReadStatistics(final @NotNull ReadStatistics rs) {
+    final String spaceId = rs.getCollectionId();
+    logger.info("ReadStatistics Request against spaceId={}", spaceId);
+    addSpaceIdToStreamInfo(spaceId);
+    if (virtualSpaces.containsKey(spaceId)) {
+      return new ErrorResult(XyzError.NOT_IMPLEMENTED, "Statistics of admin spaces are not supported");
+    }
+    final EventPipeline eventPipeline = pipelineFactory.eventPipeline();
+    final Result result = setupEventPipelineForSpaceId(spaceId, eventPipeline);
+    if (!(result instanceof SuccessResult)) {
+      return result;
+    }
+    return eventPipeline.sendEvent(rs);
+  }
+
   private @NotNull Result executeReadFeaturesFromAdminSpaces(final @NotNull ReadFeatures rf) {
     // Run pipeline against virtual space
     final String spaceId = rf.getCollections().get(0);
@@ -161,14 +161,21 @@ public class NHAdminReaderMock implements IReadSession {
     } else if (pOp.op() == POpType.EQ && pOp.getPropertyRef() == PRef.id()) {
       // return features by Id from the given collections names
       getFeatureById(rf.getCollections(), (String) pOp.getValue(), features);
+    } else if (pOp.op() == POpType.IN && pOp.getPropertyRef() == PRef.id()) {
+      for (final String id : (String[]) pOp.getValue()) {
+        getFeatureById(rf.getCollections(), id, features);
+      }
+    } else if (isTagsInOperation(pOp)) {
+      getFeaturesByTagOrOperation(rf.getCollections(), POp.or(pOp), features);
     } else if (pOp.op() == OpType.OR) {
       final List<POp> pOpList = pOp.children();
       for (final POp orOp : pOpList) {
         if (orOp.op() == POpType.EQ && orOp.getPropertyRef() == PRef.id()) {
           getFeatureById(rf.getCollections(), (String) orOp.getValue(), features);
-        } else if (orOp.op() == POpType.EXISTS
-            && orOp.getPropertyRef().getPath().size() == 3
-            && orOp.getPropertyRef().getPath().get(2).equals("tags")) {
+        } else if (isTagsInOperation(orOp)
+            || (orOp.op() == POpType.EXISTS
+                && orOp.getPropertyRef().getPath().size() == 3
+                && orOp.getPropertyRef().getPath().get(2).equals("tags"))) {
           getFeaturesByTagOrOperation(rf.getCollections(), pOp, features);
           break;
         } else if (orOp.op() == OpType.AND) {
@@ -331,6 +338,8 @@ public class NHAdminReaderMock implements IReadSession {
                 .contains(tagOp.getPropertyRef().getTagName())) {
           return null;
         }
+      } else if (isTagsInOperation(tagOp)) {
+        if (!hasAnyTag(feature, (String[]) tagOp.getValue())) return null;
       } else if (tagOp.op() == POpType.AND) {
         XyzFeature matchingFeature = matchFeatureAgainstTagAndOperations(feature, tagOp);
         if (matchingFeature == null) return null;
@@ -358,6 +367,8 @@ public class NHAdminReaderMock implements IReadSession {
                 .contains(tagOp.getPropertyRef().getTagName())) {
           return feature;
         }
+      } else if (isTagsInOperation(tagOp)) {
+        if (hasAnyTag(feature, (String[]) tagOp.getValue())) return feature;
       } else if (tagOp.op() == POpType.AND) {
         XyzFeature matchingFeature = matchFeatureAgainstTagAndOperations(feature, tagOp);
         if (matchingFeature != null) return matchingFeature;
@@ -371,6 +382,19 @@ public class NHAdminReaderMock implements IReadSession {
     return null;
   }
 
+  private static boolean isTagsInOperation(final POp pOp) {
+    return pOp.op() == POpType.IN && pOp.getPropertyRef() == PRef.tags();
+  }
+
+  private static boolean hasAnyTag(final XyzFeature feature, final String[] tags) {
+    final List<String> featureTags = feature.getProperties().getXyzNamespace().getTags();
+    if (featureTags == null) return false;
+    for (final String tag : tags) {
+      if (featureTags.contains(tag)) return true;
+    }
+    return false;
+  }
+
   /**
    * Process the given notification.
    *
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.payload.events.clustering.Clustering;
+import com.here.naksha.lib.core.models.payload.events.clustering.ClusteringHexBin;
+import com.here.naksha.lib.core.models.payload.events.clustering.ClusteringQuadBin;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Generates the SQL to aggregate features into clusters. Every feature is assigned to exactly one cell of a Web Mercator grid by a
+ * representative point, the cells are calculated by PostGIS ({@code ST_SquareGrid} and {@code ST_HexagonGrid}), so no extension is
+ * needed. The quadbin cells are exactly the Web Mercator tiles of the cluster level.
+ */
+final class PostgresClustering {
+
+  private PostgresClustering() {}
+
+  /**
+   * The width of the world in Web Mercator meters.
+   */
+  static final double WORLD_IN_METER = 40075016.685578488d;
+
+  /**
+   * The default quadbin resolution, relative to the requested level, so a tile is split into 16 cells.
+   */
+  static final int DEFAULT_QUADBIN_RESOLUTION = 2;
+
+  /**
+   * The maximal level of the quadbin cells.
+   */
+  static final int MAX_QUADBIN_LEVEL = 24;
+
+  /**
+   * The hexbin level, relative to the requested level, so about 8 hexagons fit next to each other into a tile.
+   */
+  static final int HEXBIN_LEVEL_OFFSET = 4;
+
+  /**
+   * The average edge length of H3 hexagons of resolution 0 in meters, each further resolution divides it by the square root of 7.
+   */
+  static final double H3_RES0_EDGE_LENGTH = 1107712.591d;
+
+  /**
+   * The latitude up to which geometries are transformed into Web Mercator, slightly beyond the maximal latitude of Web Mercator tiles,
+   * which is about 85.0511; beyond it Web Mercator is undefined.
+   */
+  static final double MAX_LATITUDE = 85.06d;
+
+  private static int validLevel(int level) {
+    return Math.max(0, Math.min(MAX_QUADBIN_LEVEL, level));
+  }
+
+  /**
+   * Returns the level of the quadbin cells.
+   *
+   * @param clustering The clustering.
+   * @param level      The requested level.
+   * @return the level of the cells, between 1 and {@link #MAX_QUADBIN_LEVEL}.
+   */
+  static int quadbinLevel(@NotNull ClusteringQuadBin clustering, int level) {
+    final Integer absolute = clustering.getAbsoluteResolution();
+    final Integer relative = clustering.getRelativeResolution();
+    final int cellLevel = absolute != null
+        ? absolute
+        : validLevel(level) + (relative != null ? relative : DEFAULT_QUADBIN_RESOLUTION);
+    return Math.max(1, Math.min(MAX_QUADBIN_LEVEL, cellLevel));
+  }
+
+  /**
+   * Returns the size of the cells in Web Mercator meters, being the width of the squares or the edge length of the hexagons.
+   *
+   * @param clustering The clustering.
+   * @param level      The requested level.
+   * @return the size of the cells.
+   * @throws IllegalArgumentException If the clustering is not supported.
+   */
+  static double cellSize(@NotNull Clustering clustering, int level) {
+    if (clustering instanceof ClusteringQuadBin) {
+      return WORLD_IN_METER / (1L << quadbinLevel((ClusteringQuadBin) clustering, level));
+    }
+    if (clustering instanceof ClusteringHexBin) {
+      final ClusteringHexBin hexBin = (ClusteringHexBin) clustering;
+      final Integer absolute = hexBin.getAbsoluteResolution();
+      if (absolute != null) {
+        return H3_RES0_EDGE_LENGTH / Math.pow(Math.sqrt(7d), absolute);
+      }
+      final Integer relative = hexBin.getRelativeResolution();
+      final int hexLevel = validLevel(level) + HEXBIN_LEVEL_OFFSET + (relative != null ? relative : 0);
+      return WORLD_IN_METER / Math.pow(2d, Math.max(0, hexLevel));
+    }
+    throw new IllegalArgumentException("Unsupported clustering: " + clustering.getClass().getSimpleName());
+  }
+
+  /**
+   * Returns the path of the property to aggregate, relative to the feature root.
+   *
+   * @param clustering The clustering.
+   * @return the path, {@code null} if no property should be aggregated.
+   */
+  static @Nullable List<@NotNull String> aggregatedProperty(@NotNull Clustering clustering) {
+    if (!(clustering instanceof ClusteringHexBin) || ((ClusteringHexBin) clustering).property == null) {
+      return null;
+    }
+    final List<String> path = PostgresIndex.splitPath(((ClusteringHexBin) clustering).property);
+    if (XyzFeature.PROPERTIES.equals(path.get(0))) {
+      return path;
+    }
+    final List<String> full = new ArrayList<>(path.size() + 1);
+    full.add(XyzFeature.PROPERTIES);
+    full.addAll(path);
+    return full;
+  }
+
+  /**
+   * Adds the columns selected from the collections, the geometry and, if a property is aggregated, the numeric value of it.
+   *
+   * @param sql        The SQL builder.
+   * @param clustering The clustering.
+   */
+  static void addFeatureColumns(@NotNull SQL sql, @NotNull Clustering clustering) {
+    sql.add("SELECT geo");
+    final List<String> path = aggregatedProperty(clustering);
+    if (path != null) {
+      sql.add(", CASE WHEN jsonb_typeof(jsondata#>");
+      addPath(sql, path);
+      sql.add(") = 'number' THEN (jsondata#>>");
+      addPath(sql, path);
+      sql.add(")::double precision END AS v");
+    }
+  }
+
+  private static void addPath(@NotNull SQL sql, @NotNull List<@NotNull String> path) {
+    sql.add("ARRAY[");
+    for (int i = 0; i < path.size(); i++) {
+      if (i > 0) {
+        sql.add(',');
+      }
+      sql.addLiteral(path.get(i));
+    }
+    sql.add("]");
+  }
+
+  /**
+   * Adds the query that aggregates the given features into clusters, the query returns the same columns as the read queries.
+   *
+   * @param sql        The SQL builder.
+   * @param clustering The clustering.
+   * @param level      The requested level.
+   * @param features   The query selecting the features, using {@link #addFeatureColumns(SQL, Clustering)}.
+   * @param limit      The maximal amount of clusters to return, {@code null} if unlimited.
+   */
+  static void addClusterQuery(
+      @NotNull SQL sql,
+      @NotNull Clustering clustering,
+      int level,
+      @NotNull CharSequence features,
+      @Nullable Long limit) {
+    final boolean hex = clustering instanceof ClusteringHexBin;
+    final double size = cellSize(clustering, level);
+    final boolean aggregate = aggregatedProperty(clustering) != null;
+    final boolean singleCoord = hex && ((ClusteringHexBin) clustering).singleCoord;
+    final boolean pointMode = hex && ((ClusteringHexBin) clustering).pointMode;
+    final boolean noBuffer = !hex && ((ClusteringQuadBin) clustering).noBuffer;
+    final String origin = "ST_SetSRID(ST_MakePoint(0, 0), 3857)";
+
+    sql.add("SELECT 'READ', id, null, 'Feature', null, jsondata, ST_AsEWKB(geo), null FROM (SELECT id, ");
+    sql.add("jsonb_build_object('id', id, 'type', 'Feature', 'properties', jsonb_build_object('count', count");
+    if (hex) {
+      sql.add(", 'i', i, 'j', j");
+    } else {
+      sql.add(", 'z', z, 'x', x, 'y', y");
+    }
+    if (aggregate) {
+      sql.add(", 'min', min, 'max', max, 'avg', avg, 'sum', sum");
+    }
+    sql.add(")) AS jsondata, ST_Transform(");
+    if (pointMode) {
+      sql.add("ST_Centroid(");
+    } else if (!hex && !noBuffer) {
+      // A small gap between neighbour cells, so that they are distinguishable when rendered.
+      sql.add("ST_Buffer(");
+    }
+    sql.add(hex ? "ST_Hexagon(" : "ST_Square(").add(size).add(", i, j, ").add(origin).add(")");
+    if (pointMode) {
+      sql.add(")");
+    } else if (!hex && !noBuffer) {
+      sql.add(", ").add(-size / 1024d).add(", 'join=mitre')");
+    }
+    sql.add(", 4326) AS geo FROM (SELECT ");
+    if (hex) {
+      sql.add("'h' || cell.i || '_' || cell.j AS id");
+    } else {
+      final int cellLevel = quadbinLevel((ClusteringQuadBin) clustering, level);
+      final long half = 1L << (cellLevel - 1);
+      sql.add(cellLevel)
+          .add(" AS z, cell.i + ")
+          .add(half)
+          .add(" AS x, ")
+          .add(half - 1)
+          .add(" - cell.j AS y, ")
+          .add(cellLevel)
+          .add(" || '_' || (cell.i + ")
+          .add(half)
+          .add(") || '_' || (")
+          .add(half - 1)
+          .add(" - cell.j) AS id");
+    }
+    sql.add(", cell.i, cell.j, count(*) AS count");
+    if (aggregate) {
+      sql.add(", min(f.v) AS min, max(f.v) AS max, avg(f.v) AS avg, sum(f.v) AS sum");
+    }
+    sql.add(" FROM (").add(features).add(") f CROSS JOIN LATERAL (SELECT i, j FROM ");
+    sql.add(hex ? "ST_HexagonGrid(" : "ST_SquareGrid(").add(size).add(", ST_Transform(ST_ClipByBox2D(");
+    sql.add(singleCoord ? "ST_GeometryN(ST_Points(f.geo), 1)" : "ST_Centroid(f.geo)");
+    sql.add(", ST_MakeEnvelope(-180, ")
+        .add(-MAX_LATITUDE)
+        .add(", 180, ")
+        .add(MAX_LATITUDE)
+        .add(", 4326)), 3857)) LIMIT 1) cell GROUP BY cell.i, cell.j");
+    if (limit != null) {
+      sql.add(" LIMIT ").add(limit);
+    }
+    sql.add(") clusters) c");
+  }
+}
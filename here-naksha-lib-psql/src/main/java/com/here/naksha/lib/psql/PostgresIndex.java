@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import com.here.naksha.lib.core.models.indexing.Index;
+import com.here.naksha.lib.core.models.indexing.IndexProperty;
+import com.here.naksha.lib.core.models.indexing.IndexProperty.Nulls;
+import com.here.naksha.lib.core.models.indexing.IndexProperty.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Generates the SQL for user-defined property indices. The PostgresQL planner only uses an expression index, when the query contains
+ * exactly the same expression, therefore the {@link PostgresSession} uses {@link #addExpression(SQL, List, Type)} as well to generate the
+ * property queries.
+ */
+final class PostgresIndex {
+
+  private PostgresIndex() {}
+
+  /**
+   * The infix between the table name and the index name, used to distinguish user-defined indices from the ones that the storage creates.
+   */
+  static final String USER_INDEX_INFIX = "_u_";
+
+  /**
+   * The maximal length of identifiers in PostgresQL, longer names are silently truncated.
+   */
+  static final int MAX_IDENT_LENGTH = 63;
+
+  private static final Pattern VALID_NAME = Pattern.compile("[a-z0-9_]+");
+
+  /**
+   * Splits the JSON path of an index property into its parts, for example {@code properties.featureType} into {@code [properties,
+   * featureType]}. A leading {@code $.} is ignored.
+   *
+   * @param path The JSON path.
+   * @return the parts of the path.
+   * @throws IllegalArgumentException If the path is empty or contains empty parts.
+   */
+  static @NotNull List<@NotNull String> splitPath(@Nullable String path) {
+    if (path != null && path.startsWith("$.")) {
+      path = path.substring(2);
+    }
+    if (path == null || path.isEmpty()) {
+      throw new IllegalArgumentException("The path of an index property must not be empty");
+    }
+    final List<String> parts = Arrays.asList(path.split("\\.", -1));
+    for (final String part : parts) {
+      if (part.isEmpty()) {
+        throw new IllegalArgumentException("Invalid index property path: " + path);
+      }
+    }
+    return parts;
+  }
+
+  /**
+   * Adds the expression to read the property at the given path from the {@code jsondata} column, converted into the given type.
+   *
+   * <p>Strings are compared with the {@code "C"} collation, which is what the property queries did before user-defined indices existed:
+   * they generated {@code (jsondata->...->>'x') COLLATE "C"::text}, where the cast to {@code text} does not drop the explicit collation.
+   * Equality and {@code LIKE} with a prefix are therefore unchanged, and the ordering operators still compare byte-wise.
+   *
+   * @param sql  The SQL builder to add the expression to.
+   * @param path The path to the property.
+   * @param type The type of the property.
+   */
+  static void addExpression(@NotNull SQL sql, @NotNull List<@NotNull String> path, @NotNull Type type) {
+    final boolean text = type == Type.STRING;
+    sql.add("((jsondata");
+    final int last = path.size() - 1;
+    for (int i = 0; i <= last; i++) {
+      sql.add(i == last && text ? "->>" : "->");
+      sql.addLiteral(path.get(i));
+    }
+    sql.add(')');
+    switch (type) {
+      case STRING:
+        sql.add(" COLLATE \"C\"");
+        break;
+      case LONG:
+        sql.add("::int8");
+        break;
+      case DOUBLE:
+        sql.add("::double precision");
+        break;
+      case BOOLEAN:
+        sql.add("::bool");
+        break;
+      default:
+        break;
+    }
+    sql.add(')');
+  }
+
+  /**
+   * Returns the name of the given index for the given table.
+   *
+   * @param table The table name.
+   * @param index The index.
+   * @return the name of the index in the database.
+   * @throws IllegalArgumentException If the index name is invalid or the resulting name is too long.
+   */
+  static @NotNull String indexName(@NotNull String table, @NotNull Index index) {
+    if (index.name == null || !VALID_NAME.matcher(index.name).matches()) {
+      throw new IllegalArgumentException("Invalid index name: " + index.name);
+    }
+    final String name = table + USER_INDEX_INFIX + index.name;
+    if (name.length() > MAX_IDENT_LENGTH) {
+      throw new IllegalArgumentException("The index name " + name + " is longer than " + MAX_IDENT_LENGTH + " characters");
+    }
+    return name;
+  }
+
+  /**
+   * Returns the algorithm to use for the given index.
+   *
+   * @param index The index.
+   * @return the algorithm, being {@code btree}, {@code hash}, {@code brin}, {@code gin} or {@code gin_trigram}.
+   * @throws IllegalArgumentException If the algorithm is not supported.
+   */
+  static @NotNull String algorithm(@NotNull Index index) {
+    if (index.alg == null) {
+      for (final IndexProperty property : properties(index)) {
+        if (property.type != Type.JSON) {
+          return "btree";
+        }
+      }
+      return "gin";
+    }
+    final String alg = index.alg.toLowerCase();
+    switch (alg) {
+      case "btree":
+      case "hash":
+      case "brin":
+      case "gin":
+      case "gin_trigram":
+        return alg;
+      default:
+        throw new IllegalArgumentException("Unsupported index algorithm: " + index.alg);
+    }
+  }
+
+  private static @NotNull List<@NotNull IndexProperty> properties(@NotNull Index index) {
+    if (index.properties == null || index.properties.isEmpty()) {
+      throw new IllegalArgumentException("The index " + index.name + " has no properties");
+    }
+    return index.properties;
+  }
+
+  /**
+   * Generates the query to create the given index concurrently on the given table. Note that the query must not be executed in a
+   * transaction block.
+   *
+   * @param table The table to create the index on.
+   * @param index The index to create.
+   * @return the query.
+   * @throws IllegalArgumentException If the index definition is invalid.
+   */
+  static @NotNull String createIndex(@NotNull String table, @NotNull Index index) {
+    final String alg = algorithm(index);
+    final List<IndexProperty> properties = properties(index);
+    if ("hash".equals(alg) && properties.size() > 1) {
+      throw new IllegalArgumentException("Hash indices only support one property, index: " + index.name);
+    }
+    final SQL sql = new SQL();
+    sql.add("CREATE INDEX CONCURRENTLY IF NOT EXISTS ")
+        .addIdent(indexName(table, index))
+        .add(" ON ")
+        .addIdent(table)
+        .add(" USING ")
+        .add("gin_trigram".equals(alg) ? "gin" : alg)
+        .add(" (");
+    boolean first = true;
+    for (final IndexProperty property : properties) {
+      if (!first) {
+        sql.add(", ");
+      }
+      first = false;
+      final Type type = property.type != null ? property.type : Type.STRING;
+      addExpression(sql, splitPath(property.path), type);
+      if ("gin_trigram".equals(alg)) {
+        if (type != Type.STRING) {
+          throw new IllegalArgumentException("Trigram indices only support strings, index: " + index.name);
+        }
+        sql.add(" gin_trgm_ops");
+      } else if ("btree".equals(alg)) {
+        sql.add(property.asc ? " ASC" : " DESC");
+        if (property.nulls != null) {
+          sql.add(property.nulls == Nulls.FIRST ? " NULLS FIRST" : " NULLS LAST");
+        }
+      }
+    }
+    sql.add(")");
+    return sql.toString();
+  }
+
+  /**
+   * Returns the names of the tables of the given collection that should have the given index.
+   *
+   * @param headTables    The HEAD tables of the collection, including the deletion table.
+   * @param historyTables The history tables of the collection.
+   * @param index         The index.
+   * @return the tables that should have the index.
+   */
+  static @NotNull List<@NotNull String> tablesOf(
+      @NotNull List<@NotNull String> headTables, @NotNull List<@NotNull String> historyTables, @NotNull Index index) {
+    if (!index.indexHistory || historyTables.isEmpty()) {
+      return headTables;
+    }
+    final List<String> tables = new ArrayList<>(headTables.size() + historyTables.size());
+    tables.addAll(headTables);
+    tables.addAll(historyTables);
+    return tables;
+  }
+}
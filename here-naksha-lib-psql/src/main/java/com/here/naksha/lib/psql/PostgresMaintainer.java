@@ -0,0 +1,591 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
+import static java.util.Comparator.comparingDouble;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.here.naksha.lib.core.models.indexing.Index;
+import com.here.naksha.lib.core.models.naksha.XyzCollection;
+import com.here.naksha.lib.core.util.json.Json;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.postgresql.jdbc.PgConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The maintainer of a storage, executes background jobs that must not run within the transaction of a session, like creating and
+ * dropping user-defined indices concurrently, periodically clustering the HEAD tables by their {@code grid} and refreshing the cached
+ * statistics.
+ */
+final class PostgresMaintainer {
+
+  private static final Logger log = LoggerFactory.getLogger(PostgresMaintainer.class);
+
+  PostgresMaintainer(@NotNull PostgresStorage storage) {
+    this.storage = storage;
+  }
+
+  private final @NotNull PostgresStorage storage;
+
+  /**
+   * The collections for which the user-defined indices need to be synchronized.
+   */
+  private final @NotNull Set<@NotNull String> pendingIndices = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The thread executing the background jobs, {@code null} if the maintainer is not started.
+   */
+  private @Nullable ScheduledExecutorService executor;
+
+  /**
+   * Starts the background thread.
+   */
+  synchronized void start() {
+    if (executor == null) {
+      executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "naksha-psql-maintainer-" + storage.storageId);
+        thread.setDaemon(true);
+        return thread;
+      });
+      if (!pendingIndices.isEmpty()) {
+        executor.execute(this::syncIndicesNow);
+      }
+      final long clusterInterval = storage.getClusterInterval(MILLISECONDS);
+      if (clusterInterval > 0) {
+        executor.scheduleWithFixedDelay(this::clusterInBackground, clusterInterval, clusterInterval, MILLISECONDS);
+      }
+      executor.scheduleWithFixedDelay(
+          this::refreshStatisticsInBackground,
+          PostgresStatistics.REFRESH_INTERVAL,
+          PostgresStatistics.REFRESH_INTERVAL,
+          MILLISECONDS);
+    }
+  }
+
+  /**
+   * Stops the background thread, pending jobs are kept until the maintainer is started again or {@link #maintainNow()} is invoked. A
+   * running clustering is stopped after the current table.
+   */
+  synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  /**
+   * Schedules the synchronization of the user-defined indices of the given collections. If the maintainer is started, the indices are
+   * synchronized in the background, otherwise with the next invocation of {@link #maintainNow()}.
+   *
+   * @param collectionIds The identifiers of the created or modified collections.
+   */
+  void syncIndices(@NotNull Collection<@NotNull String> collectionIds) {
+    pendingIndices.addAll(collectionIds);
+    synchronized (this) {
+      if (executor != null) {
+        executor.execute(this::syncIndicesNow);
+      }
+    }
+  }
+
+  /**
+   * Serializes the maintenance runs, separate from the monitor of this object, so that scheduling does not wait for a running job.
+   */
+  private final @NotNull Object runLock = new Object();
+
+  /**
+   * Executes all pending jobs, if enabled, clusters the HEAD tables and refreshes the cached statistics; blocks until they are done.
+   */
+  void maintainNow() {
+    syncIndicesNow();
+    if (storage.getClusterInterval(MILLISECONDS) > 0) {
+      clusterNow();
+    }
+    refreshStatisticsNow();
+  }
+
+  private void syncIndicesNow() {
+    synchronized (runLock) {
+      if (!pendingIndices.isEmpty()) {
+        syncPendingIndices();
+      }
+    }
+  }
+
+  private void syncPendingIndices() {
+    final List<String> collectionIds = new ArrayList<>(pendingIndices);
+    pendingIndices.removeAll(collectionIds);
+    try (final PsqlConnection conn = storage.getConnection(true, false, true, null)) {
+      final PgConnection pgConnection = conn.postgresConnection.get();
+      // Concurrent index operations can't run in a transaction and may take longer than any session timeout.
+      final int networkTimeout = pgConnection.getNetworkTimeout();
+      pgConnection.setAutoCommit(true);
+      pgConnection.setNetworkTimeout(Runnable::run, 0);
+      try (final Statement stmt = pgConnection.createStatement()) {
+        stmt.execute("SET SESSION statement_timeout TO 0");
+        for (final String collectionId : collectionIds) {
+          try {
+            syncIndices(pgConnection, collectionId);
+          } catch (Exception e) {
+            log.atWarn()
+                .setMessage("Failed to synchronize the indices of collection {}")
+                .addArgument(collectionId)
+                .setCause(e)
+                .log();
+          }
+        }
+        stmt.execute("SET SESSION statement_timeout TO " + storage.getStatementTimeout(MILLISECONDS));
+      } finally {
+        pgConnection.setNetworkTimeout(Runnable::run, networkTimeout);
+        pgConnection.setAutoCommit(false);
+      }
+    } catch (Exception e) {
+      // Retry with the next maintenance run.
+      pendingIndices.addAll(collectionIds);
+      throw unchecked(e);
+    }
+  }
+
+  /**
+   * Creates the missing and drops the removed or invalid user-defined indices of the given collection.
+   *
+   * @param conn         The connection in auto-commit mode.
+   * @param collectionId The collection identifier.
+   * @throws Exception If any error occurred.
+   */
+  private void syncIndices(@NotNull PgConnection conn, @NotNull String collectionId) throws Exception {
+    final List<Index> indices = readIndices(conn, collectionId);
+    if (indices == null) {
+      // The collection does not exist (anymore).
+      return;
+    }
+    final List<String> headTables = new ArrayList<>(leafTables(conn, collectionId));
+    headTables.addAll(leafTables(conn, collectionId + "_del"));
+    final List<String> historyTables = leafTables(conn, collectionId + "_hst");
+
+    // table -> index name -> create query
+    final Map<String, Map<String, String>> wanted = new HashMap<>();
+    for (final String table : headTables) {
+      wanted.put(table, new HashMap<>());
+    }
+    for (final String table : historyTables) {
+      wanted.put(table, new HashMap<>());
+    }
+    for (final Index index : indices) {
+      for (final String table : PostgresIndex.tablesOf(headTables, historyTables, index)) {
+        wanted.get(table).put(PostgresIndex.indexName(table, index), PostgresIndex.createIndex(table, index));
+      }
+    }
+    for (final Entry<String, Map<String, String>> entry : wanted.entrySet()) {
+      final String table = entry.getKey();
+      final Map<String, String> create = entry.getValue();
+      final Map<String, Boolean> existing = userIndices(conn, table);
+      try (final Statement stmt = conn.createStatement()) {
+        for (final Entry<String, Boolean> index : existing.entrySet()) {
+          final String indexName = index.getKey();
+          // Invalid indices are left behind by failed concurrent builds, they are rebuilt.
+          if (!create.containsKey(indexName) || !index.getValue()) {
+            log.atInfo()
+                .setMessage("Drop index {}")
+                .addArgument(indexName)
+                .log();
+            stmt.execute("DROP INDEX CONCURRENTLY IF EXISTS " + SQL.quote_ident(indexName));
+          }
+        }
+        for (final Entry<String, String> index : create.entrySet()) {
+          if (!Boolean.TRUE.equals(existing.get(index.getKey()))) {
+            log.atInfo()
+                .setMessage("Create index {}")
+                .addArgument(index.getKey())
+                .log();
+            stmt.execute(index.getValue());
+          }
+        }
+      }
+    }
+  }
+
+  private static @Nullable List<@NotNull Index> readIndices(@NotNull PgConnection conn, @NotNull String collectionId)
+      throws Exception {
+    final String json;
+    try (final PreparedStatement stmt = conn.prepareStatement("SELECT naksha_collection_get(?)::text;")) {
+      stmt.setString(1, collectionId);
+      final ResultSet rs = stmt.executeQuery();
+      json = rs.next() ? rs.getString(1) : null;
+    }
+    if (json == null) {
+      return null;
+    }
+    try (final Json jp = Json.get()) {
+      final JsonNode indices = jp.reader().readTree(json).get(XyzCollection.INDICES);
+      if (indices == null || !indices.isArray()) {
+        return new ArrayList<>();
+      }
+      final List<Index> result = new ArrayList<>(indices.size());
+      for (final JsonNode index : indices) {
+        result.add(jp.reader().treeToValue(index, Index.class));
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Returns the given table, if it is a regular table, or all its partitions, when it is a partitioned table.
+   */
+  private static @NotNull List<@NotNull String> leafTables(@NotNull PgConnection conn, @NotNull String table)
+      throws SQLException {
+    final List<String> tables = new ArrayList<>();
+    try (final PreparedStatement stmt = conn.prepareStatement(
+        "SELECT c.relname FROM pg_class c WHERE c.oid = to_regclass(quote_ident(?)) AND c.relkind = 'r'\n"
+            + "UNION ALL\n"
+            + "SELECT c.relname FROM pg_partition_tree(to_regclass(quote_ident(?))) t\n"
+            + "JOIN pg_class c ON c.oid = t.relid WHERE t.isleaf AND t.level > 0;")) {
+      stmt.setString(1, table);
+      stmt.setString(2, table);
+      final ResultSet rs = stmt.executeQuery();
+      while (rs.next()) {
+        tables.add(rs.getString(1));
+      }
+    }
+    return tables;
+  }
+
+  /**
+   * Returns the user-defined indices of the given table, mapped to whether they are valid.
+   */
+  private static @NotNull Map<@NotNull String, @NotNull Boolean> userIndices(
+      @NotNull PgConnection conn, @NotNull String table) throws SQLException {
+    final Map<String, Boolean> indices = new HashMap<>();
+    try (final PreparedStatement stmt = conn.prepareStatement(
+        "SELECT c.relname, i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid\n"
+            + "WHERE i.indrelid = to_regclass(quote_ident(?)) AND starts_with(c.relname, ?);")) {
+      stmt.setString(1, table);
+      stmt.setString(2, table + PostgresIndex.USER_INDEX_INFIX);
+      final ResultSet rs = stmt.executeQuery();
+      while (rs.next()) {
+        indices.put(rs.getString(1), rs.getBoolean(2));
+      }
+    }
+    return indices;
+  }
+
+  private void refreshStatisticsInBackground() {
+    try {
+      refreshStatisticsNow();
+    } catch (Exception e) {
+      // Must not throw, otherwise no further runs are scheduled.
+      log.atWarn()
+          .setMessage("Failed to refresh the statistics of storage {}")
+          .addArgument(storage.storageId)
+          .setCause(e)
+          .log();
+    }
+  }
+
+  /**
+   * Reads the cached statistics, that are older than {@link PostgresStatistics#REFRESH_INTERVAL}, again, so that requests are served from
+   * the cache, and drops the ones that were not requested within {@link PostgresStatistics#MAX_IDLE}.
+   */
+  void refreshStatisticsNow() {
+    final long now = System.currentTimeMillis();
+    final List<String> collectionIds = new ArrayList<>();
+    for (final Entry<String, PostgresStatistics> entry : storage.statistics.entrySet()) {
+      final PostgresStatistics statistics = entry.getValue();
+      if (now - statistics.lastAccess > PostgresStatistics.MAX_IDLE) {
+        storage.statistics.remove(entry.getKey(), statistics);
+      } else if (now - statistics.createdAt >= PostgresStatistics.REFRESH_INTERVAL) {
+        collectionIds.add(entry.getKey());
+      }
+    }
+    if (collectionIds.isEmpty()) {
+      return;
+    }
+    try (final PsqlConnection conn = storage.getConnection(true, false, true, null)) {
+      try {
+        for (final String collectionId : collectionIds) {
+          final PostgresStatistics old = storage.statistics.get(collectionId);
+          final PostgresStatistics statistics = PostgresStatistics.read(conn, collectionId);
+          if (old == null) {
+            continue;
+          }
+          if (statistics == null) {
+            storage.statistics.remove(collectionId, old);
+          } else {
+            statistics.lastAccess = old.lastAccess;
+            storage.statistics.replace(collectionId, old, statistics);
+          }
+        }
+      } finally {
+        conn.rollback();
+      }
+    } catch (Exception e) {
+      throw unchecked(e);
+    }
+  }
+
+  /**
+   * Tables with a correlation between the physical row order and the {@code grid} above this value are not clustered.
+   */
+  static final double MIN_GRID_CORRELATION = 0.9d;
+
+  /**
+   * The maximal size of a table to be clustered in bytes; clustering holds an exclusive lock on the table while rewriting it, so larger
+   * tables should be partitioned.
+   */
+  static final long MAX_CLUSTER_SIZE = 1024L * 1024L * 1024L;
+
+  /**
+   * The time to wait for the exclusive lock of a table, tables that are in use longer are skipped until the next run.
+   */
+  static final String CLUSTER_LOCK_TIMEOUT = "1s";
+
+  /**
+   * The time in milliseconds in which a table must neither be read nor modified, before it is clustered. Clustering holds an ACCESS
+   * EXCLUSIVE lock, which blocks even readers, so only tables that are idle are clustered, others are retried with the next run. The
+   * statistics collector reports the activity with a delay of up to a second, so this must be well above that.
+   */
+  static final long CLUSTER_IDLE_MILLIS = 10_000L;
+
+  /**
+   * The SQL state raised when the lock timeout is exceeded.
+   */
+  private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+  private void clusterInBackground() {
+    try {
+      clusterNow();
+    } catch (Exception e) {
+      // Must not throw, otherwise no further runs are scheduled.
+      log.atWarn()
+          .setMessage("Failed to cluster the tables of storage {}")
+          .addArgument(storage.storageId)
+          .setCause(e)
+          .log();
+    }
+  }
+
+  /**
+   * Clusters the HEAD tables (or their partitions) of all collections by their {@code grid}, when the physical row order does not match
+   * the {@code grid} anymore, so that spatial reads touch fewer pages. The tables are clustered one by one, after each table the
+   * maintainer pauses as long as the clustering took, to limit the load. Tables that were read or modified within
+   * {@link #CLUSTER_IDLE_MILLIS} are skipped until the next run.
+   */
+  void clusterNow() {
+    synchronized (runLock) {
+      try (final PsqlConnection conn = storage.getConnection(true, false, true, null)) {
+        final PgConnection pgConnection = conn.postgresConnection.get();
+        final int networkTimeout = pgConnection.getNetworkTimeout();
+        pgConnection.setAutoCommit(true);
+        pgConnection.setNetworkTimeout(Runnable::run, 0);
+        try (final Statement stmt = pgConnection.createStatement()) {
+          stmt.execute("SET SESSION statement_timeout TO 0");
+          stmt.execute("SET SESSION lock_timeout TO '" + CLUSTER_LOCK_TIMEOUT + "'");
+          try {
+            clusterTables(pgConnection, stmt);
+          } finally {
+            stmt.execute("SET SESSION lock_timeout TO DEFAULT");
+            stmt.execute("SET SESSION statement_timeout TO " + storage.getStatementTimeout(MILLISECONDS));
+          }
+        } finally {
+          pgConnection.setNetworkTimeout(Runnable::run, networkTimeout);
+          pgConnection.setAutoCommit(false);
+        }
+      } catch (Exception e) {
+        throw unchecked(e);
+      }
+    }
+  }
+
+  private void clusterTables(@NotNull PgConnection conn, @NotNull Statement stmt) throws Exception {
+    final List<ClusterCandidate> candidates = new ArrayList<>();
+    for (final String collectionId : collectionIds(conn)) {
+      for (final String table : leafTables(conn, collectionId)) {
+        final ClusterCandidate candidate = clusterCandidate(conn, table);
+        if (candidate != null) {
+          candidates.add(candidate);
+        }
+      }
+    }
+    candidates.sort(comparingDouble(candidate -> candidate.correlation));
+    final int total = candidates.size();
+    int done = 0;
+    for (final ClusterCandidate candidate : candidates) {
+      if (Thread.currentThread().isInterrupted()) {
+        log.atInfo()
+            .setMessage("Clustering stopped after {} of {} tables")
+            .addArgument(done)
+            .addArgument(total)
+            .log();
+        return;
+      }
+      final long idleFor = System.currentTimeMillis() - candidate.activityAt;
+      if (idleFor < CLUSTER_IDLE_MILLIS) {
+        try {
+          Thread.sleep(CLUSTER_IDLE_MILLIS - idleFor);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          continue;
+        }
+      }
+      if (activity(conn, candidate.table) != candidate.activity) {
+        done++;
+        log.atInfo()
+            .setMessage("Table {} is in use, retry clustering with the next run")
+            .addArgument(candidate.table)
+            .log();
+        continue;
+      }
+      final long start = System.currentTimeMillis();
+      try {
+        stmt.execute("CLUSTER " + SQL.quote_ident(candidate.table) + " USING " + SQL.quote_ident(candidate.index));
+        stmt.execute("ANALYZE " + SQL.quote_ident(candidate.table));
+      } catch (SQLException e) {
+        if (!LOCK_NOT_AVAILABLE.equals(e.getSQLState())) {
+          throw e;
+        }
+        log.atInfo()
+            .setMessage("Table {} is in use, retry clustering with the next run")
+            .addArgument(candidate.table)
+            .log();
+        continue;
+      } finally {
+        done++;
+      }
+      final long took = System.currentTimeMillis() - start;
+      log.atInfo()
+          .setMessage("Clustered table {} by grid ({}/{}), {} bytes in {}ms, correlation was {}")
+          .addArgument(candidate.table)
+          .addArgument(done)
+          .addArgument(total)
+          .addArgument(candidate.size)
+          .addArgument(took)
+          .addArgument(candidate.correlation)
+          .log();
+      try {
+        Thread.sleep(took);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Returns the amount of scans and of modified rows of the given table, as reported by the statistics collector; {@code -1} if there are
+   * no statistics for the table.
+   */
+  private static long activity(@NotNull PgConnection conn, @NotNull String table) throws SQLException {
+    try (final PreparedStatement stmt = conn.prepareStatement(
+        "SELECT coalesce(seq_scan, 0) + coalesce(idx_scan, 0) + n_tup_ins + n_tup_upd + n_tup_del\n"
+            + "FROM pg_stat_user_tables WHERE relid = to_regclass(quote_ident(?));")) {
+      stmt.setString(1, table);
+      final ResultSet rs = stmt.executeQuery();
+      return rs.next() ? rs.getLong(1) : -1L;
+    }
+  }
+
+  private static @NotNull List<@NotNull String> collectionIds(@NotNull PgConnection conn) throws SQLException {
+    final List<String> collectionIds = new ArrayList<>();
+    try (final Statement stmt = conn.createStatement()) {
+      final ResultSet rs = stmt.executeQuery("SELECT id FROM naksha_collection_get_all();");
+      while (rs.next()) {
+        collectionIds.add(rs.getString(1));
+      }
+    }
+    return collectionIds;
+  }
+
+  /**
+   * A table that should be clustered by its {@code grid} index.
+   */
+  private static final class ClusterCandidate {
+
+    ClusterCandidate(
+        @NotNull String table, @NotNull String index, long size, double correlation, long activity, long activityAt) {
+      this.table = table;
+      this.index = index;
+      this.size = size;
+      this.correlation = correlation;
+      this.activity = activity;
+      this.activityAt = activityAt;
+    }
+
+    final @NotNull String table;
+    final @NotNull String index;
+    final long size;
+    final double correlation;
+
+    /**
+     * The activity of the table when it was selected, see {@link PostgresMaintainer#activity(PgConnection, String)}.
+     */
+    final long activity;
+
+    /**
+     * The epoch milliseconds when the activity was read.
+     */
+    final long activityAt;
+  }
+
+  /**
+   * Returns the given table, if it has a {@code grid} index, is not too big and the statistics show that its physical row order does not
+   * match the {@code grid} order. Tables without statistics are skipped until they are analyzed.
+   */
+  private @Nullable ClusterCandidate clusterCandidate(@NotNull PgConnection conn, @NotNull String table)
+      throws SQLException {
+    try (final PreparedStatement stmt = conn.prepareStatement(
+        "SELECT i.relname, pg_relation_size(t.oid), abs(s.correlation) FROM pg_class t\n"
+            + "JOIN pg_index x ON x.indrelid = t.oid\n"
+            + "JOIN pg_class i ON i.oid = x.indexrelid AND i.relname = ?\n"
+            + "JOIN pg_attribute a ON a.attrelid = i.oid AND a.attnum = 1\n"
+            + "JOIN pg_stats s ON s.schemaname = ? AND s.tablename = i.relname AND s.attname = a.attname\n"
+            + "WHERE t.oid = to_regclass(quote_ident(?));")) {
+      stmt.setString(1, table + "_grid_idx");
+      stmt.setString(2, storage.getSchema());
+      stmt.setString(3, table);
+      final ResultSet rs = stmt.executeQuery();
+      if (!rs.next()) {
+        return null;
+      }
+      final long size = rs.getLong(2);
+      final double correlation = rs.getDouble(3);
+      if (rs.wasNull() || size == 0 || size > MAX_CLUSTER_SIZE || correlation > MIN_GRID_CORRELATION) {
+        return null;
+      }
+      final String index = rs.getString(1);
+      return new ClusterCandidate(table, index, size, correlation, activity(conn, table), System.currentTimeMillis());
+    }
+  }
+}
@@ -27,9 +27,17 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.exceptions.StorageLockException;
 import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzProperties;
+import com.here.naksha.lib.core.models.indexing.IndexProperty.Type;
+import com.here.naksha.lib.core.models.payload.events.clustering.Clustering;
+import com.here.naksha.lib.core.models.payload.events.tweaks.Tweaks;
+import com.here.naksha.lib.core.models.storage.BinaryResult;
+import com.here.naksha.lib.core.models.storage.EWriteOp;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
 import com.here.naksha.lib.core.models.storage.FeatureCodec;
+import com.here.naksha.lib.core.models.storage.HeapCacheCursor;
 import com.here.naksha.lib.core.models.storage.Notification;
 import com.here.naksha.lib.core.models.storage.OpType;
 import com.here.naksha.lib.core.models.storage.POp;
@@ -37,9 +45,11 @@ import com.here.naksha.lib.core.models.storage.POpType;
 import com.here.naksha.lib.core.models.storage.PRef;
 import com.here.naksha.lib.core.models.storage.ReadFeatures;
 import com.here.naksha.lib.core.models.storage.ReadRequest;
+import com.here.naksha.lib.core.models.storage.ReadStatistics;
 import com.here.naksha.lib.core.models.storage.Result;
 import com.here.naksha.lib.core.models.storage.SOp;
 import com.here.naksha.lib.core.models.storage.SOpType;
+import com.here.naksha.lib.core.models.storage.StatisticsResult;
 import com.here.naksha.lib.core.models.storage.WriteCollections;
 import com.here.naksha.lib.core.models.storage.WriteFeatures;
 import com.here.naksha.lib.core.models.storage.WriteRequest;
@@ -55,12 +65,17 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.postgresql.util.PGobject;
 import org.slf4j.Logger;
@@ -88,6 +103,7 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     this.readOnly = psqlConnection.postgresConnection.parent().config.readOnly;
     this.sql = new SQL();
     this.fetchSize = storage.getFetchSize();
+    this.partitionWriters = storage.getPartitionWriters();
     this.stmtTimeoutMillis = storage.getLockTimeout(MILLISECONDS);
     this.lockTimeoutMillis = storage.getLockTimeout(MILLISECONDS);
   }
@@ -98,6 +114,14 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
   final @NotNull NakshaContext context;
 
   int fetchSize;
+
+  /**
+   * If large results should be decoded in parallel, see {@link PsqlCursor}. Disabled by default, because it decodes every feature, which
+   * defeats writing the raw JSON of features that are not modified.
+   */
+  boolean parallelDecode;
+
+  int partitionWriters;
   long stmtTimeoutMillis;
   long lockTimeoutMillis;
 
@@ -107,6 +131,7 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
 
   @Override
   protected void destruct() {
+    closePartitionSessions();
     try {
       psqlConnection.close();
     } catch (Exception e) {
@@ -128,6 +153,25 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     this.fetchSize = size;
   }
 
+  boolean isParallelDecode() {
+    return parallelDecode;
+  }
+
+  void setParallelDecode(boolean parallelDecode) {
+    this.parallelDecode = parallelDecode;
+  }
+
+  int getPartitionWriters() {
+    return partitionWriters;
+  }
+
+  void setPartitionWriters(int partitionWriters) {
+    if (partitionWriters < 1) {
+      throw new IllegalArgumentException("The partitionWriters must be greater than zero");
+    }
+    this.partitionWriters = partitionWriters;
+  }
+
   long getStatementTimeout(@NotNull TimeUnit timeUnit) {
     return timeUnit.convert(stmtTimeoutMillis, MILLISECONDS);
   }
@@ -192,16 +236,112 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
 
   void commit(boolean autoCloseCursors) throws SQLException {
     // TODO: Apply autoCloseCursors
-    psqlConnection.commit();
+    final List<PsqlWriteSession> partitionSessions = this.partitionSessions;
+    if (partitionSessions != null && partitionsWritten) {
+      commitPrepared(partitionSessions);
+    } else {
+      if (partitionSessions != null) {
+        for (final PsqlWriteSession partitionSession : partitionSessions) {
+          partitionSession.commit(autoCloseCursors);
+        }
+      }
+      psqlConnection.commit();
+    }
+    if (!modifiedCollections.isEmpty()) {
+      // The user-defined indices can only be created concurrently after the collections are committed.
+      parent().maintainer.syncIndices(modifiedCollections);
+      modifiedCollections.clear();
+    }
   }
 
   void rollback(boolean autoCloseCursors) throws SQLException {
     // TODO: Apply autoCloseCursors
+    partitionsWritten = false;
+    final List<PsqlWriteSession> partitionSessions = this.partitionSessions;
+    if (partitionSessions != null) {
+      for (final PsqlWriteSession partitionSession : partitionSessions) {
+        partitionSession.rollback(autoCloseCursors);
+      }
+    }
     psqlConnection.rollback();
+    modifiedCollections.clear();
+  }
+
+  /**
+   * Commits this session and the partition sessions all-or-nothing using a two-phase commit. First all transactions are prepared, if
+   * any preparation fails, all of them are rolled back. Only when all are prepared, they are committed.
+   *
+   * @param partitionSessions The partition sessions that took part in the transaction.
+   * @throws SQLException If preparing or committing failed.
+   */
+  private void commitPrepared(@NotNull List<@NotNull PsqlWriteSession> partitionSessions) throws SQLException {
+    partitionsWritten = false;
+    final List<PostgresSession> sessions = new ArrayList<>(partitionSessions.size() + 1);
+    sessions.add(this);
+    for (final PsqlWriteSession partitionSession : partitionSessions) {
+      sessions.add(partitionSession.session());
+    }
+    final String gidPrefix = "naksha_" + UUID.randomUUID() + "_";
+    final List<String> prepared = new ArrayList<>(sessions.size());
+    try {
+      for (int i = 0; i < sessions.size(); i++) {
+        final String gid = gidPrefix + i;
+        sessions.get(i).executeStatement("PREPARE TRANSACTION '" + gid + "';");
+        prepared.add(gid);
+      }
+    } catch (SQLException e) {
+      for (int i = prepared.size(); i < sessions.size(); i++) {
+        try {
+          sessions.get(i).psqlConnection.rollback();
+        } catch (SQLException ignore) {
+        }
+      }
+      finishPrepared("ROLLBACK PREPARED", prepared);
+      throw e;
+    }
+    finishPrepared("COMMIT PREPARED", prepared);
+  }
+
+  /**
+   * Finishes prepared transactions, must be executed outside of a transaction block, therefore auto-commit is enabled temporarily.
+   *
+   * @param command  Either {@code COMMIT PREPARED} or {@code ROLLBACK PREPARED}.
+   * @param prepared The global identifiers of the prepared transactions.
+   * @throws SQLException If finishing any of the transactions failed.
+   */
+  private void finishPrepared(@NotNull String command, @NotNull List<@NotNull String> prepared) throws SQLException {
+    if (prepared.isEmpty()) {
+      return;
+    }
+    SQLException failure = null;
+    psqlConnection.setAutoCommit(true);
+    try {
+      for (final String gid : prepared) {
+        try {
+          executeStatement(command + " '" + gid + "';");
+        } catch (SQLException e) {
+          log.atError()
+              .setMessage("Failed to execute {} for {}, the transaction must be finished manually")
+              .addArgument(command)
+              .addArgument(gid)
+              .setCause(e)
+              .log();
+          if (failure == null) {
+            failure = e;
+          }
+        }
+      }
+    } finally {
+      psqlConnection.setAutoCommit(false);
+    }
+    if (failure != null) {
+      throw failure;
+    }
   }
 
   void close(boolean autoCloseCursors) {
     // TODO: Apply autoCloseCursors
+    closePartitionSessions();
     psqlConnection.close();
   }
 
@@ -244,22 +384,68 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
         addSpatialQuery(sql, child, wkbs);
       }
       sql.add(")");
-    } else if (SOpType.INTERSECTS == op) {
+    } else if (SOpType.INTERSECTS == op || SOpType.CONTAINS == op || SOpType.WITHIN == op) {
       final Geometry geometry = spatialOp.getGeometry();
       if (geometry == null) {
         throw new IllegalArgumentException("Missing geometry");
       }
       SQL variableTransformed = addTransformation(spatialOp.getTransformation(), "ST_Force3D(?)");
-      sql.add(" ST_Intersects(geo, ").add(variableTransformed).add(")");
+      if (SOpType.INTERSECTS == op) {
+        sql.add(" ST_Intersects(geo, ");
+      } else if (SOpType.CONTAINS == op) {
+        sql.add(" ST_Contains(geo, ");
+      } else {
+        sql.add(" ST_Within(geo, ");
+      }
+      sql.add(variableTransformed).add(")");
+      try (final Json jp = Json.get()) {
+        final byte[] wkb = jp.wkbWriter.write(geometry);
+        wkbs.add(wkb);
+      }
+    } else if (SOpType.DWITHIN == op) {
+      final Geometry geometry = spatialOp.getGeometry();
+      if (geometry == null) {
+        throw new IllegalArgumentException("Missing geometry");
+      }
+      addDWithin(sql, geometry, spatialOp.getDistance());
       try (final Json jp = Json.get()) {
         final byte[] wkb = jp.wkbWriter.write(geometry);
         wkbs.add(wkb);
+        wkbs.add(wkb);
       }
     } else {
       throw new IllegalArgumentException("Unknown operation: " + op);
     }
   }
 
+  /**
+   * The minimal length of one degree of latitude in meters, on the WGS84 spheroid.
+   */
+  private static final double MIN_METERS_PER_DEGREE = 110_574d;
+
+  /**
+   * Adds the distance test in meters on the spheroid. As the spatial index is on the geometry and not on the geography, the distance test
+   * is preceded by a bounding box test, using a box that is expanded by at least the distance, so the index can be used.
+   *
+   * @param sql      The SQL builder.
+   * @param geometry The geometry to which the distance is measured, bound twice.
+   * @param meters   The distance in meters.
+   */
+  static void addDWithin(@NotNull SQL sql, @NotNull Geometry geometry, double meters) {
+    final Envelope envelope = geometry.getEnvelopeInternal();
+    // Add 1% for the numeric difference between the spheroid and our approximation.
+    final double dy = meters * 1.01d / MIN_METERS_PER_DEGREE;
+    final double maxLat = Math.max(Math.abs(envelope.getMinY()), Math.abs(envelope.getMaxY())) + dy;
+    final double dx = maxLat >= 89d ? 360d : dy / Math.cos(Math.toRadians(maxLat));
+    sql.add(" (geo && ST_Expand(ST_Envelope(?::geometry), ")
+        .add(dx)
+        .add(", ")
+        .add(dy)
+        .add(") AND ST_DWithin(geo::geography, ?::geography, ")
+        .add(meters)
+        .add("))");
+  }
+
   private static void addJsonPath(
       @NotNull SQL sql, @NotNull List<@NotNull String> path, int end, boolean text, boolean nullif) {
     if (nullif) {
@@ -299,33 +485,34 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     if (opString == null) {
       throw new IllegalArgumentException("Operation not supported: " + op);
     }
+    // The expressions must match the ones of user-defined indices, see PostgresIndex.
     if (op == POpType.CONTAINS) {
-      addJsonPath(sql, path, path.size(), false, false);
+      PostgresIndex.addExpression(sql, path, Type.JSON);
       sql.add(" ").add(opString).add(" ?::jsonb");
       parameter.add(toJsonb(value));
     } else if (value instanceof CharSequence) {
-      addJsonPath(sql, path, path.size(), true, false);
-      sql.add("::text ").add(opString).add(" ?");
-      parameter.add(value);
+      PostgresIndex.addExpression(sql, path, Type.STRING);
+      sql.add(" ").add(opString).add(" ?");
+      parameter.add(value.toString());
     } else if (value instanceof Double) {
-      addJsonPath(sql, path, path.size(), false, false);
-      sql.add("::double precision ").add(opString).add(" ?");
+      PostgresIndex.addExpression(sql, path, Type.DOUBLE);
+      sql.add(" ").add(opString).add(" ?");
       parameter.add(value);
     } else if (value instanceof Float) {
-      addJsonPath(sql, path, path.size(), false, false);
-      sql.add("::double precision ").add(opString).add(" ?");
+      PostgresIndex.addExpression(sql, path, Type.DOUBLE);
+      sql.add(" ").add(opString).add(" ?");
       parameter.add(((Number) value).doubleValue());
     } else if (value instanceof Long) {
-      addJsonPath(sql, path, path.size(), false, false);
-      sql.add("::int8 ").add(opString).add(" ?");
+      PostgresIndex.addExpression(sql, path, Type.LONG);
+      sql.add(" ").add(opString).add(" ?");
       parameter.add(value);
     } else if (value instanceof Number) {
-      addJsonPath(sql, path, path.size(), false, false);
-      sql.add("::int8 ").add(opString).add(" ?");
+      PostgresIndex.addExpression(sql, path, Type.LONG);
+      sql.add(" ").add(opString).add(" ?");
       parameter.add(((Number) value).longValue());
     } else if (value instanceof Boolean) {
-      addJsonPath(sql, path, path.size(), false, false);
-      sql.add("::bool ").add(opString).add(" ?");
+      PostgresIndex.addExpression(sql, path, Type.BOOLEAN);
+      sql.add(" ").add(opString).add(" ?");
       parameter.add(value);
     } else {
       throw new IllegalArgumentException(
@@ -333,7 +520,7 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     }
   }
 
-  private static void addPropertyQuery(@NotNull SQL sql, @NotNull POp propertyOp, @NotNull List<Object> parameter) {
+  static void addPropertyQuery(@NotNull SQL sql, @NotNull POp propertyOp, @NotNull List<Object> parameter) {
     final OpType op = propertyOp.op();
     if (POpType.AND == op || POpType.OR == op || POpType.NOT == op) {
       final List<@NotNull POp> children = propertyOp.children();
@@ -375,6 +562,10 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
       parameter.add(pref.getTagName());
       return;
     }
+    if (op == POpType.IN) {
+      addInQuery(sql, path, propertyOp.getValue(), parameter);
+      return;
+    }
     if (op == POpType.EXISTS) {
       addJsonPath(sql, path, path.size() - 1, false, false);
       sql.add(" ?? ?");
@@ -395,7 +586,7 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     if (op == POpType.STARTS_WITH) {
       if (value instanceof String) {
         String text = (String) value;
-        addJsonPath(sql, path, path.size(), true, false);
+        PostgresIndex.addExpression(sql, path, Type.STRING);
         sql.add(" LIKE ?");
         parameter.add(text + '%');
         return;
@@ -405,6 +596,32 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     addOp(sql, parameter, path, op, value);
   }
 
+  /**
+   * Adds the IN operation, the values are bound as one array parameter, so that the query does not grow with the amount of values and the
+   * planner can use an index on the property.
+   */
+  private static void addInQuery(
+      @NotNull SQL sql, @NotNull List<@NotNull String> path, @Nullable Object value, @NotNull List<Object> parameter) {
+    if (value instanceof String[]) {
+      if (Arrays.asList(PRef.TAGS_PROP_PATH).equals(path)) {
+        addJsonPath(sql, path, path.size(), false, false);
+        sql.add(" ??| ?");
+      } else {
+        PostgresIndex.addExpression(sql, path, Type.STRING);
+        sql.add(" = ANY(?)");
+      }
+      parameter.add(value);
+      return;
+    }
+    if (value instanceof Long[]) {
+      PostgresIndex.addExpression(sql, path, Type.LONG);
+      sql.add(" = ANY(?)");
+      parameter.add(value);
+      return;
+    }
+    throw new IllegalArgumentException("IN operator requires an array of strings or integers as value");
+  }
+
   private static PGobject toJsonb(Object value) {
     try (final Json jp = Json.get()) {
       final PGobject jsonb = new PGobject();
@@ -422,7 +639,8 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     }
   }
 
-  private SQL prepareQuery(String collection, String spatial_where, String props_where, Long limit) {
+  private SQL prepareQuery(
+      String collection, String spatial_where, String props_where, Long limit, boolean clip, String geometry) {
     final SQL query = new SQL();
     // r_op text, r_id text, r_uuid text, r_type text, r_ptype text, r_feature jsonb, r_geometry geometry,
     // r_err jsonb
@@ -431,7 +649,9 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
             + "naksha_feature_type(jsondata),\n"
             + "naksha_feature_ptype(jsondata),\n"
             + "jsondata,\n"
-            + "ST_AsEWKB(geo),\n"
+            + (clip
+                ? "ST_AsEWKB(ST_Intersection(ST_MakeValid(" + geometry + ", 'method=structure'), ?::geometry)),\n"
+                : "ST_AsEWKB(" + geometry + "),\n")
             + "null FROM ")
         .addIdent(collection);
     if (spatial_where.length() > 0 || props_where.length() > 0) {
@@ -455,12 +675,16 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
 
   private int fillStatementWithParams(
       @NotNull PreparedStatement stmt,
+      byte @Nullable [] clipWkb,
       @NotNull List<byte[]> wkbs,
       @NotNull List<Object> parameters,
       int repeatCount)
       throws SQLException {
     int i = 1;
     for (int repetition = 1; repetition <= repeatCount; repetition++) {
+      if (clipWkb != null) {
+        stmt.setBytes(i++, clipWkb);
+      }
       for (final byte[] wkb : wkbs) {
         stmt.setBytes(i++, wkb);
       }
@@ -483,6 +707,10 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
           stmt.setShort(i++, (Short) value);
         } else if (value instanceof Boolean) {
           stmt.setBoolean(i++, (Boolean) value);
+        } else if (value instanceof String[]) {
+          stmt.setArray(i++, stmt.getConnection().createArrayOf("text", (String[]) value));
+        } else if (value instanceof Long[]) {
+          stmt.setArray(i++, stmt.getConnection().createArrayOf("int8", (Long[]) value));
         } else {
           throw new IllegalArgumentException("Invalid value at index " + i + ": " + value);
         }
@@ -513,8 +741,40 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
       if (propertyOp != null) {
         addPropertyQuery(sql, propertyOp, parameters);
       }
-      final String props_where = sql.toString();
+      String props_where = sql.toString();
       sql.setLength(0);
+      if (readFeatures.getClustering() != null) {
+        return executeReadClustered(readFeatures, spatial_where, props_where, wkbs, parameters);
+      }
+      Long limit = readFeatures.getLimit();
+      String geometry = "geo";
+      final Tweaks tweaks = readFeatures.getTweaks();
+      if (tweaks != null) {
+        final String sampling = PostgresTweaks.samplingCondition(tweaks);
+        if (sampling != null) {
+          props_where = props_where.length() > 0 ? props_where + " AND" + sampling : sampling;
+        }
+        limit = PostgresTweaks.limit(tweaks, limit);
+        try {
+          geometry = PostgresTweaks.geometry(tweaks, readFeatures.getTweaksLevel());
+        } catch (IllegalArgumentException e) {
+          return new ErrorResult(XyzError.NOT_IMPLEMENTED, e.getMessage());
+        }
+      }
+      if (readFeatures.getMvtTile() != null) {
+        return executeReadMvt(readFeatures, spatial_where, props_where, wkbs, parameters, limit, geometry);
+      }
+      // The geometries are clipped in the database, so only the clipped geometries are transferred.
+      final Geometry clipGeometry = readFeatures.getClipGeometry();
+      final byte[] clipWkb;
+      if (clipGeometry != null) {
+        try (final Json jp = Json.get()) {
+          clipWkb = jp.wkbWriter.write(clipGeometry);
+        }
+      } else {
+        clipWkb = null;
+      }
+      final boolean clip = clipWkb != null;
       boolean first = true;
       for (final String collection : collections) {
         repeatParameters++;
@@ -523,17 +783,17 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
         } else {
           sql.add(" UNION ALL ");
         }
-        SQL headQuery = prepareQuery(collection, spatial_where, props_where, readFeatures.getLimit());
+        SQL headQuery = prepareQuery(collection, spatial_where, props_where, limit, clip, geometry);
         sql.add(headQuery);
         if (readFeatures.isReturnDeleted()) {
           sql.add(" UNION ALL ");
-          SQL delSql = prepareQuery(collection + "_del", spatial_where, props_where, readFeatures.getLimit());
+          SQL delSql = prepareQuery(collection + "_del", spatial_where, props_where, limit, clip, geometry);
           sql.add(delSql);
           repeatParameters++;
         }
         if (readFeatures.isReturnAllVersions()) {
           sql.add(" UNION ALL ");
-          SQL hstSql = prepareQuery(collection + "_hst", spatial_where, props_where, readFeatures.getLimit());
+          SQL hstSql = prepareQuery(collection + "_hst", spatial_where, props_where, limit, clip, geometry);
           sql.add(hstSql);
           repeatParameters++;
         }
@@ -541,10 +801,12 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
       final String query = sql.toString();
       final PreparedStatement stmt = prepareStatement(query);
       try {
-        fillStatementWithParams(stmt, wkbs, parameters, repeatParameters);
+        fillStatementWithParams(stmt, clipWkb, wkbs, parameters, repeatParameters);
         final ResultSet rs = stmt.executeQuery();
+        // Only bulk reads benefit from decoding in parallel, small results are decoded lazily.
+        final int decodeBatchSize = parallelDecode && (limit == null || limit > fetchSize) ? fetchSize : 0;
         final PsqlCursor<XyzFeature, XyzFeatureCodec> cursor =
-            new PsqlCursor<>(XyzFeatureCodecFactory.get(), this, stmt, rs);
+            new PsqlCursor<>(XyzFeatureCodecFactory.get(), this, stmt, rs, decodeBatchSize);
         return new PsqlSuccess(cursor);
       } catch (SQLException e) {
         try {
@@ -558,9 +820,236 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
         throw unchecked(e);
       }
     }
+    if (readRequest instanceof ReadStatistics) {
+      return executeReadStatistics((ReadStatistics) readRequest);
+    }
     return new ErrorResult(XyzError.NOT_IMPLEMENTED, "executeRead");
   }
 
+  /**
+   * Returns the statistics of the requested collection from the cache of the storage, reads them, when they are not cached yet or expired.
+   */
+  private @NotNull Result executeReadStatistics(@NotNull ReadStatistics readStatistics) {
+    final String collectionId = readStatistics.getCollectionId();
+    final PostgresStorage storage = parent();
+    PostgresStatistics statistics = storage.statistics.get(collectionId);
+    if (statistics == null || statistics.isExpired(System.currentTimeMillis())) {
+      try {
+        statistics = PostgresStatistics.read(psqlConnection, collectionId);
+      } catch (SQLException e) {
+        throw unchecked(e);
+      }
+      if (statistics == null) {
+        storage.statistics.remove(collectionId);
+        return new ErrorResult(XyzError.COLLECTION_NOT_FOUND, "Collection not found: " + collectionId);
+      }
+      storage.statistics.put(collectionId, statistics);
+    }
+    return new StatisticsResult(statistics.toResponse());
+  }
+
+  /**
+   * Aggregates the features of the given read request into clusters, the database returns one feature per cluster.
+   */
+  private @NotNull Result executeReadClustered(
+      @NotNull ReadFeatures readFeatures,
+      @NotNull String spatial_where,
+      @NotNull String props_where,
+      @NotNull List<byte[]> wkbs,
+      @NotNull List<Object> parameters) {
+    final Clustering clustering = readFeatures.getClustering();
+    assert clustering != null;
+    final SQL features = new SQL();
+    boolean first = true;
+    for (final String collection : readFeatures.getCollections()) {
+      if (first) {
+        first = false;
+      } else {
+        features.add(" UNION ALL ");
+      }
+      PostgresClustering.addFeatureColumns(features, clustering);
+      features.add(" FROM ").addIdent(collection);
+      if (spatial_where.length() > 0 || props_where.length() > 0) {
+        features.add(" WHERE");
+        if (spatial_where.length() > 0) {
+          features.add(spatial_where);
+          if (props_where.length() > 0) {
+            features.add(" AND");
+          }
+        }
+        if (props_where.length() > 0) {
+          features.add(props_where);
+        }
+      }
+    }
+    final SQL sql = sql();
+    try {
+      PostgresClustering.addClusterQuery(
+          sql, clustering, readFeatures.getClusteringLevel(), features, readFeatures.getLimit());
+    } catch (IllegalArgumentException e) {
+      return new ErrorResult(XyzError.NOT_IMPLEMENTED, e.getMessage());
+    }
+    final PreparedStatement stmt = prepareStatement(sql.toString());
+    try {
+      fillStatementWithParams(stmt, null, wkbs, parameters, readFeatures.getCollections().size());
+      final ResultSet rs = stmt.executeQuery();
+      return new PsqlSuccess(new PsqlCursor<>(XyzFeatureCodecFactory.get(), this, stmt, rs));
+    } catch (SQLException e) {
+      try {
+        stmt.close();
+      } catch (SQLException ce) {
+        log.atInfo()
+            .setMessage("Failed to close statement")
+            .setCause(ce)
+            .log();
+      }
+      throw unchecked(e);
+    }
+  }
+
+  /**
+   * Renders the features of the given read request into a Mapbox Vector Tile, with one layer per collection named like the collection.
+   * Only the geometry, the {@code id} and the requested properties are encoded, so no feature is transferred to Java.
+   */
+  private @NotNull Result executeReadMvt(
+      @NotNull ReadFeatures readFeatures,
+      @NotNull String spatial_where,
+      @NotNull String props_where,
+      @NotNull List<byte[]> wkbs,
+      @NotNull List<Object> parameters,
+      @Nullable Long limit,
+      @NotNull String geometry) {
+    final WebMercatorTile tile = readFeatures.getMvtTile();
+    assert tile != null;
+    final SQL sql = sql();
+    addMvtQuery(
+        sql,
+        readFeatures.getCollections(),
+        tile,
+        readFeatures.getMvtProperties(),
+        geometry,
+        spatial_where,
+        props_where,
+        limit);
+    try (final PreparedStatement stmt = prepareStatement(sql.toString())) {
+      fillStatementWithParams(stmt, null, wkbs, parameters, readFeatures.getCollections().size());
+      try (final ResultSet rs = stmt.executeQuery()) {
+        final byte[] bytes = rs.next() ? rs.getBytes(1) : null;
+        return new BinaryResult(bytes != null ? bytes : new byte[0]);
+      }
+    } catch (SQLException e) {
+      throw unchecked(e);
+    }
+  }
+
+  /**
+   * Adds the query that renders the features of the given collections into a Mapbox Vector Tile.
+   *
+   * @param sql           The SQL builder to add the query to.
+   * @param collections   The collections to render, one layer per collection.
+   * @param tile          The tile to render.
+   * @param mvtProperties The paths of the properties to encode, {@code null} to encode all properties.
+   * @param geometry      The expression of the geometry to render, for example simplified by the tweaks.
+   * @param spatial_where The spatial condition, may be empty.
+   * @param props_where   The property condition, including the sampling of the tweaks, may be empty.
+   * @param limit         The maximal amount of features per layer, {@code null} if unlimited.
+   */
+  static void addMvtQuery(
+      @NotNull SQL sql,
+      @NotNull List<@NotNull String> collections,
+      @NotNull WebMercatorTile tile,
+      @Nullable List<@NotNull String> mvtProperties,
+      @NotNull String geometry,
+      @NotNull String spatial_where,
+      @NotNull String props_where,
+      @Nullable Long limit) {
+    sql.add("SELECT ");
+    boolean first = true;
+    for (final String collection : collections) {
+      if (first) {
+        first = false;
+      } else {
+        sql.add(" || ");
+      }
+      // An empty layer may be null, which would turn the whole tile into null.
+      sql.add("COALESCE((SELECT ST_AsMVT(mvt, ")
+          .addLiteral(collection)
+          .add(", 4096, 'geom') FROM (SELECT ST_AsMVTGeom(ST_Transform(ST_ClipByBox2D(")
+          .add(geometry)
+          .add(", ST_MakeEnvelope(-180, ")
+          .add(-PostgresClustering.MAX_LATITUDE)
+          .add(", 180, ")
+          .add(PostgresClustering.MAX_LATITUDE)
+          .add(", 4326)), 3857), ST_MakeEnvelope(")
+          .add(Math.min(tile.left, tile.right))
+          .add(", ")
+          .add(Math.min(tile.top, tile.bottom))
+          .add(", ")
+          .add(Math.max(tile.left, tile.right))
+          .add(", ")
+          .add(Math.max(tile.top, tile.bottom))
+          .add(", 3857)::box2d) AS geom, naksha_feature_id(jsondata) AS id, ");
+      addMvtProperties(sql, mvtProperties);
+      sql.add(" AS props FROM ").addIdent(collection);
+      if (spatial_where.length() > 0 || props_where.length() > 0) {
+        sql.add(" WHERE");
+        if (spatial_where.length() > 0) {
+          sql.add(spatial_where);
+          if (props_where.length() > 0) {
+            sql.add(" AND");
+          }
+        }
+        if (props_where.length() > 0) {
+          sql.add(props_where);
+        }
+      }
+      if (limit != null) {
+        sql.add(" LIMIT ").add(limit);
+      }
+      sql.add(") mvt WHERE geom IS NOT NULL), ''::bytea)");
+    }
+  }
+
+  /**
+   * Adds the JSON object with the properties to encode into the vector tile, the top-level members of the object become the tag of the
+   * features. If no paths are given, all properties, except for the XYZ namespace, are encoded.
+   *
+   * @param sql   The SQL builder to add the expression to.
+   * @param paths The paths of the properties to encode, for example {@code properties.name}; {@code null} to encode all properties.
+   */
+  static void addMvtProperties(@NotNull SQL sql, @Nullable List<@NotNull String> paths) {
+    if (paths == null) {
+      sql.add("((jsondata->'properties') - ").addLiteral(XyzProperties.XYZ_NAMESPACE).add(")");
+      return;
+    }
+    sql.add("jsonb_build_object(");
+    boolean first = true;
+    for (final String path : paths) {
+      final List<String> parts = PostgresIndex.splitPath(path);
+      final String root = parts.get(0);
+      if ((parts.size() == 1 && (XyzFeature.ID.equals(root) || "type".equals(root)))
+          || XyzFeature.GEOMETRY.equals(root)) {
+        continue;
+      }
+      if (first) {
+        first = false;
+      } else {
+        sql.add(", ");
+      }
+      final List<String> name =
+          XyzFeature.PROPERTIES.equals(root) && parts.size() > 1 ? parts.subList(1, parts.size()) : parts;
+      sql.addLiteral(String.join(".", name)).add(", jsondata#>ARRAY[");
+      for (int i = 0; i < parts.size(); i++) {
+        if (i > 0) {
+          sql.add(',');
+        }
+        sql.addLiteral(parts.get(i));
+      }
+      sql.add("]");
+    }
+    sql.add(")");
+  }
+
   @NotNull
   <FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> Result executeWrite(
       @NotNull WriteRequest<FEATURE, CODEC, ?> writeRequest) {
@@ -580,6 +1069,10 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
           method = codec.getOp();
           out.decode(codec);
           write_ops_json[i] = json.writer().writeValueAsString(out);
+          if (out.id != null && !EWriteOp.DELETE.toString().equals(out.op)
+              && !EWriteOp.PURGE.toString().equals(out.op)) {
+            modifiedCollections.add(out.id);
+          }
         }
         stmt.setArray(1, psqlConnection.createArrayOf("jsonb", write_ops_json));
         final ResultSet rs = stmt.executeQuery();
@@ -611,74 +1104,45 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     }
     if (writeRequest instanceof WriteFeatures<?, ?, ?>) {
       final WriteFeatures<?, ?, ?> writeFeatures = (WriteFeatures<?, ?, ?>) writeRequest;
-      final int partition_id = -1;
-      //      if (writeFeatures instanceof PostgresWriteFeaturesToPartition<?> writeToPartition) {
-      //        partition_id = writeToPartition.partitionId;
-      //      } else {
-      //        partition_id = -1;
-      //      }
-      final PreparedStatement stmt = prepareStatement(
-          "SELECT r_op, r_id, r_uuid, r_type, r_ptype, r_feature, ST_AsEWKB(r_geometry), r_err\n"
-              + "FROM nk_write_features(?,?,?,?,?,?,?,?,?);");
       final int SIZE = writeRequest.features.size();
       final String collection_id = writeFeatures.getCollectionId();
-      // nk_write_features(col_id, part_id, ops, ids, uuids, features, geometries, min_result, errors_only
-      try (final Json json = Json.get()) {
+      PreparedStatement stmt = null;
+      try {
         // new array list, so we don't modify original order
         final List<@NotNull CODEC> features = new ArrayList<>(writeRequest.features);
         features.forEach(codec -> codec.decodeParts(false));
+        method = SIZE > 0 ? features.get(SIZE - 1).getOp() : method;
         final Map<String, Integer> originalFeaturesOrder =
             IndexHelper.createKeyIndexMap(features, CODEC::getId);
+        if (partitionWriters > 1
+            && SIZE >= PARTITION_WRITE_MIN_SIZE
+            && isPartitioned(collection_id)
+            && supportsTwoPhaseCommit()) {
+          final Result result = executeWritePartitioned(writeRequest, features, originalFeaturesOrder);
+          if (result instanceof ErrorResult) {
+            status = "NOK";
+          }
+          return result;
+        }
         // sort to avoid deadlock
         features.sort(comparing(FeatureCodec::getId));
-        // partition_id
-        final String[] op_arr = new String[SIZE];
-        final String[] id_arr = new String[SIZE];
-        final String[] uuid_arr = new String[SIZE];
-        final String[] json_arr = new String[SIZE];
-        final byte[][] geo_arr = new byte[SIZE][];
-        final boolean min_result = writeFeatures.minResults;
-        final boolean err_only = false;
-
-        final PostgresWriteOp out = new PostgresWriteOp();
-        for (int i = 0; i < SIZE; i++) {
-          final CODEC codec = features.get(i);
-          op_arr[i] = codec.getOp();
-          method = codec.getOp();
-          id_arr[i] = codec.getId();
-          uuid_arr[i] = codec.getUuid();
-          json_arr[i] = codec.getJson();
-          geo_arr[i] = codec.getWkb();
-        }
-        stmt.setString(1, collection_id);
-        stmt.setInt(2, partition_id);
-        stmt.setArray(3, psqlConnection.createArrayOf("text", op_arr));
-        stmt.setArray(4, psqlConnection.createArrayOf("text", id_arr));
-        stmt.setArray(5, psqlConnection.createArrayOf("text", uuid_arr));
-        stmt.setArray(6, psqlConnection.createArrayOf("jsonb", json_arr));
-        stmt.setArray(7, psqlConnection.createArrayOf("bytea", geo_arr));
-        stmt.setBoolean(8, min_result);
-        stmt.setBoolean(9, err_only);
-        final ResultSet rs = stmt.executeQuery();
+        stmt = executeWriteFeatures(collection_id, -1, features, writeFeatures.minResults);
         final PsqlCursor<FEATURE, CODEC> cursor =
-            new PsqlCursor<>(writeRequest.getCodecFactory(), this, stmt, rs);
-        try (final PreparedStatement err_stmt = prepareStatement("SELECT naksha_err_no(), naksha_err_msg();")) {
-          final ResultSet err_rs = err_stmt.executeQuery();
-          err_rs.next();
-          final String errNo = err_rs.getString(1);
-          final String errMsg = err_rs.getString(2);
-          if (errNo != null) {
-            status = "NOK";
-            return new PsqlError(XyzErrorMapper.psqlCodeToXyzError(errNo), errMsg, cursor);
-          }
+            new PsqlCursor<>(writeRequest.getCodecFactory(), this, stmt, stmt.getResultSet());
+        final String[] err = lastError();
+        if (err != null) {
+          status = "NOK";
+          return new PsqlError(XyzErrorMapper.psqlCodeToXyzError(err[0]), err[1], cursor);
         }
         return new PsqlSuccess(cursor, originalFeaturesOrder);
       } catch (Throwable e) {
-        try {
-          status = "NOK";
-          stmt.close();
-        } catch (Throwable ce) {
-          log.info("Failed to close statement", ce);
+        status = "NOK";
+        if (stmt != null) {
+          try {
+            stmt.close();
+          } catch (Throwable ce) {
+            log.info("Failed to close statement", ce);
+          }
         }
         throw unchecked(e);
       } finally {
@@ -698,6 +1162,284 @@ final class PostgresSession extends ClosableChildResource<PostgresStorage> {
     return new ErrorResult(XyzError.NOT_IMPLEMENTED, "The supplied write-request is not yet implemented");
   }
 
+  /**
+   * Invokes {@code nk_write_features} for the given features, which must be decoded and sorted by {@code id}.
+   *
+   * @param collectionId The collection to write into.
+   * @param partitionId  The HEAD partition to write into; {@code -1} to let the database select the partition.
+   * @param features     The features to write.
+   * @param minResult    If only minimal results should be returned.
+   * @return The executed statement, with the result-set being ready.
+   * @throws SQLException If any error occurred.
+   */
+  private @NotNull PreparedStatement executeWriteFeatures(
+      @NotNull String collectionId,
+      int partitionId,
+      @NotNull List<? extends @NotNull FeatureCodec<?, ?>> features,
+      boolean minResult)
+      throws SQLException {
+    final PreparedStatement stmt = prepareStatement(
+        "SELECT r_op, r_id, r_uuid, r_type, r_ptype, r_feature, ST_AsEWKB(r_geometry), r_err\n"
+            + "FROM nk_write_features(?,?,?,?,?,?,?,?,?);");
+    try {
+      // nk_write_features(col_id, part_id, ops, ids, uuids, features, geometries, min_result, errors_only
+      final int SIZE = features.size();
+      final String[] op_arr = new String[SIZE];
+      final String[] id_arr = new String[SIZE];
+      final String[] uuid_arr = new String[SIZE];
+      final String[] json_arr = new String[SIZE];
+      final byte[][] geo_arr = new byte[SIZE][];
+      final boolean err_only = false;
+      for (int i = 0; i < SIZE; i++) {
+        final FeatureCodec<?, ?> codec = features.get(i);
+        op_arr[i] = codec.getOp();
+        id_arr[i] = codec.getId();
+        uuid_arr[i] = codec.getUuid();
+        json_arr[i] = codec.getJson();
+        geo_arr[i] = codec.getWkb();
+      }
+      stmt.setString(1, collectionId);
+      stmt.setInt(2, partitionId);
+      stmt.setArray(3, psqlConnection.createArrayOf("text", op_arr));
+      stmt.setArray(4, psqlConnection.createArrayOf("text", id_arr));
+      stmt.setArray(5, psqlConnection.createArrayOf("text", uuid_arr));
+      stmt.setArray(6, psqlConnection.createArrayOf("jsonb", json_arr));
+      stmt.setArray(7, psqlConnection.createArrayOf("bytea", geo_arr));
+      stmt.setBoolean(8, minResult);
+      stmt.setBoolean(9, err_only);
+      stmt.executeQuery();
+      return stmt;
+    } catch (Throwable e) {
+      try {
+        stmt.close();
+      } catch (Throwable ce) {
+        log.info("Failed to close statement", ce);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the last error raised by a Naksha function.
+   *
+   * @return the error number and message; {@code null} if no error occurred.
+   * @throws SQLException If any error occurred.
+   */
+  private @NotNull String @Nullable [] lastError() throws SQLException {
+    try (final PreparedStatement err_stmt = prepareStatement("SELECT naksha_err_no(), naksha_err_msg();")) {
+      final ResultSet err_rs = err_stmt.executeQuery();
+      err_rs.next();
+      final String errNo = err_rs.getString(1);
+      final String errMsg = err_rs.getString(2);
+      return errNo != null ? new String[] {errNo, errMsg} : null;
+    }
+  }
+
+  /**
+   * The minimal amount of features of a write request to split it into partitions, for smaller requests the overhead of additional
+   * connections is bigger than the gain.
+   */
+  static final int PARTITION_WRITE_MIN_SIZE = 1000;
+
+  /**
+   * Tests if the given collection is partitioned.
+   *
+   * @param collectionId The collection identifier.
+   * @return {@code true} if the collection is partitioned; {@code false} otherwise.
+   * @throws SQLException If any error occurred.
+   */
+  private boolean isPartitioned(@NotNull String collectionId) throws SQLException {
+    try (final PreparedStatement stmt =
+        prepareStatement("SELECT (naksha_collection_get(?)->>'partition')::bool;")) {
+      stmt.setString(1, collectionId);
+      final ResultSet rs = stmt.executeQuery();
+      return rs.next() && rs.getBoolean(1);
+    }
+  }
+
+  /**
+   * Tests if the database supports two-phase commit, which is required to commit partitions written by multiple connections atomically.
+   *
+   * @return {@code true} if prepared transactions are enabled; {@code false} otherwise.
+   * @throws SQLException If any error occurred.
+   */
+  private boolean supportsTwoPhaseCommit() throws SQLException {
+    Boolean twoPhaseCommit = this.twoPhaseCommit;
+    if (twoPhaseCommit == null) {
+      try (final PreparedStatement stmt =
+          prepareStatement("SELECT current_setting('max_prepared_transactions')::int > 0;")) {
+        final ResultSet rs = stmt.executeQuery();
+        this.twoPhaseCommit = twoPhaseCommit = rs.next() && rs.getBoolean(1);
+      }
+      if (!twoPhaseCommit) {
+        log.atInfo()
+            .setMessage("Prepared transactions are disabled, partitions are written sequentially")
+            .log();
+      }
+    }
+    return twoPhaseCommit;
+  }
+
+  /**
+   * Cached result of {@link #supportsTwoPhaseCommit()}.
+   */
+  private @Nullable Boolean twoPhaseCommit;
+
+  /**
+   * If the partition sessions have written in the current transaction, in that case a two-phase commit is needed.
+   */
+  private boolean partitionsWritten;
+
+  /**
+   * Returns the transaction number of the current transaction.
+   *
+   * @return the transaction number.
+   * @throws SQLException If any error occurred.
+   */
+  private long txn() throws SQLException {
+    try (final PreparedStatement stmt = prepareStatement("SELECT naksha_txn();")) {
+      final ResultSet rs = stmt.executeQuery();
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  /**
+   * Joins the given transaction number, so that all features written by this session in the current transaction use it.
+   *
+   * @param txn The transaction number to use.
+   * @throws SQLException If any error occurred.
+   */
+  private void joinTxn(long txn) throws SQLException {
+    try (final PreparedStatement stmt = prepareStatement("SELECT set_config('naksha.txn', ?, true);")) {
+      stmt.setString(1, Long.toString(txn));
+      stmt.executeQuery();
+    }
+  }
+
+  /**
+   * The sessions used to write partitions concurrently, they are committed, rolled back and closed together with this session.
+   */
+  private @Nullable List<@NotNull PsqlWriteSession> partitionSessions;
+
+  /**
+   * The collections created or updated in the current transaction, for which the user-defined indices need to be synchronized after
+   * commit.
+   */
+  private final @NotNull List<@NotNull String> modifiedCollections = new ArrayList<>();
+
+  private void closePartitionSessions() {
+    final List<PsqlWriteSession> partitionSessions = this.partitionSessions;
+    if (partitionSessions != null) {
+      this.partitionSessions = null;
+      for (final PsqlWriteSession partitionSession : partitionSessions) {
+        try {
+          partitionSession.close();
+        } catch (Exception e) {
+          log.atInfo()
+              .setMessage("Failed to close partition session")
+              .setCause(e)
+              .log();
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the sessions to write partitions concurrently, creates them when needed.
+   *
+   * @param count The amount of sessions needed, including this one.
+   * @return The sessions to use, the first one being this one.
+   */
+  private @NotNull List<@NotNull PostgresSession> partitionSessions(int count) {
+    List<PsqlWriteSession> sessions = this.partitionSessions;
+    if (sessions == null) {
+      this.partitionSessions = sessions = new ArrayList<>();
+    }
+    while (sessions.size() < count - 1) {
+      sessions.add(parent().newWriteSession(context, true));
+    }
+    final List<PostgresSession> result = new ArrayList<>(count);
+    result.add(this);
+    for (int i = 0; i < count - 1; i++) {
+      result.add(sessions.get(i).session());
+    }
+    return result;
+  }
+
+  /**
+   * Splits the features by HEAD partition and writes the partitions concurrently, using multiple connections. All connections join the
+   * transaction number of this session and are committed or rolled back together with it, using a two-phase commit.
+   *
+   * @param writeRequest          The write request.
+   * @param features              The decoded features.
+   * @param originalFeaturesOrder The original order of the features.
+   * @return the result.
+   * @throws Exception If any error occurred.
+   */
+  private <FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> @NotNull Result executeWritePartitioned(
+      @NotNull WriteRequest<FEATURE, CODEC, ?> writeRequest,
+      @NotNull List<@NotNull CODEC> features,
+      @NotNull Map<String, Integer> originalFeaturesOrder)
+      throws Exception {
+    final WriteFeatures<?, ?, ?> writeFeatures = (WriteFeatures<?, ?, ?>) writeRequest;
+    final String collectionId = writeFeatures.getCollectionId();
+    final List<PostgresWriteFeaturesToPartition<CODEC>> partitions = PostgresWriteFeaturesToPartition.split(features);
+    final List<PostgresSession> sessions = partitionSessions(Math.min(partitionWriters, partitions.size()));
+    final long txn = txn();
+    for (int s = 1; s < sessions.size(); s++) {
+      sessions.get(s).joinTxn(txn);
+    }
+    partitionsWritten = true;
+    final List<Future<List<CODEC>>> futures = new ArrayList<>(sessions.size());
+    final String[][] errors = new String[sessions.size()][];
+    for (int s = 0; s < sessions.size(); s++) {
+      final PostgresSession session = sessions.get(s);
+      final int sessionIndex = s;
+      futures.add(PostgresWriteFeaturesToPartition.writers.submit(() -> {
+        final List<CODEC> results = new ArrayList<>();
+        // Each session writes every n-th partition, one after the other.
+        for (int p = sessionIndex; p < partitions.size(); p += sessions.size()) {
+          final PostgresWriteFeaturesToPartition<CODEC> partition = partitions.get(p);
+          final PreparedStatement stmt = session.executeWriteFeatures(
+              collectionId, partition.partitionId, partition.features, writeFeatures.minResults);
+          try (final PsqlCursor<FEATURE, CODEC> cursor =
+              new PsqlCursor<>(writeRequest.getCodecFactory(), session, stmt, stmt.getResultSet())) {
+            results.addAll(cursor.readAll());
+          }
+          final String[] err = session.lastError();
+          if (err != null) {
+            errors[sessionIndex] = err;
+            break;
+          }
+        }
+        return results;
+      }));
+    }
+    final List<CODEC> results = new ArrayList<>(features.size());
+    Exception failure = null;
+    for (final Future<List<CODEC>> future : futures) {
+      try {
+        results.addAll(future.get());
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    final HeapCacheCursor<FEATURE, CODEC> cursor =
+        new HeapCacheCursor<>(writeRequest.getCodecFactory(), results, originalFeaturesOrder);
+    for (final String[] err : errors) {
+      if (err != null) {
+        return new PsqlError(XyzErrorMapper.psqlCodeToXyzError(err[0]), err[1], cursor);
+      }
+    }
+    return new PsqlSuccess(cursor, originalFeaturesOrder);
+  }
+
   @NotNull
   IStorageLock lockFeature(
       @NotNull String collectionId, @NotNull String featureId, long timeout, @NotNull TimeUnit timeUnit)
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+import com.here.naksha.lib.core.models.geojson.coordinates.BBox;
+import com.here.naksha.lib.core.models.payload.responses.StatisticsResponse;
+import com.here.naksha.lib.core.models.payload.responses.StatisticsResponse.PropertiesStatistics;
+import com.here.naksha.lib.core.models.payload.responses.StatisticsResponse.PropertiesStatistics.Searchable;
+import com.here.naksha.lib.core.models.payload.responses.StatisticsResponse.PropertyStatistics;
+import com.here.naksha.lib.core.models.payload.responses.StatisticsResponse.Value;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The approximate statistics of a collection. They are read from the statistics PostgresQL keeps anyway ({@code reltuples} and the
+ * {@code geo} statistics used by {@code ST_EstimatedExtent}), only the property keys, tags and geometry types are counted in a small
+ * sample of the features, so reading them takes milliseconds, independent of the size of the collection. The storage caches them per
+ * collection, the maintainer refreshes the cached statistics in the background.
+ */
+final class PostgresStatistics {
+
+  /**
+   * The amount of features sampled to discover the property keys, tags and geometry types.
+   */
+  static final int SAMPLE_SIZE = 1000;
+
+  /**
+   * Collections with unknown statistics (never analyzed) up to this size in bytes are counted exactly.
+   */
+  static final long MAX_EXACT_COUNT_SIZE = 16L * 1024L * 1024L;
+
+  /**
+   * The time in milliseconds after which cached statistics are refreshed by the maintainer.
+   */
+  static final long REFRESH_INTERVAL = MINUTES.toMillis(5);
+
+  /**
+   * The time in milliseconds after which cached statistics are read again, when requested, because the maintainer did not refresh them.
+   */
+  static final long MAX_AGE = 2 * REFRESH_INTERVAL;
+
+  /**
+   * The time in milliseconds after which cached statistics, that were not requested, are dropped instead of being refreshed.
+   */
+  static final long MAX_IDLE = HOURS.toMillis(1);
+
+  private static final String XYZ_NAMESPACE = "@ns:com:here:xyz";
+
+  PostgresStatistics(
+      long count,
+      boolean countEstimated,
+      long dataSize,
+      @Nullable BBox bbox,
+      @NotNull List<@NotNull PropertyStatistics> properties,
+      @NotNull List<@NotNull PropertyStatistics> tags,
+      @NotNull List<@NotNull String> geometryTypes,
+      boolean sampled) {
+    this.count = count;
+    this.countEstimated = countEstimated;
+    this.dataSize = dataSize;
+    this.bbox = bbox;
+    this.properties = properties;
+    this.tags = tags;
+    this.geometryTypes = geometryTypes;
+    this.sampled = sampled;
+    this.createdAt = System.currentTimeMillis();
+    this.lastAccess = createdAt;
+  }
+
+  final long count;
+  final boolean countEstimated;
+  final long dataSize;
+  final @Nullable BBox bbox;
+  final @NotNull List<@NotNull PropertyStatistics> properties;
+  final @NotNull List<@NotNull PropertyStatistics> tags;
+  final @NotNull List<@NotNull String> geometryTypes;
+
+  /**
+   * If the property keys, tags and geometry types were discovered from a sample, so may be incomplete.
+   */
+  final boolean sampled;
+
+  /**
+   * The epoch milliseconds when the statistics were read.
+   */
+  final long createdAt;
+
+  /**
+   * The epoch milliseconds when the statistics were requested the last time.
+   */
+  volatile long lastAccess;
+
+  /**
+   * Creates a new response from the statistics, the response is mutable, so the cached statistics must not be returned directly.
+   *
+   * @return the statistics response.
+   */
+  @NotNull
+  StatisticsResponse toResponse() {
+    lastAccess = System.currentTimeMillis();
+    final StatisticsResponse response = new StatisticsResponse();
+    response.setCount(new Value<>(count).withEstimated(countEstimated));
+    response.setDataSize(new Value<>(dataSize).withEstimated(true));
+    response.setBbox(new Value<>(bbox).withEstimated(true));
+    final PropertiesStatistics propertiesStatistics = new PropertiesStatistics();
+    propertiesStatistics.setValue(new ArrayList<>(properties));
+    propertiesStatistics.setEstimated(sampled);
+    // Naksha can search for all properties, user-defined indices only speed up the search.
+    propertiesStatistics.setSearchable(Searchable.ALL);
+    response.setProperties(propertiesStatistics);
+    response.setTags(new Value<List<PropertyStatistics>>(new ArrayList<>(tags)).withEstimated(sampled));
+    response.setGeometryTypes(new Value<List<String>>(new ArrayList<>(geometryTypes)).withEstimated(sampled));
+    return response;
+  }
+
+  /**
+   * Reads the statistics of the given collection.
+   *
+   * @param conn         The connection, with the search path set to the schema of the storage.
+   * @param collectionId The collection identifier.
+   * @return the statistics, {@code null} if the collection does not exist.
+   * @throws SQLException If any error occurred.
+   */
+  static @Nullable PostgresStatistics read(@NotNull Connection conn, @NotNull String collectionId) throws SQLException {
+    long count;
+    boolean countEstimated = true;
+    final long dataSize;
+    BBox bbox = null;
+    // The HEAD table may be partitioned, the statistics are kept per partition.
+    try (final PreparedStatement stmt = conn.prepareStatement(
+        "WITH t AS (SELECT n.nspname, c.relname, c.reltuples, pg_total_relation_size(c.oid) AS size FROM pg_class c\n"
+            + "JOIN pg_namespace n ON n.oid = c.relnamespace\n"
+            + "WHERE c.oid IN (SELECT relid FROM pg_partition_tree(to_regclass(quote_ident(?))) WHERE isleaf)),\n"
+            + "e AS (SELECT ST_Extent(CASE WHEN EXISTS (SELECT 1 FROM pg_stats s WHERE s.schemaname = t.nspname"
+            + " AND s.tablename = t.relname AND s.attname = 'geo') THEN ST_EstimatedExtent(t.nspname, t.relname, 'geo')::geometry"
+            + " END) AS extent FROM t)\n"
+            + "SELECT (SELECT count(*) FROM t), (SELECT coalesce(sum(greatest(reltuples, 0)), 0)::int8 FROM t),\n"
+            + "(SELECT bool_or(reltuples < 0) FROM t), (SELECT coalesce(sum(size), 0)::int8 FROM t),\n"
+            + "ST_XMin(extent), ST_YMin(extent), ST_XMax(extent), ST_YMax(extent) FROM e;")) {
+      stmt.setString(1, collectionId);
+      final ResultSet rs = stmt.executeQuery();
+      if (!rs.next() || rs.getLong(1) == 0) {
+        return null;
+      }
+      count = rs.getLong(2);
+      final boolean unknown = rs.getBoolean(3);
+      dataSize = rs.getLong(4);
+      final double west = rs.getDouble(5);
+      if (!rs.wasNull()) {
+        bbox = new BBox(west, rs.getDouble(6), rs.getDouble(7), rs.getDouble(8));
+      }
+      if (unknown && dataSize <= MAX_EXACT_COUNT_SIZE) {
+        count = exactCount(conn, collectionId);
+        countEstimated = false;
+      }
+    }
+    final List<PropertyStatistics> properties = new ArrayList<>();
+    final List<PropertyStatistics> tags = new ArrayList<>();
+    final List<String> geometryTypes = new ArrayList<>();
+    final double percent = count <= SAMPLE_SIZE ? 100d : Math.max(0.0001d, Math.min(100d, 200d * SAMPLE_SIZE / count));
+    long sampleSize = 0;
+    try (final PreparedStatement stmt = conn.prepareStatement(sampleQuery(collectionId))) {
+      stmt.setDouble(1, percent);
+      final ResultSet rs = stmt.executeQuery();
+      final List<Object[]> rows = new ArrayList<>();
+      while (rs.next()) {
+        final String kind = rs.getString(1);
+        if ("n".equals(kind)) {
+          sampleSize = rs.getLong(4);
+        } else {
+          rows.add(new Object[] {kind, rs.getString(2), rs.getString(3), rs.getLong(4)});
+        }
+      }
+      final boolean complete = sampleSize >= count;
+      for (final Object[] row : rows) {
+        final String kind = (String) row[0];
+        final long sampled = (Long) row[3];
+        final long estimated = complete || sampleSize == 0 ? sampled : Math.round((double) sampled * count / sampleSize);
+        if ("p".equals(kind)) {
+          properties.add(new PropertyStatistics()
+              .withKey((String) row[1])
+              .withDatatype((String) row[2])
+              .withCount(estimated)
+              .withSearchable(true));
+        } else if ("t".equals(kind)) {
+          tags.add(new PropertyStatistics().withKey((String) row[1]).withCount(estimated));
+        } else if ("g".equals(kind)) {
+          geometryTypes.add((String) row[1]);
+        }
+      }
+    }
+    return new PostgresStatistics(
+        count, countEstimated, dataSize, bbox, properties, tags, geometryTypes, sampleSize < count);
+  }
+
+  private static long exactCount(@NotNull Connection conn, @NotNull String collectionId) throws SQLException {
+    try (final PreparedStatement stmt =
+        conn.prepareStatement("SELECT count(*) FROM " + SQL.quote_ident(collectionId) + ";")) {
+      final ResultSet rs = stmt.executeQuery();
+      return rs.next() ? rs.getLong(1) : 0L;
+    }
+  }
+
+  /**
+   * Returns the query to discover the property keys (with their most common type), tags and geometry types in a sample of the features of
+   * the given collection, ordered by their frequency. The only parameter is the sampling percentage. The rows have the kind ({@code p}
+   * for properties, {@code t} for tags, {@code g} for geometry types and {@code n} for the size of the sample), the key, the type and the
+   * amount of features in the sample.
+   *
+   * @param collectionId The collection identifier.
+   * @return the query.
+   */
+  static @NotNull String sampleQuery(@NotNull String collectionId) {
+    final SQL sql = new SQL();
+    sql.add("WITH s AS (SELECT jsondata->'properties' AS p, geo FROM ")
+        .addIdent(collectionId)
+        .add(" TABLESAMPLE SYSTEM (?::real) LIMIT ")
+        .add(SAMPLE_SIZE)
+        .add(")\n")
+        .add("(SELECT 'p', k.key, mode() WITHIN GROUP (ORDER BY jsonb_typeof(k.value)), count(*) FROM s,")
+        .add(" jsonb_each(CASE WHEN jsonb_typeof(s.p) = 'object' THEN s.p ELSE '{}'::jsonb END) k WHERE k.key <> ")
+        .addLiteral(XYZ_NAMESPACE)
+        .add(" GROUP BY k.key ORDER BY 4 DESC, 2)\n")
+        .add("UNION ALL\n")
+        .add("(SELECT 't', t.tag, null, count(*) FROM s, jsonb_array_elements_text(CASE WHEN jsonb_typeof(s.p->")
+        .addLiteral(XYZ_NAMESPACE)
+        .add("->'tags') = 'array' THEN s.p->")
+        .addLiteral(XYZ_NAMESPACE)
+        .add("->'tags' ELSE '[]'::jsonb END) t(tag) GROUP BY t.tag ORDER BY 4 DESC, 2)\n")
+        .add("UNION ALL\n")
+        .add("(SELECT 'g', GeometryType(s.geo), null, count(*) FROM s WHERE s.geo IS NOT NULL GROUP BY 2 ORDER BY 4 DESC, 2)\n")
+        .add("UNION ALL\n")
+        .add("SELECT 'n', null, null, count(*) FROM s;");
+    return sql.toString();
+  }
+
+  /**
+   * Tests if the statistics should be read again, because they are older than {@link #MAX_AGE}.
+   *
+   * @param now The current epoch milliseconds.
+   * @return {@code true} if the statistics should be read again.
+   */
+  boolean isExpired(long now) {
+    return now - createdAt > MAX_AGE;
+  }
+}
@@ -40,6 +40,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -245,6 +246,39 @@ final class PostgresStorage extends ClosableRootResource {
     return fetchSize;
   }
 
+  /**
+   * The amount of connections used to write large requests into partitioned collections, 1 disables concurrent partition writes.
+   */
+  private int partitionWriters = 1;
+
+  int getPartitionWriters() {
+    return partitionWriters;
+  }
+
+  void setPartitionWriters(int partitionWriters) {
+    if (partitionWriters < 1 || partitionWriters > PostgresWriteFeaturesToPartition.PARTITION_COUNT) {
+      throw new IllegalArgumentException("The partitionWriters must be between 1 and "
+          + PostgresWriteFeaturesToPartition.PARTITION_COUNT);
+    }
+    this.partitionWriters = partitionWriters;
+  }
+
+  /**
+   * The interval in milliseconds in which the maintainer clusters the HEAD tables by their {@code grid}, 0 disables clustering.
+   */
+  private long clusterInterval;
+
+  long getClusterInterval(@NotNull TimeUnit timeUnit) {
+    return timeUnit.convert(clusterInterval, MILLISECONDS);
+  }
+
+  void setClusterInterval(long clusterInterval, @NotNull TimeUnit timeUnit) {
+    if (clusterInterval < 0) {
+      throw new IllegalArgumentException("The clusterInterval must not be negative");
+    }
+    this.clusterInterval = MILLISECONDS.convert(clusterInterval, timeUnit);
+  }
+
   private long sockedReadTimeout = TimeUnit.SECONDS.toMillis(15);
 
   /**
@@ -255,8 +289,20 @@ final class PostgresStorage extends ClosableRootResource {
    */
   private final long cancelSignalTimeout = TimeUnit.SECONDS.toMillis(15);
 
+  /**
+   * The maintainer that executes the background jobs of this storage.
+   */
+  final @NotNull PostgresMaintainer maintainer = new PostgresMaintainer(this);
+
+  /**
+   * The cached statistics of the collections, by collection identifier, refreshed by the {@link #maintainer}.
+   */
+  final @NotNull ConcurrentHashMap<@NotNull String, @NotNull PostgresStatistics> statistics = new ConcurrentHashMap<>();
+
   @Override
-  protected void destruct() {}
+  protected void destruct() {
+    maintainer.stop();
+  }
 
   /**
    * The default initializer for connections.
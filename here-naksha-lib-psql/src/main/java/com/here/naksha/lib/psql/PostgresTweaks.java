@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import com.here.naksha.lib.core.models.payload.events.Sampling;
+import com.here.naksha.lib.core.models.payload.events.tweaks.Tweaks;
+import com.here.naksha.lib.core.models.payload.events.tweaks.TweaksSampling;
+import com.here.naksha.lib.core.models.payload.events.tweaks.TweaksSimplification;
+import com.here.naksha.lib.psql.sql.TweaksSQL;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Generates the SQL to apply {@link TweaksSampling} and {@link TweaksSimplification} to a read. Sampling thins out the features by a
+ * deterministic hash of the {@code i} column, so the same features are returned for neighbouring tiles, and limits the result to the
+ * sampling threshold. Simplification reduces the vertices of the geometries with a tolerance of about one pixel of a 256 pixel tile of the
+ * requested level, scaled by the strength.
+ */
+final class PostgresTweaks {
+
+  private PostgresTweaks() {}
+
+  /**
+   * The amount of pixels of a tile edge, the simplification tolerance is a multiple of one pixel.
+   */
+  static final int TILE_PIXELS = 256;
+
+  /**
+   * The maximal level for which geometries are simplified, at higher levels the tolerance is below the precision of the coordinates.
+   */
+  static final int MAX_LEVEL = 24;
+
+  /**
+   * Returns the condition to add to the {@code WHERE} clause to sample the features.
+   *
+   * @param tweaks The tweaks.
+   * @return the condition, {@code null} if the features should not be sampled.
+   */
+  static @Nullable String samplingCondition(@NotNull Tweaks tweaks) {
+    if (!(tweaks instanceof TweaksSampling)) {
+      return null;
+    }
+    final int strength = tweaks.sampling.strength;
+    if (strength <= 0) {
+      return null;
+    }
+    final String distribution = TweaksSQL.strengthSql(strength, true);
+    if (((TweaksSampling) tweaks).algorithm().distribution) {
+      return " " + distribution;
+    }
+    // Points and small geometries have no size, they are sampled by distribution, so that they do not disappear completely.
+    return " (" + TweaksSQL.strengthSql(strength, false) + " OR " + distribution + ")";
+  }
+
+  /**
+   * Returns the limit of a sampled read, being the sampling threshold, unless the requested limit is smaller.
+   *
+   * @param tweaks The tweaks.
+   * @param limit  The requested limit, {@code null} if unlimited.
+   * @return the limit to apply.
+   */
+  static @Nullable Long limit(@NotNull Tweaks tweaks, @Nullable Long limit) {
+    final Sampling sampling = tweaks.sampling;
+    if (!(tweaks instanceof TweaksSampling) || sampling.strength <= 0 || sampling.threshold <= 0) {
+      return limit;
+    }
+    return limit != null && limit < sampling.threshold ? limit : (long) sampling.threshold;
+  }
+
+  /**
+   * Returns the simplification tolerance in degrees, being the size of one pixel of a tile of the given level, multiplied by one plus a
+   * tenth of the strength, so "low" simplifies to two and "high" to eleven pixels.
+   *
+   * @param level    The requested level.
+   * @param strength The strength.
+   * @return the tolerance in degrees.
+   */
+  static double tolerance(int level, int strength) {
+    final int validLevel = Math.max(0, Math.min(MAX_LEVEL, level));
+    return 360d / ((double) (1L << validLevel) * TILE_PIXELS) * (1d + Math.max(0, strength) / 10d);
+  }
+
+  /**
+   * Returns the expression of the geometry to return, being {@code geo} or the simplified geometry.
+   *
+   * @param tweaks The tweaks.
+   * @param level  The requested level.
+   * @return the expression.
+   * @throws IllegalArgumentException If the simplification algorithm is not supported.
+   */
+  static @NotNull String geometry(@NotNull Tweaks tweaks, int level) {
+    if (!(tweaks instanceof TweaksSimplification)) {
+      return "geo";
+    }
+    final TweaksSimplification.Algorithm algorithm = ((TweaksSimplification) tweaks).algorithm;
+    final int strength = tweaks.sampling.strength;
+    switch (algorithm) {
+      case GRID:
+        return "ST_SnapToGrid(geo, " + tolerance(level, strength) + ")";
+      case GRID_BY_TILE_LEVEL:
+        return "ST_SnapToGrid(geo, " + tolerance(level, 0) + ")";
+      case SIMPLIFIED:
+        return "ST_Simplify(geo, " + tolerance(level, strength) + ", true)";
+      case DEFAULT:
+      case SIMPLIFIED_KEEP_TOPOLOGY:
+        return "ST_SimplifyPreserveTopology(geo, " + tolerance(level, strength) + ")";
+      default:
+        throw new IllegalArgumentException("Unsupported simplification: " + algorithm);
+    }
+  }
+}
@@ -18,13 +18,32 @@
  */
 package com.here.naksha.lib.psql;
 
+import static java.util.Comparator.comparing;
+
+import com.here.naksha.lib.core.models.storage.FeatureCodec;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.jetbrains.annotations.NotNull;
 
-@Deprecated
-class PostgresWriteFeaturesToPartition<T> {
+/**
+ * The features of a write request that belong to one HEAD partition of a partitioned collection. Partitioned collections have
+ * {@link #PARTITION_COUNT} HEAD partitions, the partition of a feature is selected by the first byte of the MD5 hash of its {@code id},
+ * exactly like done by {@code nk_head_partition_id(id)} in the database.
+ *
+ * @param <CODEC> The codec type.
+ */
+final class PostgresWriteFeaturesToPartition<CODEC extends FeatureCodec<?, CODEC>> {
+
+  /**
+   * The amount of HEAD partitions of a partitioned collection.
+   */
+  static final int PARTITION_COUNT = 256;
 
   private static @NotNull MessageDigest newMd5() {
     try {
@@ -37,16 +56,75 @@ class PostgresWriteFeaturesToPartition<T> {
   private static final ThreadLocal<MessageDigest> md5ThreadLocal =
       ThreadLocal.withInitial(PostgresWriteFeaturesToPartition::newMd5);
 
+  /**
+   * Returns the HEAD partition of the feature with the given {@code id}.
+   *
+   * @param id The feature {@code id}.
+   * @return The partition identifier, a value between 0 and 255.
+   */
   static int partitionIdOf(@NotNull String id) {
     final MessageDigest md5 = md5ThreadLocal.get();
     md5.reset();
     final byte[] digest = md5.digest(id.getBytes(StandardCharsets.UTF_8));
-    return ((int) digest[0]) & 63;
+    return ((int) digest[0]) & (PARTITION_COUNT - 1);
   }
 
-  PostgresWriteFeaturesToPartition(@NotNull String collectionId, int partitionId) {
+  /**
+   * Splits the given features by partition. The features within each partition are sorted by {@code id} to avoid deadlocks.
+   *
+   * @param features The features to split, must be decoded, so having an {@code id}.
+   * @param <CODEC>  The codec type.
+   * @return The partitions that have features, ordered by partition identifier.
+   */
+  static <CODEC extends FeatureCodec<?, CODEC>> @NotNull List<@NotNull PostgresWriteFeaturesToPartition<CODEC>> split(
+      @NotNull List<@NotNull CODEC> features) {
+    @SuppressWarnings("unchecked")
+    final PostgresWriteFeaturesToPartition<CODEC>[] partitions = new PostgresWriteFeaturesToPartition[PARTITION_COUNT];
+    for (final CODEC codec : features) {
+      final String id = codec.getId();
+      if (id == null) {
+        throw new IllegalArgumentException("Features written to a partitioned collection need an id");
+      }
+      final int partitionId = partitionIdOf(id);
+      PostgresWriteFeaturesToPartition<CODEC> partition = partitions[partitionId];
+      if (partition == null) {
+        partitions[partitionId] = partition = new PostgresWriteFeaturesToPartition<>(partitionId);
+      }
+      partition.features.add(codec);
+    }
+    final List<PostgresWriteFeaturesToPartition<CODEC>> result = new ArrayList<>();
+    for (final PostgresWriteFeaturesToPartition<CODEC> partition : partitions) {
+      if (partition != null) {
+        partition.features.sort(comparing(FeatureCodec::getId));
+        result.add(partition);
+      }
+    }
+    return result;
+  }
+
+  PostgresWriteFeaturesToPartition(int partitionId) {
     this.partitionId = partitionId;
+    this.features = new ArrayList<>();
   }
 
+  /**
+   * The partition identifier.
+   */
   final int partitionId;
+
+  /**
+   * The features to write into this partition.
+   */
+  final @NotNull List<@NotNull CODEC> features;
+
+  private static final AtomicInteger writerNumber = new AtomicInteger();
+
+  /**
+   * The threads used to write partitions concurrently; they only block on the database.
+   */
+  static final ExecutorService writers = Executors.newCachedThreadPool(runnable -> {
+    final Thread thread = new Thread(runnable, "naksha-psql-partition-writer-" + writerNumber.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
 }
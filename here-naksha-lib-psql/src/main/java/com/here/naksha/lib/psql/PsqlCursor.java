@@ -30,7 +30,13 @@ import java.io.IOException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,35 +55,103 @@ public class PsqlCursor<FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> ext
       @NotNull PostgresSession session,
       @NotNull Statement stmt,
       @NotNull ResultSet rs) {
+    this(codecFactory, session, stmt, rs, 0);
+  }
+
+  /**
+   * Creates a new cursor.
+   *
+   * @param codecFactory    The codec factory to use.
+   * @param session         The session that owns the statement.
+   * @param stmt            The statement that produced the result-set.
+   * @param rs              The result-set to read.
+   * @param decodeBatchSize If greater than zero, rows are fetched in batches of this size and the features are decoded in the common
+   *                        fork-join pool, while the next batch is fetched from the database; zero to decode lazily in the calling thread.
+   */
+  PsqlCursor(
+      @NotNull FeatureCodecFactory<FEATURE, CODEC> codecFactory,
+      @NotNull PostgresSession session,
+      @NotNull Statement stmt,
+      @NotNull ResultSet rs,
+      int decodeBatchSize) {
     super(codecFactory);
     cursor = new PostgresCursor(this, session, stmt, rs);
+    this.decodeBatchSize = decodeBatchSize;
+    this.batches = decodeBatchSize > 0 ? new ArrayDeque<>(2) : null;
   }
 
   private final @NotNull PostgresCursor cursor;
 
+  /**
+   * The amount of rows to decode in parallel, zero if decoding is done lazily by the consumer.
+   */
+  private final int decodeBatchSize;
+
+  /**
+   * The batches fetched and (being) decoded, {@code null} when parallel decoding is disabled.
+   */
+  private final @Nullable ArrayDeque<@NotNull DecodeBatch<FEATURE, CODEC>> batches;
+
+  /**
+   * If the result-set is exhausted.
+   */
+  private boolean eof;
+
+  /**
+   * Rows fetched from the database, decoded in the common fork-join pool.
+   */
+  private static final class DecodeBatch<FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>>
+      extends RecursiveAction {
+
+    /**
+     * Batches below this size are decoded in a single task.
+     */
+    private static final int THRESHOLD = 64;
+
+    DecodeBatch(@NotNull ArrayList<@NotNull CODEC> codecs) {
+      this(codecs, 0, codecs.size());
+    }
+
+    private DecodeBatch(@NotNull ArrayList<@NotNull CODEC> codecs, int start, int end) {
+      this.codecs = codecs;
+      this.start = start;
+      this.end = end;
+    }
+
+    final @NotNull ArrayList<@NotNull CODEC> codecs;
+    final int start;
+    final int end;
+
+    /**
+     * The index of the next codec to be returned by the cursor.
+     */
+    int next;
+
+    @Override
+    protected void compute() {
+      if (end - start <= THRESHOLD) {
+        for (int i = start; i < end; i++) {
+          final CODEC codec = codecs.get(i);
+          if (!codec.hasError()) {
+            codec.encodeFeature(false);
+          }
+        }
+        return;
+      }
+      final int mid = (start + end) >>> 1;
+      invokeAll(new DecodeBatch<>(codecs, start, mid), new DecodeBatch<>(codecs, mid, end));
+    }
+  }
+
   @Override
   protected boolean loadNextRow(@NotNull Row row) {
+    if (batches != null) {
+      return loadNextDecodedRow(row);
+    }
     final ResultSet rs = cursor.rs;
     try {
       if (rs.next()) {
-        final String r_op = rs.getString(1);
-        final String r_id = rs.getString(2);
-        final String r_uuid = rs.getString(3);
-        final String r_type = rs.getString(4);
-        final String r_ptype = rs.getString(5);
-        final String r_feature = rs.getString(6);
-        final byte[] r_geo = rs.getBytes(7);
-        final String r_err = rs.getString(8);
-
-        row.codec.setOp(r_op);
-        row.codec.setId(r_id);
-        row.codec.setUuid(r_uuid);
-        row.codec.setFeatureType(r_type);
-        row.codec.setPropertiesType(r_ptype);
-        row.codec.setJson(r_feature);
-        row.codec.setWkb(r_geo);
-        row.codec.setRawError(r_err);
-        row.codec.setErr(mapToCodecError(r_err));
+        readRow(rs, row.codec);
         row.valid = true;
         return true;
       }
@@ -88,8 +162,119 @@ public class PsqlCursor<FEATURE, CODEC extends FeatureCodec<FEATURE, CODEC>> ext
     }
   }
 
+  private void readRow(@NotNull ResultSet rs, @NotNull FeatureCodec<?, ?> codec) throws SQLException {
+    final String r_op = rs.getString(1);
+    final String r_id = rs.getString(2);
+    final String r_uuid = rs.getString(3);
+    final String r_type = rs.getString(4);
+    final String r_ptype = rs.getString(5);
+    final String r_feature = rs.getString(6);
+    final byte[] r_geo = rs.getBytes(7);
+    final String r_err = rs.getString(8);
+
+    codec.setOp(r_op);
+    codec.setId(r_id);
+    codec.setUuid(r_uuid);
+    codec.setFeatureType(r_type);
+    codec.setPropertiesType(r_ptype);
+    codec.setJson(r_feature);
+    codec.setWkb(r_geo);
+    codec.setRawError(r_err);
+    codec.setErr(mapToCodecError(r_err));
+  }
+
+  /**
+   * Returns the next row from the decoded batches. Before waiting for the decoding of a batch, the next batch is fetched from the
+   * database, so that the network I/O overlaps with the decoding.
+   */
+  private boolean loadNextDecodedRow(@NotNull Row row) {
+    assert batches != null;
+    DecodeBatch<FEATURE, CODEC> batch = batches.peekFirst();
+    if (batch != null && batch.next >= batch.codecs.size()) {
+      batches.pollFirst();
+      batch = batches.peekFirst();
+    }
+    if (batch == null) {
+      batch = fetchBatch();
+      if (batch == null) {
+        row.clear();
+        return false;
+      }
+    }
+    if (batch.next == 0 && batches.size() == 1) {
+      fetchBatch();
+    }
+    batch.join();
+    final CODEC codec = batch.codecs.get(batch.next);
+    batch.codecs.set(batch.next++, null);
+    if (codecFactory.isInstance(codec)) {
+      row.codec = codec;
+    } else {
+      // The codec factory was changed, re-encode with the new one.
+      row.codec = codecFactory.newInstance();
+      row.codec.withParts(codec);
+      row.codec.setErr(codec.getError());
+    }
+    row.valid = true;
+    return true;
+  }
+
+  /**
+   * Fetches the next batch of rows from the database and starts decoding it.
+   *
+   * @return the batch or {@code null}, if the result-set is exhausted.
+   */
+  private @Nullable DecodeBatch<FEATURE, CODEC> fetchBatch() {
+    assert batches != null;
+    if (eof) {
+      return null;
+    }
+    final ResultSet rs = cursor.rs;
+    final ArrayList<CODEC> codecs = new ArrayList<>(decodeBatchSize);
+    try {
+      while (codecs.size() < decodeBatchSize) {
+        if (!rs.next()) {
+          eof = true;
+          break;
+        }
+        final CODEC codec = codecFactory.newInstance();
+        readRow(rs, codec);
+        codecs.add(codec);
+      }
+    } catch (SQLException e) {
+      throw unchecked(e);
+    }
+    if (codecs.isEmpty()) {
+      return null;
+    }
+    final DecodeBatch<FEATURE, CODEC> batch = new DecodeBatch<>(codecs);
+    ForkJoinPool.commonPool().execute(batch);
+    batches.addLast(batch);
+    return batch;
+  }
+
+  /**
+   * Reads all remaining rows into new codecs.
+   *
+   * @return the codecs of all remaining rows.
+   */
+  @NotNull
+  List<@NotNull CODEC> readAll() {
+    final List<CODEC> codecs = new ArrayList<>();
+    while (hasNext() && next()) {
+      codecs.add(codecFactory.newInstance().copy(currentRow.codec));
+    }
+    return codecs;
+  }
+
   @Override
   public void close() {
+    if (batches != null) {
+      for (final DecodeBatch<FEATURE, CODEC> batch : batches) {
+        batch.cancel(false);
+      }
+      batches.clear();
+    }
     cursor.close();
   }
 
@@ -65,6 +65,16 @@ abstract class PsqlSession implements IReadSession, AutoCloseable {
     session().setFetchSize(size);
   }
 
+  @Override
+  public boolean isParallelDecode() {
+    return session().isParallelDecode();
+  }
+
+  @Override
+  public void setParallelDecode(boolean parallelDecode) {
+    session().setParallelDecode(parallelDecode);
+  }
+
   @Override
   public long getStatementTimeout(@NotNull TimeUnit timeUnit) {
     return session().getStatementTimeout(timeUnit);
@@ -243,6 +243,12 @@ public final class PsqlStorage implements IStorage, DataSource {
         null,
         null,
         null);
+    if (p(storage).partitionWriters != null) {
+      setPartitionWriters(p(storage).partitionWriters);
+    }
+    if (p(storage).clusterIntervalInMins != null) {
+      setClusterInterval(p(storage).clusterIntervalInMins, TimeUnit.MINUTES);
+    }
   }
 
   /**
@@ -417,6 +423,61 @@ public final class PsqlStorage implements IStorage, DataSource {
     return this;
   }
 
+  /**
+   * Returns the amount of connections used to write large requests into partitioned collections concurrently.
+   *
+   * @return the amount of connections used to write partitions concurrently, 1 if disabled.
+   */
+  @JsonIgnore
+  public int getPartitionWriters() {
+    return storage().getPartitionWriters();
+  }
+
+  /**
+   * Sets the amount of connections used to write large requests into partitioned collections concurrently. The HEAD partitions are
+   * distributed across these connections, all of them are committed or rolled back together with the session.
+   *
+   * @param partitionWriters the amount of connections, 1 to disable concurrent partition writes.
+   */
+  @JsonIgnore
+  public void setPartitionWriters(int partitionWriters) {
+    storage().setPartitionWriters(partitionWriters);
+  }
+
+  public @NotNull PsqlStorage withPartitionWriters(int partitionWriters) {
+    setPartitionWriters(partitionWriters);
+    return this;
+  }
+
+  /**
+   * Returns the interval in which the maintainer clusters the HEAD tables by their {@code grid}.
+   *
+   * @param timeUnit the time-unit in which to return the interval.
+   * @return the interval, 0 if disabled.
+   */
+  @JsonIgnore
+  public long getClusterInterval(@NotNull TimeUnit timeUnit) {
+    return storage().getClusterInterval(timeUnit);
+  }
+
+  /**
+   * Sets the interval in which the maintainer clusters the HEAD tables by their {@code grid}, so that spatial reads touch fewer pages.
+   * Clustering rewrites a table while holding an exclusive lock, therefore only tables that are not in use are clustered, others are
+   * retried with the next run. Takes effect when the maintainer is started.
+   *
+   * @param interval the interval, 0 to disable.
+   * @param timeUnit the time-unit of the interval.
+   */
+  @JsonIgnore
+  public void setClusterInterval(long interval, @NotNull TimeUnit timeUnit) {
+    storage().setClusterInterval(interval, timeUnit);
+  }
+
+  public @NotNull PsqlStorage withClusterInterval(long interval, @NotNull TimeUnit timeUnit) {
+    setClusterInterval(interval, timeUnit);
+    return this;
+  }
+
   @JsonGetter("logLevel")
   public @NotNull EPsqlLogLevel getLogLevel() {
     return storage().getLogLevel();
@@ -444,13 +505,19 @@ public final class PsqlStorage implements IStorage, DataSource {
   }
 
   @Override
-  public void startMaintainer() {}
+  public void startMaintainer() {
+    storage().maintainer.start();
+  }
 
   @Override
-  public void maintainNow() {}
+  public void maintainNow() {
+    storage().maintainer.maintainNow();
+  }
 
   @Override
-  public void stopMaintainer() {}
+  public void stopMaintainer() {
+    storage().maintainer.stop();
+  }
 
   /**
    * The Parameters map that is expected as parameter to {@link #initStorage(Map)}.
@@ -59,4 +59,18 @@ public class PsqlStorageProperties extends XyzProperties {
   @AvailableSince(NakshaVersion.v2_0_7)
   @JsonProperty("schema")
   public String schema;
+
+  /**
+   * The amount of connections used to write large requests into partitioned collections concurrently.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  @JsonProperty("partitionWriters")
+  public @Nullable Integer partitionWriters;
+
+  /**
+   * The interval in minutes in which the maintainer clusters the HEAD tables by their {@code grid}, 0 or {@code null} to disable.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  @JsonProperty("clusterIntervalInMins")
+  public @Nullable Integer clusterIntervalInMins;
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.lib.core.models.payload.events.clustering.ClusteringHexBin;
+import com.here.naksha.lib.core.models.payload.events.clustering.ClusteringQuadBin;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PostgresClusteringTest {
+
+  @Test
+  void testQuadbinLevel() {
+    final ClusteringQuadBin quadBin = new ClusteringQuadBin();
+    assertEquals(12, PostgresClustering.quadbinLevel(quadBin, 10));
+    quadBin.setRelativeResolution(4);
+    assertEquals(14, PostgresClustering.quadbinLevel(quadBin, 10));
+    assertEquals(PostgresClustering.MAX_QUADBIN_LEVEL, PostgresClustering.quadbinLevel(quadBin, Integer.MAX_VALUE));
+    quadBin.setAbsoluteResolution(0);
+    assertEquals(1, PostgresClustering.quadbinLevel(quadBin, 10));
+    // The cells are exactly the tiles of the cluster level.
+    assertEquals(PostgresClustering.WORLD_IN_METER / 2, PostgresClustering.cellSize(quadBin, 10));
+  }
+
+  @Test
+  void testHexbinSize() {
+    final ClusteringHexBin hexBin = new ClusteringHexBin();
+    assertEquals(PostgresClustering.WORLD_IN_METER / (1 << 14), PostgresClustering.cellSize(hexBin, 10));
+    hexBin.setRelativeResolution(-2);
+    assertEquals(PostgresClustering.WORLD_IN_METER / (1 << 12), PostgresClustering.cellSize(hexBin, 10));
+    hexBin.setAbsoluteResolution(2);
+    assertEquals(PostgresClustering.H3_RES0_EDGE_LENGTH / 7, PostgresClustering.cellSize(hexBin, 10), 1e-6);
+  }
+
+  @Test
+  void testAggregatedProperty() {
+    final ClusteringHexBin hexBin = new ClusteringHexBin();
+    assertNull(PostgresClustering.aggregatedProperty(hexBin));
+    hexBin.property = "height";
+    assertEquals(List.of("properties", "height"), PostgresClustering.aggregatedProperty(hexBin));
+    hexBin.property = "properties.building.height";
+    assertEquals(List.of("properties", "building", "height"), PostgresClustering.aggregatedProperty(hexBin));
+    assertNull(PostgresClustering.aggregatedProperty(new ClusteringQuadBin()));
+  }
+
+  @Test
+  void testClusterQuery() {
+    final ClusteringQuadBin quadBin = new ClusteringQuadBin();
+    final SQL features = new SQL();
+    PostgresClustering.addFeatureColumns(features, quadBin);
+    features.add(" FROM foo");
+    assertEquals("SELECT geo FROM foo", features.toString());
+
+    final SQL sql = new SQL();
+    PostgresClustering.addClusterQuery(sql, quadBin, 1, features, 100L);
+    final String query = sql.toString();
+    assertTrue(query.contains("ST_SquareGrid("), query);
+    assertTrue(query.contains("3 AS z, cell.i + 4 AS x, 3 - cell.j AS y"), query);
+    assertTrue(query.endsWith("GROUP BY cell.i, cell.j LIMIT 100) clusters) c"), query);
+
+    final ClusteringHexBin hexBin = new ClusteringHexBin();
+    hexBin.property = "height";
+    features.setLength(0);
+    PostgresClustering.addFeatureColumns(features, hexBin);
+    assertTrue(features.toString().endsWith("::double precision END AS v"), features.toString());
+    sql.setLength(0);
+    PostgresClustering.addClusterQuery(sql, hexBin, 1, features, null);
+    assertTrue(sql.toString().contains("ST_HexagonGrid("), sql.toString());
+    assertTrue(sql.toString().contains("min(f.v) AS min"), sql.toString());
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.here.naksha.lib.core.models.indexing.Index;
+import com.here.naksha.lib.core.models.indexing.IndexProperty;
+import com.here.naksha.lib.core.models.indexing.IndexProperty.Nulls;
+import com.here.naksha.lib.core.models.indexing.IndexProperty.Type;
+import com.here.naksha.lib.core.models.storage.NonIndexedPRef;
+import com.here.naksha.lib.core.models.storage.POp;
+import com.here.naksha.lib.core.models.storage.PRef;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PostgresIndexTest {
+
+  private static IndexProperty property(String path, Type type) {
+    final IndexProperty property = new IndexProperty();
+    property.path = path;
+    property.type = type;
+    return property;
+  }
+
+  private static Index index(String name, IndexProperty... properties) {
+    final Index index = new Index();
+    index.name = name;
+    index.properties = List.of(properties);
+    return index;
+  }
+
+  @Test
+  void testExpression() {
+    final SQL sql = new SQL();
+    PostgresIndex.addExpression(sql, PostgresIndex.splitPath("properties.featureType"), Type.STRING);
+    assertEquals("((jsondata->E'properties'->>E'featureType') COLLATE \"C\")", sql.toString());
+
+    sql.setLength(0);
+    PostgresIndex.addExpression(sql, PostgresIndex.splitPath("$.properties.speedLimit"), Type.LONG);
+    assertEquals("((jsondata->E'properties'->E'speedLimit')::int8)", sql.toString());
+  }
+
+  @Test
+  void testStringQueriesKeepCollation() {
+    // Before the queries used the index expressions, they were generated as: (jsondata->...->>'x') COLLATE "C"::text
+    final PRef name = new NonIndexedPRef("properties", "name");
+    final List<Object> parameter = new ArrayList<>();
+    final SQL sql = new SQL();
+    PostgresSession.addPropertyQuery(sql, POp.eq(name, "foo"), parameter);
+    assertEquals(" ((jsondata->E'properties'->>E'name') COLLATE \"C\") = ?", sql.toString());
+
+    sql.setLength(0);
+    PostgresSession.addPropertyQuery(sql, POp.startsWith(name, "fo"), parameter);
+    assertEquals(" ((jsondata->E'properties'->>E'name') COLLATE \"C\") LIKE ?", sql.toString());
+    assertEquals(List.of("foo", "fo%"), parameter);
+  }
+
+  @Test
+  void testCreateIndex() {
+    final IndexProperty speedLimit = property("properties.speedLimit", Type.DOUBLE);
+    speedLimit.asc = false;
+    speedLimit.nulls = Nulls.LAST;
+    final Index index = index("road", property("properties.featureType", Type.STRING), speedLimit);
+    assertEquals(
+        "CREATE INDEX CONCURRENTLY IF NOT EXISTS foo_p001_u_road ON foo_p001 USING btree ("
+            + "((jsondata->E'properties'->>E'featureType') COLLATE \"C\") ASC, "
+            + "((jsondata->E'properties'->E'speedLimit')::double precision) DESC NULLS LAST)",
+        PostgresIndex.createIndex("foo_p001", index));
+
+    final Index tags = index("tags", property("properties.tags", Type.JSON));
+    assertEquals("gin", PostgresIndex.algorithm(tags));
+    assertEquals(
+        "CREATE INDEX CONCURRENTLY IF NOT EXISTS foo_u_tags ON foo USING gin ("
+            + "((jsondata->E'properties'->E'tags')))",
+        PostgresIndex.createIndex("foo", tags));
+  }
+
+  @Test
+  void testInvalid() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> PostgresIndex.createIndex("foo", index("a-b", property("properties.x", Type.STRING))));
+    assertThrows(IllegalArgumentException.class, () -> PostgresIndex.createIndex("foo", index("a")));
+    assertThrows(IllegalArgumentException.class, () -> PostgresIndex.splitPath("properties..x"));
+    final Index hash = index("h", property("properties.x", Type.STRING), property("properties.y", Type.STRING));
+    hash.alg = "hash";
+    assertThrows(IllegalArgumentException.class, () -> PostgresIndex.createIndex("foo", hash));
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.lib.core.models.geojson.implementation.EXyzAction;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzPoint;
+import com.here.naksha.lib.core.models.storage.EExecutedOp;
+import com.here.naksha.lib.core.models.storage.EWriteOp;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.models.storage.ReadFeatures;
+import com.here.naksha.lib.core.models.storage.WriteXyzFeatures;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import java.util.HashSet;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+@SuppressWarnings("unused")
+@TestMethodOrder(OrderAnnotation.class)
+class PostgresPartitionedWriteTest extends PsqlTests {
+
+  @Override
+  boolean enabled() {
+    return true;
+  }
+
+  @Override
+  @NotNull
+  String collectionId() {
+    return "psql_partitioned_write_test";
+  }
+
+  @Override
+  boolean partition() {
+    return true;
+  }
+
+  static final int SIZE = PostgresSession.PARTITION_WRITE_MIN_SIZE;
+
+  private static @NotNull WriteXyzFeatures createFeatures(@NotNull String collectionId, @NotNull String prefix) {
+    final WriteXyzFeatures request = new WriteXyzFeatures(collectionId);
+    for (int i = 0; i < SIZE; i++) {
+      final XyzFeature feature = new XyzFeature(prefix + i);
+      feature.setGeometry(new XyzPoint(i % 180, i % 90));
+      request.add(EWriteOp.CREATE, feature);
+    }
+    return request;
+  }
+
+  private long count(@NotNull String prefix) throws Exception {
+    assertNotNull(session);
+    long count = 0;
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor =
+        session.execute(new ReadFeatures(collectionId())).getXyzFeatureCursor()) {
+      while (cursor.next()) {
+        if (cursor.getId().startsWith(prefix)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  @Test
+  @Order(50)
+  @EnabledIf("runTest")
+  void partitionsShareOneTransaction() throws Exception {
+    assertNotNull(session);
+    session.session().setPartitionWriters(4);
+    final Set<Long> txns = new HashSet<>();
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor =
+        session.execute(createFeatures(collectionId(), "committed_")).getXyzFeatureCursor()) {
+      while (cursor.next()) {
+        assertSame(EExecutedOp.CREATED, cursor.getOp());
+        final XyzFeature feature = cursor.getFeature();
+        assertSame(EXyzAction.CREATE, feature.xyz().getAction());
+        txns.add(feature.xyz().getTxn());
+      }
+    } finally {
+      session.commit(true);
+    }
+    assertEquals(1, txns.size(), "All partitions must be written in the same transaction");
+    assertEquals(SIZE, count("committed_"));
+  }
+
+  @Test
+  @Order(60)
+  @EnabledIf("runTest")
+  void partitionsAreRolledBackTogether() throws Exception {
+    assertNotNull(session);
+    session.session().setPartitionWriters(4);
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor =
+        session.execute(createFeatures(collectionId(), "rolled_back_")).getXyzFeatureCursor()) {
+      assertTrue(cursor.next());
+    } finally {
+      session.rollback(true);
+    }
+    assertEquals(0, count("rolled_back_"));
+    assertFalse(count("committed_") == 0);
+  }
+}
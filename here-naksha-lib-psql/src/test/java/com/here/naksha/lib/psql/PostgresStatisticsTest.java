@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.lib.core.models.geojson.coordinates.BBox;
+import com.here.naksha.lib.core.models.payload.responses.StatisticsResponse;
+import com.here.naksha.lib.core.models.payload.responses.StatisticsResponse.PropertyStatistics;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PostgresStatisticsTest {
+
+  @Test
+  void testSampleQuery() {
+    final String query = PostgresStatistics.sampleQuery("foo");
+    assertTrue(
+        query.startsWith("WITH s AS (SELECT jsondata->'properties' AS p, geo FROM foo TABLESAMPLE SYSTEM (?::real) LIMIT "
+            + PostgresStatistics.SAMPLE_SIZE + ")"),
+        query);
+    assertTrue(query.contains("k.key <> E'@ns:com:here:xyz'"), query);
+    assertTrue(query.endsWith("SELECT 'n', null, null, count(*) FROM s;"), query);
+  }
+
+  @Test
+  void testToResponse() {
+    final PostgresStatistics statistics = new PostgresStatistics(
+        10L,
+        true,
+        8192L,
+        new BBox(1, 2, 3, 4),
+        List.of(new PropertyStatistics().withKey("name").withCount(10L)),
+        List.of(),
+        List.of("POINT"),
+        false);
+    assertTrue(statistics.isExpired(statistics.createdAt + PostgresStatistics.MAX_AGE + 1));
+    final StatisticsResponse response = statistics.toResponse();
+    assertEquals(10L, response.getCount().getValue());
+    assertTrue(response.getCount().getEstimated());
+    assertEquals("name", response.getProperties().getValue().get(0).getKey());
+    assertFalse(response.getProperties().getEstimated());
+    assertEquals(List.of("POINT"), response.getGeometryTypes().getValue());
+    // The cached lists must not be shared with the response.
+    response.getGeometryTypes().getValue().clear();
+    assertEquals(List.of("POINT"), statistics.toResponse().getGeometryTypes().getValue());
+    assertTrue(response.getTags().getValue().isEmpty());
+  }
+}
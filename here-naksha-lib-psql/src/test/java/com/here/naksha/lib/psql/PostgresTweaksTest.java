@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.lib.psql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
+import com.here.naksha.lib.core.models.payload.events.Sampling;
+import com.here.naksha.lib.core.models.payload.events.tweaks.TweaksSampling;
+import com.here.naksha.lib.core.models.payload.events.tweaks.TweaksSimplification;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PostgresTweaksTest {
+
+  @Test
+  void testSampling() {
+    final TweaksSampling sampling = new TweaksSampling();
+    assertNull(PostgresTweaks.samplingCondition(sampling));
+    assertEquals(10L, PostgresTweaks.limit(sampling, 10L));
+
+    sampling.sampling = Sampling.forText("med", Sampling.OFF);
+    assertEquals(
+        " (( ST_Perimeter(box2d(geo) ) > 0.008000 ) OR left(md5(''||i),5) < '02')",
+        PostgresTweaks.samplingCondition(sampling));
+    sampling.algorithm = TweaksSampling.Algorithm.DISTRIBUTION;
+    assertEquals(" left(md5(''||i),5) < '02'", PostgresTweaks.samplingCondition(sampling));
+    assertEquals(10L, PostgresTweaks.limit(sampling, 10L));
+    assertEquals(40_000L, PostgresTweaks.limit(sampling, null));
+
+    // Sampling only applies to the sampling tweaks.
+    assertNull(PostgresTweaks.samplingCondition(new TweaksSimplification()));
+  }
+
+  @Test
+  void testSimplification() {
+    assertEquals(360d / 256, PostgresTweaks.tolerance(0, 0));
+    assertEquals(360d / 512 * 2, PostgresTweaks.tolerance(1, 10));
+    assertEquals(PostgresTweaks.tolerance(PostgresTweaks.MAX_LEVEL, 0), PostgresTweaks.tolerance(Integer.MAX_VALUE, 0));
+
+    final TweaksSimplification simplification = new TweaksSimplification();
+    assertEquals("ST_SimplifyPreserveTopology(geo, 1.40625)", PostgresTweaks.geometry(simplification, 0));
+    simplification.algorithm = TweaksSimplification.Algorithm.GRID_BY_TILE_LEVEL;
+    assertEquals("ST_SnapToGrid(geo, 0.703125)", PostgresTweaks.geometry(simplification, 1));
+    simplification.algorithm = TweaksSimplification.Algorithm.LINE_MERGE;
+    assertThrows(IllegalArgumentException.class, () -> PostgresTweaks.geometry(simplification, 1));
+
+    assertEquals("geo", PostgresTweaks.geometry(new TweaksSampling(), 1));
+  }
+
+  @Test
+  void testMvtQuery() {
+    final WebMercatorTile tile = WebMercatorTile.forWeb(10, 1, 1);
+    final TweaksSimplification simplification = new TweaksSimplification();
+    final SQL simplified = new SQL();
+    PostgresSession.addMvtQuery(
+        simplified,
+        List.of("foo"),
+        tile,
+        null,
+        PostgresTweaks.geometry(simplification, tile.level),
+        "",
+        "",
+        PostgresTweaks.limit(simplification, null));
+    final String simplifiedQuery = simplified.toString();
+    assertTrue(
+        simplifiedQuery.contains("ST_ClipByBox2D(ST_SimplifyPreserveTopology(geo, "
+            + PostgresTweaks.tolerance(tile.level, simplification.sampling.strength) + "), "),
+        simplifiedQuery);
+    assertFalse(simplifiedQuery.contains(" LIMIT "), simplifiedQuery);
+
+    final TweaksSampling sampling = new TweaksSampling();
+    sampling.sampling = Sampling.forText("med", Sampling.OFF);
+    final String condition = PostgresTweaks.samplingCondition(sampling);
+    final SQL sampled = new SQL();
+    PostgresSession.addMvtQuery(
+        sampled,
+        List.of("foo"),
+        tile,
+        null,
+        PostgresTweaks.geometry(sampling, tile.level),
+        "",
+        condition,
+        PostgresTweaks.limit(sampling, null));
+    final String sampledQuery = sampled.toString();
+    assertTrue(sampledQuery.contains("ST_ClipByBox2D(geo, "), sampledQuery);
+    assertTrue(sampledQuery.contains(" WHERE" + condition + " LIMIT 40000)"), sampledQuery);
+  }
+}
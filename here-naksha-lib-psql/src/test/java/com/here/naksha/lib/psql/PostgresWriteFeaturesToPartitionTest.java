@@ -19,17 +19,50 @@
 package com.here.naksha.lib.psql;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class PostgresWriteFeaturesToPartitionTest {
 
   @Test
   void testPartitionId() {
-    assertEquals(44, PostgresWriteFeaturesToPartition.partitionIdOf("foo"));
-    assertEquals(63, PostgresWriteFeaturesToPartition.partitionIdOf("fooA"));
-    assertEquals(19, PostgresWriteFeaturesToPartition.partitionIdOf("fooB"));
-    assertEquals(39, PostgresWriteFeaturesToPartition.partitionIdOf("fooC"));
-    assertEquals(6, PostgresWriteFeaturesToPartition.partitionIdOf("fooD"));
+    assertEquals(172, PostgresWriteFeaturesToPartition.partitionIdOf("foo"));
+    assertEquals(255, PostgresWriteFeaturesToPartition.partitionIdOf("fooA"));
+    assertEquals(147, PostgresWriteFeaturesToPartition.partitionIdOf("fooB"));
+    assertEquals(167, PostgresWriteFeaturesToPartition.partitionIdOf("fooC"));
+    assertEquals(198, PostgresWriteFeaturesToPartition.partitionIdOf("fooD"));
+  }
+
+  @Test
+  void testSplit() {
+    final List<XyzFeatureCodec> features = new ArrayList<>();
+    for (final String id : new String[] {"fooD", "foo", "fooC", "fooA", "fooB", "bar"}) {
+      features.add(XyzFeatureCodecFactory.get().newInstance().withFeature(new XyzFeature(id)));
+    }
+    final List<PostgresWriteFeaturesToPartition<XyzFeatureCodec>> partitions =
+        PostgresWriteFeaturesToPartition.split(features);
+    int total = 0;
+    int lastPartitionId = -1;
+    for (final PostgresWriteFeaturesToPartition<XyzFeatureCodec> partition : partitions) {
+      assertEquals(true, partition.partitionId > lastPartitionId);
+      lastPartitionId = partition.partitionId;
+      String lastId = null;
+      for (final XyzFeatureCodec codec : partition.features) {
+        assertEquals(partition.partitionId, PostgresWriteFeaturesToPartition.partitionIdOf(codec.getId()));
+        assertEquals(true, lastId == null || lastId.compareTo(codec.getId()) < 0);
+        lastId = codec.getId();
+        total++;
+      }
+    }
+    assertEquals(features.size(), total);
+
+    features.add(XyzFeatureCodecFactory.get().newInstance());
+    assertThrows(IllegalArgumentException.class, () -> PostgresWriteFeaturesToPartition.split(features));
   }
 }
@@ -65,6 +65,34 @@ public class PsqlCursorTest {
     assertEquals("feature", forwardCursor.getFeature());
   }
 
+  @Test
+  void testParallelDecodePreservesOrder() throws SQLException {
+    // given
+    Statement statement = Mockito.mock(Statement.class);
+    ResultSet rs = Mockito.mock(ResultSet.class);
+    final int rows = 1000;
+    final int[] row = {0};
+
+    // when
+    when(rs.next()).thenAnswer(invocation -> ++row[0] <= rows);
+    when(rs.getString(2)).thenAnswer(invocation -> "f" + row[0]);
+    when(rs.getString(6)).thenAnswer(invocation -> "{\"id\":\"f" + row[0] + "\"}");
+    when(rs.getString(8)).thenReturn(null);
+    PsqlCursor<XyzFeature, XyzFeatureCodec> cursor =
+        new PsqlCursor<>(XyzFeatureCodecFactory.get(), null, statement, rs, 128);
+
+    // expect
+    int i = 0;
+    while (cursor.hasNext()) {
+      assertTrue(cursor.next());
+      i++;
+      final XyzFeature feature = cursor.getFeature();
+      assertNotNull(feature);
+      assertEquals("f" + i, feature.getId());
+    }
+    assertEquals(rows, i);
+  }
+
   @ParameterizedTest
   @MethodSource("psqlErrorValues")
   void testPsqlError(String psqlError, XyzError expected) throws SQLException {
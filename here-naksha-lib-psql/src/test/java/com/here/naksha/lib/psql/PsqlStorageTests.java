@@ -37,6 +37,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -46,6 +47,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.here.naksha.lib.core.exceptions.NoCursor;
 import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
 import com.here.naksha.lib.core.models.geojson.coordinates.LineStringCoordinates;
 import com.here.naksha.lib.core.models.geojson.coordinates.MultiPointCoordinates;
 import com.here.naksha.lib.core.models.geojson.coordinates.PointCoordinates;
@@ -57,7 +59,12 @@ import com.here.naksha.lib.core.models.geojson.implementation.XyzMultiPoint;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzPoint;
 import com.here.naksha.lib.core.models.geojson.implementation.namespaces.XyzNamespace;
 import com.here.naksha.lib.core.models.naksha.NakshaFeature;
+import com.here.naksha.lib.core.models.payload.events.clustering.ClusteringHexBin;
+import com.here.naksha.lib.core.models.payload.events.clustering.ClusteringQuadBin;
+import com.here.naksha.lib.core.models.payload.events.tweaks.TweaksSimplification;
+import com.here.naksha.lib.core.models.payload.responses.StatisticsResponse;
 import com.here.naksha.lib.core.models.naksha.XyzCollection;
+import com.here.naksha.lib.core.models.storage.BinaryResult;
 import com.here.naksha.lib.core.models.storage.CodecError;
 import com.here.naksha.lib.core.models.storage.EExecutedOp;
 import com.here.naksha.lib.core.models.storage.EWriteOp;
@@ -69,9 +76,11 @@ import com.here.naksha.lib.core.models.storage.POp;
 import com.here.naksha.lib.core.models.storage.POpHelper;
 import com.here.naksha.lib.core.models.storage.PRef;
 import com.here.naksha.lib.core.models.storage.ReadFeatures;
+import com.here.naksha.lib.core.models.storage.ReadStatistics;
 import com.here.naksha.lib.core.models.storage.Result;
 import com.here.naksha.lib.core.models.storage.SOp;
 import com.here.naksha.lib.core.models.storage.SeekableCursor;
+import com.here.naksha.lib.core.models.storage.StatisticsResult;
 import com.here.naksha.lib.core.models.storage.SuccessResult;
 import com.here.naksha.lib.core.models.storage.WriteFeatures;
 import com.here.naksha.lib.core.models.storage.WriteXyzCollections;
@@ -90,6 +99,7 @@ import org.locationtech.jts.operation.buffer.BufferOp;
 import com.spatial4j.core.distance.DistanceUtils;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -292,6 +302,137 @@ public class PsqlStorageTests extends PsqlTests {
     }
   }
 
+  @Test
+  @Order(53)
+  @EnabledIf("runTest")
+  void readWithDWithin() throws NoCursor {
+    assertNotNull(storage);
+    assertNotNull(session);
+
+    XyzPoint xyzPoint = new XyzPoint(4.0d, 5.0d);
+
+    ReadFeatures readFeatures = new ReadFeatures(collectionId());
+    readFeatures.setSpatialOp(SOp.dwithin(xyzPoint, 150000.0));
+
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor =
+             session.execute(readFeatures).getXyzFeatureCursor()) {
+      assertFalse(cursor.hasNext());
+    }
+
+    readFeatures.setSpatialOp(SOp.dwithin(xyzPoint, 160000.0));
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor =
+             session.execute(readFeatures).getXyzFeatureCursor()) {
+      assertTrue(cursor.next());
+      assertEquals(SINGLE_FEATURE_ID, cursor.getFeature().getId());
+    }
+  }
+
+  @Test
+  @Order(53)
+  @EnabledIf("runTest")
+  void readMvt() {
+    assertNotNull(storage);
+    assertNotNull(session);
+
+    final WebMercatorTile northEast = WebMercatorTile.forQuadkey("1");
+    final ReadFeatures readFeatures = new ReadFeatures(collectionId());
+    readFeatures.setSpatialOp(SOp.intersects(northEast.getAsPolygon().getGeometry()));
+    readFeatures.withMvt(northEast, null);
+    final BinaryResult result = assertInstanceOf(BinaryResult.class, session.execute(readFeatures));
+    final String tile = new String(result.bytes, StandardCharsets.ISO_8859_1);
+    assertTrue(tile.contains(collectionId()));
+    assertTrue(tile.contains(SINGLE_FEATURE_ID));
+
+    final WebMercatorTile southEast = WebMercatorTile.forQuadkey("3");
+    readFeatures.setSpatialOp(SOp.intersects(southEast.getAsPolygon().getGeometry()));
+    readFeatures.withMvt(southEast, List.of("properties.name"));
+    final BinaryResult empty = assertInstanceOf(BinaryResult.class, session.execute(readFeatures));
+    assertEquals(0, empty.bytes.length);
+  }
+
+  @Test
+  @Order(53)
+  @EnabledIf("runTest")
+  void readClustered() throws NoCursor {
+    assertNotNull(storage);
+    assertNotNull(session);
+
+    final WebMercatorTile northEast = WebMercatorTile.forQuadkey("1");
+    final ReadFeatures readFeatures = new ReadFeatures(collectionId());
+    readFeatures.setSpatialOp(SOp.intersects(northEast.getAsPolygon().getGeometry()));
+    readFeatures.withClustering(new ClusteringQuadBin(), northEast.level);
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor =
+             session.execute(readFeatures).getXyzFeatureCursor()) {
+      assertTrue(cursor.next());
+      final XyzFeature cluster = cursor.getFeature();
+      // The point (5, 6) is in the tile 3_4_3.
+      assertEquals("3_4_3", cluster.getId());
+      assertEquals(1, ((Number) cluster.getProperties().get("count")).intValue());
+      assertFalse(cursor.hasNext());
+    }
+
+    readFeatures.withClustering(new ClusteringHexBin(), northEast.level);
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor =
+             session.execute(readFeatures).getXyzFeatureCursor()) {
+      assertTrue(cursor.next());
+      assertEquals(1, ((Number) cursor.getFeature().getProperties().get("count")).intValue());
+      assertFalse(cursor.hasNext());
+    }
+  }
+
+  @Test
+  @Order(53)
+  @EnabledIf("runTest")
+  void readTweaked() throws NoCursor {
+    assertNotNull(storage);
+    assertNotNull(session);
+
+    final WebMercatorTile northEast = WebMercatorTile.forQuadkey("1");
+    final ReadFeatures readFeatures = new ReadFeatures(collectionId());
+    readFeatures.setSpatialOp(SOp.intersects(northEast.getAsPolygon().getGeometry()));
+    final TweaksSimplification simplification = new TweaksSimplification();
+    simplification.algorithm = TweaksSimplification.Algorithm.GRID_BY_TILE_LEVEL;
+    readFeatures.withTweaks(simplification, northEast.level);
+    try (final ForwardCursor<XyzFeature, XyzFeatureCodec> cursor =
+             session.execute(readFeatures).getXyzFeatureCursor()) {
+      assertTrue(cursor.next());
+      assertEquals(SINGLE_FEATURE_ID, cursor.getFeature().getId());
+      // The point (5, 6) is snapped to the pixel grid of level 1, being 360 / 512 degree.
+      final double pixel = 360d / 512;
+      final Coordinate coordinate = cursor.getGeometry().getCoordinate();
+      assertEquals(Math.round(5d / pixel) * pixel, coordinate.x, 1e-9);
+      assertEquals(Math.round(6d / pixel) * pixel, coordinate.y, 1e-9);
+    }
+
+    simplification.algorithm = TweaksSimplification.Algorithm.MERGE;
+    final ErrorResult error = assertInstanceOf(ErrorResult.class, session.execute(readFeatures));
+    assertEquals(XyzError.NOT_IMPLEMENTED, error.reason);
+  }
+
+  @Test
+  @Order(53)
+  @EnabledIf("runTest")
+  void readStatistics() {
+    assertNotNull(storage);
+    assertNotNull(session);
+
+    final StatisticsResult result =
+        assertInstanceOf(StatisticsResult.class, session.execute(new ReadStatistics(collectionId())));
+    final StatisticsResponse statistics = result.statistics;
+    assertTrue(statistics.getCount().getValue() >= 1);
+    assertTrue(statistics.getDataSize().getValue() > 0);
+    assertTrue(statistics.getGeometryTypes().getValue().contains("POINT"));
+    // Cached by the storage, but every request gets its own response.
+    final StatisticsResult cached =
+        assertInstanceOf(StatisticsResult.class, session.execute(new ReadStatistics(collectionId())));
+    assertNotSame(statistics, cached.statistics);
+    assertEquals(statistics.getCount().getValue(), cached.statistics.getCount().getValue());
+
+    final ErrorResult error =
+        assertInstanceOf(ErrorResult.class, session.execute(new ReadStatistics("no_such_collection")));
+    assertEquals(XyzError.COLLECTION_NOT_FOUND, error.reason);
+  }
+
   @Test
   @Order(54)
   @EnabledIf("runTest")
@@ -110,6 +110,13 @@ public class ViewReadSession implements IReadSession {
     if (!(request instanceof ReadFeatures)) {
       throw new UnsupportedOperationException("Only ReadFeatures are supported.");
     }
+    final ReadFeatures readFeatures = (ReadFeatures) request;
+    if (readFeatures.getClustering() != null) {
+      return new ErrorResult(XyzError.NOT_IMPLEMENTED, "Clustering is not supported by views");
+    }
+    if (readFeatures.getMvtTile() != null) {
+      return new ErrorResult(XyzError.NOT_IMPLEMENTED, "MVT is not supported by views");
+    }
 
     /*
     Call every layer/storage and get the first result.
@@ -271,7 +278,7 @@ public class ViewReadSession implements IReadSession {
       return false;
     }
     if (pOp.children() == null) {
-      return pOp.op() == POpType.EQ && PRef.id().equals(pOp.getPropertyRef());
+      return (pOp.op() == POpType.EQ || pOp.op() == POpType.IN) && PRef.id().equals(pOp.getPropertyRef());
     } else {
       return pOp.children().stream().allMatch(this::isPropertyOpIdOnly);
     }
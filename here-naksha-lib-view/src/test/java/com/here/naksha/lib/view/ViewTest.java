@@ -22,7 +22,9 @@ import com.here.naksha.lib.core.*;
 import com.here.naksha.lib.core.exceptions.NoCursor;
 import com.here.naksha.lib.core.exceptions.TooManyTasks;
 import com.here.naksha.lib.core.exceptions.UncheckedException;
+import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.payload.events.clustering.ClusteringQuadBin;
 import com.here.naksha.lib.core.models.storage.*;
 import com.here.naksha.lib.core.storage.IReadSession;
 import com.here.naksha.lib.core.storage.IStorage;
@@ -95,6 +97,19 @@ public class ViewTest {
     assertTrue(allFeatures.containsAll(results));
   }
 
+  @Test
+  void testClusteringNotImplemented() {
+    IStorage storage = mock(IStorage.class);
+    when(storage.newReadSession(nc, false)).thenReturn(new MockReadSession(sampleXyzResponse(1)));
+    View view = new View(new ViewLayerCollection("myCollection", new ViewLayer(storage, TOPO)));
+
+    ViewReadSession readSession = view.newReadSession(nc, false);
+    Result result = readSession.execute(new ReadFeatures().withClustering(new ClusteringQuadBin(), 10));
+
+    assertInstanceOf(ErrorResult.class, result);
+    assertEquals(XyzError.NOT_IMPLEMENTED, ((ErrorResult) result).reason);
+  }
+
   @Test
   void testWriteApiNotation() throws NoCursor {
     IStorage storage = mock(IStorage.class);
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.storage.http;
+
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A circuit breaker for a remote storage. After the given amount of consecutive failures, the circuit opens and all requests fail fast
+ * until the open duration elapsed. Then a single probe request is let through (half-open): if it succeeds, the circuit closes again,
+ * otherwise it opens for another period.
+ */
+final class CircuitBreaker {
+
+  enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final int threshold;
+  private final long openMillis;
+  private @NotNull State state = State.CLOSED;
+  private int failures;
+  private long openUntil;
+  private boolean probing;
+
+  /**
+   * @param threshold the amount of consecutive failures after which to open the circuit, zero to never open it.
+   * @param openSec   the time in seconds to keep the circuit open, before probing again.
+   */
+  CircuitBreaker(int threshold, long openSec) {
+    this.threshold = threshold;
+    this.openMillis = TimeUnit.SECONDS.toMillis(openSec);
+  }
+
+  /**
+   * Tests if a request may be sent. Every successful call must be followed by either {@link #onSuccess()} or {@link #onFailure()}.
+   *
+   * @return {@code true} if the request may be sent; {@code false} if it should fail fast.
+   */
+  synchronized boolean tryAcquire() {
+    switch (state) {
+      case CLOSED:
+        return true;
+      case OPEN:
+        if (System.currentTimeMillis() < openUntil) return false;
+        state = State.HALF_OPEN;
+        probing = true;
+        return true;
+      default:
+        if (probing) return false;
+        probing = true;
+        return true;
+    }
+  }
+
+  synchronized void onSuccess() {
+    state = State.CLOSED;
+    failures = 0;
+    probing = false;
+  }
+
+  synchronized void onFailure() {
+    probing = false;
+    failures++;
+    if (state == State.HALF_OPEN || (threshold > 0 && failures >= threshold)) {
+      state = State.OPEN;
+      openUntil = System.currentTimeMillis() + openMillis;
+    }
+  }
+
+  synchronized @NotNull State state() {
+    return state;
+  }
+}
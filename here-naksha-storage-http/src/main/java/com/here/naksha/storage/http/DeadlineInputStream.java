@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.storage.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Wraps the body of a streamed response and closes it when the deadline of the request is reached. This way reading a body that arrives
+ * too slowly fails with a {@link HttpTimeoutException}, just like waiting too long for the response headers does.
+ */
+class DeadlineInputStream extends FilterInputStream {
+
+  private final @NotNull CompletableFuture<Void> watchdog;
+  private final @NotNull Runnable onClose;
+  private volatile boolean expired;
+
+  /**
+   * @param in the body stream.
+   * @param timeoutMillis the time left until the deadline of the request.
+   * @param onClose invoked when the stream is closed or expired, may be invoked twice.
+   */
+  DeadlineInputStream(@NotNull InputStream in, long timeoutMillis, @NotNull Runnable onClose) {
+    super(in);
+    this.onClose = onClose;
+    watchdog = CompletableFuture.runAsync(
+        this::expire, CompletableFuture.delayedExecutor(Math.max(0L, timeoutMillis), TimeUnit.MILLISECONDS));
+  }
+
+  private void expire() {
+    expired = true;
+    try {
+      in.close();
+    } catch (IOException ignore) {
+    } finally {
+      onClose.run();
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    try {
+      return checkExpired(super.read());
+    } catch (IOException e) {
+      throw translate(e);
+    }
+  }
+
+  @Override
+  public int read(byte @NotNull [] b, int off, int len) throws IOException {
+    try {
+      return checkExpired(super.read(b, off, len));
+    } catch (IOException e) {
+      throw translate(e);
+    }
+  }
+
+  private int checkExpired(int result) throws IOException {
+    if (result < 0 && expired) {
+      throw timeout(null);
+    }
+    return result;
+  }
+
+  private @NotNull IOException translate(@NotNull IOException e) {
+    return expired && !(e instanceof HttpTimeoutException) ? timeout(e) : e;
+  }
+
+  private static @NotNull HttpTimeoutException timeout(Throwable cause) {
+    final HttpTimeoutException timeout = new HttpTimeoutException("Timeout while reading the response body");
+    if (cause != null) {
+      timeout.initCause(cause);
+    }
+    return timeout;
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchdog.cancel(false);
+    try {
+      super.close();
+    } finally {
+      onClose.run();
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.storage.http;
+
+import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.EExecutedOp;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodecFactory;
+import com.here.naksha.lib.core.util.json.Json;
+import com.here.naksha.lib.core.view.ViewDeserialize;
+import java.io.IOException;
+import java.io.InputStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A forward cursor that parses the features one by one from the body of a response, while iterating, so that the response is never held
+ * in memory as a whole. The body is either a single feature or a feature collection, of which only the {@code features} array is read,
+ * all other members are skipped. The body is closed when the cursor is exhausted or closed.
+ */
+class FeatureStreamCursor extends ForwardCursor<XyzFeature, XyzFeatureCodec> {
+
+  /**
+   * The maximal amount of bytes to read after the last feature, to reach the end of the body. Only a fully read body allows the HTTP
+   * client to reuse the connection.
+   */
+  static final int MAX_DRAIN_BYTES = 64 * 1024;
+
+  private final @NotNull InputStream body;
+  private final boolean singleFeature;
+  private final @NotNull ObjectReader reader;
+  private @Nullable JsonParser parser;
+  private boolean exhausted;
+  private boolean closed;
+
+  /**
+   * @param body the (decoded) body of the response.
+   * @param singleFeature {@code true} if the body is a single feature; {@code false} if it is a feature collection.
+   */
+  FeatureStreamCursor(@NotNull InputStream body, boolean singleFeature) {
+    super(XyzFeatureCodecFactory.get());
+    this.body = body;
+    this.singleFeature = singleFeature;
+    try (final Json json = Json.get()) {
+      reader = json.reader(ViewDeserialize.User.class).forType(XyzFeature.class);
+    }
+  }
+
+  @Override
+  protected boolean loadNextRow(@NotNull Row row) {
+    row.clear();
+    if (closed) {
+      return false;
+    }
+    final XyzFeature feature;
+    try {
+      feature = exhausted ? null : nextFeature();
+    } catch (IOException e) {
+      close();
+      throw unchecked(e);
+    }
+    if (feature == null) {
+      close();
+      return false;
+    }
+    row.codec.setOp(EExecutedOp.READ);
+    row.codec.setFeature(feature);
+    row.codec.setId(feature.getId());
+    row.valid = true;
+    return true;
+  }
+
+  private @Nullable XyzFeature nextFeature() throws IOException {
+    JsonParser parser = this.parser;
+    if (parser == null) {
+      this.parser = parser = reader.createParser(body);
+      if (singleFeature) {
+        exhausted = true;
+        final JsonToken token = parser.nextToken();
+        return token == JsonToken.START_OBJECT ? reader.readValue(parser) : null;
+      }
+      if (!seekFeatures(parser)) {
+        return null;
+      }
+    }
+    JsonToken token;
+    while ((token = parser.nextToken()) == JsonToken.VALUE_NULL) {
+      // Skip null entries.
+    }
+    if (token == JsonToken.START_OBJECT) {
+      return reader.readValue(parser);
+    }
+    if (token != JsonToken.END_ARRAY) {
+      throw new JsonParseException(parser, "Expected a feature, but found " + token);
+    }
+    return null;
+  }
+
+  /**
+   * Moves the parser to the start of the {@code features} array of the feature collection.
+   *
+   * @return {@code true} if the parser is at the start of the array; {@code false} if the collection has no features.
+   */
+  private static boolean seekFeatures(@NotNull JsonParser parser) throws IOException {
+    final JsonToken start = parser.nextToken();
+    if (start == null) {
+      return false;
+    }
+    if (start != JsonToken.START_OBJECT) {
+      throw new JsonParseException(parser, "Expected a feature collection, but found " + start);
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      final JsonToken value = parser.nextToken();
+      if ("features".equals(name)) {
+        if (value == JsonToken.START_ARRAY) {
+          return true;
+        }
+        if (value == JsonToken.VALUE_NULL) {
+          return false;
+        }
+        throw new JsonParseException(parser, "The features of a feature collection must be an array");
+      }
+      parser.skipChildren();
+    }
+    return false;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      if (parser != null) {
+        parser.close();
+      }
+      // Read what is left, normally only the end of the collection, so that the connection can be reused.
+      final byte[] buffer = new byte[8192];
+      int drained = 0;
+      int read;
+      while (drained < MAX_DRAIN_BYTES && (read = body.read(buffer)) >= 0) {
+        drained += read;
+      }
+    } catch (IOException ignore) {
+      // The body is closed below anyway.
+    } finally {
+      try {
+        body.close();
+      } catch (IOException ignore) {
+      }
+    }
+  }
+}
@@ -40,20 +40,27 @@ public class HttpStorage implements IStorage {
 
   private final RequestSender requestSender;
 
+  private final HttpStorageProperties properties;
+
   public HttpStorage(@NotNull Storage storage) {
-    HttpStorageProperties properties = HttpStorage.getProperties(storage);
+    properties = HttpStorage.getProperties(storage);
     requestSender = RequestSenderCache.getInstance()
         .getSenderWith(new KeyProperties(
             storage.getId(),
             properties.getUrl(),
             properties.getHeaders(),
             properties.getConnectTimeout(),
-            properties.getSocketTimeout()));
+            properties.getSocketTimeout(),
+            properties.getResponseCacheSizeMb(),
+            properties.getResponseCacheTtl(),
+            properties.getMaxConcurrentRequests(),
+            properties.getCircuitBreakerThreshold(),
+            properties.getCircuitBreakerOpen()));
   }
 
   @Override
   public @NotNull IReadSession newReadSession(@Nullable NakshaContext context, boolean useMaster) {
-    return new HttpStorageReadSession(context, useMaster, requestSender);
+    return new HttpStorageReadSession(context, useMaster, requestSender, properties);
   }
 
   @Override
@@ -38,11 +38,25 @@ public class HttpStorageProperties extends XyzProperties {
   public static final Map<String, String> DEFAULT_HEADERS = Map.of(
       "Content-Type", "application/json",
       "Accept-Encoding", "gzip");
+  public static final Integer DEF_SPLIT_LEVELS = 0;
+  public static final Integer DEF_SPLIT_PARALLELISM = 4;
+  public static final Integer DEF_RESPONSE_CACHE_SIZE_MB = 0;
+  public static final Long DEF_RESPONSE_CACHE_TTL_SEC = 60L;
+  public static final Integer DEF_MAX_CONCURRENT_REQUESTS = 64;
+  public static final Integer DEF_CIRCUIT_BREAKER_THRESHOLD = 10;
+  public static final Long DEF_CIRCUIT_BREAKER_OPEN_SEC = 30L;
 
   private static final String URL = "url";
   private static final String CONNECTION_TIMEOUT = "connectTimeout";
   private static final String SOCKET_TIMEOUT = "socketTimeout";
   private static final String HEADERS = "headers";
+  private static final String SPLIT_LEVELS = "splitLevels";
+  private static final String SPLIT_PARALLELISM = "splitParallelism";
+  private static final String RESPONSE_CACHE_SIZE = "responseCacheSizeMb";
+  private static final String RESPONSE_CACHE_TTL = "responseCacheTtl";
+  private static final String MAX_CONCURRENT_REQUESTS = "maxConcurrentRequests";
+  private static final String CIRCUIT_BREAKER_THRESHOLD = "circuitBreakerThreshold";
+  private static final String CIRCUIT_BREAKER_OPEN = "circuitBreakerOpen";
 
   @JsonProperty(URL)
   private @NotNull String url;
@@ -56,16 +70,68 @@ public class HttpStorageProperties extends XyzProperties {
   @JsonProperty(HEADERS)
   private @NotNull Map<String, String> headers;
 
+  @AvailableSince(NakshaVersion.v2_1_0)
+  @JsonProperty(SPLIT_LEVELS)
+  private @NotNull Integer splitLevels;
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  @JsonProperty(SPLIT_PARALLELISM)
+  private @NotNull Integer splitParallelism;
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  @JsonProperty(RESPONSE_CACHE_SIZE)
+  private @NotNull Integer responseCacheSizeMb;
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  @JsonProperty(RESPONSE_CACHE_TTL)
+  private @NotNull Long responseCacheTtl;
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  @JsonProperty(MAX_CONCURRENT_REQUESTS)
+  private @NotNull Integer maxConcurrentRequests;
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  @JsonProperty(CIRCUIT_BREAKER_THRESHOLD)
+  private @NotNull Integer circuitBreakerThreshold;
+
+  @AvailableSince(NakshaVersion.v2_1_0)
+  @JsonProperty(CIRCUIT_BREAKER_OPEN)
+  private @NotNull Long circuitBreakerOpen;
+
+  public HttpStorageProperties(
+      @NotNull String url,
+      @Nullable Long connectTimeout,
+      @Nullable Long socketTimeout,
+      @Nullable Map<String, String> headers) {
+    this(url, connectTimeout, socketTimeout, headers, null, null, null, null, null, null, null);
+  }
+
   @JsonCreator
   public HttpStorageProperties(
       @JsonProperty(value = URL, required = true) @NotNull String url,
       @JsonProperty(CONNECTION_TIMEOUT) @Nullable Long connectTimeout,
       @JsonProperty(SOCKET_TIMEOUT) @Nullable Long socketTimeout,
-      @JsonProperty(HEADERS) @Nullable Map<String, String> headers) {
+      @JsonProperty(HEADERS) @Nullable Map<String, String> headers,
+      @JsonProperty(SPLIT_LEVELS) @Nullable Integer splitLevels,
+      @JsonProperty(SPLIT_PARALLELISM) @Nullable Integer splitParallelism,
+      @JsonProperty(RESPONSE_CACHE_SIZE) @Nullable Integer responseCacheSizeMb,
+      @JsonProperty(RESPONSE_CACHE_TTL) @Nullable Long responseCacheTtl,
+      @JsonProperty(MAX_CONCURRENT_REQUESTS) @Nullable Integer maxConcurrentRequests,
+      @JsonProperty(CIRCUIT_BREAKER_THRESHOLD) @Nullable Integer circuitBreakerThreshold,
+      @JsonProperty(CIRCUIT_BREAKER_OPEN) @Nullable Long circuitBreakerOpen) {
     this.url = url;
     this.connectTimeout = connectTimeout == null ? DEF_CONNECTION_TIMEOUT_SEC : connectTimeout;
     this.socketTimeout = socketTimeout == null ? DEF_SOCKET_TIMEOUT_SEC : socketTimeout;
     this.headers = headers == null ? DEFAULT_HEADERS : headers;
+    this.splitLevels = splitLevels == null ? DEF_SPLIT_LEVELS : splitLevels;
+    this.splitParallelism = splitParallelism == null ? DEF_SPLIT_PARALLELISM : splitParallelism;
+    this.responseCacheSizeMb = responseCacheSizeMb == null ? DEF_RESPONSE_CACHE_SIZE_MB : responseCacheSizeMb;
+    this.responseCacheTtl = responseCacheTtl == null ? DEF_RESPONSE_CACHE_TTL_SEC : responseCacheTtl;
+    this.maxConcurrentRequests =
+        maxConcurrentRequests == null ? DEF_MAX_CONCURRENT_REQUESTS : maxConcurrentRequests;
+    this.circuitBreakerThreshold =
+        circuitBreakerThreshold == null ? DEF_CIRCUIT_BREAKER_THRESHOLD : circuitBreakerThreshold;
+    this.circuitBreakerOpen = circuitBreakerOpen == null ? DEF_CIRCUIT_BREAKER_OPEN_SEC : circuitBreakerOpen;
   }
 
   /**
@@ -86,4 +152,63 @@ public class HttpStorageProperties extends XyzProperties {
   public @NotNull Map<String, String> getHeaders() {
     return headers;
   }
+
+  /**
+   * The amount of tile levels by which bbox and tile reads are split into smaller reads, that are fetched concurrently. Zero (the default)
+   * disables splitting.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull Integer getSplitLevels() {
+    return splitLevels;
+  }
+
+  /**
+   * The maximal amount of concurrent requests used to fetch the parts of a split read.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull Integer getSplitParallelism() {
+    return splitParallelism;
+  }
+
+  /**
+   * The maximal size of the compressed responses kept in the response cache, in megabytes. Zero (the default) disables the cache.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull Integer getResponseCacheSizeMb() {
+    return responseCacheSizeMb;
+  }
+
+  /**
+   * The maximal time in seconds for which a cached response is returned without revalidating it, shorter if the remote storage sends a
+   * lower {@code max-age}. Cached responses with an {@code ETag} are revalidated afterwards.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull Long getResponseCacheTtl() {
+    return responseCacheTtl;
+  }
+
+  /**
+   * The maximal amount of requests in flight to the remote storage, further requests fail fast. Zero disables the limit.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull Integer getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  /**
+   * The amount of consecutive failed requests after which requests to the remote storage fail fast, until a probe request succeeds. Zero
+   * disables the circuit breaker.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull Integer getCircuitBreakerThreshold() {
+    return circuitBreakerThreshold;
+  }
+
+  /**
+   * The time in seconds for which requests fail fast after the circuit breaker opened, before a probe request is sent.
+   */
+  @AvailableSince(NakshaVersion.v2_1_0)
+  public @NotNull Long getCircuitBreakerOpen() {
+    return circuitBreakerOpen;
+  }
 }
@@ -24,12 +24,13 @@ import static java.lang.String.format;
 
 import com.here.naksha.lib.core.NakshaContext;
 import com.here.naksha.lib.core.models.XyzError;
-import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
-import com.here.naksha.lib.core.models.geojson.implementation.XyzFeatureCollection;
+import com.here.naksha.lib.core.models.geojson.coordinates.BBox;
 import com.here.naksha.lib.core.models.storage.ErrorResult;
 import com.here.naksha.lib.core.models.storage.POp;
 import com.here.naksha.lib.core.models.storage.ReadFeaturesProxyWrapper;
 import com.here.naksha.lib.core.models.storage.Result;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.net.HttpURLConnection;
 import java.net.http.HttpResponse;
 import java.util.Arrays;
@@ -47,13 +48,17 @@ class HttpStorageReadExecute {
   private static final String HDR_STREAM_ID = "Stream-Id";
 
   @NotNull
-  static Result execute(@NotNull NakshaContext context, ReadFeaturesProxyWrapper request, RequestSender sender) {
+  static Result execute(
+      @NotNull NakshaContext context,
+      ReadFeaturesProxyWrapper request,
+      RequestSender sender,
+      @NotNull HttpStorageProperties properties) {
 
     return switch (request.getReadRequestType()) {
       case GET_BY_ID -> executeFeatureById(context, request, sender);
       case GET_BY_IDS -> executeFeaturesById(context, request, sender);
-      case GET_BY_BBOX -> executeFeatureByBBox(context, request, sender);
-      case GET_BY_TILE -> executeFeaturesByTile(context, request, sender);
+      case GET_BY_BBOX -> executeFeatureByBBox(context, request, sender, properties);
+      case GET_BY_TILE -> executeFeaturesByTile(context, request, sender, properties);
       case ITERATE -> executeIterate(context, request, sender);
     };
   }
@@ -62,15 +67,16 @@ class HttpStorageReadExecute {
       @NotNull NakshaContext context, ReadFeaturesProxyWrapper readRequest, RequestSender requestSender) {
     String featureId = readRequest.getQueryParameter(FEATURE_ID);
 
-    HttpResponse<byte[]> response = requestSender.sendRequest(
+    HttpResponse<InputStream> response = requestSender.sendRequest(
         format("/%s/features/%s", baseEndpoint(readRequest), featureId),
         Map.of(HDR_STREAM_ID, context.getStreamId()));
 
     if (response.statusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
       // For Error 404 (not found) on single feature GetById request, we need to return empty result
+      PrepareResult.closeQuietly(response.body());
       return prepareResult(Collections.emptyList());
     }
-    return prepareResult(response, XyzFeature.class, List::of);
+    return prepareResult(response, true);
   }
 
   private static Result executeFeaturesById(
@@ -78,26 +84,60 @@ class HttpStorageReadExecute {
     List<String> featureIds = readRequest.getQueryParameter(FEATURE_IDS);
     String queryParamsString = FEATURE_IDS + "=" + String.join(",", featureIds);
 
-    HttpResponse<byte[]> response = requestSender.sendRequest(
+    HttpResponse<InputStream> response = requestSender.sendRequest(
         format("/%s/features?%s", baseEndpoint(readRequest), queryParamsString),
         Map.of(HDR_STREAM_ID, context.getStreamId()));
 
-    return prepareResult(response, XyzFeatureCollection.class, XyzFeatureCollection::getFeatures);
+    return prepareResult(response, false);
   }
 
   private static Result executeFeatureByBBox(
-      @NotNull NakshaContext context, ReadFeaturesProxyWrapper readRequest, RequestSender requestSender) {
+      @NotNull NakshaContext context,
+      ReadFeaturesProxyWrapper readRequest,
+      RequestSender requestSender,
+      @NotNull HttpStorageProperties properties) {
+    if (properties.getSplitLevels() > 0) {
+      List<BBox> boxes = SplitReadExecute.splitBBox(
+          readRequest.getQueryParameter(WEST),
+          readRequest.getQueryParameter(SOUTH),
+          readRequest.getQueryParameter(EAST),
+          readRequest.getQueryParameter(NORTH),
+          properties.getSplitLevels());
+      if (boxes.size() > 1) {
+        String limitQuery = splitLimitQuery(readRequest, boxes.size());
+        List<String> endpoints = boxes.stream()
+            .map(box -> format(
+                "/%s/bbox?%s=%s&%s=%s&%s=%s&%s=%s&%s%s",
+                baseEndpoint(readRequest),
+                WEST,
+                plain(box.minLon()),
+                NORTH,
+                plain(box.maxLat()),
+                EAST,
+                plain(box.maxLon()),
+                SOUTH,
+                plain(box.minLat()),
+                limitQuery,
+                getPOpQueryOrEmpty(readRequest)))
+            .toList();
+        return executeSplit(context, readRequest, requestSender, properties, endpoints);
+      }
+    }
+
     String queryParamsString = keysToKeyValuesStrings(readRequest, WEST, NORTH, EAST, SOUTH, LIMIT);
 
-    HttpResponse<byte[]> response = requestSender.sendRequest(
+    HttpResponse<InputStream> response = requestSender.sendRequest(
         format("/%s/bbox?%s%s", baseEndpoint(readRequest), queryParamsString, getPOpQueryOrEmpty(readRequest)),
         Map.of(HDR_STREAM_ID, context.getStreamId()));
 
-    return prepareResult(response, XyzFeatureCollection.class, XyzFeatureCollection::getFeatures);
+    return prepareResult(response, false);
   }
 
   private static Result executeFeaturesByTile(
-      @NotNull NakshaContext context, ReadFeaturesProxyWrapper readRequest, RequestSender requestSender) {
+      @NotNull NakshaContext context,
+      ReadFeaturesProxyWrapper readRequest,
+      RequestSender requestSender,
+      @NotNull HttpStorageProperties properties) {
     String queryParamsString = keysToKeyValuesStrings(readRequest, MARGIN, LIMIT);
     String tileType = readRequest.getQueryParameter(TILE_TYPE);
     String tileId = readRequest.getQueryParameter(TILE_ID);
@@ -105,24 +145,72 @@ class HttpStorageReadExecute {
     if (tileType != null && !tileType.equals(TILE_TYPE_QUADKEY))
       return new ErrorResult(XyzError.NOT_IMPLEMENTED, "Tile type other than " + TILE_TYPE_QUADKEY);
 
-    HttpResponse<byte[]> response = requestSender.sendRequest(
+    // With a margin, the sub-tiles would return features that are outside the requested tile, therefore only split without one.
+    Number margin = readRequest.getQueryParameter(MARGIN);
+    if (properties.getSplitLevels() > 0 && (margin == null || margin.longValue() == 0)) {
+      List<String> quadkeys = SplitReadExecute.splitQuadkey(tileId, properties.getSplitLevels());
+      if (quadkeys.size() > 1) {
+        String splitQueryParamsString =
+            keysToKeyValuesStrings(readRequest, MARGIN) + "&" + splitLimitQuery(readRequest, quadkeys.size());
+        List<String> endpoints = quadkeys.stream()
+            .map(quadkey -> format(
+                "/%s/quadkey/%s?%s%s",
+                baseEndpoint(readRequest), quadkey, splitQueryParamsString, getPOpQueryOrEmpty(readRequest)))
+            .toList();
+        return executeSplit(context, readRequest, requestSender, properties, endpoints);
+      }
+    }
+
+    HttpResponse<InputStream> response = requestSender.sendRequest(
         format(
             "/%s/quadkey/%s?%s%s",
             baseEndpoint(readRequest), tileId, queryParamsString, getPOpQueryOrEmpty(readRequest)),
         Map.of(HDR_STREAM_ID, context.getStreamId()));
 
-    return prepareResult(response, XyzFeatureCollection.class, XyzFeatureCollection::getFeatures);
+    return prepareResult(response, false);
   }
 
   private static Result executeIterate(
       @NotNull NakshaContext context, ReadFeaturesProxyWrapper readRequest, RequestSender requestSender) {
     String queryParamsString = keysToKeyValuesStrings(readRequest, LIMIT);
 
-    HttpResponse<byte[]> response = requestSender.sendRequest(
+    HttpResponse<InputStream> response = requestSender.sendRequest(
         format("/%s/iterate?%s", baseEndpoint(readRequest), queryParamsString),
         Map.of(HDR_STREAM_ID, context.getStreamId()));
 
-    return prepareResult(response, XyzFeatureCollection.class, XyzFeatureCollection::getFeatures);
+    return prepareResult(response, false);
+  }
+
+  private static Result executeSplit(
+      @NotNull NakshaContext context,
+      ReadFeaturesProxyWrapper readRequest,
+      RequestSender requestSender,
+      @NotNull HttpStorageProperties properties,
+      List<String> endpoints) {
+    Number limit = readRequest.getQueryParameter(LIMIT);
+    log.debug("Splitting read of {} into {} requests", baseEndpoint(readRequest), endpoints.size());
+    return SplitReadExecute.execute(
+        endpoints,
+        Map.of(HDR_STREAM_ID, context.getStreamId()),
+        requestSender,
+        properties.getSplitParallelism(),
+        limit == null ? Long.MAX_VALUE : limit.longValue());
+  }
+
+  /**
+   * Returns the limit query parameter of each request, into which a read is split, see {@link SplitReadExecute#splitLimit(long, int)}.
+   */
+  private static String splitLimitQuery(ReadFeaturesProxyWrapper readRequest, int requests) {
+    Number limit = readRequest.getQueryParameter(LIMIT);
+    if (limit == null) return keysToKeyValuesStrings(readRequest, LIMIT);
+    return LIMIT + "=" + SplitReadExecute.splitLimit(limit.longValue(), requests);
+  }
+
+  /**
+   * Formats the coordinate without exponent, as {@link Double#toString(double)} would do for very small values.
+   */
+  private static String plain(double value) {
+    return BigDecimal.valueOf(value).toPlainString();
   }
 
   /**
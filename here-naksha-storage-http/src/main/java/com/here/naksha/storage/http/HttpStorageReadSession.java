@@ -19,6 +19,7 @@
 package com.here.naksha.storage.http;
 
 import com.here.naksha.lib.core.NakshaContext;
+import com.here.naksha.lib.core.exceptions.StorageException;
 import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.storage.*;
 import com.here.naksha.lib.core.storage.IReadSession;
@@ -41,10 +42,18 @@ public final class HttpStorageReadSession implements IReadSession {
   @NotNull
   private final RequestSender requestSender;
 
-  HttpStorageReadSession(@Nullable NakshaContext context, boolean useMaster, @NotNull RequestSender requestSender) {
+  @NotNull
+  private final HttpStorageProperties properties;
+
+  HttpStorageReadSession(
+      @Nullable NakshaContext context,
+      boolean useMaster,
+      @NotNull RequestSender requestSender,
+      @NotNull HttpStorageProperties properties) {
     this.context = context == null ? NakshaContext.currentContext() : context;
     this.useMaster = useMaster;
     this.requestSender = requestSender;
+    this.properties = properties;
   }
 
   @Override
@@ -89,8 +98,20 @@ public final class HttpStorageReadSession implements IReadSession {
 
   @Override
   public @NotNull Result execute(@NotNull ReadRequest<?> readRequest) {
+    if (readRequest instanceof ReadFeatures readFeatures) {
+      if (readFeatures.getClustering() != null) {
+        return new ErrorResult(XyzError.NOT_IMPLEMENTED, "Clustering is not supported by the HTTP storage");
+      }
+      if (readFeatures.getMvtTile() != null) {
+        return new ErrorResult(XyzError.NOT_IMPLEMENTED, "MVT is not supported by the HTTP storage");
+      }
+    }
     try {
-      return HttpStorageReadExecute.execute(context, (ReadFeaturesProxyWrapper) readRequest, requestSender);
+      return HttpStorageReadExecute.execute(
+          context, (ReadFeaturesProxyWrapper) readRequest, requestSender, properties);
+    } catch (StorageException e) {
+      log.warn("Read request rejected: {}", e.getMessage());
+      return e.toErrorResult();
     } catch (Exception e) {
       log.warn("We got exception while executing Read request.", e);
       return new ErrorResult(XyzError.EXCEPTION, e.getMessage(), e);
@@ -25,6 +25,7 @@ import com.here.naksha.lib.core.models.storage.POp;
 import com.here.naksha.lib.core.models.storage.POpType;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -67,6 +68,7 @@ public class POpToQueryConverter {
     if (pOp.op() == OR) return or(pOp);
     if (pOp.op() == NOT) return not(pOp);
     if (pOp.op() == EXISTS) return exists(pOp);
+    if (pOp.op() == IN) return in(pOp);
     return simpleLeafOperator(pOp);
   }
 
@@ -85,6 +87,18 @@ public class POpToQueryConverter {
         .orElseThrow(() -> new IllegalStateException("Should not reach here."));
   }
 
+  private static MultiValueComparison in(POp pOp) {
+    assertHasNChildren(pOp, 0);
+    assertHasPathSet(pOp);
+    if (!(pOp.getValue() instanceof Object[] values) || values.length == 0)
+      throw unsupportedOperation("IN requires at least one value");
+
+    return new MultiValueComparison(
+        EQ_OPERATOR,
+        pOp.getPropertyRef().getPath(),
+        Arrays.stream(values).map(String::valueOf).toArray(String[]::new));
+  }
+
   private static MultiValueComparison not(POp pOp) {
     assertHasNChildren(pOp, 1);
     MultiValueComparison multiValueComparison =
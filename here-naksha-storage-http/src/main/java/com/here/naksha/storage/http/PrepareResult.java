@@ -20,20 +20,15 @@ package com.here.naksha.storage.http;
 
 import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
 
-import com.here.naksha.lib.core.models.Typed;
 import com.here.naksha.lib.core.models.XyzError;
 import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
 import com.here.naksha.lib.core.models.storage.*;
-import com.here.naksha.lib.core.util.json.JsonSerializable;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
 import java.util.zip.GZIPInputStream;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -43,41 +38,51 @@ import org.jetbrains.annotations.Nullable;
  */
 class PrepareResult {
 
+  private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
   static Result prepareResult(List<XyzFeature> featureList) {
     return createHttpResultFromFeatureList(featureList);
   }
 
-  static <T extends Typed> Result prepareResult(
-      HttpResponse<byte[]> httpResponse,
-      Class<T> httpResponseType,
-      Function<T, List<XyzFeature>> typedResponseToFeatureList) {
-
-    XyzError error = mapHttpStatusToErrorOrNull(httpResponse.statusCode());
-    if (error != null) return new ErrorResult(error, "Response http status code: " + httpResponse.statusCode());
-
-    T resultFeatures = JsonSerializable.deserialize(prepareBody(httpResponse), httpResponseType);
-    return prepareResult(typedResponseToFeatureList.apply(resultFeatures));
+  /**
+   * Creates a result with a cursor that parses the features from the body of the given response while being iterated.
+   *
+   * @param httpResponse the response.
+   * @param singleFeature {@code true} if the body is a single feature; {@code false} if it is a feature collection.
+   */
+  static Result prepareResult(HttpResponse<InputStream> httpResponse, boolean singleFeature) {
+    if (!isSuccess(httpResponse.statusCode())) {
+      closeQuietly(httpResponse.body());
+      XyzError error = mapHttpStatusToErrorOrNull(httpResponse.statusCode());
+      return new ErrorResult(error, "Response http status code: " + httpResponse.statusCode());
+    }
+    return new HttpSuccessResult<>(new FeatureStreamCursor(prepareBody(httpResponse), singleFeature));
   }
 
-  private static String prepareBody(HttpResponse<byte[]> response) {
-    List<String> contentEncodingList = response.headers().allValues("content-encoding");
-    if (contentEncodingList.isEmpty()) return new String(response.body(), StandardCharsets.UTF_8);
-    if (contentEncodingList.size() > 1)
-      throw new IllegalArgumentException("There are more than one Content-Encoding value in response");
-    String contentEncoding = contentEncodingList.get(0);
+  private static InputStream prepareBody(HttpResponse<InputStream> response) {
+    InputStream body = response.body();
+    try {
+      List<String> contentEncodingList = response.headers().allValues("content-encoding");
+      if (contentEncodingList.isEmpty()) return body;
+      if (contentEncodingList.size() > 1)
+        throw new IllegalArgumentException("There are more than one Content-Encoding value in response");
+      String contentEncoding = contentEncodingList.get(0);
 
-    if (contentEncoding.equalsIgnoreCase("gzip")) return gzipDecode(response.body());
-    else throw new IllegalArgumentException("Encoding " + contentEncoding + " not recognized");
-  }
-
-  private static String gzipDecode(byte[] encoded) {
-    try (ByteArrayInputStream bis = new ByteArrayInputStream(encoded);
-        GZIPInputStream gis = new GZIPInputStream(bis);
-        ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-      gis.transferTo(bos);
-      return bos.toString();
+      if (contentEncoding.equalsIgnoreCase("gzip")) return new GZIPInputStream(body, GZIP_BUFFER_SIZE);
+      else throw new IllegalArgumentException("Encoding " + contentEncoding + " not recognized");
     } catch (IOException e) {
+      closeQuietly(body);
       throw unchecked(e);
+    } catch (RuntimeException e) {
+      closeQuietly(body);
+      throw e;
+    }
+  }
+
+  static void closeQuietly(InputStream body) {
+    try {
+      body.close();
+    } catch (IOException ignore) {
     }
   }
 
@@ -98,11 +103,15 @@ class PrepareResult {
     return new HttpSuccessResult<>(cursor);
   }
 
+  private static boolean isSuccess(final int httpStatus) {
+    return httpStatus >= 200 && httpStatus <= 299;
+  }
+
   /**
    * @return null if http status is success (200-299)
    */
   private static @Nullable XyzError mapHttpStatusToErrorOrNull(final int httpStatus) {
-    if (httpStatus >= 200 && httpStatus <= 299) return null;
+    if (isSuccess(httpStatus)) return null;
     return switch (httpStatus) {
       case HttpURLConnection.HTTP_INTERNAL_ERROR -> XyzError.EXCEPTION;
       case HttpURLConnection.HTTP_NOT_IMPLEMENTED -> XyzError.NOT_IMPLEMENTED;
@@ -21,6 +21,11 @@ package com.here.naksha.storage.http;
 import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
 import static java.net.http.HttpRequest.newBuilder;
 
+import com.here.naksha.lib.core.exceptions.StorageException;
+import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.storage.http.cache.ResponseCache;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -28,7 +33,9 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -36,6 +43,10 @@ import org.slf4j.LoggerFactory;
 
 public class RequestSender {
 
+  private static final String ACCEPT_ENCODING = "Accept-Encoding";
+  private static final String IF_NONE_MATCH = "If-None-Match";
+  private static final long MB = 1024L * 1024L;
+
   private static final Logger log = LoggerFactory.getLogger(RequestSender.class);
 
   @NotNull
@@ -44,11 +55,31 @@ public class RequestSender {
   @NotNull
   private final RequestSender.KeyProperties keyProps;
 
+  /**
+   * The cache for responses of read requests, {@code null} if disabled.
+   */
+  @Nullable
+  private final ResponseCache responseCache;
+
+  /**
+   * Limits the requests in flight to the remote storage, {@code null} if unlimited.
+   */
+  @Nullable
+  private final Semaphore bulkhead;
+
+  @NotNull
+  private final CircuitBreaker circuitBreaker;
+
   public RequestSender(@NotNull RequestSender.KeyProperties keyProps) {
     this.keyProps = keyProps;
     this.httpClient = HttpClient.newBuilder()
         .connectTimeout(Duration.ofSeconds(keyProps.connectionTimeoutSec))
         .build();
+    this.responseCache = keyProps.responseCacheSizeMb > 0
+        ? new ResponseCache(keyProps.responseCacheSizeMb * MB, keyProps.responseCacheTtlSec)
+        : null;
+    this.bulkhead = keyProps.maxConcurrentRequests > 0 ? new Semaphore(keyProps.maxConcurrentRequests) : null;
+    this.circuitBreaker = new CircuitBreaker(keyProps.circuitBreakerThreshold, keyProps.circuitBreakerOpenSec);
   }
 
   /**
@@ -57,11 +88,11 @@ public class RequestSender {
    * @param endpoint does not contain host:port part, starts with "/".
    * @param addHeaders headers to be added to the ones defines {@link KeyProperties#defaultHeaders}.
    */
-  HttpResponse<byte[]> sendRequest(@NotNull String endpoint, @Nullable Map<String, String> addHeaders) {
+  HttpResponse<InputStream> sendRequest(@NotNull String endpoint, @Nullable Map<String, String> addHeaders) {
     return sendRequest(endpoint, true, addHeaders, null, null);
   }
 
-  HttpResponse<byte[]> sendRequest(
+  HttpResponse<InputStream> sendRequest(
       @NotNull String endpoint,
       boolean keepDefHeaders,
       @Nullable Map<String, String> headers,
@@ -77,19 +108,61 @@ public class RequestSender {
         body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body);
     if (httpMethod != null) builder.method(httpMethod, bodyPublisher);
     HttpRequest request = builder.build();
+    // Remote storages may return large feature collections, always ask for them compressed.
+    if (request.headers().firstValue(ACCEPT_ENCODING).isEmpty())
+      request = builder.header(ACCEPT_ENCODING, "gzip").build();
 
-    return sendRequest(request);
+    if (responseCache == null || httpMethod != null || body != null) return sendRequest(request);
+    return sendCachedRequest(ResponseCache.key(endpoint, keepDefHeaders, headers), builder, request);
   }
 
-  private HttpResponse<byte[]> sendRequest(HttpRequest request) {
+  /**
+   * Returns the response from the cache, while it is fresh. Otherwise, sends the request, conditionally if the cached response has an
+   * {@code ETag}, so that an unchanged response is not transferred again.
+   */
+  private HttpResponse<InputStream> sendCachedRequest(
+      @NotNull String key, @NotNull HttpRequest.Builder builder, @NotNull HttpRequest request) {
+    ResponseCache.Entry cached = responseCache.get(key);
+    if (cached != null && cached.isFresh()) {
+      log.debug("Returning cached response for {} {}", keyProps.name, request.uri());
+      return responseCache.toResponse(request, cached);
+    }
+    if (cached != null && cached.etag() != null && request.headers().firstValue(IF_NONE_MATCH).isEmpty())
+      request = builder.header(IF_NONE_MATCH, cached.etag()).build();
+
+    HttpResponse<InputStream> response = sendRequest(request);
+    if (cached != null && response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+      PrepareResult.closeQuietly(response.body());
+      return responseCache.toResponse(request, responseCache.revalidated(key, cached, response.headers()));
+    }
+    return responseCache.store(key, response);
+  }
+
+  /**
+   * Sends the request and waits for the response headers. The body is returned as stream, which is closed when the socket timeout (counted
+   * from sending the request) expires, therefore it must be consumed in time. Closing the stream after reading it fully allows the client
+   * to reuse the connection.
+   *
+   * <p>Requests fail fast with a {@link XyzError#TIMEOUT} storage exception, when there are too many requests in flight to the remote
+   * storage or while its circuit breaker is open, so that a slow or failing remote storage does not block all task threads.
+   */
+  private HttpResponse<InputStream> sendRequest(HttpRequest request) {
+    Runnable release = acquire();
     long startTime = System.currentTimeMillis();
-    HttpResponse<byte[]> response = null;
+    long deadline = startTime + TimeUnit.SECONDS.toMillis(keyProps.socketTimeoutSec);
+    HttpResponse<InputStream> response = null;
     try {
-      CompletableFuture<HttpResponse<byte[]>> futureResponse =
-          httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+      CompletableFuture<HttpResponse<InputStream>> futureResponse =
+          httpClient.sendAsync(request, responseInfo -> HttpResponse.BodySubscribers.mapping(
+              HttpResponse.BodySubscribers.ofInputStream(),
+              body -> new DeadlineInputStream(body, deadline - System.currentTimeMillis(), release)));
       response = futureResponse.get(keyProps.socketTimeoutSec, TimeUnit.SECONDS);
+      if (isUpstreamFailure(response.statusCode())) circuitBreaker.onFailure();
+      else circuitBreaker.onSuccess();
       return response;
     } catch (Exception e) {
+      circuitBreaker.onFailure();
+      release.run();
       log.warn("We got exception while executing Http request against remote server.", e);
       throw unchecked(e);
     } finally {
@@ -103,8 +176,42 @@ public class RequestSender {
           request.uri(),
           (response == null) ? "-" : response.statusCode(),
           executionTime,
-          (response == null) ? 0 : response.body().length);
+          (response == null) ? 0 : response.headers().firstValue("Content-Length").orElse("-"));
+    }
+  }
+
+  /**
+   * Acquires a slot of the bulkhead and asks the circuit breaker for permission to send a request.
+   *
+   * @return the action to release the slot, when the response body is closed, may be invoked multiple times.
+   * @throws StorageException with {@link XyzError#TIMEOUT}, if the request must not be sent.
+   */
+  private @NotNull Runnable acquire() {
+    if (bulkhead != null && !bulkhead.tryAcquire()) {
+      log.warn("Rejecting request to remote storage {}, too many requests in flight", keyProps.name);
+      throw new StorageException(
+          XyzError.TIMEOUT, "Too many concurrent requests to remote storage " + keyProps.name);
     }
+    AtomicBoolean released = new AtomicBoolean();
+    Runnable release = () -> {
+      if (bulkhead != null && released.compareAndSet(false, true)) bulkhead.release();
+    };
+    if (!circuitBreaker.tryAcquire()) {
+      release.run();
+      log.warn("Rejecting request to remote storage {}, circuit breaker is open", keyProps.name);
+      throw new StorageException(XyzError.TIMEOUT, "Remote storage " + keyProps.name + " is unavailable");
+    }
+    return release;
+  }
+
+  /**
+   * Statuses that indicate that the remote storage is unhealthy, rather than that the request is wrong.
+   */
+  private static boolean isUpstreamFailure(int status) {
+    return status == HttpURLConnection.HTTP_INTERNAL_ERROR
+        || status == HttpURLConnection.HTTP_BAD_GATEWAY
+        || status == HttpURLConnection.HTTP_UNAVAILABLE
+        || status == HttpURLConnection.HTTP_GATEWAY_TIMEOUT;
   }
 
   public boolean hasKeyProps(KeyProperties thatKeyProps) {
@@ -121,5 +228,20 @@ public class RequestSender {
       @NotNull String hostUrl,
       @NotNull Map<String, String> defaultHeaders,
       long connectionTimeoutSec,
-      long socketTimeoutSec) {}
+      long socketTimeoutSec,
+      long responseCacheSizeMb,
+      long responseCacheTtlSec,
+      int maxConcurrentRequests,
+      int circuitBreakerThreshold,
+      long circuitBreakerOpenSec) {
+
+    public KeyProperties(
+        @NotNull String name,
+        @NotNull String hostUrl,
+        @NotNull Map<String, String> defaultHeaders,
+        long connectionTimeoutSec,
+        long socketTimeoutSec) {
+      this(name, hostUrl, defaultHeaders, connectionTimeoutSec, socketTimeoutSec, 0, 0, 0, 0, 0);
+    }
+  }
 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2017-2024 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.storage.http;
+
+import static com.here.naksha.lib.core.exceptions.UncheckedException.unchecked;
+import static com.here.naksha.storage.http.PrepareResult.prepareResult;
+
+import com.here.naksha.lib.core.exceptions.NoCursor;
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
+import com.here.naksha.lib.core.models.geojson.coordinates.BBox;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.ErrorResult;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.models.storage.Result;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Splits large bbox and tile reads into smaller ones along the Web Mercator tile grid, fetches them concurrently and merges the results,
+ * removing the features returned by multiple requests.
+ */
+class SplitReadExecute {
+
+  /**
+   * The maximal amount of requests into which a single read is split.
+   */
+  static final int MAX_SPLIT_REQUESTS = 64;
+
+  /**
+   * The maximal amount of levels by which a tile is split, {@code 4^3} are {@link #MAX_SPLIT_REQUESTS}.
+   */
+  static final int MAX_SPLIT_LEVELS = 3;
+
+  /**
+   * The multiple of its even share of the limit, that each split request may return, see {@link #splitLimit(long, int)}.
+   */
+  static final int SPLIT_LIMIT_FACTOR = 2;
+
+  private static final int MAX_LEVEL = 20;
+
+  /**
+   * The maximal amount of threads sending split requests for all reads together.
+   */
+  static final int MAX_THREADS = 256;
+
+  private static final ExecutorService executor =
+      new ThreadPoolExecutor(0, MAX_THREADS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "naksha-http-split-read");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  /**
+   * Splits the given bbox into boxes aligned to the tile grid, at a level that is the given amount of levels below the one of the bbox.
+   * The boxes at the border are cut to the bbox, so that they cover exactly the bbox.
+   *
+   * @return the boxes, only the given one, if it should not or can't be split.
+   */
+  static @NotNull List<@NotNull BBox> splitBBox(
+      double west, double south, double east, double north, int splitLevels) {
+    final BBox bbox = new BBox(west, south, east, north);
+    if (splitLevels <= 0 || east <= west || north <= south) return List.of(bbox);
+
+    final int bboxLevel = Math.max(1, WebMercatorTile.getZoomFromBBOX(bbox));
+    for (int level = Math.min(MAX_LEVEL, bboxLevel + splitLevels); level > bboxLevel; level--) {
+      final long topLeft = tileOf(west, north, level);
+      final long bottomRight = tileOf(east, south, level);
+      final int x0 = WebMercatorTile.x(topLeft), y0 = WebMercatorTile.y(topLeft);
+      final int x1 = WebMercatorTile.x(bottomRight), y1 = WebMercatorTile.y(bottomRight);
+      if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) > MAX_SPLIT_REQUESTS) continue;
+
+      final List<BBox> boxes = new ArrayList<>();
+      for (int y = y0; y <= y1; y++) {
+        for (int x = x0; x <= x1; x++) {
+          final BBox tile = WebMercatorTile.forWeb(level, x, y).getBBox(false);
+          final double w = x == x0 ? west : tile.minLon();
+          final double e = x == x1 ? east : tile.maxLon();
+          final double n = y == y0 ? north : tile.maxLat();
+          final double s = y == y1 ? south : tile.minLat();
+          if (w < e && s < n) boxes.add(new BBox(w, s, e, n));
+        }
+      }
+      return boxes;
+    }
+    return List.of(bbox);
+  }
+
+  private static long tileOf(double lon, double lat, int level) {
+    final long pixel = WebMercatorTile.lonLatToPixel(lon, lat, level);
+    return WebMercatorTile.pixelToTile(WebMercatorTile.x(pixel), WebMercatorTile.y(pixel));
+  }
+
+  /**
+   * Splits the tile with the given quadkey into its sub-tiles, the given amount of levels deeper.
+   *
+   * @return the quadkeys of the sub-tiles, only the given one, if it should not or can't be split.
+   */
+  static @NotNull List<@NotNull String> splitQuadkey(@NotNull String quadkey, int splitLevels) {
+    final int levels = Math.min(Math.min(splitLevels, MAX_SPLIT_LEVELS), MAX_LEVEL - quadkey.length());
+    List<String> quadkeys = List.of(quadkey);
+    for (int i = 0; i < levels; i++) {
+      final List<String> children = new ArrayList<>(quadkeys.size() * 4);
+      for (final String parent : quadkeys) {
+        for (char digit = '0'; digit <= '3'; digit++) {
+          children.add(parent + digit);
+        }
+      }
+      quadkeys = children;
+    }
+    return quadkeys;
+  }
+
+  /**
+   * Returns the limit of each of the given amount of requests, into which a read with the given limit is split. Each request gets a
+   * multiple of its even share of the limit, so that features being concentrated in some sub-tiles are still returned, while the features
+   * fetched in total stay in the order of the limit.
+   *
+   * @param limit    the limit of the read.
+   * @param requests the amount of requests into which the read is split.
+   * @return the limit of each request.
+   */
+  static long splitLimit(long limit, int requests) {
+    if (requests <= 1) return limit;
+    final long share = limit / requests + (limit % requests == 0 ? 0 : 1);
+    return share <= limit / SPLIT_LIMIT_FACTOR ? share * SPLIT_LIMIT_FACTOR : limit;
+  }
+
+  /**
+   * Fetches the given endpoints, with at most the given amount of concurrent requests, and merges the returned features. The features are
+   * taken from the responses in turn, one per response, so that the limit cuts off all responses evenly. If a feature is returned for
+   * multiple endpoints, only the first one is kept.
+   *
+   * @param endpoints   the endpoints returning feature collections.
+   * @param headers     the headers to add to each request.
+   * @param sender      the sender to use.
+   * @param parallelism the maximal amount of concurrent requests.
+   * @param limit       the maximal amount of features to return.
+   * @return the merged result or the first error result.
+   */
+  static @NotNull Result execute(
+      @NotNull List<@NotNull String> endpoints,
+      @NotNull Map<String, String> headers,
+      @NotNull RequestSender sender,
+      int parallelism,
+      long limit) {
+    final AtomicReferenceArray<List<XyzFeature>> results = new AtomicReferenceArray<>(endpoints.size());
+    final AtomicReference<Result> error = new AtomicReference<>();
+    final AtomicInteger next = new AtomicInteger();
+    final Runnable worker = () -> {
+      int i;
+      while (error.get() == null && (i = next.getAndIncrement()) < endpoints.size()) {
+        try {
+          final Result result = prepareResult(sender.sendRequest(endpoints.get(i), headers), false);
+          if (result instanceof ErrorResult) {
+            // Stop the other workers, the read fails anyway.
+            error.compareAndSet(null, result);
+          } else {
+            results.set(i, readFeatures(result, limit));
+          }
+        } catch (RuntimeException e) {
+          next.set(endpoints.size());
+          throw e;
+        }
+      }
+    };
+
+    final int workers = Math.max(1, Math.min(parallelism, endpoints.size()));
+    final List<Future<?>> futures = new ArrayList<>(workers - 1);
+    for (int i = 1; i < workers; i++) {
+      try {
+        futures.add(executor.submit(worker));
+      } catch (RejectedExecutionException e) {
+        // All threads are busy with other reads, the remaining requests are sent by fewer workers.
+        break;
+      }
+    }
+    worker.run();
+    for (final Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        throw unchecked(e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw unchecked(e);
+      }
+    }
+    if (error.get() != null) return error.get();
+
+    final LinkedHashMap<String, XyzFeature> merged = new LinkedHashMap<>();
+    final List<Iterator<XyzFeature>> remaining = new ArrayList<>(endpoints.size());
+    for (int i = 0; i < endpoints.size(); i++) {
+      remaining.add(results.get(i).iterator());
+    }
+    while (!remaining.isEmpty() && merged.size() < limit) {
+      final Iterator<Iterator<XyzFeature>> it = remaining.iterator();
+      while (it.hasNext() && merged.size() < limit) {
+        if (!addNext(it.next(), merged)) it.remove();
+      }
+    }
+    return prepareResult(new ArrayList<>(merged.values()));
+  }
+
+  /**
+   * Adds the next feature, that was not yet returned for another endpoint.
+   *
+   * @return {@code false} if there are no more features.
+   */
+  private static boolean addNext(@NotNull Iterator<XyzFeature> features, @NotNull Map<String, XyzFeature> merged) {
+    while (features.hasNext()) {
+      final XyzFeature feature = features.next();
+      if (merged.putIfAbsent(feature.getId(), feature) == null) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Reads the features of a result, up to the given limit, so that the body is consumed while the other requests are still in flight.
+   */
+  private static @NotNull List<@NotNull XyzFeature> readFeatures(@NotNull Result result, long limit) {
+    final List<XyzFeature> features = new ArrayList<>();
+    try (ForwardCursor<XyzFeature, XyzFeatureCodec> cursor = result.getXyzFeatureCursor()) {
+      while (features.size() < limit && cursor.hasNext()) {
+        cursor.next();
+        final XyzFeature feature = cursor.getFeature();
+        if (feature != null) features.add(feature);
+      }
+    } catch (NoCursor e) {
+      throw unchecked(e);
+    }
+    return features;
+  }
+}
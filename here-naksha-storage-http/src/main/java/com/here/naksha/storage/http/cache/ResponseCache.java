@@ -0,0 +1,377 @@
+/*
+ * Copyright (C) 2017-2023 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.naksha.storage.http.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import javax.net.ssl.SSLSession;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A size bounded cache for successful responses of a remote storage. The bodies are kept gzip compressed. Responses are returned from the
+ * cache until they expire, responses with an {@code ETag} can be revalidated afterwards using {@code If-None-Match}. The least recently
+ * used responses are evicted, when the cache exceeds its size.
+ */
+public class ResponseCache {
+
+  /**
+   * Request headers that differ for each request, but do not change the response, therefore not part of the cache key.
+   */
+  public static final Set<String> IGNORED_HEADERS = Set.of("stream-id");
+
+  /**
+   * The maximal amount of bytes to read, when a body is closed before its end, to complete the cached copy.
+   */
+  static final int MAX_DRAIN_BYTES = 64 * 1024;
+
+  private static final String CACHE_CONTROL = "Cache-Control";
+  private static final String CONTENT_ENCODING = "Content-Encoding";
+  private static final String ETAG = "ETag";
+  private static final String GZIP = "gzip";
+
+  private final long maxBytes;
+  private final long maxEntryBytes;
+  private final long ttlMillis;
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long bytes;
+
+  /**
+   * @param maxBytes the maximal size of all compressed bodies.
+   * @param ttlSec   the maximal time in seconds to return a response without revalidating it.
+   */
+  public ResponseCache(long maxBytes, long ttlSec) {
+    this.maxBytes = maxBytes;
+    this.maxEntryBytes = maxBytes / 4;
+    this.ttlMillis = TimeUnit.SECONDS.toMillis(Math.max(0, ttlSec));
+  }
+
+  /**
+   * A cached response.
+   *
+   * @param etag      the entity tag of the response, if any.
+   * @param body      the gzip compressed body.
+   * @param expiresAt the epoch millis until which the response is returned without revalidation.
+   */
+  public record Entry(@Nullable String etag, byte @NotNull [] body, long expiresAt) {
+
+    public boolean isFresh() {
+      return System.currentTimeMillis() < expiresAt;
+    }
+  }
+
+  /**
+   * Returns the cache key for a request.
+   *
+   * @param endpoint       the endpoint, including the query string.
+   * @param keepDefHeaders if the default headers of the sender are sent.
+   * @param headers        the additional headers.
+   */
+  public static @NotNull String key(
+      @NotNull String endpoint, boolean keepDefHeaders, @Nullable Map<String, String> headers) {
+    final StringBuilder sb = new StringBuilder(endpoint);
+    sb.append(keepDefHeaders ? "\n+" : "\n-");
+    if (headers != null) {
+      final TreeMap<String, String> sorted = new TreeMap<>();
+      headers.forEach((name, value) -> {
+        final String lowerName = name.toLowerCase(Locale.ROOT);
+        if (!IGNORED_HEADERS.contains(lowerName)) sorted.put(lowerName, value);
+      });
+      sorted.forEach((name, value) -> sb.append('\n').append(name).append(':').append(value));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns the cached response for the given key. Expired responses without an {@code ETag} are removed, as they can't be revalidated.
+   */
+  public synchronized @Nullable Entry get(@NotNull String key) {
+    final Entry entry = entries.get(key);
+    if (entry != null && entry.etag() == null && !entry.isFresh()) {
+      remove(key);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Updates the cached response after the remote storage confirmed that it did not change ({@code 304 Not Modified}).
+   *
+   * @param headers the headers of the {@code 304} response.
+   * @return the updated entry.
+   */
+  public @NotNull Entry revalidated(@NotNull String key, @NotNull Entry entry, @NotNull HttpHeaders headers) {
+    final long expiresAt = expiresAt(headers);
+    if (expiresAt < 0) {
+      synchronized (this) {
+        remove(key);
+      }
+      return entry;
+    }
+    final Entry updated = new Entry(headers.firstValue(ETAG).orElse(entry.etag()), entry.body(), expiresAt);
+    put(key, updated);
+    return updated;
+  }
+
+  /**
+   * Returns the given response with a body that stores the response in the cache, when it is read completely. Responses that are not
+   * cacheable are returned as they are.
+   */
+  public @NotNull HttpResponse<InputStream> store(@NotNull String key, @NotNull HttpResponse<InputStream> response) {
+    if (response.statusCode() != 200) return response;
+    final HttpHeaders headers = response.headers();
+    final List<String> encodings = headers.allValues(CONTENT_ENCODING);
+    final boolean gzip = encodings.size() == 1 && GZIP.equalsIgnoreCase(encodings.get(0));
+    if (!encodings.isEmpty() && !gzip) return response;
+    final String etag = headers.firstValue(ETAG).orElse(null);
+    final long expiresAt = expiresAt(headers);
+    if (expiresAt < 0 || (etag == null && expiresAt <= System.currentTimeMillis())) return response;
+    return new CacheResponse(
+        response.request(),
+        response.statusCode(),
+        headers,
+        new CachingInputStream(response.body(), key, etag, expiresAt, gzip));
+  }
+
+  /**
+   * Returns a response for the given request, with the cached body.
+   */
+  public @NotNull HttpResponse<InputStream> toResponse(@NotNull HttpRequest request, @NotNull Entry entry) {
+    final Map<String, List<String>> headers = entry.etag() == null
+        ? Map.of(CONTENT_ENCODING, List.of(GZIP))
+        : Map.of(CONTENT_ENCODING, List.of(GZIP), ETAG, List.of(entry.etag()));
+    return new CacheResponse(
+        request, 200, HttpHeaders.of(headers, (name, value) -> true), new ByteArrayInputStream(entry.body()));
+  }
+
+  /**
+   * Returns the epoch millis until which the response with the given headers may be returned from the cache; {@code -1}, if it must not be
+   * cached.
+   */
+  long expiresAt(@NotNull HttpHeaders headers) {
+    long ttl = ttlMillis;
+    for (final String value : headers.allValues(CACHE_CONTROL)) {
+      for (final String directive : value.split(",")) {
+        final String d = directive.trim().toLowerCase(Locale.ROOT);
+        if (d.equals("no-store")) return -1;
+        if (d.equals("no-cache")) ttl = 0;
+        else if (d.startsWith("max-age=")) {
+          try {
+            ttl = Math.min(ttl, TimeUnit.SECONDS.toMillis(Long.parseLong(d.substring(8).trim())));
+          } catch (NumberFormatException ignore) {
+            ttl = 0;
+          }
+        }
+      }
+    }
+    return System.currentTimeMillis() + Math.max(0, ttl);
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  private void put(@NotNull String key, @NotNull Entry entry) {
+    if (entry.body().length > maxEntryBytes) return;
+    synchronized (this) {
+      remove(key);
+      entries.put(key, entry);
+      bytes += entry.body().length;
+      final var it = entries.values().iterator();
+      while (bytes > maxBytes && it.hasNext()) {
+        bytes -= it.next().body().length;
+        it.remove();
+      }
+    }
+  }
+
+  private void remove(@NotNull String key) {
+    final Entry removed = entries.remove(key);
+    if (removed != null) bytes -= removed.body().length;
+  }
+
+  private static byte @NotNull [] gzip(byte @NotNull [] raw) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(raw);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Copies the raw body while it is read and stores it in the cache, when the end of the body is reached. Bodies larger than the maximal
+   * entry size are not stored.
+   */
+  private final class CachingInputStream extends FilterInputStream {
+
+    private final @NotNull String key;
+    private final @Nullable String etag;
+    private final long expiresAt;
+    private final boolean gzip;
+    private @Nullable ByteArrayOutputStream copy = new ByteArrayOutputStream();
+    private boolean eof;
+
+    CachingInputStream(
+        @NotNull InputStream in, @NotNull String key, @Nullable String etag, long expiresAt, boolean gzip) {
+      super(in);
+      this.key = key;
+      this.etag = etag;
+      this.expiresAt = expiresAt;
+      this.gzip = gzip;
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = super.read();
+      if (b < 0) eof = true;
+      else if (copy != null) {
+        copy.write(b);
+        if (copy.size() > maxEntryBytes) copy = null;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte @NotNull [] b, int off, int len) throws IOException {
+      final int n = super.read(b, off, len);
+      if (n < 0) eof = true;
+      else if (copy != null) {
+        copy.write(b, off, n);
+        if (copy.size() > maxEntryBytes) copy = null;
+      }
+      return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      // Skipped bytes must be copied as well.
+      final byte[] buffer = new byte[(int) Math.min(n, 8192)];
+      long skipped = 0;
+      while (skipped < n) {
+        final int r = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+        if (r < 0) break;
+        skipped += r;
+      }
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        // The consumer may stop shortly before the end of the body, for example before the gzip trailer. When it stops earlier, the body
+        // is not cached, rather than reading the rest of it.
+        final byte[] buffer = new byte[8192];
+        long drained = 0;
+        while (copy != null && !eof && drained < MAX_DRAIN_BYTES) {
+          final int n = read(buffer, 0, buffer.length);
+          if (n > 0) drained += n;
+        }
+      } catch (IOException e) {
+        copy = null;
+      } finally {
+        super.close();
+      }
+      if (copy != null && eof) {
+        final byte[] raw = copy.toByteArray();
+        copy = null;
+        put(key, new Entry(etag, gzip ? raw : gzip(raw), expiresAt));
+      }
+    }
+  }
+
+  private static final class CacheResponse implements HttpResponse<InputStream> {
+
+    private final @NotNull HttpRequest request;
+    private final int statusCode;
+    private final @NotNull HttpHeaders headers;
+    private final @NotNull InputStream body;
+
+    CacheResponse(@NotNull HttpRequest request, int statusCode, @NotNull HttpHeaders headers, @NotNull InputStream body) {
+      this.request = request;
+      this.statusCode = statusCode;
+      this.headers = headers;
+      this.body = body;
+    }
+
+    @Override
+    public int statusCode() {
+      return statusCode;
+    }
+
+    @Override
+    public HttpRequest request() {
+      return request;
+    }
+
+    @Override
+    public Optional<HttpResponse<InputStream>> previousResponse() {
+      return Optional.empty();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+      return headers;
+    }
+
+    @Override
+    public InputStream body() {
+      return body;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+      return Optional.empty();
+    }
+
+    @Override
+    public URI uri() {
+      return request.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+      return HttpClient.Version.HTTP_1_1;
+    }
+  }
+}
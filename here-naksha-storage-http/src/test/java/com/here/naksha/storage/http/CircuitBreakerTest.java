@@ -0,0 +1,62 @@
+package com.here.naksha.storage.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.here.naksha.storage.http.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    @Test
+    void t01_openAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60);
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(State.CLOSED, breaker.state());
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertEquals(State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void t02_halfOpenProbe() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.state());
+
+        // Only a single probe is let through.
+        assertTrue(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.state());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void t03_disabled() {
+        CircuitBreaker breaker = new CircuitBreaker(0, 60);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        assertEquals(State.CLOSED, breaker.state());
+    }
+}
@@ -0,0 +1,93 @@
+package com.here.naksha.storage.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FeatureStreamCursorTest {
+
+  @Test
+  void t01_readCollection() {
+    String json = """
+            {
+              "type": "FeatureCollection",
+              "nextPageToken": {"a": [1, 2, {"b": null}]},
+              "features": [
+                {"type": "Feature", "id": "f1", "properties": {}},
+                {"type": "Feature", "id": "f2", "properties": {"features": []}}
+              ],
+              "handle": "x"
+            }
+            """;
+
+    assertEquals(List.of("f1", "f2"), readIds(json, false));
+  }
+
+  @Test
+  void t02_readEmptyCollection() {
+    assertEquals(List.of(), readIds("{\"type\": \"FeatureCollection\", \"features\": []}", false));
+    assertEquals(List.of(), readIds("{\"type\": \"FeatureCollection\"}", false));
+    assertEquals(List.of(), readIds("", false));
+  }
+
+  @Test
+  void t03_readSingleFeature() {
+    assertEquals(List.of("f1"), readIds("{\"type\": \"Feature\", \"id\": \"f1\", \"properties\": {}}", true));
+  }
+
+  @Test
+  void t04_throwOnMalformedCollection() {
+    try (FeatureStreamCursor cursor = new FeatureStreamCursor(stream("{\"features\": {}}"), false)) {
+      assertThrows(UncheckedIOException.class, cursor::hasNext);
+    }
+  }
+
+  @Test
+  void t05_closeBodyWhenExhausted() {
+    TrackingStream body = new TrackingStream("{\"features\": [{\"type\": \"Feature\", \"id\": \"f1\"}]}");
+    FeatureStreamCursor cursor = new FeatureStreamCursor(body, false);
+
+    assertTrue(cursor.hasNext());
+    cursor.next();
+    assertFalse(body.closed);
+    assertFalse(cursor.hasNext());
+    assertTrue(body.closed);
+  }
+
+  private static List<String> readIds(String json, boolean singleFeature) {
+    List<String> ids = new ArrayList<>();
+    try (FeatureStreamCursor cursor = new FeatureStreamCursor(stream(json), singleFeature)) {
+      while (cursor.hasNext()) {
+        cursor.next();
+        ids.add(cursor.getId());
+      }
+    }
+    return ids;
+  }
+
+  private static InputStream stream(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static class TrackingStream extends ByteArrayInputStream {
+    boolean closed;
+
+    TrackingStream(String json) {
+      super(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
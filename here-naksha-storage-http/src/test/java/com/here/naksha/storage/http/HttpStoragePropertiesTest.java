@@ -38,6 +38,8 @@ class HttpStoragePropertiesTest {
         assertEquals(HttpStorageProperties.DEF_SOCKET_TIMEOUT_SEC, properties.getSocketTimeout());
 
         assertEquals(HttpStorageProperties.DEFAULT_HEADERS, properties.getHeaders());
+        assertEquals(HttpStorageProperties.DEF_SPLIT_LEVELS, properties.getSplitLevels());
+        assertEquals(HttpStorageProperties.DEF_SPLIT_PARALLELISM, properties.getSplitParallelism());
     }
 
     @Test
@@ -0,0 +1,48 @@
+package com.here.naksha.storage.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.here.naksha.lib.core.NakshaContext;
+import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.WebMercatorTile;
+import com.here.naksha.lib.core.models.payload.events.clustering.ClusteringHexBin;
+import com.here.naksha.lib.core.models.storage.ErrorResult;
+import com.here.naksha.lib.core.models.storage.ReadFeatures;
+import com.here.naksha.lib.core.models.storage.Result;
+import org.junit.jupiter.api.Test;
+
+class HttpStorageReadSessionTest {
+
+    private final RequestSender requestSender = mock(RequestSender.class);
+
+    private final HttpStorageReadSession session = new HttpStorageReadSession(
+            new NakshaContext().withAppId("HTTP_STORAGE_TEST"),
+            false,
+            requestSender,
+            new HttpStorageProperties("http://localhost", null, null, null));
+
+    @Test
+    void t01_clusteringNotImplemented() {
+        ReadFeatures request = new ReadFeatures("foo").withClustering(new ClusteringHexBin(), 10);
+
+        Result result = session.execute(request);
+
+        assertInstanceOf(ErrorResult.class, result);
+        assertEquals(XyzError.NOT_IMPLEMENTED, ((ErrorResult) result).reason);
+        verifyNoInteractions(requestSender);
+    }
+
+    @Test
+    void t02_mvtNotImplemented() {
+        ReadFeatures request = new ReadFeatures("foo").withMvt(WebMercatorTile.forWeb(10, 1, 1), null);
+
+        Result result = session.execute(request);
+
+        assertInstanceOf(ErrorResult.class, result);
+        assertEquals(XyzError.NOT_IMPLEMENTED, ((ErrorResult) result).reason);
+        verifyNoInteractions(requestSender);
+    }
+}
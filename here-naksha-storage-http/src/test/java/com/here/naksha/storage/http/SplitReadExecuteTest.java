@@ -0,0 +1,182 @@
+package com.here.naksha.storage.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.here.naksha.lib.core.models.XyzError;
+import com.here.naksha.lib.core.models.geojson.coordinates.BBox;
+import com.here.naksha.lib.core.models.geojson.implementation.XyzFeature;
+import com.here.naksha.lib.core.models.storage.ErrorResult;
+import com.here.naksha.lib.core.models.storage.ForwardCursor;
+import com.here.naksha.lib.core.models.storage.Result;
+import com.here.naksha.lib.core.models.storage.XyzFeatureCodec;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class SplitReadExecuteTest {
+
+    @Test
+    void t01_noSplitWhenDisabled() {
+        List<BBox> boxes = SplitReadExecute.splitBBox(8.0, 50.0, 9.0, 51.0, 0);
+
+        assertEquals(1, boxes.size());
+        assertEquals(8.0, boxes.get(0).minLon());
+        assertEquals(51.0, boxes.get(0).maxLat());
+    }
+
+    @Test
+    void t02_splitBBoxCoversRequest() {
+        double west = 8.0, south = 50.0, east = 9.0, north = 51.0;
+        List<BBox> boxes = SplitReadExecute.splitBBox(west, south, east, north, 2);
+
+        assertTrue(boxes.size() > 1);
+        assertTrue(boxes.size() <= SplitReadExecute.MAX_SPLIT_REQUESTS);
+        double area = 0;
+        for (BBox box : boxes) {
+            assertTrue(box.minLon() >= west && box.maxLon() <= east);
+            assertTrue(box.minLat() >= south && box.maxLat() <= north);
+            area += (box.maxLon() - box.minLon()) * (box.maxLat() - box.minLat());
+        }
+        assertEquals((east - west) * (north - south), area, 1e-9);
+    }
+
+    @Test
+    void t03_splitQuadkey() {
+        assertEquals(List.of("120", "121", "122", "123"), SplitReadExecute.splitQuadkey("12", 1));
+        assertEquals(16, SplitReadExecute.splitQuadkey("12", 2).size());
+        assertEquals(64, SplitReadExecute.splitQuadkey("12", 10).size());
+        assertEquals(List.of("12"), SplitReadExecute.splitQuadkey("12", 0));
+    }
+
+    @Test
+    void t04_executeMergesResponsesInTurn() throws Exception {
+        RequestSender sender = senderReturning(Map.of(
+                "/a", collection("a1", "a2"),
+                "/b", collection("b1"),
+                "/c", collection("c1", "c2")));
+
+        Result result = SplitReadExecute.execute(List.of("/a", "/b", "/c"), Map.of(), sender, 3, Long.MAX_VALUE);
+
+        // One feature of every response in turn, so that a limit does not cut off the last responses only.
+        assertEquals(List.of("a1", "b1", "c1", "a2", "c2"), ids(result));
+    }
+
+    @Test
+    void t05_executeRemovesDuplicatesById() throws Exception {
+        RequestSender sender = senderReturning(Map.of(
+                "/a", collection("shared", "a1"),
+                "/b", collection("b1", "shared"),
+                "/c", collection("shared")));
+
+        Result result = SplitReadExecute.execute(List.of("/a", "/b", "/c"), Map.of(), sender, 2, Long.MAX_VALUE);
+
+        assertEquals(List.of("shared", "b1", "a1"), ids(result));
+    }
+
+    @Test
+    void t06_executeCutsOffAtLimit() throws Exception {
+        RequestSender sender = senderReturning(Map.of(
+                "/a", collection("a1", "a2", "a3"),
+                "/b", collection("a1", "b1", "b2"),
+                "/c", collection("c1")));
+
+        Result result = SplitReadExecute.execute(List.of("/a", "/b", "/c"), Map.of(), sender, 3, 4);
+
+        // The duplicate does not count against the limit, and the limit cuts off the responses evenly.
+        assertEquals(List.of("a1", "b1", "c1", "a2"), ids(result));
+    }
+
+    @Test
+    void t09_splitLimit() {
+        assertEquals(100, SplitReadExecute.splitLimit(100, 1));
+        // Twice the even share of the limit, rounded up.
+        assertEquals(4, SplitReadExecute.splitLimit(100, 64));
+        assertEquals(50, SplitReadExecute.splitLimit(100, 4));
+        // Never more than the limit itself.
+        assertEquals(1, SplitReadExecute.splitLimit(1, 64));
+        assertEquals(3, SplitReadExecute.splitLimit(3, 2));
+        assertEquals(Long.MAX_VALUE, SplitReadExecute.splitLimit(Long.MAX_VALUE, 1));
+        assertEquals(Long.MAX_VALUE, SplitReadExecute.splitLimit(Long.MAX_VALUE, 2));
+    }
+
+    @Test
+    void t07_executeReturnsErrorResult() {
+        RequestSender sender = mock(RequestSender.class);
+        HttpResponse<InputStream> ok = response(200, collection("a1"));
+        HttpResponse<InputStream> failed = response(502, "");
+        when(sender.sendRequest(eq("/a"), any())).thenReturn(ok);
+        when(sender.sendRequest(eq("/b"), any())).thenReturn(failed);
+
+        Result result = SplitReadExecute.execute(List.of("/a", "/b"), Map.of(), sender, 1, Long.MAX_VALUE);
+
+        ErrorResult error = assertInstanceOf(ErrorResult.class, result);
+        assertEquals(XyzError.BAD_GATEWAY, error.reason);
+    }
+
+    @Test
+    void t08_executePropagatesSenderException() {
+        RequestSender sender = mock(RequestSender.class);
+        IllegalStateException failure = new IllegalStateException("connection refused");
+        HttpResponse<InputStream> ok = response(200, collection("a1"));
+        when(sender.sendRequest(eq("/a"), any())).thenReturn(ok);
+        when(sender.sendRequest(eq("/b"), any())).thenThrow(failure);
+
+        // The exception is propagated, whether it happens in the calling thread or in a worker.
+        for (int parallelism : new int[] {1, 2}) {
+            IllegalStateException thrown = assertThrows(
+                    IllegalStateException.class,
+                    () -> SplitReadExecute.execute(List.of("/a", "/b"), Map.of(), sender, parallelism, Long.MAX_VALUE));
+            assertSame(failure, thrown);
+        }
+    }
+
+    private static RequestSender senderReturning(Map<String, String> bodies) {
+        RequestSender sender = mock(RequestSender.class);
+        for (Map.Entry<String, String> entry : bodies.entrySet()) {
+            HttpResponse<InputStream> response = response(200, entry.getValue());
+            when(sender.sendRequest(eq(entry.getKey()), any())).thenReturn(response);
+        }
+        return sender;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<InputStream> response(int status, String body) {
+        HttpResponse<InputStream> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenAnswer(invocation -> new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        when(response.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        return response;
+    }
+
+    private static String collection(String... ids) {
+        return Arrays.stream(ids)
+                .map(id -> "{\"type\": \"Feature\", \"id\": \"" + id + "\", \"properties\": {}}")
+                .collect(Collectors.joining(",", "{\"type\": \"FeatureCollection\", \"features\": [", "]}"));
+    }
+
+    private static List<String> ids(Result result) throws Exception {
+        List<String> ids = new ArrayList<>();
+        try (ForwardCursor<XyzFeature, XyzFeatureCodec> cursor = result.getXyzFeatureCursor()) {
+            while (cursor.next()) {
+                ids.add(cursor.getId());
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,134 @@
+package com.here.naksha.storage.http.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+  private static final HttpRequest REQUEST = HttpRequest.newBuilder(URI.create("http://www.example.naksha.com/a")).build();
+
+  @Test
+  void t01_keyIgnoresStreamId() {
+    assertEquals(
+            ResponseCache.key("/a?limit=1", true, Map.of("Stream-Id", "1", "X-Foo", "bar")),
+            ResponseCache.key("/a?limit=1", true, Map.of("Stream-Id", "2", "x-foo", "bar"))
+    );
+    assertNotEquals(
+            ResponseCache.key("/a?limit=1", true, Map.of("X-Foo", "bar")),
+            ResponseCache.key("/a?limit=1", true, Map.of("X-Foo", "baz"))
+    );
+    assertNotEquals(ResponseCache.key("/a", true, null), ResponseCache.key("/a", false, null));
+  }
+
+  @Test
+  void t02_expiresAtHonorsCacheControl() {
+    ResponseCache cache = new ResponseCache(1024, 60);
+    long now = System.currentTimeMillis();
+
+    assertEquals(-1, cache.expiresAt(headers("Cache-Control", "private, no-store")));
+    assertTrue(cache.expiresAt(headers("Cache-Control", "no-cache")) <= System.currentTimeMillis());
+    long maxAge = cache.expiresAt(headers("Cache-Control", "max-age=10"));
+    assertTrue(maxAge >= now + 10_000 && maxAge <= System.currentTimeMillis() + 10_000);
+    long ttl = cache.expiresAt(headers("Cache-Control", "max-age=3600"));
+    assertTrue(ttl <= System.currentTimeMillis() + 60_000);
+  }
+
+  @Test
+  void t03_storeWhenBodyIsRead() throws IOException {
+    ResponseCache cache = new ResponseCache(1024 * 1024, 60);
+    String key = ResponseCache.key("/a", true, null);
+    HttpResponse<InputStream> response = cache.store(key, cache.toResponse(REQUEST, entry("\"v1\"", "{}", 0)));
+
+    assertEquals(0, cache.size());
+    assertEquals("{}", read(response));
+    assertEquals(1, cache.size());
+
+    ResponseCache.Entry cached = cache.get(key);
+    assertNotNull(cached);
+    assertTrue(cached.isFresh());
+    assertEquals("\"v1\"", cached.etag());
+    assertEquals("{}", read(cache.toResponse(REQUEST, cached)));
+  }
+
+  @Test
+  void t04_revalidate() throws IOException {
+    ResponseCache cache = new ResponseCache(1024 * 1024, 60);
+    ResponseCache.Entry stale = entry("\"v1\"", "{}", 0);
+
+    ResponseCache.Entry updated = cache.revalidated("a", stale, headers("ETag", "\"v1\""));
+    assertTrue(updated.isFresh());
+    assertSame(updated, cache.get("a"));
+    assertEquals("{}", read(cache.toResponse(REQUEST, updated)));
+
+    cache.revalidated("a", stale, headers("Cache-Control", "no-store"));
+    assertNull(cache.get("a"));
+  }
+
+  @Test
+  void t05_evictLeastRecentlyUsed() throws IOException {
+    ResponseCache.Entry entry = entry(null, "{}", Long.MAX_VALUE);
+    ResponseCache cache = new ResponseCache(entry.body().length * 4L, 60);
+
+    for (int i = 0; i < 5; i++) {
+      cache.revalidated("k" + i, entry, headers("ETag", "\"" + i + "\""));
+      cache.get("k0");
+    }
+    assertEquals(4, cache.size());
+    assertNotNull(cache.get("k0"));
+    assertNull(cache.get("k1"));
+  }
+
+  @Test
+  void t06_notStoredWhenClosedEarly() throws IOException {
+    ResponseCache cache = new ResponseCache(16 * 1024 * 1024, 60);
+    String key = ResponseCache.key("/a", true, null);
+
+    // Shortly before the end, the rest of the body is read to complete the copy.
+    InputStream body = cache.store(key, cache.toResponse(REQUEST, entry("\"v1\"", "{}", 0))).body();
+    body.close();
+    assertNotNull(cache.get(key));
+
+    // Far before the end, the body is not read to its end and not stored.
+    byte[] large = new byte[ResponseCache.MAX_DRAIN_BYTES * 4];
+    new Random(1).nextBytes(large);
+    String largeKey = ResponseCache.key("/large", true, null);
+    body = cache.store(largeKey, cache.toResponse(REQUEST, new ResponseCache.Entry("\"v2\"", large, 0))).body();
+    assertEquals(16, body.read(new byte[16]));
+    body.close();
+    assertNull(cache.get(largeKey));
+  }
+
+  private static HttpHeaders headers(String name, String value) {
+    return HttpHeaders.of(Map.of(name, List.of(value)), (n, v) -> true);
+  }
+
+  private static ResponseCache.Entry entry(String etag, String body, long expiresAt) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(body.getBytes(StandardCharsets.UTF_8));
+    }
+    return new ResponseCache.Entry(etag, out.toByteArray(), expiresAt);
+  }
+
+  private static String read(HttpResponse<InputStream> response) throws IOException {
+    assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElseThrow());
+    try (InputStream body = new GZIPInputStream(response.body())) {
+      return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}